@@ -0,0 +1,68 @@
+package com.bookmymovie;
+
+import com.bookmymovie.dto.request.BookingCreateRequestDto;
+import com.bookmymovie.service.BookingService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.openjdk.jmh.annotations.*;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * SpEL lock key resolution in {@link DistributedLockAspect}, which runs on every call to a
+ * {@code @DistributedLock} method before the lock is even requested. Expressions are compiled
+ * per method, so each key shape gets its own aspect.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DistributedLockKeyBenchmark {
+
+    private DistributedLockAspect showKeyAspect;
+    private DistributedLockAspect compositeKeyAspect;
+    private ProceedingJoinPoint joinPoint;
+
+    @Setup
+    public void setUp() throws NoSuchMethodException {
+        showKeyAspect = new DistributedLockAspect(null, new SimpleMeterRegistry(), Runnable::run);
+        compositeKeyAspect = new DistributedLockAspect(null, new SimpleMeterRegistry(), Runnable::run);
+
+        Method method = BookingService.class.getMethod("initiateBooking", BookingCreateRequestDto.class);
+        Object[] args = {BookingCreateRequestDto.builder()
+                .showId(42L)
+                .userId(7L)
+                .seatIds(List.of(101L, 102L, 103L))
+                .build()};
+
+        MethodSignature signature = (MethodSignature) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[]{MethodSignature.class}, (proxy, invoked, invokedArgs) -> switch (invoked.getName()) {
+                    case "getMethod" -> method;
+                    case "toShortString" -> "BookingService.initiateBooking(..)";
+                    default -> throw new UnsupportedOperationException(invoked.getName());
+                });
+        joinPoint = (ProceedingJoinPoint) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[]{ProceedingJoinPoint.class}, (proxy, invoked, invokedArgs) -> switch (invoked.getName()) {
+                    case "getSignature" -> signature;
+                    case "getArgs" -> args;
+                    default -> throw new UnsupportedOperationException(invoked.getName());
+                });
+    }
+
+    @Benchmark
+    public String showKey() {
+        return showKeyAspect.generateLockKey("'booking:show:' + #request.showId", joinPoint);
+    }
+
+    @Benchmark
+    public String compositeKey() {
+        return compositeKeyAspect.generateLockKey("'booking:' + #className + ':' + #request.showId + ':' + #request.seatIds[0]",
+                joinPoint);
+    }
+}
@@ -0,0 +1,273 @@
+package com.bookmymovie.benchmark;
+
+import com.bookmymovie.constants.MovieConstant;
+import com.bookmymovie.constants.TheaterConstant;
+import com.bookmymovie.constants.UserConstant;
+import com.bookmymovie.entity.*;
+import com.bookmymovie.repository.BookingRepository;
+import com.bookmymovie.repository.SeatRepository;
+import com.bookmymovie.repository.ShowRepository;
+import com.bookmymovie.service.BookingService;
+import com.bookmymovie.service.PricingEngine;
+import com.bookmymovie.service.ScreenLayoutEventBus;
+import com.bookmymovie.service.SeatEventBus;
+import com.bookmymovie.service.SeatInventoryService;
+import com.bookmymovie.service.SeatMapSnapshotService;
+import com.bookmymovie.service.ShowListingEventBus;
+
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+
+/**
+ * Entities and in-memory repository stand-ins shared by the benchmarks.
+ * Repositories are answered by dynamic proxies from fixed data, so the measured code runs
+ * exactly as in the application minus the database round trip.
+ */
+final class BenchmarkFixtures {
+
+    static final long SHOW_ID = 1L;
+    static final long SCREEN_ID = 1L;
+    static final int ROWS = 20;
+    static final int SEATS_PER_ROW = 20;
+
+    // Application defaults from the pricing block of application.yml
+    static final PricingEngine PRICING_ENGINE = new PricingEngine(BigDecimal.valueOf(1.5), BigDecimal.valueOf(1.8),
+            BigDecimal.valueOf(2.0), BigDecimal.valueOf(1.3), BigDecimal.valueOf(2.5),
+            BigDecimal.valueOf(0.05), BigDecimal.valueOf(0.18));
+
+    private BenchmarkFixtures() {
+    }
+
+    static Theater theater() {
+        return Theater.builder()
+                .theaterId(1L)
+                .name("PVR Orion Mall")
+                .address("Dr Rajkumar Road, Rajajinagar")
+                .city("Bangalore")
+                .state("Karnataka")
+                .pincode("560055")
+                .theaterType(TheaterConstant.TheaterType.MULTIPLEX)
+                .build();
+    }
+
+    static Screen screen(Theater theater) {
+        return Screen.builder()
+                .screenId(SCREEN_ID)
+                .name("Audi 1")
+                .theater(theater)
+                .screenType(TheaterConstant.ScreenType.REGULAR_2D)
+                .totalRows(ROWS)
+                .totalSeats(ROWS * SEATS_PER_ROW)
+                .build();
+    }
+
+    static Movie movie() {
+        return Movie.builder()
+                .movieId(1L)
+                .title("Interstellar")
+                .durationMinutes(169)
+                .language(MovieConstant.Language.ENGLISH)
+                .rating(MovieConstant.Rating.UA)
+                .build();
+    }
+
+    /**
+     * Saturday prime-time show, so every pricing multiplier branch is taken
+     */
+    static Show show(Movie movie, Screen screen) {
+        LocalDate date = LocalDate.now().plusWeeks(1).with(TemporalAdjusters.nextOrSame(DayOfWeek.SATURDAY));
+        return show(movie, screen, date, LocalTime.of(19, 30));
+    }
+
+    static Show show(Movie movie, Screen screen, LocalDate date, LocalTime time) {
+        LocalDateTime showDateTime = LocalDateTime.of(date, time);
+        return Show.builder()
+                .showId(SHOW_ID)
+                .movie(movie)
+                .screen(screen)
+                .showDate(date)
+                .showTime(time)
+                .showDateTime(showDateTime)
+                .endTime(showDateTime.plusMinutes(movie.getDurationMinutes() + 15))
+                .basePrice(BigDecimal.valueOf(250))
+                .totalSeats(screen.getTotalSeats())
+                .availableSeats(screen.getTotalSeats())
+                .build();
+    }
+
+    /**
+     * Front three rows are premium seats with their own price; the rest fall back to the show price
+     */
+    static List<Seat> seats(Screen screen) {
+        List<Seat> seats = new ArrayList<>(ROWS * SEATS_PER_ROW);
+        long seatId = 1;
+        for (int row = 0; row < ROWS; row++) {
+            boolean premium = row < 3;
+            for (int number = 1; number <= SEATS_PER_ROW; number++) {
+                Seat seat = Seat.builder()
+                        .seatId(seatId++)
+                        .screen(screen)
+                        .rowLabel(String.valueOf((char) ('A' + row)))
+                        .rowNumber(row + 1)
+                        .seatNumber(number)
+                        .category(premium ? TheaterConstant.SeatCategory.PREMIUM : TheaterConstant.SeatCategory.REGULAR)
+                        .basePrice(premium ? BigDecimal.valueOf(450) : null)
+                        .seatType(premium ? TheaterConstant.SeatType.RECLINER : TheaterConstant.SeatType.REGULAR)
+                        .features(premium
+                                ? new ArrayList<>(List.of(TheaterConstant.SeatFeature.CUP_HOLDER, TheaterConstant.SeatFeature.FOOTREST))
+                                : new ArrayList<>())
+                        .build();
+                seats.add(seat);
+            }
+        }
+        return seats;
+    }
+
+    static User user() {
+        return User.builder()
+                .userId(1L)
+                .email("rahul.sharma@example.com")
+                .firstName("Rahul")
+                .lastName("Sharma")
+                .phoneNumber("9876543210")
+                .role(UserConstant.UserRole.USER)
+                .isActive(true)
+                .build();
+    }
+
+    static Booking confirmedBooking(Show show, User user, List<Seat> seats) {
+        Booking booking = Booking.builder()
+                .bookingId(1L)
+                .bookingReference("BMM20250101ABC123")
+                .user(user)
+                .show(show)
+                .bookingDate(LocalDateTime.now())
+                .expiryTime(LocalDateTime.now().plusMinutes(15))
+                .numberOfSeats(seats.size())
+                .totalAmount(BigDecimal.valueOf(2700))
+                .finalAmount(BigDecimal.valueOf(3345.30))
+                .status(Booking.BookingStatus.CONFIRMED)
+                .paymentStatus(Booking.PaymentStatus.COMPLETED)
+                .paymentMethod(Booking.PaymentMethod.UPI)
+                .paymentReference("PAY123456")
+                .paymentDate(LocalDateTime.now())
+                .contactEmail(user.getEmail())
+                .contactPhone(user.getPhoneNumber())
+                .build();
+
+        List<BookingSeat> bookingSeats = new ArrayList<>();
+        for (Seat seat : seats) {
+            bookingSeats.add(BookingSeat.builder()
+                    .booking(booking)
+                    .seat(seat)
+                    .seatPrice(seat.getBasePrice() != null ? seat.getBasePrice() : PRICING_ENGINE.actualPrice(show))
+                    .seatCategory(seat.getCategory().toString())
+                    .seatRow(seat.getRowLabel())
+                    .seatNumber(seat.getSeatNumber())
+                    .build());
+        }
+        booking.setBookedSeats(bookingSeats);
+        return booking;
+    }
+
+    /**
+     * One show on a 400-seat screen with a share of the seats booked, wired into the real
+     * {@link BookingService}, {@link SeatInventoryService} and {@link SeatMapSnapshotService}
+     * over stand-in repositories. Redis-backed collaborators are left out; the benchmarked
+     * read paths never reach them.
+     */
+    static final class Scenario {
+        final Show show;
+        final List<Seat> seats;
+        final Booking booking;
+        final SeatInventoryService seatInventoryService;
+        final SeatMapSnapshotService seatMapSnapshotService;
+        final BookingService bookingService;
+
+        Scenario() {
+            this(25);
+        }
+
+        Scenario(int occupancyPercent) {
+            Screen screen = screen(theater());
+            show = show(movie(), screen);
+            seats = seats(screen);
+            booking = confirmedBooking(show, user(), seats.subList(60, 66));
+
+            Map<Long, Seat> seatsById = new HashMap<>();
+            seats.forEach(seat -> seatsById.put(seat.getSeatId(), seat));
+
+            List<Object[]> seatStates = new ArrayList<>();
+            List<Object[]> bookedStates = new ArrayList<>();
+            for (Seat seat : seats) {
+                seatStates.add(new Object[]{seat.getSeatId(), seat.getStatus()});
+                if (seat.getSeatId() % 100 < occupancyPercent) {
+                    bookedStates.add(new Object[]{seat.getSeatId(), Booking.BookingStatus.CONFIRMED, null, null});
+                }
+            }
+
+            ShowRepository showRepository = standIn(ShowRepository.class, Map.of(
+                    "findById", args -> Optional.of(show),
+                    "findByIdWithDetails", args -> Optional.of(show),
+                    "findScreenAndStartByShowId", args -> List.<Object[]>of(new Object[]{SCREEN_ID, show.getShowDateTime()}),
+                    "findUpcomingShowIdsByScreen", args -> List.of(SHOW_ID)));
+            SeatRepository seatRepository = standIn(SeatRepository.class, Map.of(
+                    "findAllById", args -> {
+                        List<Seat> found = new ArrayList<>();
+                        ((Iterable<?>) args[0]).forEach(id -> found.add(seatsById.get((Long) id)));
+                        return found;
+                    },
+                    "findSeatStatesByScreen", args -> seatStates,
+                    "findLayoutByScreenWithFeatures", args -> seats));
+            BookingRepository bookingRepository = standIn(BookingRepository.class, Map.of(
+                    "findById", args -> Optional.of(booking),
+                    "findDetailsById", args -> Optional.of(booking),
+                    "getActiveSeatStatesForShow", args -> bookedStates));
+
+            seatInventoryService = new SeatInventoryService(
+                    seatRepository, bookingRepository, showRepository, null, new SeatEventBus(null),
+                    new ShowListingEventBus(null), new ScreenLayoutEventBus(null));
+            seatMapSnapshotService = new SeatMapSnapshotService(showRepository, seatRepository, PRICING_ENGINE,
+                    new ShowListingEventBus(null), new ScreenLayoutEventBus(null), 1000, 100, 3600);
+            bookingService = new BookingService(null, bookingRepository, showRepository, seatRepository,
+                    null, null, null, seatInventoryService, null, seatMapSnapshotService, event -> { },
+                    PRICING_ENGINE);
+        }
+    }
+
+    /**
+     * In-memory stand-in for a repository interface. Each entry maps a method name to its answer;
+     * calling anything else fails loudly so a benchmark never silently measures a null path.
+     */
+    @SuppressWarnings("unchecked")
+    static <R> R standIn(Class<R> type, Map<String, Function<Object[], Object>> answers) {
+        return (R) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (proxy, method, args) -> {
+            switch (method.getName()) {
+                case "toString":
+                    return "StandIn(" + type.getSimpleName() + ")";
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "equals":
+                    return proxy == args[0];
+                default:
+                    Function<Object[], Object> answer = answers.get(method.getName());
+                    if (answer == null) {
+                        throw new UnsupportedOperationException(
+                                type.getSimpleName() + " stand-in does not answer " + method.getName());
+                    }
+                    return answer.apply(args);
+            }
+        });
+    }
+}
@@ -0,0 +1,60 @@
+package com.bookmymovie.benchmark;
+
+import com.bookmymovie.constants.TheaterConstant;
+import com.bookmymovie.dto.request.SeatAvailabilityRequestDto;
+import com.bookmymovie.dto.response.BookingResponseDto;
+import com.bookmymovie.dto.response.SeatAvailabilityResponseDto;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Response mapping on the read paths: the booking detail DTO and the seat map,
+ * both as a full snapshot and as a delta after a handful of seats changed.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DtoMappingBenchmark {
+
+    private static final List<Long> TOGGLED_SEAT_IDS = List.of(101L, 102L, 103L, 104L);
+
+    private BenchmarkFixtures.Scenario scenario;
+    private SeatAvailabilityRequestDto snapshotRequest;
+    private boolean blocked;
+
+    @Setup
+    public void setUp() {
+        scenario = new BenchmarkFixtures.Scenario();
+        snapshotRequest = SeatAvailabilityRequestDto.builder().showId(BenchmarkFixtures.SHOW_ID).build();
+        scenario.bookingService.getSeatAvailability(snapshotRequest);
+    }
+
+    @Benchmark
+    public BookingResponseDto bookingResponse() {
+        return scenario.bookingService.getBookingById(scenario.booking.getBookingId());
+    }
+
+    @Benchmark
+    public SeatAvailabilityResponseDto seatMapSnapshot() {
+        return scenario.bookingService.getSeatAvailability(snapshotRequest);
+    }
+
+    @Benchmark
+    public SeatAvailabilityResponseDto seatMapDeltaAfterStatusChange() {
+        long sinceVersion = scenario.seatInventoryService.getInventory(BenchmarkFixtures.SHOW_ID).getVersion();
+
+        blocked = !blocked;
+        scenario.seatInventoryService.updateSeatStatus(BenchmarkFixtures.SCREEN_ID, TOGGLED_SEAT_IDS,
+                blocked ? TheaterConstant.SeatStatus.BLOCKED : TheaterConstant.SeatStatus.AVAILABLE);
+
+        return scenario.bookingService.getSeatAvailability(SeatAvailabilityRequestDto.builder()
+                .showId(BenchmarkFixtures.SHOW_ID)
+                .sinceVersion(sinceVersion)
+                .build());
+    }
+}
@@ -0,0 +1,57 @@
+package com.bookmymovie.benchmark;
+
+import com.bookmymovie.security.JwtTokenProvider;
+import com.bookmymovie.security.VerifiedToken;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JWT verification cost per request. {@code authenticationFilter} replays the calls
+ * {@code JwtAuthenticationFilter} makes for one authenticated request; {@code parseAndVerify}
+ * is the signature check and claim parsing a token pays the first time it is seen.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JwtBenchmark {
+
+    private JwtTokenProvider jwtTokenProvider;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        jwtTokenProvider = new JwtTokenProvider();
+        ReflectionTestUtils.setField(jwtTokenProvider, "jwtSecret",
+                "bookmymovie_secret_key_2024_very_long_and_secure_key_here");
+        ReflectionTestUtils.setField(jwtTokenProvider, "jwtExpirationInMs", 86400000L);
+        jwtTokenProvider.init();
+        token = jwtTokenProvider.generateToken(BenchmarkFixtures.user());
+    }
+
+    @Benchmark
+    public Object parseAndVerify() {
+        return jwtTokenProvider.getAllClaimsFromToken(token);
+    }
+
+    @Benchmark
+    public boolean validateToken() {
+        return jwtTokenProvider.validateToken(token);
+    }
+
+    @Benchmark
+    public void authenticationFilter(Blackhole blackhole) {
+        VerifiedToken verified = jwtTokenProvider.verify(token);
+        if (verified != null) {
+            blackhole.consume(verified.getEmail());
+            blackhole.consume(verified.getUserId());
+            blackhole.consume(verified.getRole());
+            blackhole.consume(verified.getPhoneNumber());
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package com.bookmymovie.benchmark;
+
+import com.bookmymovie.dto.request.BookingPricingRequestDto;
+import com.bookmymovie.dto.response.BookingPricingResponseDto;
+import com.bookmymovie.entity.Show;
+import com.bookmymovie.service.PricingEngine;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Ticket pricing: the full quote built by {@code BookingService.calculateBookingPricing},
+ * which looks seat prices up in the show's compiled price table, and the cost of compiling
+ * a table for a show.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PricingBenchmark {
+
+    @Param({"2", "6", "10"})
+    private int seatCount;
+
+    private BenchmarkFixtures.Scenario scenario;
+    private BookingPricingRequestDto request;
+    private Show weekdayMatinee;
+    private Set<Long> seatBasePrices;
+
+    @Setup
+    public void setUp() {
+        scenario = new BenchmarkFixtures.Scenario();
+
+        // Straddle the premium/regular boundary so both seat price paths are taken
+        List<Long> seatIds = new ArrayList<>();
+        for (long seatId = 60 - seatCount / 2 + 1; seatIds.size() < seatCount; seatId++) {
+            seatIds.add(seatId);
+        }
+        request = BookingPricingRequestDto.builder()
+                .showId(BenchmarkFixtures.SHOW_ID)
+                .seatIds(seatIds)
+                .build();
+
+        LocalDate wednesday = LocalDate.now().plusWeeks(1).with(TemporalAdjusters.nextOrSame(DayOfWeek.WEDNESDAY));
+        weekdayMatinee = BenchmarkFixtures.show(scenario.show.getMovie(), scenario.show.getScreen(),
+                wednesday, LocalTime.of(10, 30));
+        seatBasePrices = Set.of(45_000L);
+    }
+
+    @Benchmark
+    public BookingPricingResponseDto calculateBookingPricing() {
+        return scenario.bookingService.calculateBookingPricing(request);
+    }
+
+    @Benchmark
+    public PricingEngine.PriceTable compilePriceTableWeekendPrimeTime() {
+        return BenchmarkFixtures.PRICING_ENGINE.compile(scenario.show, seatBasePrices);
+    }
+
+    @Benchmark
+    public PricingEngine.PriceTable compilePriceTableWeekdayMatinee() {
+        return BenchmarkFixtures.PRICING_ENGINE.compile(weekdayMatinee, seatBasePrices);
+    }
+}
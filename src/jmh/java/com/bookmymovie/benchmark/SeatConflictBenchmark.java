@@ -0,0 +1,106 @@
+package com.bookmymovie.benchmark;
+
+import com.bookmymovie.service.SeatInventoryService;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Checking a seat request against the seats that are already taken.
+ * {@code listContains} is the original {@code unavailableSeatIds::contains} scan over the list
+ * returned by the repository; the alternatives index the taken seats first, and
+ * {@code seatInventory} is the bitset-backed lookup the booking flow uses today.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SeatConflictBenchmark {
+
+    @Param({"10", "50", "90"})
+    private int occupancyPercent;
+
+    @Param({"2", "10"})
+    private int requestedSeats;
+
+    private List<Long> unavailableSeatIds;
+    private BitSet unavailableBits;
+    private List<Long> requestedSeatIds;
+    private SeatInventoryService seatInventoryService;
+
+    @Setup
+    public void setUp() {
+        BenchmarkFixtures.Scenario scenario = new BenchmarkFixtures.Scenario(occupancyPercent);
+        seatInventoryService = scenario.seatInventoryService;
+        seatInventoryService.getInventory(BenchmarkFixtures.SHOW_ID);
+
+        unavailableSeatIds = new ArrayList<>();
+        unavailableBits = new BitSet();
+        scenario.seats.forEach(seat -> {
+            if (seat.getSeatId() % 100 < occupancyPercent) {
+                unavailableSeatIds.add(seat.getSeatId());
+                unavailableBits.set(seat.getSeatId().intValue());
+            }
+        });
+
+        // Seats from the back rows, where a request is most likely to be free
+        requestedSeatIds = new ArrayList<>();
+        for (long seatId = scenario.seats.size(); requestedSeatIds.size() < requestedSeats; seatId--) {
+            requestedSeatIds.add(seatId);
+        }
+    }
+
+    @Benchmark
+    public List<Long> listContains() {
+        return requestedSeatIds.stream()
+                .filter(unavailableSeatIds::contains)
+                .collect(Collectors.toList());
+    }
+
+    @Benchmark
+    public List<Long> hashSetIncludingBuild() {
+        Set<Long> unavailable = new HashSet<>(unavailableSeatIds);
+        return requestedSeatIds.stream()
+                .filter(unavailable::contains)
+                .collect(Collectors.toList());
+    }
+
+    @Benchmark
+    public List<Long> bitSetIncludingBuild() {
+        BitSet unavailable = new BitSet();
+        for (Long seatId : unavailableSeatIds) {
+            unavailable.set(seatId.intValue());
+        }
+        List<Long> conflicts = new ArrayList<>();
+        for (Long seatId : requestedSeatIds) {
+            if (unavailable.get(seatId.intValue())) {
+                conflicts.add(seatId);
+            }
+        }
+        return conflicts;
+    }
+
+    @Benchmark
+    public List<Long> bitSetMaintained() {
+        List<Long> conflicts = new ArrayList<>();
+        for (Long seatId : requestedSeatIds) {
+            if (unavailableBits.get(seatId.intValue())) {
+                conflicts.add(seatId);
+            }
+        }
+        return conflicts;
+    }
+
+    @Benchmark
+    public List<Long> seatInventory() {
+        return seatInventoryService.findUnavailableSeatIds(BenchmarkFixtures.SHOW_ID, requestedSeatIds);
+    }
+}
@@ -2,18 +2,25 @@ package com.bookmymovie;
 
 import com.bookmymovie.annotation.DistributedLock;
 import com.bookmymovie.exception.BaseException;
+import com.bookmymovie.service.LockProvider;
 import com.bookmymovie.service.RedisDistributedLockService;
+import com.bookmymovie.util.FencingTokenHolder;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.Getter;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.aspectj.lang.ProceedingJoinPoint;
 import org.aspectj.lang.annotation.Around;
 import org.aspectj.lang.annotation.Aspect;
 import org.aspectj.lang.reflect.MethodSignature;
-import org.redisson.api.RLock;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.core.annotation.Order;
-import org.springframework.expression.EvaluationContext;
 import org.springframework.expression.Expression;
 import org.springframework.expression.ExpressionParser;
+import org.springframework.expression.spel.SpelCompilerMode;
+import org.springframework.expression.spel.SpelParserConfiguration;
 import org.springframework.expression.spel.standard.SpelExpressionParser;
 import org.springframework.expression.spel.support.StandardEvaluationContext;
 import org.springframework.http.HttpStatus;
@@ -22,37 +29,75 @@ import org.springframework.web.bind.annotation.ResponseStatus;
 
 import java.lang.reflect.Method;
 import java.lang.reflect.Parameter;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 /**
  * AOP Aspect to handle @DistributedLock annotation
- * Provides automatic distributed locking around annotated methods
+ * Provides automatic distributed locking around annotated methods.
+ * Key expressions are parsed and compiled to bytecode once per method; a key that cannot be
+ * resolved fails the call rather than falling back to a key shared by every caller.
+ * Acquire latency, wait time, hold time and contention are recorded per lock name
+ * (distributed.lock.* meters, tagged with the literal prefix of the key expression).
+ * Methods returning CompletableFuture are locked asynchronously and hold the lock until their future completes.
+ * Fenced locks bind a fencing token (see FencingTokenHolder) for the duration of the method.
  */
 @Aspect
 @Component
 @Order(1) // Execute before @Transactional
-@RequiredArgsConstructor
 @Slf4j
 public class DistributedLockAspect {
 
+    // Leading string literal of a key expression, e.g. 'show-schedule-screen-' in "'show-schedule-screen-' + #id"
+    private static final Pattern LITERAL_PREFIX = Pattern.compile("^\\s*'([^']*)'");
+
     private final RedisDistributedLockService lockService;
-    private final ExpressionParser parser = new SpelExpressionParser();
+    private final MeterRegistry meterRegistry;
+    private final Executor lockExecutor;
+    private final ExpressionParser parser = new SpelExpressionParser(
+            new SpelParserConfiguration(SpelCompilerMode.IMMEDIATE, DistributedLockAspect.class.getClassLoader()));
+
+    // Compiled key expressions, parameter names and meters are fixed per annotated method
+    private final Map<Method, LockSite> sites = new ConcurrentHashMap<>();
+
+    public DistributedLockAspect(RedisDistributedLockService lockService, MeterRegistry meterRegistry,
+                                 @Qualifier("lockExecutor") Executor lockExecutor) {
+        this.lockService = lockService;
+        this.meterRegistry = meterRegistry;
+        this.lockExecutor = lockExecutor;
+    }
 
     @Around("@annotation(distributedLock)")
     public Object around(ProceedingJoinPoint joinPoint, DistributedLock distributedLock) throws Throwable {
+        LockSite site = site(distributedLock.key(), joinPoint);
 
         // Generate lock key using SpEL expression
-        String lockKey = generateLockKey(distributedLock.key(), joinPoint);
+        String lockKey = site.resolveKey(joinPoint.getArgs());
 
-        log.info("Attempting to acquire distributed lock: {} for method: {}",
+        log.debug("Attempting to acquire distributed lock: {} for method: {}",
                 lockKey, joinPoint.getSignature().toShortString());
 
+        if (site.isAsync()) {
+            return aroundAsync(joinPoint, distributedLock, site, lockKey);
+        }
+
         // Attempt to acquire lock
+        long acquireStart = System.nanoTime();
         RedisDistributedLockService.DistributedLockResult lockResult = lockService.acquireLock(
                 lockKey,
                 distributedLock.waitTime(),
                 distributedLock.leaseTime(),
                 distributedLock.timeUnit()
         );
+        site.getMetrics().recordAcquire(lockResult, System.nanoTime() - acquireStart);
 
         if (!lockResult.isSuccess()) {
             // Lock acquisition failed
@@ -66,9 +111,17 @@ public class DistributedLockAspect {
             }
         }
 
-        RLock lock = lockResult.getLock();
+        LockProvider.Lease lock = lockResult.getLock();
+        long heldSince = System.nanoTime();
+        Long previousToken = null;
+        boolean fenceBound = false;
 
         try {
+            if (distributedLock.fenced()) {
+                previousToken = FencingTokenHolder.bind(lockService.nextFencingToken(lockKey));
+                fenceBound = true;
+            }
+
             log.debug("Successfully acquired distributed lock: {}, executing method...", lockKey);
 
             // Execute the actual method
@@ -81,64 +134,232 @@ public class DistributedLockAspect {
             log.error("Error during method execution with distributed lock: {} - {}", lockKey, e.getMessage());
             throw e;
         } finally {
+            if (fenceBound) {
+                FencingTokenHolder.restore(previousToken);
+            }
             // Always release the lock
             lockService.releaseLock(lock, lockKey);
+            site.getMetrics().getHold().record(System.nanoTime() - heldSince, TimeUnit.NANOSECONDS);
             log.debug("Released distributed lock: {}", lockKey);
         }
     }
 
     /**
-     * Generates lock key by parsing SpEL expression with method parameters
+     * Locking for methods returning CompletableFuture: no thread waits for the lock, the method runs
+     * on the lock executor once it is acquired, and the lock is released when the method's future
+     * completes, from whichever thread completes it
      */
-    private String generateLockKey(String keyExpression, ProceedingJoinPoint joinPoint) {
-        if (keyExpression == null || keyExpression.trim().isEmpty()) {
-            // Fallback to method signature if no key expression provided
-            return joinPoint.getSignature().toShortString();
-        }
+    private CompletableFuture<Object> aroundAsync(ProceedingJoinPoint joinPoint, DistributedLock distributedLock,
+                                                  LockSite site, String lockKey) {
+        long acquireStart = System.nanoTime();
+        return lockService.acquireLockAsync(lockKey, distributedLock.waitTime(), distributedLock.leaseTime(),
+                        distributedLock.timeUnit())
+                .thenComposeAsync(lockResult -> {
+                    site.getMetrics().recordAcquire(lockResult, System.nanoTime() - acquireStart);
 
-        try {
-            // Create evaluation context with method parameters
-            EvaluationContext context = createEvaluationContext(joinPoint);
+                    if (!lockResult.isSuccess()) {
+                        log.warn("Failed to acquire distributed lock: {} - {}", lockKey, lockResult.getErrorMessage());
 
-            // Parse and evaluate the SpEL expression
-            Expression expression = parser.parseExpression(keyExpression);
-            String lockKey = expression.getValue(context, String.class);
+                        if (distributedLock.throwExceptionOnFailure()) {
+                            return CompletableFuture.failedFuture(new DistributedLockException(
+                                    distributedLock.errorMessage() + " (Key: " + lockKey + ")"));
+                        }
+                        log.info("Returning null due to lock acquisition failure for key: {}", lockKey);
+                        return CompletableFuture.completedFuture(null);
+                    }
 
-            if (lockKey == null || lockKey.trim().isEmpty()) {
-                throw new IllegalArgumentException("Lock key expression evaluated to null or empty");
+                    long heldSince = System.nanoTime();
+                    log.debug("Successfully acquired distributed lock: {}, executing method...", lockKey);
+                    CompletableFuture<Object> result = distributedLock.fenced()
+                            ? lockService.nextFencingTokenAsync(lockKey)
+                                    .thenComposeAsync(token -> proceedAsync(joinPoint, lockKey, token), lockExecutor)
+                            : proceedAsync(joinPoint, lockKey, null);
+
+                    // Always release the lock, and complete only once it is released
+                    return result.handle((value, error) -> lockService.releaseLockAsync(lockResult)
+                                    .thenCompose(released -> {
+                                        site.getMetrics().getHold().record(System.nanoTime() - heldSince, TimeUnit.NANOSECONDS);
+                                        log.debug("Released distributed lock: {}", lockKey);
+                                        return error == null ? CompletableFuture.completedFuture(value)
+                                                : CompletableFuture.failedFuture(unwrap(error));
+                                    }))
+                            .thenCompose(Function.identity());
+                }, lockExecutor);
+    }
+
+    private static CompletableFuture<Object> proceedAsync(ProceedingJoinPoint joinPoint, String lockKey, Long fencingToken) {
+        Long previousToken = fencingToken != null ? FencingTokenHolder.bind(fencingToken) : null;
+        try {
+            @SuppressWarnings("unchecked")
+            CompletableFuture<Object> returned = (CompletableFuture<Object>) joinPoint.proceed();
+            return returned != null ? returned : CompletableFuture.completedFuture(null);
+        } catch (Throwable e) {
+            log.error("Error during method execution with distributed lock: {} - {}", lockKey, e.getMessage());
+            return CompletableFuture.failedFuture(e);
+        } finally {
+            if (fencingToken != null) {
+                FencingTokenHolder.restore(previousToken);
             }
+        }
+    }
 
-            return lockKey.trim();
+    private static Throwable unwrap(Throwable error) {
+        return error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+    }
+
+    /**
+     * Generates lock key by evaluating the SpEL expression with method parameters
+     * (package-private for DistributedLockKeyBenchmark)
+     */
+    String generateLockKey(String keyExpression, ProceedingJoinPoint joinPoint) {
+        return site(keyExpression, joinPoint).resolveKey(joinPoint.getArgs());
+    }
 
+    private LockSite site(String keyExpression, ProceedingJoinPoint joinPoint) {
+        Method method = ((MethodSignature) joinPoint.getSignature()).getMethod();
+        LockSite site = sites.get(method);
+        if (site != null) {
+            return site;
+        }
+        return sites.computeIfAbsent(method, m -> compile(keyExpression, m));
+    }
+
+    private LockSite compile(String keyExpression, Method method) {
+        String methodName = method.getDeclaringClass().getSimpleName() + "." + method.getName();
+        if (keyExpression == null || keyExpression.trim().isEmpty()) {
+            // One lock per method if no key expression provided
+            return new LockSite(null, null, method, methodName, metrics(methodName));
+        }
+
+        Expression expression;
+        try {
+            expression = parser.parseExpression(keyExpression);
         } catch (Exception e) {
-            log.error("Error generating lock key from expression: {} - {}", keyExpression, e.getMessage());
-            // Fallback to a safe default
-            return "distributed-lock-" + Math.abs(keyExpression.hashCode());
+            throw new LockKeyException("Invalid lock key expression on " + methodName + ": " + keyExpression, e);
         }
+        String[] parameterNames = Arrays.stream(method.getParameters()).map(Parameter::getName).toArray(String[]::new);
+        return new LockSite(expression, parameterNames, method, methodName, metrics(lockName(keyExpression, methodName)));
     }
 
     /**
-     * Creates SpEL evaluation context with method parameters
+     * Lock name used to tag meters; never contains argument values, so tags stay bounded
      */
-    private EvaluationContext createEvaluationContext(ProceedingJoinPoint joinPoint) {
-        StandardEvaluationContext context = new StandardEvaluationContext();
+    static String lockName(String keyExpression, String methodName) {
+        Matcher matcher = LITERAL_PREFIX.matcher(keyExpression);
+        if (matcher.find()) {
+            String prefix = matcher.group(1).replaceAll("[-:_.]+$", "");
+            if (!prefix.isEmpty()) {
+                return prefix;
+            }
+        }
+        return methodName;
+    }
+
+    private LockMetrics metrics(String name) {
+        return new LockMetrics(
+                acquireTimer(name, "acquired"),
+                acquireTimer(name, "timeout"),
+                acquireTimer(name, "error"),
+                Timer.builder("distributed.lock.wait")
+                        .description("Time spent waiting for a lock that was held when requested")
+                        .tag("lock", name)
+                        .register(meterRegistry),
+                Timer.builder("distributed.lock.held")
+                        .description("Time a lock was held by the annotated method")
+                        .tag("lock", name)
+                        .register(meterRegistry),
+                Counter.builder("distributed.lock.contention")
+                        .description("Acquisitions that found the lock held by someone else")
+                        .tag("lock", name)
+                        .tag("outcome", "acquired")
+                        .register(meterRegistry),
+                Counter.builder("distributed.lock.contention")
+                        .description("Acquisitions that found the lock held by someone else")
+                        .tag("lock", name)
+                        .tag("outcome", "timeout")
+                        .register(meterRegistry));
+    }
+
+    private Timer acquireTimer(String name, String outcome) {
+        return Timer.builder("distributed.lock.acquire")
+                .description("Time to acquire a lock or give up")
+                .tag("lock", name)
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
 
-        // Get method signature and parameters
-        MethodSignature methodSignature = (MethodSignature) joinPoint.getSignature();
-        Method method = methodSignature.getMethod();
-        Parameter[] parameters = method.getParameters();
-        Object[] args = joinPoint.getArgs();
+    // ==================== LOCK SITES ====================
 
-        // Add method parameters to context
-        for (int i = 0; i < parameters.length && i < args.length; i++) {
-            context.setVariable(parameters[i].getName(), args[i]);
+    /**
+     * An annotated method: its compiled key expression, parameter names and meters
+     */
+    @RequiredArgsConstructor
+    private static final class LockSite {
+        private final Expression expression;
+        private final String[] parameterNames;
+        private final Method method;
+        private final String methodName;
+        @Getter
+        private final LockMetrics metrics;
+
+        // The method returns a CompletableFuture and is locked without blocking
+        boolean isAsync() {
+            return CompletableFuture.class.isAssignableFrom(method.getReturnType());
         }
 
-        // Add common variables
-        context.setVariable("methodName", method.getName());
-        context.setVariable("className", method.getDeclaringClass().getSimpleName());
+        String resolveKey(Object[] args) {
+            if (expression == null) {
+                return methodName;
+            }
+
+            StandardEvaluationContext context = new StandardEvaluationContext();
+            for (int i = 0; i < parameterNames.length && i < args.length; i++) {
+                context.setVariable(parameterNames[i], args[i]);
+            }
+            // Add common variables
+            context.setVariable("methodName", method.getName());
+            context.setVariable("className", method.getDeclaringClass().getSimpleName());
 
-        return context;
+            String lockKey;
+            try {
+                lockKey = expression.getValue(context, String.class);
+            } catch (Exception e) {
+                throw new LockKeyException("Could not resolve lock key for " + methodName + ": "
+                        + expression.getExpressionString(), e);
+            }
+            if (lockKey == null || lockKey.trim().isEmpty()) {
+                throw new LockKeyException("Lock key for " + methodName + " evaluated to null or empty: "
+                        + expression.getExpressionString(), null);
+            }
+            return lockKey.trim();
+        }
+    }
+
+    @RequiredArgsConstructor
+    private static final class LockMetrics {
+        private final Timer acquired;
+        private final Timer timedOut;
+        private final Timer failed;
+        private final Timer wait;
+        @Getter
+        private final Timer hold;
+        private final Counter contendedAcquired;
+        private final Counter contendedTimedOut;
+
+        void recordAcquire(RedisDistributedLockService.DistributedLockResult result, long nanos) {
+            if (result.isSuccess()) {
+                acquired.record(nanos, TimeUnit.NANOSECONDS);
+            } else if (result.isContended()) {
+                timedOut.record(nanos, TimeUnit.NANOSECONDS);
+            } else {
+                failed.record(nanos, TimeUnit.NANOSECONDS);
+            }
+
+            if (result.isContended()) {
+                wait.record(nanos, TimeUnit.NANOSECONDS);
+                (result.isSuccess() ? contendedAcquired : contendedTimedOut).increment();
+            }
+        }
     }
 
     /**
@@ -160,4 +381,20 @@ public class DistributedLockAspect {
             return HttpStatus.CONFLICT.value(); // 409 Conflict
         }
     }
+
+    /**
+     * A lock key expression that cannot be parsed or evaluated; the call is refused rather than
+     * run under a key other callers might share
+     */
+    public static class LockKeyException extends BaseException {
+
+        public LockKeyException(String message, Throwable cause) {
+            super(message, cause);
+        }
+
+        @Override
+        public int getHttpStatusCode() {
+            return HttpStatus.INTERNAL_SERVER_ERROR.value();
+        }
+    }
 }
\ No newline at end of file
@@ -0,0 +1,93 @@
+package com.bookmymovie;
+
+import com.bookmymovie.annotation.Idempotent;
+import com.bookmymovie.exception.IdempotencyException;
+import com.bookmymovie.security.SecurityUtils;
+import com.bookmymovie.service.IdempotencyService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.ServletRequest;
+import jakarta.servlet.ServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.lang.reflect.UndeclaredThrowableException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.HexFormat;
+
+/**
+ * AOP Aspect to handle @Idempotent annotation
+ * Runs before rate limiting, so replaying a stored response does not use up the caller's permits
+ */
+@Aspect
+@Component
+@Order(-1) // Execute before @RateLimited, @DistributedLock and @Transactional
+@RequiredArgsConstructor
+@Slf4j
+public class IdempotencyAspect {
+
+    private final IdempotencyService idempotencyService;
+    private final ObjectMapper objectMapper;
+
+    @Around("@annotation(idempotent)")
+    public Object around(ProceedingJoinPoint joinPoint, Idempotent idempotent) throws Throwable {
+        if (!(RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes attributes)) {
+            return joinPoint.proceed();
+        }
+
+        String key = attributes.getRequest().getHeader(IdempotencyService.HEADER);
+        if (key == null) {
+            if (idempotent.required()) {
+                throw IdempotencyException.invalidKey(IdempotencyService.HEADER + " header is required");
+            }
+            return joinPoint.proceed();
+        }
+        IdempotencyService.validateKey(key);
+
+        String scopedKey = idempotent.name() + ":" + caller(attributes) + ":" + key;
+        Duration ttl = Duration.ofMillis(idempotent.timeUnit().toMillis(idempotent.ttl()));
+        return idempotencyService.execute(scopedKey, requestHash(joinPoint.getArgs()), ttl, () -> proceed(joinPoint));
+    }
+
+    private static ResponseEntity<?> proceed(ProceedingJoinPoint joinPoint) throws Exception {
+        try {
+            return (ResponseEntity<?>) joinPoint.proceed();
+        } catch (Exception | Error e) {
+            throw e;
+        } catch (Throwable t) {
+            throw new UndeclaredThrowableException(t);
+        }
+    }
+
+    private static String caller(ServletRequestAttributes attributes) {
+        Long userId = SecurityUtils.getCurrentUserId();
+        if (userId != null) {
+            return "user:" + userId;
+        }
+        return "ip:" + SecurityUtils.getClientIpAddress(attributes.getRequest());
+    }
+
+    private String requestHash(Object[] args) throws Exception {
+        Object[] body = Arrays.stream(args)
+                .filter(arg -> !(arg instanceof ServletRequest) && !(arg instanceof ServletResponse))
+                .toArray();
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(
+                    objectMapper.writeValueAsString(body).getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
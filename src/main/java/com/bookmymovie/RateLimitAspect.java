@@ -0,0 +1,86 @@
+package com.bookmymovie;
+
+import com.bookmymovie.annotation.RateLimited;
+import com.bookmymovie.security.SecurityUtils;
+import com.bookmymovie.service.RateLimitRule;
+import com.bookmymovie.service.RateLimitingService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.core.annotation.Order;
+import org.springframework.expression.Expression;
+import org.springframework.expression.ExpressionParser;
+import org.springframework.expression.spel.standard.SpelExpressionParser;
+import org.springframework.expression.spel.support.StandardEvaluationContext;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Parameter;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * AOP Aspect to handle @RateLimited annotation
+ * Rejects the call with RateLimitExceededException before any locking or transaction work
+ */
+@Aspect
+@Component
+@Order(0) // Execute before @DistributedLock and @Transactional
+@RequiredArgsConstructor
+@Slf4j
+public class RateLimitAspect {
+
+    private final RateLimitingService rateLimitingService;
+    private final ExpressionParser parser = new SpelExpressionParser();
+
+    // Rules and parsed key expressions are fixed per annotated method
+    private final Map<Method, RateLimitRule> rules = new ConcurrentHashMap<>();
+    private final Map<String, Expression> keyExpressions = new ConcurrentHashMap<>();
+
+    @Around("@annotation(rateLimited)")
+    public Object around(ProceedingJoinPoint joinPoint, RateLimited rateLimited) throws Throwable {
+        Method method = ((MethodSignature) joinPoint.getSignature()).getMethod();
+        RateLimitRule rule = rules.computeIfAbsent(method, m -> RateLimitRule.of(
+                rateLimited.name(), rateLimited.permits(), rateLimited.period(), rateLimited.timeUnit()));
+
+        rateLimitingService.checkLimit(resolveKey(rateLimited.key(), joinPoint, method), rule, rateLimited.errorMessage());
+        return joinPoint.proceed();
+    }
+
+    private String resolveKey(String keyExpression, ProceedingJoinPoint joinPoint, Method method) {
+        if (keyExpression == null || keyExpression.isBlank()) {
+            return defaultKey();
+        }
+
+        StandardEvaluationContext context = new StandardEvaluationContext();
+        Parameter[] parameters = method.getParameters();
+        Object[] args = joinPoint.getArgs();
+        for (int i = 0; i < parameters.length && i < args.length; i++) {
+            context.setVariable(parameters[i].getName(), args[i]);
+        }
+
+        Object key = keyExpressions.computeIfAbsent(keyExpression, parser::parseExpression).getValue(context);
+        if (key == null || key.toString().isBlank()) {
+            // Never let a missing field put every caller into one shared bucket
+            return defaultKey();
+        }
+        return key.toString().trim().toLowerCase();
+    }
+
+    private static String defaultKey() {
+        Long userId = SecurityUtils.getCurrentUserId();
+        if (userId != null) {
+            return "user:" + userId;
+        }
+
+        if (RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes attributes) {
+            return "ip:" + SecurityUtils.getClientIpAddress(attributes.getRequest());
+        }
+        return "anonymous";
+    }
+}
@@ -9,6 +9,10 @@ import java.util.concurrent.TimeUnit;
  * Usage:
  * @DistributedLock(key = "booking-{#showId}", waitTime = 100, leaseTime = 5000)
  * public BookingResponse bookSeats(Long showId, BookingRequest request) { ... }
+ *
+ * Methods returning CompletableFuture are locked without blocking: the method runs on the lock
+ * executor once the lock is acquired, and the lock is held until the returned future completes.
+ * A failed acquisition then surfaces as a failed future instead of a thrown exception.
  */
 @Target({ElementType.METHOD})
 @Retention(RetentionPolicy.RUNTIME)
@@ -49,6 +53,15 @@ public @interface DistributedLock {
      */
     String errorMessage() default "Resource is currently being processed. Please try again.";
 
+    /**
+     * Whether to take a fencing token after acquiring the lock
+     * The token is available to the method through FencingTokenHolder.current(); storing it with a
+     * conditional write lets the database reject a holder whose lease expired mid-operation,
+     * so leases can be sized for the typical run instead of the worst case.
+     * Default: false
+     */
+    boolean fenced() default false;
+
     /**
      * Whether to throw exception if lock cannot be acquired
      * If false, method will return null or empty response
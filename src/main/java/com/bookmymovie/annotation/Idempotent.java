@@ -0,0 +1,43 @@
+package com.bookmymovie.annotation;
+
+import java.lang.annotation.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Makes an endpoint honour the Idempotency-Key request header, enforced by IdempotencyService
+ * A retried request with the same key and body gets the first response back instead of running
+ * again; a duplicate that arrives while the first is still running waits for its result.
+ * The annotated method must return a ResponseEntity.
+ *
+ * Usage:
+ * @Idempotent(name = "booking-create")
+ * public ResponseEntity<...> createBooking(BookingCreateRequestDto request) { ... }
+ */
+@Target({ElementType.METHOD})
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface Idempotent {
+
+    /**
+     * Name of the operation; keys are scoped to it and to the calling user
+     */
+    String name();
+
+    /**
+     * How long a response is replayed for its key
+     * Default: 24 hours
+     */
+    long ttl() default 24;
+
+    /**
+     * Time unit for ttl
+     * Default: HOURS
+     */
+    TimeUnit timeUnit() default TimeUnit.HOURS;
+
+    /**
+     * Whether requests without the header are rejected instead of executed as usual
+     * Default: false
+     */
+    boolean required() default false;
+}
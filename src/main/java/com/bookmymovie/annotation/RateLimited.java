@@ -0,0 +1,53 @@
+package com.bookmymovie.annotation;
+
+import java.lang.annotation.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Rate limit for an endpoint, enforced cluster-wide by RateLimitingService
+ *
+ * Usage:
+ * @RateLimited(name = "booking", permits = 10, period = 1, timeUnit = TimeUnit.MINUTES)
+ * public ResponseEntity<...> createBooking(BookingCreateRequestDto request) { ... }
+ */
+@Target({ElementType.METHOD})
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface RateLimited {
+
+    /**
+     * Name of the limit; callers of endpoints sharing a name share a budget
+     */
+    String name();
+
+    /**
+     * Who the limit applies to. Supports SpEL expressions over the method parameters.
+     * Default: the authenticated user, or the client IP for anonymous requests
+     * Examples:
+     * - "#request.email"
+     * - "#request.userId"
+     */
+    String key() default "";
+
+    /**
+     * Requests allowed per period; the full amount may be used as a burst
+     */
+    int permits();
+
+    /**
+     * Length of the period
+     * Default: 1
+     */
+    long period() default 1;
+
+    /**
+     * Time unit for period
+     * Default: MINUTES
+     */
+    TimeUnit timeUnit() default TimeUnit.MINUTES;
+
+    /**
+     * Error message when the limit is exceeded
+     */
+    String errorMessage() default "Too many requests. Please slow down and try again shortly.";
+}
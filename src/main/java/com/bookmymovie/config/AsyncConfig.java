@@ -1,6 +1,7 @@
 package com.bookmymovie.config;
 
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.scheduling.annotation.EnableAsync;
@@ -16,6 +17,11 @@ import java.util.concurrent.ThreadPoolExecutor;
 @Slf4j
 public class AsyncConfig {
 
+    // Same switch Spring Boot uses for Tomcat, the default @Async executor and the @Scheduled scheduler.
+    // The named pools keep their limits, queues and rejection handling but run tasks on virtual threads.
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtualThreads;
+
     @Bean("emailExecutor")
     public ThreadPoolTaskExecutor emailExecutor() {
         ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
@@ -27,6 +33,7 @@ public class AsyncConfig {
         executor.setRejectedExecutionHandler(new CustomRejectedExecutionHandler("EMAIL"));
         executor.setWaitForTasksToCompleteOnShutdown(true);
         executor.setAwaitTerminationSeconds(30);
+        executor.setVirtualThreads(virtualThreads);
         executor.initialize();
         return executor;
     }
@@ -42,6 +49,7 @@ public class AsyncConfig {
         executor.setRejectedExecutionHandler(new CustomRejectedExecutionHandler("ANALYTICS"));
         executor.setWaitForTasksToCompleteOnShutdown(true);
         executor.setAwaitTerminationSeconds(30);
+        executor.setVirtualThreads(virtualThreads);
         executor.initialize();
         return executor;
     }
@@ -57,6 +65,7 @@ public class AsyncConfig {
         executor.setRejectedExecutionHandler(new CustomRejectedExecutionHandler("PROFILE"));
         executor.setWaitForTasksToCompleteOnShutdown(true);
         executor.setAwaitTerminationSeconds(30);
+        executor.setVirtualThreads(virtualThreads);
         executor.initialize();
         return executor;
     }
@@ -72,6 +81,7 @@ public class AsyncConfig {
         executor.setRejectedExecutionHandler(new CustomRejectedExecutionHandler("NOTIFICATION"));
         executor.setWaitForTasksToCompleteOnShutdown(true);
         executor.setAwaitTerminationSeconds(30);
+        executor.setVirtualThreads(virtualThreads);
         executor.initialize();
         return executor;
     }
@@ -87,6 +97,73 @@ public class AsyncConfig {
         executor.setRejectedExecutionHandler(new CustomRejectedExecutionHandler("MARKETING"));
         executor.setWaitForTasksToCompleteOnShutdown(true);
         executor.setAwaitTerminationSeconds(30);
+        executor.setVirtualThreads(virtualThreads);
+        executor.initialize();
+        return executor;
+    }
+
+    // Booking outbox pools; notifications and analytics reuse the pools above
+    @Bean("receiptExecutor")
+    public ThreadPoolTaskExecutor receiptExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(2);
+        executor.setMaxPoolSize(6);
+        executor.setQueueCapacity(100);
+        executor.setThreadNamePrefix("receipt-");
+        executor.setKeepAliveSeconds(60);
+        executor.setRejectedExecutionHandler(new CustomRejectedExecutionHandler("RECEIPT"));
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(30);
+        executor.setVirtualThreads(virtualThreads);
+        executor.initialize();
+        return executor;
+    }
+
+    @Bean("rewardsExecutor")
+    public ThreadPoolTaskExecutor rewardsExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(2);
+        executor.setMaxPoolSize(4);
+        executor.setQueueCapacity(100);
+        executor.setThreadNamePrefix("rewards-");
+        executor.setKeepAliveSeconds(60);
+        executor.setRejectedExecutionHandler(new CustomRejectedExecutionHandler("REWARDS"));
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(30);
+        executor.setVirtualThreads(virtualThreads);
+        executor.initialize();
+        return executor;
+    }
+
+    // Runs @DistributedLock methods returning CompletableFuture once their lock is acquired asynchronously
+    @Bean("lockExecutor")
+    public ThreadPoolTaskExecutor lockExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(4);
+        executor.setMaxPoolSize(16);
+        executor.setQueueCapacity(200);
+        executor.setThreadNamePrefix("lock-");
+        executor.setKeepAliveSeconds(60);
+        executor.setRejectedExecutionHandler(new CustomRejectedExecutionHandler("LOCK"));
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(30);
+        executor.setVirtualThreads(virtualThreads);
+        executor.initialize();
+        return executor;
+    }
+
+    // Sends live seat availability frames; each subscriber drains its own queue here, off the flush thread
+    @Bean("seatStreamExecutor")
+    public ThreadPoolTaskExecutor seatStreamExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(4);
+        executor.setMaxPoolSize(32);
+        executor.setQueueCapacity(1000);
+        executor.setThreadNamePrefix("seat-stream-");
+        executor.setKeepAliveSeconds(60);
+        executor.setRejectedExecutionHandler(new CustomRejectedExecutionHandler("SEAT_STREAM"));
+        executor.setWaitForTasksToCompleteOnShutdown(false);
+        executor.setVirtualThreads(virtualThreads);
         executor.initialize();
         return executor;
     }
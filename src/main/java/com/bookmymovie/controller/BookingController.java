@@ -1,17 +1,23 @@
 package com.bookmymovie.controller;
 
+import com.bookmymovie.annotation.Idempotent;
+import com.bookmymovie.annotation.RateLimited;
 import com.bookmymovie.dto.request.*;
 import com.bookmymovie.dto.response.*;
 import com.bookmymovie.service.BookingService;
 import com.bookmymovie.service.RedisDistributedLockService;
+import com.bookmymovie.service.SeatAvailabilityStreamService;
+import com.bookmymovie.service.UserBookingViewService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.util.List;
 
@@ -23,10 +29,14 @@ public class BookingController {
 
     private final BookingService bookingService;
     private final RedisDistributedLockService lockService;
+    private final SeatAvailabilityStreamService seatAvailabilityStreamService;
+    private final UserBookingViewService userBookingViewService;
 
     // ==================== BOOKING FLOW ENDPOINTS ====================
 
     @PostMapping
+    @Idempotent(name = "booking-create")
+    @RateLimited(name = "booking", permits = 10)
     public ResponseEntity<BookingInitiationResponseDto> createBooking(
             @Valid @RequestBody BookingCreateRequestDto request) {
         log.info("Creating booking for show {} by user {}", request.getShowId(), request.getUserId());
@@ -62,6 +72,7 @@ public class BookingController {
     // ==================== PAYMENT ENDPOINTS ====================
 
     @PostMapping("/payment")
+    @Idempotent(name = "booking-payment")
     public ResponseEntity<PaymentResponseDto> processPayment(
             @Valid @RequestBody PaymentRequestDto request) {
         log.info("Processing payment for booking {}", request.getBookingReference());
@@ -108,8 +119,12 @@ public class BookingController {
 
     @GetMapping("/user/{userId}")
     @PreAuthorize("hasRole('ADMIN') or #userId == authentication.principal.userId")
-    public ResponseEntity<List<BookingSummaryDto>> getUserBookings(@PathVariable Long userId) {
-        List<BookingSummaryDto> response = bookingService.getUserBookings(userId);
+    public ResponseEntity<BookingHistoryPageDto> getUserBookings(
+            @PathVariable Long userId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+
+        BookingHistoryPageDto response = userBookingViewService.getUserBookings(userId, cursor, size);
         return ResponseEntity.ok(response);
     }
 
@@ -146,18 +161,31 @@ public class BookingController {
     }
 
     @GetMapping("/show/{showId}/seats")
-    public ResponseEntity<SeatAvailabilityResponseDto> getShowSeatAvailability(@PathVariable Long showId) {
+    public ResponseEntity<SeatAvailabilityResponseDto> getShowSeatAvailability(
+            @PathVariable Long showId,
+            @RequestParam(required = false) Long sinceVersion) {
         SeatAvailabilityRequestDto request = SeatAvailabilityRequestDto.builder()
                 .showId(showId)
+                .sinceVersion(sinceVersion)
                 .build();
 
         SeatAvailabilityResponseDto response = bookingService.getSeatAvailability(request);
         return ResponseEntity.ok(response);
     }
 
+    /**
+     * Live seat availability: a snapshot on connect, then coalesced "delta" events as seats change
+     */
+    @GetMapping(value = "/show/{showId}/seats/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamShowSeatAvailability(@PathVariable Long showId) {
+        log.info("Opening seat availability stream for show {}", showId);
+        return seatAvailabilityStreamService.subscribe(showId);
+    }
+
     // ==================== SEARCH & FILTER ENDPOINTS ====================
 
     @GetMapping("/search")
+    @RateLimited(name = "search", permits = 60)
     @PreAuthorize("hasRole('ADMIN')")
     public ResponseEntity<Page<BookingResponseDto>> searchBookings(
             @RequestParam(required = false) String bookingReference,
@@ -181,25 +209,7 @@ public class BookingController {
 
     @GetMapping("/{bookingReference}/receipt")
     public ResponseEntity<BookingReceiptDto> getBookingReceipt(@PathVariable String bookingReference) {
-        // This would generate and return a receipt for the booking
-        BookingResponseDto booking = bookingService.getBookingByReference(bookingReference);
-
-        BookingReceiptDto bookingReceiptDto = new BookingReceiptDto();
-        bookingReceiptDto.setBookingReference(booking.getBookingReference());
-        bookingReceiptDto.setBookingDate(booking.getBookingDate());
-        bookingReceiptDto.setPaymentDate(booking.getPaymentDate());
-        bookingReceiptDto.setCustomerName(booking.getUser().getFirstName() + " " + booking.getUser().getLastName());
-        bookingReceiptDto.setContactEmail(booking.getContactEmail());
-        bookingReceiptDto.setContactPhone(booking.getContactPhone());
-        bookingReceiptDto.setMovieTitle(booking.getShow().getMovieTitle());
-        bookingReceiptDto.setMovieLanguage(booking.getShow().getMovieLanguage());
-        bookingReceiptDto.setMovieRating(booking.getShow().getMovieRating());
-        bookingReceiptDto.setMovieDuration(booking.getShow().getMovieDuration());
-        bookingReceiptDto.setTheaterName(booking.getShow().getTheaterName());
-        bookingReceiptDto.setTheaterAddress(booking.getShow().getTheaterAddress());
-        bookingReceiptDto.setScreenName(booking.getShow().getScreenName());
-        // For now, return success - actual receipt generation would be implemented
-        return ResponseEntity.ok(bookingReceiptDto);
+        return ResponseEntity.ok(bookingService.getBookingReceipt(bookingReference));
     }
 
     @GetMapping("/{bookingReference}/qr-code")
@@ -384,6 +394,12 @@ public class BookingController {
                 .body(new ErrorResponse("INVALID_PAYMENT_AMOUNT", e.getMessage()));
     }
 
+    @ExceptionHandler(UserBookingViewService.InvalidBookingCursorException.class)
+    public ResponseEntity<Object> handleInvalidBookingCursor(UserBookingViewService.InvalidBookingCursorException e) {
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                .body(new ErrorResponse("INVALID_BOOKING_CURSOR", e.getMessage()));
+    }
+
     // Simple error response class
     public static class ErrorResponse {
         public final String code;
@@ -1,6 +1,9 @@
 package com.bookmymovie.controller;
 
+import com.bookmymovie.service.VirtualThreadPinningMonitor;
+import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
@@ -11,8 +14,11 @@ import java.util.Map;
 
 @RestController
 @RequestMapping("/health")
+@RequiredArgsConstructor
 public class HealthController {
 
+    private final VirtualThreadPinningMonitor pinningMonitor;
+
     @GetMapping
     public ResponseEntity<Map<String, Object>> healthCheck() {
         Map<String, Object> response = new HashMap<>();
@@ -23,4 +29,21 @@ public class HealthController {
 
         return ResponseEntity.ok(response);
     }
-}
\ No newline at end of file
+
+    /**
+     * Virtual thread pinning recorded since startup (or the last reset), grouped by call site
+     */
+    @GetMapping("/virtual-threads")
+    public ResponseEntity<Map<String, Object>> virtualThreadPinning() {
+        return ResponseEntity.ok(pinningMonitor.getReport());
+    }
+
+    /**
+     * Clears the recorded pinning, so the next report covers only what happens from now on
+     */
+    @DeleteMapping("/virtual-threads")
+    public ResponseEntity<Void> resetVirtualThreadPinning() {
+        pinningMonitor.reset();
+        return ResponseEntity.noContent().build();
+    }
+}
@@ -1,5 +1,6 @@
 package com.bookmymovie.controller;
 
+import com.bookmymovie.annotation.RateLimited;
 import com.bookmymovie.constants.MovieConstant;
 import com.bookmymovie.dto.request.MovieCreateRequestDto;
 import com.bookmymovie.dto.request.MovieSearchRequestDto;
@@ -108,6 +109,7 @@ public class MovieController {
      * Handles complex concurrent search operations
      */
     @PostMapping("/search")
+    @RateLimited(name = "search", permits = 60)
     public ResponseEntity<ApiResponse<Page<MovieResponseDto>>> searchMovies(
             @Valid @RequestBody MovieSearchRequestDto searchRequest) {
 
@@ -1,13 +1,17 @@
 package com.bookmymovie.controller;
 
+import com.bookmymovie.annotation.RateLimited;
 import com.bookmymovie.dto.request.*;
 import com.bookmymovie.dto.response.*;
+import com.bookmymovie.entity.Show;
+import com.bookmymovie.service.ShowListingCacheService;
 import com.bookmymovie.service.ShowService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Slice;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
@@ -16,7 +20,10 @@ import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
 
+import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
 import java.util.List;
 
 @RestController
@@ -104,13 +111,18 @@ public class ShowController {
             @RequestParam String city,
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate showDate) {
 
-        ShowListingDto response = showService.getMovieShowListing(movieId, city, showDate);
-        return ResponseEntity.ok(response);
+        // A matching If-None-Match turns this into a 304 without a body
+        ShowListingCacheService.CachedListing listing = showService.getMovieShowListing(movieId, city, showDate);
+        return ResponseEntity.ok()
+                .eTag(listing.getEtag())
+                .cacheControl(CacheControl.noCache())
+                .body(listing.getListing());
     }
 
     @GetMapping("/search")
-    @Operation(summary = "Search shows", description = "Search shows with various filters and pagination")
-    public ResponseEntity<Page<ShowResponseDto>> searchShows(
+    @RateLimited(name = "search", permits = 60)
+    @Operation(summary = "Search shows", description = "Search shows with various filters; pass the last show's showDateTime and showId to get the next page")
+    public ResponseEntity<Slice<ShowResponseDto>> searchShows(
             @Parameter(description = "Movie ID filter") @RequestParam(required = false) Long movieId,
             @Parameter(description = "Theater ID filter") @RequestParam(required = false) Long theaterId,
             @Parameter(description = "Screen ID filter") @RequestParam(required = false) Long screenId,
@@ -118,14 +130,26 @@ public class ShowController {
             @Parameter(description = "Show date filter") @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate showDate,
             @Parameter(description = "Start date for range filter") @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
             @Parameter(description = "End date for range filter") @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+            @Parameter(description = "Earliest show time") @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.TIME) LocalTime startTime,
+            @Parameter(description = "Latest show time") @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.TIME) LocalTime endTime,
+            @Parameter(description = "Show status filter") @RequestParam(required = false) Show.ShowStatus status,
             @Parameter(description = "Show only available shows") @RequestParam(required = false, defaultValue = "true") Boolean availableOnly,
             @Parameter(description = "Minimum available seats") @RequestParam(required = false) Integer minAvailableSeats,
+            @Parameter(description = "Latitude for location search") @RequestParam(required = false) Double latitude,
+            @Parameter(description = "Longitude for location search") @RequestParam(required = false) Double longitude,
+            @Parameter(description = "Search radius in kilometers") @RequestParam(required = false) Double radiusKm,
             @Parameter(description = "Show only premiere shows") @RequestParam(required = false) Boolean isPremiere,
             @Parameter(description = "Show only special screenings") @RequestParam(required = false) Boolean isSpecialScreening,
-            @Parameter(description = "Page number (0-based)") @RequestParam(defaultValue = "0") Integer page,
+            @Parameter(description = "Weekend shows filter") @RequestParam(required = false) Boolean isWeekend,
+            @Parameter(description = "Prime time shows filter") @RequestParam(required = false) Boolean isPrimeTime,
+            @Parameter(description = "Matinee shows filter") @RequestParam(required = false) Boolean isMatinee,
+            @Parameter(description = "Late night shows filter") @RequestParam(required = false) Boolean isLateNight,
+            @Parameter(description = "Minimum ticket price") @RequestParam(required = false) BigDecimal minPrice,
+            @Parameter(description = "Maximum ticket price") @RequestParam(required = false) BigDecimal maxPrice,
+            @Parameter(description = "Cursor: showDateTime of the last show on the previous page") @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime afterShowDateTime,
+            @Parameter(description = "Cursor: showId of the last show on the previous page") @RequestParam(required = false) Long afterShowId,
             @Parameter(description = "Page size") @RequestParam(defaultValue = "20") Integer size,
-            @Parameter(description = "Sort by field") @RequestParam(defaultValue = "showDateTime") String sortBy,
-            @Parameter(description = "Sort direction") @RequestParam(defaultValue = "ASC") String sortDirection) {
+            @Parameter(description = "Sort direction on show time") @RequestParam(defaultValue = "ASC") String sortDirection) {
 
         ShowSearchRequestDto searchRequest = ShowSearchRequestDto.builder()
                 .movieId(movieId)
@@ -135,17 +159,29 @@ public class ShowController {
                 .showDate(showDate)
                 .startDate(startDate)
                 .endDate(endDate)
+                .startTime(startTime)
+                .endTime(endTime)
+                .status(status)
                 .availableOnly(availableOnly)
                 .minAvailableSeats(minAvailableSeats)
+                .latitude(latitude)
+                .longitude(longitude)
+                .radiusKm(radiusKm)
                 .isPremiere(isPremiere)
                 .isSpecialScreening(isSpecialScreening)
-                .page(page)
+                .isWeekend(isWeekend)
+                .isPrimeTime(isPrimeTime)
+                .isMatinee(isMatinee)
+                .isLateNight(isLateNight)
+                .minPrice(minPrice)
+                .maxPrice(maxPrice)
+                .afterShowDateTime(afterShowDateTime)
+                .afterShowId(afterShowId)
                 .size(size)
-                .sortBy(sortBy)
                 .sortDirection(sortDirection)
                 .build();
 
-        Page<ShowResponseDto> response = showService.searchShows(searchRequest);
+        Slice<ShowResponseDto> response = showService.searchShows(searchRequest);
         return ResponseEntity.ok(response);
     }
 
@@ -280,8 +316,22 @@ public class ShowController {
             @PathVariable Long screenId,
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate showDate) {
 
-        // This would need to be implemented in the service layer
-        return ResponseEntity.ok().build(); // Placeholder
+        List<ShowSummaryDto> response = showService.getShowsByScreen(screenId, showDate);
+        return ResponseEntity.ok(response);
+    }
+
+    @GetMapping("/screen/{screenId}/free-slots")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Get free slots", description = "Get gaps in a screen's timetable that fit a show of the given length")
+    public ResponseEntity<List<ScreenFreeSlotDto>> getFreeSlots(
+            @PathVariable Long screenId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date,
+            @Parameter(description = "Minutes the show occupies the screen, including intermission and cleaning") @RequestParam Integer durationMinutes,
+            @Parameter(description = "Window start; defaults to the theater's opening time") @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.TIME) LocalTime from,
+            @Parameter(description = "Window end; defaults to the theater's closing time") @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.TIME) LocalTime to) {
+
+        List<ScreenFreeSlotDto> response = showService.getFreeSlots(screenId, date, durationMinutes, from, to);
+        return ResponseEntity.ok(response);
     }
 
     // ==================== TIME-BASED ENDPOINTS ====================
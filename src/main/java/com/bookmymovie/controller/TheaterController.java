@@ -1,5 +1,6 @@
 package com.bookmymovie.controller;
 
+import com.bookmymovie.annotation.RateLimited;
 import com.bookmymovie.constants.TheaterConstant;
 import com.bookmymovie.dto.request.*;
 import com.bookmymovie.dto.response.ApiResponse;
@@ -50,6 +51,7 @@ public class TheaterController {
      * Supports geographic search, city-based search, and name search
      */
     @GetMapping("/search")
+    @RateLimited(name = "search", permits = 60)
     public ResponseEntity<ApiResponse<Page<TheaterResponseDto>>> searchTheaters(
             @RequestParam(required = false) String city,
             @RequestParam(required = false) String name,
@@ -1,7 +1,9 @@
 package com.bookmymovie.controller;
 
+import com.bookmymovie.annotation.RateLimited;
 import com.bookmymovie.constants.UserConstant;
 import com.bookmymovie.dto.response.ApiResponse;
+import com.bookmymovie.security.SecurityUtils;
 import com.bookmymovie.security.UserPrincipal;
 import com.bookmymovie.service.UserService;
 import com.bookmymovie.service.dto.AuthResponseDto;
@@ -37,6 +39,7 @@ public class UserController {
     }
 
     @PostMapping("/login")
+    @RateLimited(name = "login", permits = 10)
     public ResponseEntity<ApiResponse<AuthResponseDto>> loginUser(
             @Valid @RequestBody LoginRequestDto request) {
 
@@ -64,39 +67,10 @@ public class UserController {
             @Valid @RequestBody UserRegistrationDto request,
             HttpServletRequest httpRequest) {
 
-        String ipAddress = getClientIpAddress(httpRequest);
+        String ipAddress = SecurityUtils.getClientIpAddress(httpRequest);
         UserResponseDto user = userService.registerUserWithRole(request, ipAddress, UserConstant.UserRole.ADMIN);
 
         return ResponseEntity.status(HttpStatus.CREATED)
                 .body(ApiResponse.success("Admin registered successfully", user));
     }
-
-
-    private String getClientIpAddress(HttpServletRequest request) {
-        // Check for IP address from various headers (for load balancers/proxies)
-        String ipAddress = request.getHeader("X-Forwarded-For");
-
-        if (ipAddress == null || ipAddress.isEmpty() || "unknown".equalsIgnoreCase(ipAddress)) {
-            ipAddress = request.getHeader("X-Real-IP");
-        }
-
-        if (ipAddress == null || ipAddress.isEmpty() || "unknown".equalsIgnoreCase(ipAddress)) {
-            ipAddress = request.getHeader("Proxy-Client-IP");
-        }
-
-        if (ipAddress == null || ipAddress.isEmpty() || "unknown".equalsIgnoreCase(ipAddress)) {
-            ipAddress = request.getHeader("WL-Proxy-Client-IP");
-        }
-
-        if (ipAddress == null || ipAddress.isEmpty() || "unknown".equalsIgnoreCase(ipAddress)) {
-            ipAddress = request.getRemoteAddr();
-        }
-
-        // Handle multiple IPs (X-Forwarded-For can contain multiple IPs)
-        if (ipAddress != null && ipAddress.contains(",")) {
-            ipAddress = ipAddress.split(",")[0].trim();
-        }
-
-        return ipAddress;
-    }
-}
\ No newline at end of file
+}
@@ -18,4 +18,7 @@ public class SeatAvailabilityRequestDto {
     @Min(value = 1, message = "Required seats must be at least 1")
     @Max(value = 10, message = "Cannot check for more than 10 seats at once")
     private Integer requiredSeats;
+
+    // Seat-map version the client already has; only seats changed since then are returned
+    private Long sinceVersion;
 }
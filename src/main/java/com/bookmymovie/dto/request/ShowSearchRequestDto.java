@@ -46,9 +46,10 @@ public class ShowSearchRequestDto {
     private BigDecimal minPrice;
     private BigDecimal maxPrice;
 
-    // Pagination
-    private Integer page = 0;
+    // Keyset pagination: results are ordered by showDateTime then showId, and the next page
+    // starts after the last show of the previous one
+    private LocalDateTime afterShowDateTime;
+    private Long afterShowId;
     private Integer size = 20;
-    private String sortBy = "showDateTime";
     private String sortDirection = "ASC";
 }
\ No newline at end of file
@@ -0,0 +1,18 @@
+package com.bookmymovie.dto.response;
+
+import lombok.*;
+
+import java.util.List;
+
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BookingHistoryPageDto {
+
+    private List<BookingSummaryDto> bookings;
+    private Boolean hasMore;
+    // Pass back as the cursor parameter to get the next page; null on the last page
+    private String nextCursor;
+}
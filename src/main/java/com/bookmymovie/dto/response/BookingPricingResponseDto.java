@@ -16,6 +16,8 @@ public class BookingPricingResponseDto {
     private Long showId;
     private Integer numberOfSeats;
     private BigDecimal baseAmount;
+    private BigDecimal ticketAmount;
+    private BigDecimal surgeFactor;
     private BigDecimal convenienceFee;
     private BigDecimal taxes;
     private BigDecimal discountAmount;
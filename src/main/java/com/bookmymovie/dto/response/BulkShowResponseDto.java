@@ -19,6 +19,11 @@ public class BulkShowResponseDto {
     private List<String> errors;
     private List<Long> createdShowIds;
     private List<ShowConflictDto> conflicts;
+    private List<SlotResultDto> results;
+
+    public enum SlotStatus {
+        CREATED, CONFLICT
+    }
 
     @Data
     @Builder
@@ -28,4 +33,14 @@ public class BulkShowResponseDto {
         private String reason;
         private String suggestion;
     }
-}
\ No newline at end of file
+
+    @Data
+    @Builder
+    public static class SlotResultDto {
+        private LocalDate date;
+        private LocalTime time;
+        private SlotStatus status;
+        private Long showId;
+        private String message;
+    }
+}
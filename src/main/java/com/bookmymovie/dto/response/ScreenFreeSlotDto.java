@@ -0,0 +1,21 @@
+package com.bookmymovie.dto.response;
+
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ScreenFreeSlotDto {
+
+    private Long screenId;
+    private LocalDateTime freeFrom;
+    private LocalDateTime freeUntil;
+    private Integer freeMinutes;
+
+    // Range of start times at which a show of the requested duration fits in this gap
+    private LocalDateTime earliestStart;
+    private LocalDateTime latestStart;
+}
@@ -26,6 +26,8 @@ public class SeatAvailabilityResponseDto {
     private List<SeatMapDto> seatMap;
     private BigDecimal basePrice;
     private LocalDateTime lastUpdated;
+    private Long version; // Pass back as sinceVersion to receive only changed seats
+    private Boolean delta; // True when seatMap only holds seats changed since the requested version
 
     @Data
     @Builder
@@ -36,7 +38,8 @@ public class SeatAvailabilityResponseDto {
         private String category;
         private BigDecimal price;
         private Boolean available;
-        private Boolean blocked; // Temporarily held during booking process
+        private Boolean blocked; // Taken out of service (e.g. under maintenance)
+        private Boolean held; // Temporarily held by another booking in progress
         private String seatType;
         private List<String> features;
     }
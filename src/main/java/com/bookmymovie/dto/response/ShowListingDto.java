@@ -10,7 +10,7 @@ import java.util.List;
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
-@Builder
+@Builder(toBuilder = true)
 public class ShowListingDto {
 
     private Long movieId;
@@ -23,7 +23,7 @@ public class ShowListingDto {
     private List<TheaterShowDto> theaters;
 
     @Data
-    @Builder
+    @Builder(toBuilder = true)
     public static class TheaterShowDto {
         private Long theaterId;
         private String theaterName;
@@ -35,7 +35,7 @@ public class ShowListingDto {
     }
 
     @Data
-    @Builder
+    @Builder(toBuilder = true)
     public static class ShowTimeDto {
         private Long showId;
         private LocalTime showTime;
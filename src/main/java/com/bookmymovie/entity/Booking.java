@@ -2,6 +2,7 @@ package com.bookmymovie.entity;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.*;
 import lombok.*;
+import org.hibernate.annotations.BatchSize;
 import org.hibernate.annotations.SQLDelete;
 import org.hibernate.annotations.Where;
 import jakarta.persistence.Version;
@@ -62,6 +63,10 @@ public class Booking extends BaseEntity {
     @Column(name = "expiry_time")
     private LocalDateTime expiryTime;
 
+    // Token of the seat hold taken for this booking; identifies the owner of the seat claims
+    @Column(name = "hold_token")
+    private Long holdToken;
+
     // Seat Information
     @NotNull(message = "Number of seats is required")
     @Min(value = 1, message = "At least 1 seat must be booked")
@@ -69,7 +74,9 @@ public class Booking extends BaseEntity {
     @Column(name = "number_of_seats", nullable = false)
     private Integer numberOfSeats;
 
+    // Batch-loaded so a page of bookings initializes its seats in one query
     @OneToMany(mappedBy = "booking", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
+    @BatchSize(size = 50)
     private List<BookingSeat> bookedSeats;
 
     // Pricing Information
@@ -94,6 +101,11 @@ public class Booking extends BaseEntity {
     @Column(name = "final_amount", nullable = false, precision = 10, scale = 2)
     private BigDecimal finalAmount;
 
+    // Demand surge factor the seats were quoted at when the hold was placed; the amounts above
+    // are pinned at that quote and later surge changes do not apply to this booking
+    @Column(name = "surge_factor", precision = 4, scale = 2)
+    private BigDecimal surgeFactor;
+
     // Booking Status
     @NotNull(message = "Booking status is required")
     @Enumerated(EnumType.STRING)
@@ -7,6 +7,7 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.BatchSize;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
@@ -53,6 +54,7 @@ public class Movie {
     private MovieConstant.Language language;
 
     @ElementCollection(targetClass = MovieConstant.Genre.class)
+    @BatchSize(size = 50)
     @Enumerated(EnumType.STRING)
     @CollectionTable(
             name = "movie_genres",
@@ -0,0 +1,83 @@
+package com.bookmymovie.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Side effect of a booking change, written in the transaction that made the change.
+ * OutboxService claims pending messages in batches and hands them to the executor of their topic.
+ * Delivery is at least once: a message whose lease runs out before it is marked done is claimed
+ * again, so handlers pass the idempotency key on to anything that must not happen twice.
+ */
+@Entity
+@Table(name = "booking_outbox",
+        indexes = {
+                @Index(name = "idx_booking_outbox_pending", columnList = "status, available_at"),
+                @Index(name = "idx_booking_outbox_booking", columnList = "booking_id")
+        })
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class OutboxMessage {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "message_id")
+    private Long messageId;
+
+    @Column(name = "booking_id", nullable = false)
+    private Long bookingId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "topic", nullable = false, length = 20)
+    private Topic topic;
+
+    // Booking status the side effect reacts to
+    @Enumerated(EnumType.STRING)
+    @Column(name = "booking_status", nullable = false, length = 20)
+    private Booking.BookingStatus bookingStatus;
+
+    @Column(name = "idempotency_key", nullable = false, unique = true, length = 100)
+    private String idempotencyKey;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false, length = 20)
+    @Builder.Default
+    private Status status = Status.PENDING;
+
+    @Column(name = "attempts", nullable = false)
+    @Builder.Default
+    private Integer attempts = 0;
+
+    // Not claimed before this time; pushed back after a failed attempt
+    @Column(name = "available_at", nullable = false)
+    private LocalDateTime availableAt;
+
+    // Claim lease; a PROCESSING message past its lease is claimed again
+    @Column(name = "locked_until")
+    private LocalDateTime lockedUntil;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "processed_at")
+    private LocalDateTime processedAt;
+
+    @Column(name = "last_error", length = 500)
+    private String lastError;
+
+    public enum Topic {
+        RECEIPT, NOTIFICATION, REWARDS, ANALYTICS
+    }
+
+    public enum Status {
+        PENDING, PROCESSING, DONE, FAILED
+    }
+
+    public static String idempotencyKey(Long bookingId, Booking.BookingStatus bookingStatus, Topic topic) {
+        return "booking:" + bookingId + ":" + bookingStatus + ":" + topic;
+    }
+}
@@ -4,6 +4,7 @@ import com.bookmymovie.constants.TheaterConstant;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.*;
 import lombok.*;
+import org.hibernate.annotations.BatchSize;
 import org.hibernate.annotations.SQLDelete;
 import org.hibernate.annotations.Where;
 
@@ -69,6 +70,7 @@ public class Screen extends BaseEntity {
 
     // Features and capabilities
     @ElementCollection
+    @BatchSize(size = 50)
     @CollectionTable(
             name = "screen_features",
             joinColumns = @JoinColumn(name = "screen_id")
@@ -133,6 +135,10 @@ public class Screen extends BaseEntity {
         return features.contains(feature);
     }
 
+    // Fencing token of the last holder of the show-schedule lock that wrote to this screen's schedule
+    @Column(name = "schedule_fence")
+    private Long scheduleFence;
+
     // Soft delete flag
     @Column(name = "deleted")
     @Builder.Default
@@ -2,6 +2,7 @@ package com.bookmymovie.entity;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.*;
 import lombok.*;
+import org.hibernate.annotations.DynamicUpdate;
 import org.hibernate.annotations.SQLDelete;
 import org.hibernate.annotations.Where;
 import jakarta.persistence.Version;
@@ -19,10 +20,13 @@ import java.time.LocalTime;
                 @Index(name = "idx_show_screen", columnList = "screen_id"),
                 @Index(name = "idx_show_date_time", columnList = "show_date, show_time"),
                 @Index(name = "idx_show_status", columnList = "status"),
-                @Index(name = "idx_show_screen_datetime", columnList = "screen_id, show_date, show_time")
+                @Index(name = "idx_show_screen_datetime", columnList = "screen_id, show_date, show_time"),
+                @Index(name = "idx_show_search", columnList = "status, show_date_time, show_id")
         })
 @SQLDelete(sql = "UPDATE shows SET deleted = true WHERE show_id = ?")
 @Where(clause = "deleted = false")
+@DynamicUpdate
+@EntityListeners(ShowPricingListener.class)
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -31,12 +35,21 @@ import java.time.LocalTime;
 @ToString(exclude = {"movie", "screen"})
 public class Show extends BaseEntity {
 
+    private static final LocalTime MATINEE_START = LocalTime.of(9, 0);
+    private static final LocalTime NOON = LocalTime.of(12, 0);
+    private static final LocalTime PRIME_TIME_START = LocalTime.of(18, 0);
+    private static final LocalTime PRIME_TIME_END = LocalTime.of(22, 0);
+
+    // Pooled sequence rather than IDENTITY so inserts can be JDBC-batched; one sequence call
+    // hands out ids for a whole batch
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "show_id_seq")
+    @SequenceGenerator(name = "show_id_seq", sequenceName = "shows_show_id_seq_pooled", allocationSize = 50)
     @Column(name = "show_id")
     private Long showId;
 
-    // ADD THIS: Optimistic Locking Version Field
+    // Optimistic locking for metadata edits only; seat counters are changed through
+    // ShowRepository.reserveSeats/releaseSeats, which neither read nor bump the version
     @Version
     @Column(name = "version", nullable = false)
     @Builder.Default
@@ -133,6 +146,23 @@ public class Show extends BaseEntity {
     @Column(name = "special_notes", length = 500)
     private String specialNotes;
 
+    // Search attributes, derived from date, time and pricing at write time so show search
+    // can filter on them in SQL
+    @Column(name = "actual_price", precision = 10, scale = 2)
+    private BigDecimal actualPrice;
+
+    @Column(name = "weekend_show")
+    private Boolean weekendShow;
+
+    @Column(name = "prime_time_show")
+    private Boolean primeTimeShow;
+
+    @Column(name = "matinee_show")
+    private Boolean matineeShow;
+
+    @Column(name = "late_night_show")
+    private Boolean lateNightShow;
+
     // Soft delete flag
     @Column(name = "deleted")
     @Builder.Default
@@ -166,37 +196,29 @@ public class Show extends BaseEntity {
         if (totalSeats != null && bookedSeats != null) {
             this.availableSeats = totalSeats - bookedSeats;
         }
-    }
-
-    public BigDecimal calculateActualPrice() {
-        BigDecimal actualPrice = basePrice;
 
-        // Apply weekend multiplier
-        if (isWeekend()) {
-            actualPrice = actualPrice.multiply(weekendMultiplier);
-        }
-
-        // Apply prime time multiplier
-        if (isPrimeTime()) {
-            actualPrice = actualPrice.multiply(primeTimeMultiplier);
-        }
-
-        // Apply holiday multiplier
-        if (isHoliday) {
-            actualPrice = actualPrice.multiply(holidayMultiplier);
-        }
+        refreshSearchAttributes();
+    }
 
-        // Apply special screening multiplier
-        if (isSpecialScreening) {
-            actualPrice = actualPrice.multiply(BigDecimal.valueOf(1.3));
+    /**
+     * Recomputes the persisted date/time flags; returns true if any of them changed.
+     * The actual price is set by {@link ShowPricingListener}, which knows the configured pricing rules.
+     */
+    public boolean refreshSearchAttributes() {
+        if (showDate == null || showTime == null) {
+            return false;
         }
 
-        // Apply premiere multiplier
-        if (isPremiere) {
-            actualPrice = actualPrice.multiply(BigDecimal.valueOf(2.5));
-        }
+        boolean changed = !Boolean.valueOf(isWeekend()).equals(weekendShow)
+                || !Boolean.valueOf(isPrimeTime()).equals(primeTimeShow)
+                || !Boolean.valueOf(isMatineeShow()).equals(matineeShow)
+                || !Boolean.valueOf(isLateNightShow()).equals(lateNightShow);
 
-        return actualPrice.setScale(2, BigDecimal.ROUND_HALF_UP);
+        this.weekendShow = isWeekend();
+        this.primeTimeShow = isPrimeTime();
+        this.matineeShow = isMatineeShow();
+        this.lateNightShow = isLateNightShow();
+        return changed;
     }
 
     public boolean isWeekend() {
@@ -206,19 +228,19 @@ public class Show extends BaseEntity {
 
     public boolean isPrimeTime() {
         // Prime time: 6 PM to 10 PM
-        return showTime.isAfter(LocalTime.of(18, 0)) &&
-                showTime.isBefore(LocalTime.of(22, 0));
+        return showTime.isAfter(PRIME_TIME_START) &&
+                showTime.isBefore(PRIME_TIME_END);
     }
 
     public boolean isMatineeShow() {
         // Morning shows: 9 AM to 12 PM
-        return showTime.isAfter(LocalTime.of(9, 0)) &&
-                showTime.isBefore(LocalTime.of(12, 0));
+        return showTime.isAfter(MATINEE_START) &&
+                showTime.isBefore(NOON);
     }
 
     public boolean isLateNightShow() {
         // Late night: After 10 PM
-        return showTime.isAfter(LocalTime.of(22, 0));
+        return showTime.isAfter(PRIME_TIME_END);
     }
 
     public LocalDateTime getActualEndTime() {
@@ -264,7 +286,7 @@ public class Show extends BaseEntity {
     }
 
     public BigDecimal getProjectedRevenue() {
-        return calculateActualPrice().multiply(BigDecimal.valueOf(bookedSeats));
+        return actualPrice != null ? actualPrice.multiply(BigDecimal.valueOf(bookedSeats)) : BigDecimal.ZERO;
     }
 
     public boolean isFullyBooked() {
@@ -0,0 +1,27 @@
+package com.bookmymovie.entity;
+
+import com.bookmymovie.service.PricingEngine;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.PreUpdate;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+/**
+ * Keeps the persisted actual price of a show in step with its pricing inputs.
+ * A Spring bean (Hibernate resolves entity listeners through the application context), so the
+ * price comes from the configured rules rather than constants on the entity.
+ */
+@Component
+@RequiredArgsConstructor
+public class ShowPricingListener {
+
+    private final PricingEngine pricingEngine;
+
+    @PrePersist
+    @PreUpdate
+    public void applyPrice(Show show) {
+        if (show.getBasePrice() != null && show.getShowDate() != null && show.getShowTime() != null) {
+            show.setActualPrice(pricingEngine.actualPrice(show));
+        }
+    }
+}
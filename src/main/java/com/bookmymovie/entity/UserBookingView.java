@@ -0,0 +1,110 @@
+package com.bookmymovie.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.stream.Collectors;
+
+/**
+ * Read model of a booking as shown in the user's booking history.
+ * Denormalized from the booking, its show, movie and theater so a history page is one index
+ * range scan on (user_id, booking_date, booking_id). Maintained by UserBookingViewService in the
+ * transaction that changes the booking; never written by request code.
+ */
+@Entity
+@Table(name = "user_booking_view",
+        indexes = {
+                @Index(name = "idx_user_booking_view_user_date", columnList = "user_id, booking_date, booking_id"),
+                @Index(name = "idx_user_booking_view_show", columnList = "show_id")
+        })
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class UserBookingView {
+
+    // Same id as the booking it projects
+    @Id
+    @Column(name = "booking_id")
+    private Long bookingId;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "show_id", nullable = false)
+    private Long showId;
+
+    @Column(name = "booking_reference", nullable = false, length = 20)
+    private String bookingReference;
+
+    @Column(name = "booking_date", nullable = false)
+    private LocalDateTime bookingDate;
+
+    @Column(name = "movie_title", nullable = false, length = 200)
+    private String movieTitle;
+
+    @Column(name = "theater_name", nullable = false, length = 100)
+    private String theaterName;
+
+    @Column(name = "show_date", nullable = false)
+    private LocalDate showDate;
+
+    @Column(name = "show_time", nullable = false)
+    private LocalTime showTime;
+
+    @Column(name = "show_date_time", nullable = false)
+    private LocalDateTime showDateTime;
+
+    @Column(name = "number_of_seats", nullable = false)
+    private Integer numberOfSeats;
+
+    @Column(name = "final_amount", precision = 10, scale = 2)
+    private BigDecimal finalAmount;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false)
+    private Booking.BookingStatus status;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "payment_status", nullable = false)
+    private Booking.PaymentStatus paymentStatus;
+
+    @Column(name = "seat_numbers", length = 100)
+    private String seatNumbers;
+
+    /**
+     * Projects a booking whose show, movie, screen, theater and seats can be read
+     */
+    public static UserBookingView from(Booking booking) {
+        Show show = booking.getShow();
+        return UserBookingView.builder()
+                .bookingId(booking.getBookingId())
+                .userId(booking.getUser().getUserId())
+                .showId(show.getShowId())
+                .bookingReference(booking.getBookingReference())
+                .bookingDate(booking.getBookingDate())
+                .movieTitle(show.getMovie().getTitle())
+                .theaterName(show.getScreen().getTheater().getName())
+                .showDate(show.getShowDate())
+                .showTime(show.getShowTime())
+                .showDateTime(show.getShowDateTime())
+                .numberOfSeats(booking.getNumberOfSeats())
+                .finalAmount(booking.getFinalAmount())
+                .status(booking.getStatus())
+                .paymentStatus(booking.getPaymentStatus())
+                .seatNumbers(booking.getBookedSeats() == null ? "" : booking.getBookedSeats().stream()
+                        .map(BookingSeat::getSeatIdentifier)
+                        .collect(Collectors.joining(", ")))
+                .build();
+    }
+
+    // Same rule as Booking#canBeCancelled
+    public boolean canBeCancelled(LocalDateTime now) {
+        return (status == Booking.BookingStatus.CONFIRMED || status == Booking.BookingStatus.PENDING) &&
+                showDateTime.isAfter(now.plusHours(2));
+    }
+}
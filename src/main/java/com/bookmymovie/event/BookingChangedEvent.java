@@ -0,0 +1,59 @@
+package com.bookmymovie.event;
+
+import com.bookmymovie.entity.Booking;
+import org.springframework.context.ApplicationEvent;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Published when bookings are created or change state. A single created or updated booking is
+ * re-read by listeners; bulk transitions (expiry, completion) carry the ids and the new status.
+ */
+public class BookingChangedEvent extends ApplicationEvent {
+
+    public enum ChangeType {
+        CREATED, UPDATED, EXPIRED, COMPLETED
+    }
+
+    private final List<Long> bookingIds;
+    private final Set<Long> userIds;
+    private final ChangeType changeType;
+
+    public BookingChangedEvent(Object source, Long bookingId, Long userId, ChangeType changeType) {
+        this(source, List.of(bookingId), Set.of(userId), changeType);
+    }
+
+    public BookingChangedEvent(Object source, Collection<Long> bookingIds, Collection<Long> userIds,
+                               ChangeType changeType) {
+        super(source);
+        this.bookingIds = List.copyOf(bookingIds);
+        this.userIds = Set.copyOf(userIds);
+        this.changeType = changeType;
+    }
+
+    /**
+     * Status every booking of a bulk transition is now in, or null for single-booking changes
+     */
+    public Booking.BookingStatus getBulkStatus() {
+        return switch (changeType) {
+            case EXPIRED -> Booking.BookingStatus.EXPIRED;
+            case COMPLETED -> Booking.BookingStatus.COMPLETED;
+            default -> null;
+        };
+    }
+
+    // Getters
+    public List<Long> getBookingIds() { return bookingIds; }
+    public Set<Long> getUserIds() { return userIds; }
+    public ChangeType getChangeType() { return changeType; }
+
+    @Override
+    public String toString() {
+        return "BookingChangedEvent{" +
+                "bookingIds=" + bookingIds +
+                ", changeType=" + changeType +
+                '}';
+    }
+}
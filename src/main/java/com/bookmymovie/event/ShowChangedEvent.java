@@ -0,0 +1,47 @@
+package com.bookmymovie.event;
+
+import org.springframework.context.ApplicationEvent;
+
+import java.time.LocalDate;
+
+public class ShowChangedEvent extends ApplicationEvent {
+
+    public enum ChangeType {
+        CREATED, UPDATED, CANCELLED
+    }
+
+    private final Long showId;
+    private final Long screenId;
+    private final Long movieId;
+    private final LocalDate showDate;
+    private final String city;
+    private final ChangeType changeType;
+
+    public ShowChangedEvent(Object source, Long showId, Long screenId, Long movieId,
+                            LocalDate showDate, String city, ChangeType changeType) {
+        super(source);
+        this.showId = showId;
+        this.screenId = screenId;
+        this.movieId = movieId;
+        this.showDate = showDate;
+        this.city = city;
+        this.changeType = changeType;
+    }
+
+    // Getters
+    public Long getShowId() { return showId; }
+    public Long getScreenId() { return screenId; }
+    public Long getMovieId() { return movieId; }
+    public LocalDate getShowDate() { return showDate; }
+    public String getCity() { return city; }
+    public ChangeType getChangeType() { return changeType; }
+
+    @Override
+    public String toString() {
+        return "ShowChangedEvent{" +
+                "showId=" + showId +
+                ", screenId=" + screenId +
+                ", changeType=" + changeType +
+                '}';
+    }
+}
@@ -0,0 +1,31 @@
+package com.bookmymovie.event;
+
+import org.springframework.context.ApplicationEvent;
+
+/**
+ * Published when a show's seat counters change (seats reserved by a booking, or released by
+ * cancellation or expiry). Metadata changes go through {@link ShowChangedEvent} instead.
+ */
+public class ShowSeatsChangedEvent extends ApplicationEvent {
+
+    private final Long showId;
+    private final int availableSeatsDelta;
+
+    public ShowSeatsChangedEvent(Object source, Long showId, int availableSeatsDelta) {
+        super(source);
+        this.showId = showId;
+        this.availableSeatsDelta = availableSeatsDelta;
+    }
+
+    // Getters
+    public Long getShowId() { return showId; }
+    public int getAvailableSeatsDelta() { return availableSeatsDelta; }
+
+    @Override
+    public String toString() {
+        return "ShowSeatsChangedEvent{" +
+                "showId=" + showId +
+                ", availableSeatsDelta=" + availableSeatsDelta +
+                '}';
+    }
+}
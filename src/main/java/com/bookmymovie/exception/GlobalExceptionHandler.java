@@ -147,6 +147,21 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS).body(response);
     }
 
+    @ExceptionHandler(IdempotencyException.class)
+    public ResponseEntity<ApiResponse<Object>> handleIdempotency(
+            IdempotencyException ex, WebRequest request) {
+
+        log.warn("Idempotency key rejected: {}", ex.getMessage());
+
+        ApiResponse<Object> response = ApiResponse.error(
+                "Idempotency key rejected",
+                ex.getMessage(),
+                request.getDescription(false).replace("uri=", "")
+        );
+
+        return ResponseEntity.status(ex.getHttpStatusCode()).body(response);
+    }
+
     @ExceptionHandler(RegistrationInProgressException.class)
     public ResponseEntity<ApiResponse<Object>> handleRegistrationInProgress(
             RegistrationInProgressException ex, WebRequest request) {
@@ -0,0 +1,32 @@
+package com.bookmymovie.exception;
+
+/**
+ * An Idempotency-Key that cannot be honoured: missing or malformed, reused for a different
+ * request, or still held by a request that has not finished
+ */
+public class IdempotencyException extends BaseException {
+
+    private final int httpStatusCode;
+
+    private IdempotencyException(String message, int httpStatusCode) {
+        super(message);
+        this.httpStatusCode = httpStatusCode;
+    }
+
+    public static IdempotencyException invalidKey(String message) {
+        return new IdempotencyException(message, 400);
+    }
+
+    public static IdempotencyException inProgress(String message) {
+        return new IdempotencyException(message, 409);
+    }
+
+    public static IdempotencyException keyReused(String message) {
+        return new IdempotencyException(message, 422);
+    }
+
+    @Override
+    public int getHttpStatusCode() {
+        return httpStatusCode;
+    }
+}
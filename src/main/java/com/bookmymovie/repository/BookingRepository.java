@@ -1,9 +1,13 @@
 package com.bookmymovie.repository;
 
 import com.bookmymovie.entity.Booking;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -12,6 +16,7 @@ import org.springframework.stereotype.Repository;
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -22,8 +27,6 @@ public interface BookingRepository extends JpaRepository<Booking, Long> {
 
     Optional<Booking> findByBookingReference(String bookingReference);
 
-    List<Booking> findByUserUserIdOrderByBookingDateDesc(Long userId);
-
     Page<Booking> findByUserUserIdOrderByBookingDateDesc(Long userId, Pageable pageable);
 
     List<Booking> findByShowShowIdAndStatusOrderByBookingDate(Long showId, Booking.BookingStatus status);
@@ -31,6 +34,41 @@ public interface BookingRepository extends JpaRepository<Booking, Long> {
     List<Booking> findByStatusAndBookingDateBetween(
             Booking.BookingStatus status, LocalDateTime startDate, LocalDateTime endDate);
 
+    // ==================== READ FETCH PLANS ====================
+    // One per read use case: each loads what its DTO walks in one query. Booked seats are a
+    // collection, so pages leave them to @BatchSize instead of paginating a join in memory.
+
+    /**
+     * Summary: show, movie and theater of each booking
+     */
+    @EntityGraph(attributePaths = {"show.movie", "show.screen.theater"})
+    @Query(value = "SELECT b FROM Booking b WHERE b.user.userId = :userId",
+            countQuery = "SELECT COUNT(b) FROM Booking b WHERE b.user.userId = :userId")
+    Page<Booking> findSummariesByUserId(@Param("userId") Long userId, Pageable pageable);
+
+    @EntityGraph(attributePaths = {"show.movie", "show.screen.theater"})
+    @Query("SELECT b FROM Booking b WHERE b.bookingId IN :bookingIds")
+    List<Booking> findSummariesByIds(@Param("bookingIds") Collection<Long> bookingIds);
+
+    /**
+     * Detail and receipt: everything of the summary plus the user and the booked seats
+     */
+    @EntityGraph(attributePaths = {"user", "show.movie", "show.screen.theater", "bookedSeats"})
+    @Query("SELECT b FROM Booking b WHERE b.bookingId = :bookingId")
+    Optional<Booking> findDetailsById(@Param("bookingId") Long bookingId);
+
+    @EntityGraph(attributePaths = {"user", "show.movie", "show.screen.theater", "bookedSeats"})
+    @Query("SELECT b FROM Booking b WHERE b.bookingReference = :bookingReference")
+    Optional<Booking> findDetailsByBookingReference(@Param("bookingReference") String bookingReference);
+
+    /**
+     * Bookings after the given id that have no user booking view row yet, in id order
+     */
+    @Query("SELECT b.bookingId FROM Booking b WHERE b.bookingId > :afterId " +
+            "AND NOT EXISTS (SELECT v.bookingId FROM UserBookingView v WHERE v.bookingId = b.bookingId) " +
+            "ORDER BY b.bookingId")
+    List<Long> findIdsMissingFromUserBookingView(@Param("afterId") Long afterId, Limit limit);
+
     // ==================== USER BOOKING QUERIES ====================
 
     @Query("SELECT b FROM Booking b WHERE b.user.userId = :userId " +
@@ -100,6 +138,34 @@ public interface BookingRepository extends JpaRepository<Booking, Long> {
             "AND b.expiryTime < :currentTime")
     int expireOldPendingBookings(@Param("currentTime") LocalDateTime currentTime);
 
+    @Query("SELECT b.bookingId FROM Booking b WHERE b.status = 'PENDING' " +
+            "AND b.expiryTime < :currentTime")
+    List<Long> findExpiredPendingBookingIds(@Param("currentTime") LocalDateTime currentTime);
+
+    @Query("SELECT b.bookingId, b.expiryTime FROM Booking b WHERE b.status = 'PENDING'")
+    List<Object[]> findPendingBookingDeadlines();
+
+    /**
+     * Locks the bookings that are still PENDING and past their expiry, so payment cannot confirm them concurrently
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT b FROM Booking b WHERE b.bookingId IN :bookingIds " +
+            "AND b.status = 'PENDING' AND b.expiryTime <= :currentTime")
+    List<Booking> lockExpirablePendingBookings(@Param("bookingIds") Collection<Long> bookingIds,
+                                               @Param("currentTime") LocalDateTime currentTime);
+
+    /**
+     * Expires bookings in one statement; VERSIONED bumps the version so a concurrent payment save fails
+     */
+    @Modifying
+    @Query("UPDATE VERSIONED Booking b SET b.status = 'EXPIRED' WHERE b.bookingId IN :bookingIds " +
+            "AND b.status = 'PENDING'")
+    int expirePendingBookings(@Param("bookingIds") Collection<Long> bookingIds);
+
+    @Query("SELECT bs.booking.bookingId, bs.seat.seatId FROM BookingSeat bs " +
+            "WHERE bs.booking.bookingId IN :bookingIds")
+    List<Object[]> findSeatIdsForBookings(@Param("bookingIds") Collection<Long> bookingIds);
+
     @Query("SELECT b FROM Booking b WHERE b.status = 'CONFIRMED' " +
             "AND b.show.showDateTime < :cutoffTime")
     List<Booking> findCompletedShowBookings(@Param("cutoffTime") LocalDateTime cutoffTime);
@@ -236,6 +302,13 @@ public interface BookingRepository extends JpaRepository<Booking, Long> {
     List<Long> getUnavailableSeatIdsForShow(@Param("showId") Long showId,
                                             @Param("currentTime") LocalDateTime currentTime);
 
+    @Query("SELECT bs.seat.seatId, bs.booking.status, bs.booking.expiryTime, bs.booking.holdToken FROM BookingSeat bs " +
+            "WHERE bs.booking.show.showId = :showId " +
+            "AND (bs.booking.status = 'CONFIRMED' " +
+            "     OR (bs.booking.status = 'PENDING' AND bs.booking.expiryTime > :currentTime))")
+    List<Object[]> getActiveSeatStatesForShow(@Param("showId") Long showId,
+                                              @Param("currentTime") LocalDateTime currentTime);
+
     @Query("SELECT bs.seat.rowLabel, bs.seat.seatNumber FROM BookingSeat bs " +
             "WHERE bs.booking.show.showId = :showId " +
             "AND bs.booking.status = 'CONFIRMED' " +
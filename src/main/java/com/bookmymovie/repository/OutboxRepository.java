@@ -0,0 +1,71 @@
+package com.bookmymovie.repository;
+
+import com.bookmymovie.entity.OutboxMessage;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface OutboxRepository extends JpaRepository<OutboxMessage, Long> {
+
+    // ==================== WRITE ====================
+
+    /**
+     * Adds a message unless one with the same idempotency key exists, without failing the
+     * surrounding booking transaction on a duplicate
+     */
+    @Modifying
+    @Query(value = "INSERT INTO booking_outbox (booking_id, topic, booking_status, idempotency_key, status, " +
+            "attempts, available_at, created_at) " +
+            "VALUES (:bookingId, :topic, :bookingStatus, :idempotencyKey, 'PENDING', 0, :now, :now) " +
+            "ON CONFLICT (idempotency_key) DO NOTHING", nativeQuery = true)
+    int enqueue(@Param("bookingId") Long bookingId,
+                @Param("topic") String topic,
+                @Param("bookingStatus") String bookingStatus,
+                @Param("idempotencyKey") String idempotencyKey,
+                @Param("now") LocalDateTime now);
+
+    // ==================== CLAIM ====================
+
+    /**
+     * Locks up to batchSize claimable messages, skipping rows other pollers have locked
+     */
+    @Query(value = "SELECT message_id FROM booking_outbox " +
+            "WHERE (status = 'PENDING' AND available_at <= :now) " +
+            "OR (status = 'PROCESSING' AND locked_until < :now) " +
+            "ORDER BY message_id LIMIT :batchSize FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<Long> lockClaimableIds(@Param("now") LocalDateTime now, @Param("batchSize") int batchSize);
+
+    @Modifying
+    @Query("UPDATE OutboxMessage m SET m.status = 'PROCESSING', m.attempts = m.attempts + 1, " +
+            "m.lockedUntil = :leaseUntil WHERE m.messageId IN :messageIds")
+    int markProcessing(@Param("messageIds") Collection<Long> messageIds, @Param("leaseUntil") LocalDateTime leaseUntil);
+
+    // ==================== COMPLETION ====================
+
+    @Modifying
+    @Query("UPDATE OutboxMessage m SET m.status = 'DONE', m.processedAt = :now, m.lockedUntil = NULL, " +
+            "m.lastError = NULL WHERE m.messageId = :messageId AND m.status = 'PROCESSING'")
+    int markDone(@Param("messageId") Long messageId, @Param("now") LocalDateTime now);
+
+    /**
+     * Releases a failed message, either back to PENDING at a later time or to FAILED for good
+     */
+    @Modifying
+    @Query("UPDATE OutboxMessage m SET m.status = :status, m.availableAt = :availableAt, m.lockedUntil = NULL, " +
+            "m.lastError = :lastError WHERE m.messageId = :messageId AND m.status = 'PROCESSING'")
+    int markAttemptFailed(@Param("messageId") Long messageId,
+                          @Param("status") OutboxMessage.Status status,
+                          @Param("availableAt") LocalDateTime availableAt,
+                          @Param("lastError") String lastError);
+
+    @Modifying
+    @Query("DELETE FROM OutboxMessage m WHERE m.status = 'DONE' AND m.processedAt < :cutoff")
+    int deleteProcessedBefore(@Param("cutoff") LocalDateTime cutoff);
+}
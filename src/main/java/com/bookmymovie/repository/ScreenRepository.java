@@ -2,7 +2,10 @@ package com.bookmymovie.repository;
 
 import com.bookmymovie.constants.TheaterConstant;
 import com.bookmymovie.entity.Screen;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -14,6 +17,24 @@ import java.util.Optional;
 @Repository
 public interface ScreenRepository extends JpaRepository<Screen, Long> {
 
+    /**
+     * Records the schedule lock holder's fencing token; returns 0 if a holder with a newer token
+     * already wrote, i.e. the caller's lock lease has expired. The row stays locked until the caller
+     * commits, so schedule writes on one screen never interleave.
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE Screen s SET s.scheduleFence = :token " +
+            "WHERE s.screenId = :screenId AND (s.scheduleFence IS NULL OR s.scheduleFence <= :token)")
+    int advanceScheduleFence(@Param("screenId") Long screenId, @Param("token") long token);
+
+    /**
+     * Takes the same row lock as {@link #advanceScheduleFence} for writers that move an existing show
+     * without holding the schedule lock; it is held until the caller commits
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s FROM Screen s WHERE s.screenId = :screenId")
+    Optional<Screen> lockForScheduling(@Param("screenId") Long screenId);
+
     // Basic queries
     List<Screen> findByTheaterTheaterIdAndStatusAndDeletedFalse(
             Long theaterId, TheaterConstant.ScreenStatus status);
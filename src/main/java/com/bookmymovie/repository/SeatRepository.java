@@ -72,6 +72,13 @@ public interface SeatRepository extends JpaRepository<Seat, Long> {
             "AND s.deleted = false ORDER BY s.rowNumber, s.seatNumber")
     List<Seat> findSeatMapByScreen(@Param("screenId") Long screenId);
 
+    @Query("SELECT s.seatId, s.status FROM Seat s WHERE s.screen.screenId = :screenId")
+    List<Object[]> findSeatStatesByScreen(@Param("screenId") Long screenId);
+
+    @Query("SELECT DISTINCT s FROM Seat s LEFT JOIN FETCH s.features " +
+            "WHERE s.screen.screenId = :screenId ORDER BY s.rowLabel, s.seatNumber")
+    List<Seat> findLayoutByScreenWithFeatures(@Param("screenId") Long screenId);
+
     // Bulk operations queries
     @Query("SELECT s FROM Seat s WHERE s.seatId IN :seatIds AND s.deleted = false")
     List<Seat> findBySeatIds(@Param("seatIds") List<Long> seatIds);
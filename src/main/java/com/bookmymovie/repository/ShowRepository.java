@@ -3,11 +3,15 @@ package com.bookmymovie.repository;
 import com.bookmymovie.entity.Show;
 import com.bookmymovie.entity.Theater;
 import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
@@ -18,7 +22,7 @@ import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface ShowRepository extends JpaRepository<Show, Long> {
+public interface ShowRepository extends JpaRepository<Show, Long>, JpaSpecificationExecutor<Show> {
 
     // ==================== BASIC QUERIES ====================
 
@@ -31,8 +35,29 @@ public interface ShowRepository extends JpaRepository<Show, Long> {
 
     List<Show> findByScreenTheaterTheaterIdAndShowDateOrderByShowTime(Long theaterId, LocalDate showDate);
 
+    @Query("SELECT s FROM Show s JOIN FETCH s.movie JOIN FETCH s.screen sc JOIN FETCH sc.theater " +
+            "WHERE s.showId = :showId")
+    Optional<Show> findByIdWithDetails(@Param("showId") Long showId);
+
+    // Screen id and start time, as one row
+    @Query("SELECT s.screen.screenId, s.showDateTime FROM Show s WHERE s.showId = :showId")
+    List<Object[]> findScreenAndStartByShowId(@Param("showId") Long showId);
+
+    @Query("SELECT s.showId FROM Show s WHERE s.screen.screenId = :screenId " +
+            "AND s.showDateTime >= :from AND s.status IN ('SCHEDULED', 'ONGOING')")
+    List<Long> findUpcomingShowIdsByScreen(@Param("screenId") Long screenId, @Param("from") LocalDateTime from);
+
     // ==================== CONFLICT DETECTION ====================
 
+    @Query("SELECT s FROM Show s JOIN FETCH s.movie JOIN FETCH s.screen sc JOIN FETCH sc.theater " +
+            "WHERE sc.screenId = :screenId " +
+            "AND s.showDate BETWEEN :startDate AND :endDate " +
+            "AND s.status IN ('SCHEDULED', 'ONGOING')")
+    List<Show> findActiveShowsByScreenBetweenDates(
+            @Param("screenId") Long screenId,
+            @Param("startDate") LocalDate startDate,
+            @Param("endDate") LocalDate endDate);
+
     @Query("SELECT s FROM Show s WHERE s.screen.screenId = :screenId " +
             "AND s.showDate = :showDate " +
             "AND s.status IN ('SCHEDULED', 'ONGOING') " +
@@ -57,8 +82,9 @@ public interface ShowRepository extends JpaRepository<Show, Long> {
 
     // ==================== SEARCH & FILTERING ====================
 
-    @Query("SELECT s FROM Show s WHERE s.movie.movieId = :movieId " +
-            "AND s.screen.theater.city = :city " +
+    @Query("SELECT s FROM Show s JOIN FETCH s.movie JOIN FETCH s.screen sc JOIN FETCH sc.theater t " +
+            "WHERE s.movie.movieId = :movieId " +
+            "AND LOWER(t.city) = LOWER(:city) " +
             "AND s.showDate = :showDate " +
             "AND s.status = 'SCHEDULED' " +
             "ORDER BY s.showTime")
@@ -78,6 +104,13 @@ public interface ShowRepository extends JpaRepository<Show, Long> {
             @Param("startDate") LocalDate startDate,
             @Param("endDate") LocalDate endDate);
 
+    @Query("SELECT s FROM Show s JOIN FETCH s.movie JOIN FETCH s.screen sc JOIN FETCH sc.theater " +
+            "WHERE s.showDate BETWEEN :startDate AND :endDate " +
+            "AND s.status = 'SCHEDULED'")
+    List<Show> findScheduledShowsWithDetailsBetweenDates(
+            @Param("startDate") LocalDate startDate,
+            @Param("endDate") LocalDate endDate);
+
     @Query("SELECT s FROM Show s WHERE s.screen.theater.theaterId = :theaterId " +
             "AND s.showDate BETWEEN :startDate AND :endDate " +
             "AND s.status IN :statuses " +
@@ -225,6 +258,28 @@ public interface ShowRepository extends JpaRepository<Show, Long> {
 
     // ==================== MAINTENANCE QUERIES ====================
 
+    List<Show> findByShowIdGreaterThanAndActualPriceIsNullAndShowDateTimeAfterOrderByShowId(
+            Long afterId, LocalDateTime dateTime, Limit limit);
+
+    /**
+     * Moves the pooled id sequence past ids handed out before it existed (rows inserted through the
+     * old IDENTITY column); a no-op once the sequence is ahead.
+     * The sequence is advanced by drawing values rather than with setval, so it only ever moves
+     * forward: a node that reads a stale last_value while another draws ids overshoots by a few
+     * blocks instead of rewinding the sequence into ids already handed out.
+     *
+     * @return the sequence's last value after aligning
+     */
+    @Transactional
+    @Query(value = "WITH gap AS (SELECT last_value, " +
+            "GREATEST((SELECT COALESCE(MAX(show_id), 0) FROM shows) - last_value, 0) AS missing, " +
+            "(SELECT increment_by FROM pg_sequences WHERE sequencename = 'shows_show_id_seq_pooled') AS step " +
+            "FROM shows_show_id_seq_pooled) " +
+            "SELECT COALESCE(MAX(nextval('shows_show_id_seq_pooled')), (SELECT last_value FROM gap)) " +
+            "FROM gap, generate_series(1, CASE WHEN gap.missing > 0 " +
+            "THEN CEIL(gap.missing::numeric / gap.step)::int + 1 ELSE 0 END)", nativeQuery = true)
+    Long alignShowIdSequence();
+
     @Query("SELECT s FROM Show s WHERE s.status = 'SCHEDULED' " +
             "AND s.showDateTime < :cutoffDateTime")
     List<Show> findExpiredScheduledShows(@Param("cutoffDateTime") LocalDateTime cutoffDateTime);
@@ -254,6 +309,28 @@ public interface ShowRepository extends JpaRepository<Show, Long> {
             @Param("endDate") LocalDate endDate);
 
 
+    // ==================== SEAT COUNTERS ====================
+
+    /**
+     * Atomically moves seats from available to booked.
+     * Returns 0 when fewer than the requested seats are available; no version check, no retries.
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE Show s SET s.availableSeats = s.availableSeats - :count, " +
+            "s.bookedSeats = s.bookedSeats + :count " +
+            "WHERE s.showId = :showId AND s.availableSeats >= :count")
+    int reserveSeats(@Param("showId") Long showId, @Param("count") int count);
+
+    /**
+     * Atomically moves seats from booked back to available.
+     * Returns 0 when fewer than the requested seats are booked.
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE Show s SET s.availableSeats = s.availableSeats + :count, " +
+            "s.bookedSeats = s.bookedSeats - :count " +
+            "WHERE s.showId = :showId AND s.bookedSeats >= :count")
+    int releaseSeats(@Param("showId") Long showId, @Param("count") int count);
+
     // Pessimistic Write Lock - Exclusive Access
     @Query("SELECT s FROM Show s WHERE s.showId = :showId")
     @Lock(LockModeType.PESSIMISTIC_WRITE)
@@ -0,0 +1,191 @@
+package com.bookmymovie.repository;
+
+import com.bookmymovie.dto.request.ShowSearchRequestDto;
+import com.bookmymovie.entity.Movie;
+import com.bookmymovie.entity.Screen;
+import com.bookmymovie.entity.Show;
+import com.bookmymovie.entity.Theater;
+import jakarta.persistence.criteria.*;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Dynamic predicates for show search.
+ * Movie, screen and theater are fetch-joined so a page of results is one query; every filter
+ * maps to a column, including the date/time flags and actual price that Show precomputes on write.
+ */
+public final class ShowSpecifications {
+
+    private static final double EARTH_RADIUS_KM = 6371.0;
+    private static final double KM_PER_DEGREE_LATITUDE = 111.045;
+
+    private ShowSpecifications() {
+    }
+
+    /**
+     * All filters of the request, plus the keyset cursor if one was given
+     *
+     * @param now lower bound on show time when the request has no date filter
+     */
+    public static Specification<Show> forSearch(ShowSearchRequestDto request, LocalDateTime now, boolean ascending) {
+        return (root, query, cb) -> {
+            Join<Show, Movie> movie;
+            Join<Show, Screen> screen;
+            Join<Screen, Theater> theater;
+            if (isCountQuery(query)) {
+                movie = root.join("movie");
+                screen = root.join("screen");
+                theater = screen.join("theater");
+            } else {
+                movie = asJoin(root.fetch("movie"));
+                screen = asJoin(root.fetch("screen"));
+                theater = asJoin(screen.fetch("theater"));
+            }
+
+            List<Predicate> predicates = new ArrayList<>();
+
+            // ==================== IDENTITY ====================
+
+            if (request.getMovieId() != null) {
+                predicates.add(cb.equal(movie.get("movieId"), request.getMovieId()));
+            }
+            if (request.getScreenId() != null) {
+                predicates.add(cb.equal(screen.get("screenId"), request.getScreenId()));
+            }
+            if (request.getTheaterId() != null) {
+                predicates.add(cb.equal(theater.get("theaterId"), request.getTheaterId()));
+            }
+            if (request.getCity() != null && !request.getCity().isBlank()) {
+                predicates.add(cb.equal(cb.lower(theater.get("city")), request.getCity().trim().toLowerCase()));
+            }
+
+            // ==================== DATE & TIME ====================
+
+            if (request.getShowDate() != null) {
+                predicates.add(cb.equal(root.get("showDate"), request.getShowDate()));
+            }
+            if (request.getStartDate() != null) {
+                predicates.add(cb.greaterThanOrEqualTo(root.get("showDate"), request.getStartDate()));
+            }
+            if (request.getEndDate() != null) {
+                predicates.add(cb.lessThanOrEqualTo(root.get("showDate"), request.getEndDate()));
+            }
+            if (request.getShowDate() == null && request.getStartDate() == null && request.getEndDate() == null) {
+                predicates.add(cb.greaterThan(root.get("showDateTime"), now));
+            }
+            if (request.getStartTime() != null) {
+                predicates.add(cb.greaterThanOrEqualTo(root.<LocalTime>get("showTime"), request.getStartTime()));
+            }
+            if (request.getEndTime() != null) {
+                predicates.add(cb.lessThanOrEqualTo(root.<LocalTime>get("showTime"), request.getEndTime()));
+            }
+
+            addFlag(predicates, cb, root.get("weekendShow"), request.getIsWeekend());
+            addFlag(predicates, cb, root.get("primeTimeShow"), request.getIsPrimeTime());
+            addFlag(predicates, cb, root.get("matineeShow"), request.getIsMatinee());
+            addFlag(predicates, cb, root.get("lateNightShow"), request.getIsLateNight());
+            addFlag(predicates, cb, root.get("isPremiere"), request.getIsPremiere());
+            addFlag(predicates, cb, root.get("isSpecialScreening"), request.getIsSpecialScreening());
+
+            // ==================== AVAILABILITY ====================
+
+            if (request.getStatus() != null) {
+                predicates.add(cb.equal(root.get("status"), request.getStatus()));
+            } else if (Boolean.TRUE.equals(request.getAvailableOnly())) {
+                predicates.add(cb.equal(root.get("status"), Show.ShowStatus.SCHEDULED));
+            }
+            if (Boolean.TRUE.equals(request.getAvailableOnly())) {
+                predicates.add(cb.greaterThan(root.get("availableSeats"), 0));
+            }
+            if (request.getMinAvailableSeats() != null) {
+                predicates.add(cb.greaterThanOrEqualTo(root.get("availableSeats"), request.getMinAvailableSeats()));
+            }
+
+            // ==================== PRICE ====================
+
+            if (request.getMinPrice() != null) {
+                predicates.add(cb.greaterThanOrEqualTo(root.<BigDecimal>get("actualPrice"), request.getMinPrice()));
+            }
+            if (request.getMaxPrice() != null) {
+                predicates.add(cb.lessThanOrEqualTo(root.<BigDecimal>get("actualPrice"), request.getMaxPrice()));
+            }
+
+            // ==================== LOCATION ====================
+
+            if (request.getLatitude() != null && request.getLongitude() != null && request.getRadiusKm() != null) {
+                addWithinRadius(predicates, cb, theater, request.getLatitude(), request.getLongitude(), request.getRadiusKm());
+            }
+
+            // ==================== KEYSET CURSOR ====================
+
+            if (request.getAfterShowDateTime() != null) {
+                predicates.add(afterCursor(cb, root, request.getAfterShowDateTime(), request.getAfterShowId(), ascending));
+            }
+
+            return cb.and(predicates.toArray(new Predicate[0]));
+        };
+    }
+
+    private static void addFlag(List<Predicate> predicates, CriteriaBuilder cb, Path<Boolean> path, Boolean wanted) {
+        if (wanted != null) {
+            predicates.add(wanted ? cb.isTrue(path) : cb.isFalse(path));
+        }
+    }
+
+    /**
+     * Bounding box first, so the theater location index narrows the rows, then the exact great-circle distance
+     */
+    private static void addWithinRadius(List<Predicate> predicates, CriteriaBuilder cb, Join<Screen, Theater> theater,
+                                        double latitude, double longitude, double radiusKm) {
+        double latDelta = radiusKm / KM_PER_DEGREE_LATITUDE;
+        double lonDelta = radiusKm / (KM_PER_DEGREE_LATITUDE * Math.max(Math.cos(Math.toRadians(latitude)), 0.01));
+
+        Path<BigDecimal> lat = theater.get("latitude");
+        Path<BigDecimal> lon = theater.get("longitude");
+        predicates.add(cb.between(lat, BigDecimal.valueOf(latitude - latDelta), BigDecimal.valueOf(latitude + latDelta)));
+        predicates.add(cb.between(lon, BigDecimal.valueOf(longitude - lonDelta), BigDecimal.valueOf(longitude + lonDelta)));
+
+        // acos(cos(lat1) * cos(lat2) * cos(lon2 - lon1) + sin(lat1) * sin(lat2)) * R <= radius
+        Expression<Double> theaterLat = cb.function("radians", Double.class, lat);
+        Expression<Double> deltaLon = cb.diff(cb.function("radians", Double.class, lon), Math.toRadians(longitude));
+        Expression<Double> cosine = cb.sum(
+                cb.prod(cb.prod(Math.cos(Math.toRadians(latitude)), cb.function("cos", Double.class, theaterLat)),
+                        cb.function("cos", Double.class, deltaLon)),
+                cb.prod(Math.sin(Math.toRadians(latitude)), cb.function("sin", Double.class, theaterLat)));
+        // Clamp before acos; rounding can push the cosine of a zero distance just above 1
+        Expression<Double> clamped = cb.<Double>selectCase().when(cb.greaterThan(cosine, 1.0), 1.0).otherwise(cosine);
+        predicates.add(cb.lessThanOrEqualTo(
+                cb.prod(cb.function("acos", Double.class, clamped), EARTH_RADIUS_KM), radiusKm));
+    }
+
+    /**
+     * Rows strictly after (showDateTime, showId) in the search order
+     */
+    private static Predicate afterCursor(CriteriaBuilder cb, Root<Show> root, LocalDateTime afterShowDateTime,
+                                         Long afterShowId, boolean ascending) {
+        Path<LocalDateTime> showDateTime = root.get("showDateTime");
+        Path<Long> showId = root.get("showId");
+        long id = afterShowId != null ? afterShowId : (ascending ? Long.MAX_VALUE : Long.MIN_VALUE);
+
+        if (ascending) {
+            return cb.or(cb.greaterThan(showDateTime, afterShowDateTime),
+                    cb.and(cb.equal(showDateTime, afterShowDateTime), cb.greaterThan(showId, id)));
+        }
+        return cb.or(cb.lessThan(showDateTime, afterShowDateTime),
+                cb.and(cb.equal(showDateTime, afterShowDateTime), cb.lessThan(showId, id)));
+    }
+
+    private static boolean isCountQuery(CriteriaQuery<?> query) {
+        return query != null && (query.getResultType() == Long.class || query.getResultType() == long.class);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <X, Y> Join<X, Y> asJoin(Fetch<X, Y> fetch) {
+        return (Join<X, Y>) fetch;
+    }
+}
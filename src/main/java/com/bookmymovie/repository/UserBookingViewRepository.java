@@ -0,0 +1,53 @@
+package com.bookmymovie.repository;
+
+import com.bookmymovie.entity.Booking;
+import com.bookmymovie.entity.UserBookingView;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface UserBookingViewRepository extends JpaRepository<UserBookingView, Long> {
+
+    // ==================== KEYSET PAGES ====================
+    // Newest first on (bookingDate, bookingId); each page continues strictly after the last row
+    // of the previous one, so the cost does not grow with the page number
+
+    List<UserBookingView> findByUserIdOrderByBookingDateDescBookingIdDesc(Long userId, Limit limit);
+
+    @Query("SELECT v FROM UserBookingView v WHERE v.userId = :userId " +
+            "AND (v.bookingDate < :bookingDate OR (v.bookingDate = :bookingDate AND v.bookingId < :bookingId)) " +
+            "ORDER BY v.bookingDate DESC, v.bookingId DESC")
+    List<UserBookingView> findPageAfter(
+            @Param("userId") Long userId,
+            @Param("bookingDate") LocalDateTime bookingDate,
+            @Param("bookingId") Long bookingId,
+            Limit limit);
+
+    // ==================== PROJECTION UPDATES ====================
+
+    @Modifying
+    @Query("UPDATE UserBookingView v SET v.status = :status WHERE v.bookingId IN :bookingIds")
+    int updateStatus(@Param("bookingIds") Collection<Long> bookingIds,
+                     @Param("status") Booking.BookingStatus status);
+
+    @Modifying
+    @Query("UPDATE UserBookingView v SET v.showDate = :showDate, v.showTime = :showTime, " +
+            "v.showDateTime = :showDateTime WHERE v.showId = :showId")
+    int updateShowTiming(@Param("showId") Long showId,
+                         @Param("showDate") LocalDate showDate,
+                         @Param("showTime") LocalTime showTime,
+                         @Param("showDateTime") LocalDateTime showDateTime);
+
+    @Query("SELECT DISTINCT v.userId FROM UserBookingView v WHERE v.showId = :showId")
+    List<Long> findUserIdsByShowId(@Param("showId") Long showId);
+}
@@ -32,21 +32,22 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         try {
             String jwt = getJwtFromRequest(request);
 
-            if (StringUtils.hasText(jwt) && jwtTokenProvider.validateToken(jwt)) {
-                String email = jwtTokenProvider.getUserEmailFromToken(jwt);
-                Long userId = jwtTokenProvider.getUserIdFromToken(jwt);
-                String role = jwtTokenProvider.getRoleFromToken(jwt);
-                String phoneNumber = jwtTokenProvider.getPhoneNumberFromToken(jwt);
+            // Verified once per token; repeat requests are served from the provider's cache
+            VerifiedToken token = StringUtils.hasText(jwt) ? jwtTokenProvider.verify(jwt) : null;
+
+            if (token != null) {
+                Long userId = token.getUserId();
+                String role = token.getRole();
                 // Convert role string to enum
                 UserConstant.UserRole roleConstant = UserConstant.UserRole.valueOf(role);
 
                 // Create UserPrincipal
                 UserPrincipal userPrincipal = new UserPrincipal();
                 userPrincipal.setId(userId);
-                userPrincipal.setEmail(email);
-//                userPrincipal.setFirstName(firstName);
-//                userPrincipal.setLastName(lastName);
-                userPrincipal.setPhoneNumber(phoneNumber);
+                userPrincipal.setEmail(token.getEmail());
+                userPrincipal.setFirstName(token.getFirstName());
+                userPrincipal.setLastName(token.getLastName());
+                userPrincipal.setPhoneNumber(token.getPhoneNumber());
                 userPrincipal.setRole(roleConstant);
                 userPrincipal.setActive(true); // Since JWT is valid, user is active
 
@@ -1,15 +1,21 @@
 package com.bookmymovie.security;
 
 import com.bookmymovie.entity.User;
+import com.bookmymovie.util.ExpiringLruCache;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.Authentication;
 import org.springframework.stereotype.Component;
 
 import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.Date;
+import java.util.HexFormat;
 
 @Component
 @Slf4j
@@ -21,8 +27,23 @@ public class JwtTokenProvider {
     @Value("${jwt.expiration}")
     private Long jwtExpirationInMs;
 
+    @Value("${jwt.verification-cache.max-size:10000}")
+    private int verificationCacheSize = 10000;
+
+    // Derived once from the secret; the parser is immutable and thread-safe
+    private SecretKey signingKey;
+    private JwtParser jwtParser;
+    private ExpiringLruCache<String, VerifiedToken> verifiedTokens;
+
+    @PostConstruct
+    public void init() {
+        signingKey = Keys.hmacShaKeyFor(jwtSecret.getBytes());
+        jwtParser = Jwts.parser().verifyWith(signingKey).build();
+        verifiedTokens = new ExpiringLruCache<>(verificationCacheSize);
+    }
+
     private SecretKey getSigningKey() {
-        return Keys.hmacShaKeyFor(jwtSecret.getBytes());
+        return signingKey;
     }
 
     // Generate JWT token from User entity
@@ -60,66 +81,70 @@ public class JwtTokenProvider {
                 .compact();
     }
 
+    /**
+     * Verifies the token once and returns its claims, or null if it is invalid or expired.
+     * Verified tokens are cached by SHA-256 of the token until they expire, so repeat requests
+     * with the same bearer token skip signature verification and claim parsing entirely.
+     */
+    public VerifiedToken verify(String token) {
+        if (token == null || token.isEmpty()) {
+            return null;
+        }
+
+        String cacheKey = hash(token);
+        VerifiedToken cached = verifiedTokens.get(cacheKey);
+        if (cached != null) {
+            return cached;
+        }
+
+        try {
+            Claims claims = jwtParser.parseSignedClaims(token).getPayload();
+            VerifiedToken verified = VerifiedToken.builder()
+                    .userId(Long.valueOf(claims.getSubject()))
+                    .email(claims.get("email", String.class))
+                    .firstName(claims.get("firstName", String.class))
+                    .lastName(claims.get("lastName", String.class))
+                    .role(claims.get("role").toString())
+                    .phoneNumber(claims.get("phoneNumber", String.class))
+                    .expiresAtMillis(claims.getExpiration().getTime())
+                    .build();
+            verifiedTokens.put(cacheKey, verified, verified.getExpiresAtMillis());
+            return verified;
+        } catch (MalformedJwtException ex) {
+            log.error("Invalid JWT token: {}", ex.getMessage());
+        } catch (ExpiredJwtException ex) {
+            log.error("JWT token is expired: {}", ex.getMessage());
+        } catch (UnsupportedJwtException ex) {
+            log.error("JWT token is unsupported: {}", ex.getMessage());
+        } catch (IllegalArgumentException ex) {
+            log.error("JWT claims string is empty: {}", ex.getMessage());
+        } catch (SecurityException ex) {
+            log.error("JWT signature validation fails: {}", ex.getMessage());
+        }
+        return null;
+    }
+
     // Get user ID from JWT token
     public Long getUserIdFromToken(String token) {
-        Claims claims = Jwts.parser()
-                .verifyWith(getSigningKey())
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
-
-        return Long.valueOf(claims.getSubject());
+        return requireVerified(token).getUserId();
     }
 
     // Get user email from JWT token
     public String getUserEmailFromToken(String token) {
-        Claims claims = Jwts.parser()
-                .verifyWith(getSigningKey())
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
-
-        return claims.get("email", String.class);
+        return requireVerified(token).getEmail();
     }
 
-
     public String getRoleFromToken(String token) {
-        Claims claims = Jwts.parser()
-                .verifyWith(getSigningKey())
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
-        return claims.get("role").toString();
+        return requireVerified(token).getRole();
     }
 
     public String getPhoneNumberFromToken(String token) {
-        Claims claims = Jwts.parser()
-                .verifyWith(getSigningKey())
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
-        return claims.get("phoneNumber", String.class);
+        return requireVerified(token).getPhoneNumber();
     }
+
     // Validate JWT token
     public boolean validateToken(String token) {
-        try {
-            Jwts.parser()
-                    .verifyWith(getSigningKey())
-                    .build()
-                    .parseSignedClaims(token);
-            return true;
-        } catch (MalformedJwtException ex) {
-            log.error("Invalid JWT token: {}", ex.getMessage());
-        } catch (ExpiredJwtException ex) {
-            log.error("JWT token is expired: {}", ex.getMessage());
-        } catch (UnsupportedJwtException ex) {
-            log.error("JWT token is unsupported: {}", ex.getMessage());
-        } catch (IllegalArgumentException ex) {
-            log.error("JWT claims string is empty: {}", ex.getMessage());
-        } catch (SecurityException ex) {
-            log.error("JWT signature validation fails: {}", ex.getMessage());
-        }
-        return false;
+        return verify(token) != null;
     }
 
     // Get token expiration time
@@ -129,20 +154,29 @@ public class JwtTokenProvider {
 
     // Get all claims from token
     public Claims getAllClaimsFromToken(String token) {
-        return Jwts.parser()
-                .verifyWith(getSigningKey())
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
+        return jwtParser.parseSignedClaims(token).getPayload();
     }
 
     // Check if token is expired
     public boolean isTokenExpired(String token) {
+        VerifiedToken verified = verify(token);
+        return verified == null || verified.getExpiresAtMillis() <= System.currentTimeMillis();
+    }
+
+    private VerifiedToken requireVerified(String token) {
+        VerifiedToken verified = verify(token);
+        if (verified == null) {
+            throw new JwtException("Invalid or expired JWT token");
+        }
+        return verified;
+    }
+
+    private static String hash(String token) {
         try {
-            Claims claims = getAllClaimsFromToken(token);
-            return claims.getExpiration().before(new Date());
-        } catch (Exception e) {
-            return true;
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
         }
     }
 }
\ No newline at end of file
@@ -0,0 +1,21 @@
+package com.bookmymovie.security;
+
+import lombok.Builder;
+import lombok.Getter;
+
+/**
+ * Claims of a JWT whose signature and expiry have been checked.
+ * Produced once per token by {@link JwtTokenProvider#verify} and shared between requests
+ * carrying the same token, so it is immutable.
+ */
+@Getter
+@Builder
+public class VerifiedToken {
+    private final Long userId;
+    private final String email;
+    private final String firstName;
+    private final String lastName;
+    private final String role;
+    private final String phoneNumber;
+    private final long expiresAtMillis;
+}
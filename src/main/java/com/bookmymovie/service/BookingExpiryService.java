@@ -0,0 +1,179 @@
+package com.bookmymovie.service;
+
+import com.bookmymovie.entity.Booking;
+import com.bookmymovie.event.BookingChangedEvent;
+import com.bookmymovie.event.ShowSeatsChangedEvent;
+import com.bookmymovie.repository.BookingRepository;
+import com.bookmymovie.repository.ShowRepository;
+import com.bookmymovie.util.HashedTimingWheel;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Expires PENDING bookings at their deadline.
+ * Every hold is scheduled on a hashed timing wheel when it is created, so seats come back
+ * within one tick of the deadline instead of waiting for the next sweep; confirming or
+ * cancelling a hold takes it off the wheel again. Expired bookings
+ * are processed in batches: one conditional UPDATE for the bookings, one counter release
+ * per show, and the seat inventory after commit.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class BookingExpiryService {
+
+    private static final int MAX_BATCH_SIZE = 500;
+
+    private final BookingRepository bookingRepository;
+    private final ShowRepository showRepository;
+    private final SeatInventoryService seatInventoryService;
+    private final PlatformTransactionManager transactionManager;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Value("${booking-expiry.tick-ms:200}")
+    private long tickMillis;
+
+    @Value("${booking-expiry.wheel-size:512}")
+    private int wheelSize;
+
+    private final Map<Long, HashedTimingWheel.Timeout<Long>> scheduled = new ConcurrentHashMap<>();
+    private HashedTimingWheel<Long> wheel;
+    private TransactionTemplate transactionTemplate;
+
+    @PostConstruct
+    public void start() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        wheel = new HashedTimingWheel<>("booking-expiry-wheel", tickMillis, wheelSize, this::onDeadline);
+        wheel.start();
+        log.info("Booking expiry wheel started (tick: {}ms, buckets: {})", tickMillis, wheelSize);
+    }
+
+    @PreDestroy
+    public void stop() {
+        wheel.stop();
+    }
+
+    /**
+     * Schedules a booking to be expired at the given time unless it is confirmed or cancelled first
+     */
+    public void scheduleExpiry(Long bookingId, LocalDateTime expiryTime) {
+        HashedTimingWheel.Timeout<Long> previous = scheduled.put(bookingId,
+                wheel.schedule(bookingId, expiryTime.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli()));
+        if (previous != null) {
+            previous.cancel();
+        }
+    }
+
+    /**
+     * Takes a booking off the wheel once it no longer needs expiring (confirmed or cancelled)
+     */
+    public void cancelExpiry(Long bookingId) {
+        HashedTimingWheel.Timeout<Long> timeout = scheduled.remove(bookingId);
+        if (timeout != null) {
+            timeout.cancel();
+        }
+    }
+
+    public int getScheduledCount() {
+        return wheel.size();
+    }
+
+    /**
+     * Rebuilds the wheel from the database so holds created before a restart still expire on time
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildFromDatabase() {
+        try {
+            List<Object[]> deadlines = bookingRepository.findPendingBookingDeadlines();
+            deadlines.forEach(row -> scheduleExpiry((Long) row[0], (LocalDateTime) row[1]));
+            log.info("Scheduled {} pending bookings on the expiry wheel", deadlines.size());
+        } catch (Exception e) {
+            log.error("Failed to rebuild booking expiry wheel; the periodic sweep will catch up", e);
+        }
+    }
+
+    private void onDeadline(List<Long> bookingIds) {
+        bookingIds.forEach(scheduled::remove);
+        expireBookings(bookingIds);
+    }
+
+    /**
+     * Expires the given bookings if they are still PENDING and past their deadline.
+     * Safe to call concurrently from several nodes: rows are locked and the update is conditional.
+     *
+     * @return number of bookings expired
+     */
+    public int expireBookings(Collection<Long> bookingIds) {
+        if (bookingIds.isEmpty()) {
+            return 0;
+        }
+
+        int expired = 0;
+        List<Long> ids = new ArrayList<>(bookingIds);
+        for (int from = 0; from < ids.size(); from += MAX_BATCH_SIZE) {
+            List<Long> batch = ids.subList(from, Math.min(from + MAX_BATCH_SIZE, ids.size()));
+            try {
+                Integer count = transactionTemplate.execute(status -> expireBatch(batch));
+                expired += count != null ? count : 0;
+            } catch (Exception e) {
+                log.error("Failed to expire booking batch of {}; the periodic sweep will retry", batch.size(), e);
+            }
+        }
+        return expired;
+    }
+
+    private int expireBatch(List<Long> bookingIds) {
+        List<Booking> bookings = bookingRepository.lockExpirablePendingBookings(bookingIds, LocalDateTime.now());
+        if (bookings.isEmpty()) {
+            return 0;
+        }
+
+        List<Long> expirableIds = bookings.stream().map(Booking::getBookingId).toList();
+        int expired = bookingRepository.expirePendingBookings(expirableIds);
+        eventPublisher.publishEvent(new BookingChangedEvent(this, expirableIds,
+                bookings.stream().map(booking -> booking.getUser().getUserId()).toList(),
+                BookingChangedEvent.ChangeType.EXPIRED));
+
+        Map<Long, List<Long>> seatIdsByBooking = new HashMap<>();
+        for (Object[] row : bookingRepository.findSeatIdsForBookings(expirableIds)) {
+            seatIdsByBooking.computeIfAbsent((Long) row[0], id -> new ArrayList<>()).add((Long) row[1]);
+        }
+
+        // One counter update per show instead of one per booking
+        Map<Long, Integer> seatsByShow = new HashMap<>();
+        for (Booking booking : bookings) {
+            seatsByShow.merge(booking.getShow().getShowId(), booking.getNumberOfSeats(), Integer::sum);
+        }
+        seatsByShow.forEach((showId, seatCount) -> {
+            showRepository.releaseSeats(showId, seatCount);
+            eventPublisher.publishEvent(new ShowSeatsChangedEvent(this, showId, seatCount));
+        });
+
+        seatInventoryService.afterCommit(() -> bookings.forEach(booking ->
+                seatInventoryService.releaseHold(
+                        booking.getShow().getShowId(),
+                        seatIdsByBooking.getOrDefault(booking.getBookingId(), List.of()),
+                        booking.getHoldToken())));
+
+        log.info("Expired {} pending bookings across {} shows", expired, seatsByShow.size());
+        return expired;
+    }
+}
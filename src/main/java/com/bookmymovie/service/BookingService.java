@@ -1,23 +1,26 @@
 package com.bookmymovie.service;
 
-import com.bookmymovie.annotation.DistributedLock;
 import com.bookmymovie.constants.TheaterConstant;
 import com.bookmymovie.dto.request.*;
 import com.bookmymovie.dto.response.*;
 import com.bookmymovie.entity.*;
 import com.bookmymovie.exception.BaseException;
+import com.bookmymovie.event.BookingChangedEvent;
+import com.bookmymovie.event.ShowSeatsChangedEvent;
 import com.bookmymovie.repository.BookingRepository;
 import com.bookmymovie.repository.SeatRepository;
 import com.bookmymovie.repository.ShowRepository;
 import com.bookmymovie.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import com.bookmymovie.service.OptimisticLockingRetryService;
@@ -26,9 +29,10 @@ import com.bookmymovie.exception.BookingNotPossibleException;
 import org.springframework.dao.OptimisticLockingFailureException;
 
 import java.math.BigDecimal;
-import java.math.RoundingMode;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
@@ -45,34 +49,34 @@ public class BookingService {
     private final UserRepository userRepository;
     private final MockPaymentService paymentService;
     private final RedisDistributedLockService lockService;
+    private final SeatInventoryService seatInventoryService;
+    private final BookingExpiryService bookingExpiryService;
+    private final SeatMapSnapshotService seatMapSnapshotService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final PricingEngine pricingEngine;
 
     // Business configuration
-    private static final BigDecimal CONVENIENCE_FEE_RATE = BigDecimal.valueOf(0.05); // 5%
-    private static final BigDecimal TAX_RATE = BigDecimal.valueOf(0.18); // 18% GST
+    private static final int COUPON_DISCOUNT_BASIS_POINTS = 1000; // 10%
     private static final int BOOKING_EXPIRY_MINUTES = 15;
 
     // ==================== CORE BOOKING OPERATIONS ====================
 
 
-    // UPDATED METHOD: Add optimistic locking retry
     /**
-     * Flash sale booking with maximum protection
-     * Used for high-demand events like movie premieres, concerts, etc.
+     * Flash sale safe booking.
+     * Seats are claimed individually with compare-and-set (see {@link SeatInventoryService}),
+     * so bookings for disjoint seats of the same show proceed in parallel.
+     * Each attempt runs in its own transaction opened by the retry service.
      */
-    @DistributedLock(
-            key = "'flash-sale-show-' + #request.showId",
-            waitTime = 100,
-            leaseTime = 60000,
-            timeUnit = TimeUnit.MILLISECONDS,
-            errorMessage = "High demand detected! Please wait and try again."
-    )
-    @Transactional
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public BookingInitiationResponseDto initiateBooking(BookingCreateRequestDto request) {
         log.info("Initiating booking for show {} with {} seats", request.getShowId(), request.getSeatIds().size());
 
         return retryService.executeWithRetry(() -> {
             try {
                 return performBookingInitiation(request);
+            } catch (RuntimeException e) {
+                throw e;
             } catch (Exception e) {
                 throw new RuntimeException(e);
             }
@@ -130,7 +134,6 @@ public class BookingService {
         try {
             // Validate booking request
             BookingValidationResponseDto validation = validateBookingRequest(request);
-            Thread.sleep(50000);
             if (!validation.getValid()) {
                 return BookingInitiationResponseDto.builder()
                         .success(false)
@@ -139,19 +142,11 @@ public class BookingService {
                         .build();
             }
 
-            // Load entities (this will load current version numbers)
-            Show show = null;
-            if (request.getShowId() == 2) {
-                show = findByIdWithPessimisticLock(request.getShowId());
-            } else {
-                show = findShowById(request.getShowId());
-            }
+            // Load entities
+            Show show = findShowById(request.getShowId());
             User user = findUserById(request.getUserId());
             List<Seat> seats = findSeatsByIds(request.getSeatIds());
 
-            // ADD THIS DELAY - TEMPORARY FOR TESTING ONLY
-            Thread.sleep(1000); // 2 second delay to create race condition window
-
             // Calculate pricing
             BookingPricingResponseDto pricing = calculateBookingPricing(
                     BookingPricingRequestDto.builder()
@@ -164,10 +159,19 @@ public class BookingService {
             // Create booking entity
             Booking booking = createBookingEntity(request, show, user, seats, pricing);
 
-            // Reserve seats with optimistic locking
-            reserveSeatsWithOptimisticLocking(booking, seats);
+            // Claim the seats in the in-memory inventory before touching the database
+            holdSeatsInInventory(booking, request.getSeatIds());
+
+            // Move the seats from available to booked in one conditional update; on failure the
+            // rollback hook registered with the hold gives the seats back
+            reserveShowSeats(show.getShowId(), seats.size());
 
             booking = bookingRepository.save(booking);
+            publishBookingChanged(booking, BookingChangedEvent.ChangeType.CREATED);
+
+            Long bookingId = booking.getBookingId();
+            LocalDateTime expiryTime = booking.getExpiryTime();
+            seatInventoryService.afterCommit(() -> bookingExpiryService.scheduleExpiry(bookingId, expiryTime));
 
             log.info("Booking initiated successfully with reference: {}", booking.getBookingReference());
 
@@ -189,80 +193,141 @@ public class BookingService {
         }
     }
 
-    // UPDATED METHOD: Reserve seats with optimistic locking protection
-    private void reserveSeatsWithOptimisticLocking(Booking booking, List<Seat> seats) {
-        // Re-fetch show with latest version to ensure we have current data
-        Show show = showRepository.findById(booking.getShow().getShowId())
-                .orElseThrow(() -> new ShowNotFoundException("Show not found"));
-
-        log.info("Reserving {} seats for booking {} on show {} (version {})",
-                seats.size(), booking.getBookingReference(), show.getShowId(), show.getVersion());
-        // Check if seats are still available (double-check after version load)
-        if (show.getAvailableSeats() < seats.size()) {
-            throw new BookingNotPossibleException(
-                    "Only " + show.getAvailableSeats() + " seats available, requested " + seats.size()
-            );
+    private void holdSeatsInInventory(Booking booking, List<Long> seatIds) {
+        Long showId = booking.getShow().getShowId();
+        long holdToken = seatInventoryService.nextHoldToken(booking.getExpiryTime());
+
+        if (!seatInventoryService.holdSeats(showId, seatIds, holdToken)) {
+            throw new BookingNotPossibleException("Some of the selected seats were just taken. Please pick other seats.");
         }
+        booking.setHoldToken(holdToken);
 
-        // Update seat count - this will trigger optimistic locking check
-        updateShowSeatCountWithVersionCheck(show, seats.size(), true);
+        // Give the seats back if the booking transaction does not commit
+        seatInventoryService.onRollback(() -> seatInventoryService.releaseHold(showId, seatIds, holdToken));
     }
 
-    // UPDATED METHOD: Seat count update with version awareness
-    private void updateShowSeatCountWithVersionCheck(Show show, int seatCount, boolean isBooking) {
-        log.debug("Updating seat count for show {} (version {}): {} seats, isBooking: {}",
-                show.getShowId(), show.getVersion(), seatCount, isBooking);
-
-        try {
-            if (isBooking) {
-                show.bookSeats(seatCount);
-            } else {
-                show.releaseSeats(seatCount);
-            }
-
-            // This save() will check version and throw OptimisticLockingFailureException if conflict
-            Show savedShow = showRepository.save(show);
+    // Success or failure is decided by a single conditional UPDATE; the show version is not involved
+    private void reserveShowSeats(Long showId, int seatCount) {
+        if (showRepository.reserveSeats(showId, seatCount) == 0) {
+            throw new BookingNotPossibleException("Not enough seats available, requested " + seatCount);
+        }
+        eventPublisher.publishEvent(new ShowSeatsChangedEvent(this, showId, -seatCount));
+        log.debug("Reserved {} seats on show {}", seatCount, showId);
+    }
 
-            log.debug("Successfully updated show {} to version {}",
-                    savedShow.getShowId(), savedShow.getVersion());
+    private void publishBookingChanged(Booking booking, BookingChangedEvent.ChangeType changeType) {
+        eventPublisher.publishEvent(new BookingChangedEvent(this, booking.getBookingId(),
+                booking.getUser().getUserId(), changeType));
+    }
 
-        } catch (OptimisticLockingFailureException ex) {
-            log.warn("Optimistic locking conflict while updating seat count for show {}", show.getShowId());
-            throw ex; // Re-throw to trigger retry
+    private void releaseShowSeats(Long showId, int seatCount) {
+        if (showRepository.releaseSeats(showId, seatCount) == 0) {
+            log.warn("Seat counter for show {} had fewer than {} booked seats to release", showId, seatCount);
+            return;
         }
+        eventPublisher.publishEvent(new ShowSeatsChangedEvent(this, showId, seatCount));
     }
 
     // ADD THIS: Enhanced payment processing with retry
+    // The customer is charged exactly once, outside any transaction; only the booking reads and
+    // writes around the charge go through the retry service, each attempt in its own transaction.
+    // A charge that cannot be recorded (booking expired, retries exhausted) is refunded
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public PaymentResponseDto processPayment(PaymentRequestDto request) {
         log.info("Processing payment for booking: {}", request.getBookingReference());
 
-        return retryService.executeWithRetry(() -> {
-            return performPaymentProcessing(request);
-        }, "payment-processing");
+        Long expiredBookingId = retryService.executeWithRetry(() -> checkPayable(request), "payment-validation");
+        if (expiredBookingId != null) {
+            // Expire it now, releasing its seats, rather than waiting for the expiry wheel
+            bookingExpiryService.expireBookings(List.of(expiredBookingId));
+            throw new BookingExpiredException("Booking has expired");
+        }
+
+        // Process payment through mock service
+        PaymentResponseDto paymentResponse = paymentService.processPaymentByMethod(request);
+
+        try {
+            return retryService.executeWithRetry(() -> applyPaymentResult(request, paymentResponse), "payment-processing");
+        } catch (RuntimeException e) {
+            if (!paymentResponse.getSuccess()) {
+                throw e;
+            }
+            throw refundUnrecordedPayment(request, paymentResponse, e);
+        }
     }
 
-    private PaymentResponseDto performPaymentProcessing(PaymentRequestDto request) {
-        // Re-fetch booking with latest version
+    /**
+     * Refunds a charge that could not be recorded against its booking, so the customer is not
+     * left paying for seats that may already have been released
+     *
+     * @return the exception to report to the caller
+     */
+    private RuntimeException refundUnrecordedPayment(PaymentRequestDto request, PaymentResponseDto paymentResponse,
+                                                     RuntimeException cause) {
+        PaymentResponseDto refundResponse;
+        try {
+            refundResponse = paymentService.refundPayment(paymentResponse.getPaymentReference(),
+                    request.getPaymentAmount(), "Payment could not be recorded against the booking");
+        } catch (RuntimeException refundFailure) {
+            cause.addSuppressed(refundFailure);
+            refundResponse = null;
+        }
+
+        if (refundResponse == null || !refundResponse.getSuccess()) {
+            log.error("Payment {} for booking {} was taken but could not be recorded or refunded; it needs reconciliation",
+                    paymentResponse.getPaymentReference(), request.getBookingReference(), cause);
+            return cause;
+        }
+
+        log.warn("Payment {} for booking {} could not be recorded and was refunded as {}",
+                paymentResponse.getPaymentReference(), request.getBookingReference(),
+                refundResponse.getPaymentReference(), cause);
+        if (cause instanceof BookingNotModifiableException) {
+            return new BookingExpiredException("Booking expired before the payment could be recorded; payment "
+                    + paymentResponse.getPaymentReference() + " has been refunded");
+        }
+        return new PaymentNotRecordedException("Payment could not be recorded; payment "
+                + paymentResponse.getPaymentReference() + " has been refunded, please retry", cause);
+    }
+
+    /**
+     * Validates the booking before charging
+     *
+     * @return id of the booking if it is pending but past its deadline, null if it can be paid
+     */
+    private Long checkPayable(PaymentRequestDto request) {
         Booking booking = findBookingByReference(request.getBookingReference());
 
-        // Validate booking state
-        if (!booking.canBeModified()) {
-            throw new BookingNotModifiableException("Booking cannot be modified at this time");
+        // Checked before canBeModified(), which is false for expired bookings too
+        if (booking.getStatus() == Booking.BookingStatus.PENDING && booking.isExpired()) {
+            return booking.getBookingId();
         }
 
-        if (booking.isExpired()) {
-            booking.expireBooking();
-            bookingRepository.save(booking);
+        if (booking.getStatus() == Booking.BookingStatus.EXPIRED) {
             throw new BookingExpiredException("Booking has expired");
         }
 
-        // Validate payment amount
+        // Validate booking state
+        if (!booking.canBeModified()) {
+            throw new BookingNotModifiableException("Booking cannot be modified at this time");
+        }
+
+        // Validate against the amount pinned when the hold was placed, not a fresh quote,
+        // so surge changes since then neither fail nor reprice the payment
         if (request.getPaymentAmount().compareTo(booking.getFinalAmount()) != 0) {
             throw new InvalidPaymentAmountException("Payment amount does not match booking amount");
         }
+        return null;
+    }
 
-        // Process payment through mock service
-        PaymentResponseDto paymentResponse = paymentService.processPaymentByMethod(request);
+    private PaymentResponseDto applyPaymentResult(PaymentRequestDto request, PaymentResponseDto paymentResponse) {
+        // Re-fetch booking with latest version
+        Booking booking = findBookingByReference(request.getBookingReference());
+
+        if (!booking.canBeModified()) {
+            // Changed (e.g. expired) while the payment was being taken
+            throw new BookingNotModifiableException("Booking cannot be modified at this time");
+        }
 
         // Update booking with payment result (optimistic locking applies here too)
         booking.updatePaymentStatus(
@@ -275,10 +340,16 @@ public class BookingService {
             booking.setPaymentMethod(request.getPaymentMethod());
             booking.confirmBooking();
 
-            // Update show seat count with version check
-            Show show = showRepository.findById(booking.getShow().getShowId())
-                    .orElseThrow(() -> new ShowNotFoundException("Show not found"));
-            updateShowSeatCountWithVersionCheck(show, booking.getNumberOfSeats(), true);
+            // Seats were already counted as booked when the hold was taken
+            Long showId = booking.getShow().getShowId();
+            LocalDateTime showEndTime = booking.getShow().getEndTime();
+            List<Long> seatIds = getBookedSeatIds(booking);
+            Long holdToken = booking.getHoldToken();
+            Long bookingId = booking.getBookingId();
+            seatInventoryService.afterCommit(() -> {
+                seatInventoryService.confirmSeats(showId, seatIds, holdToken, showEndTime);
+                bookingExpiryService.cancelExpiry(bookingId);
+            });
 
             log.info("Payment successful for booking: {}", booking.getBookingReference());
         } else {
@@ -286,6 +357,7 @@ public class BookingService {
         }
 
         bookingRepository.save(booking);
+        publishBookingChanged(booking, BookingChangedEvent.ChangeType.UPDATED);
         return paymentResponse;
     }
 
@@ -293,7 +365,7 @@ public class BookingService {
     public BookingConfirmationResponseDto confirmBooking(String bookingReference) {
         log.info("Confirming booking: {}", bookingReference);
 
-        Booking booking = findBookingByReference(bookingReference);
+        Booking booking = findBookingDetailsByReference(bookingReference);
 
         if (!booking.isPaymentCompleted()) {
             throw new PaymentNotCompletedException("Payment must be completed before confirmation");
@@ -304,6 +376,7 @@ public class BookingService {
         } else {
             booking.confirmBooking();
             bookingRepository.save(booking);
+            publishBookingChanged(booking, BookingChangedEvent.ChangeType.UPDATED);
         }
 
         // Generate receipt
@@ -328,37 +401,37 @@ public class BookingService {
 
     // ==================== BOOKING MANAGEMENT ====================
 
+    // Reads load through the fetch plans in BookingRepository, so mapping never hits a lazy association
+
     @Transactional(readOnly = true)
     public BookingResponseDto getBookingById(Long bookingId) {
-        Booking booking = findBookingById(bookingId);
+        Booking booking = bookingRepository.findDetailsById(bookingId)
+                .orElseThrow(() -> new BookingNotFoundException("Booking not found with ID: " + bookingId));
         return mapToBookingResponseDto(booking);
     }
 
     @Transactional(readOnly = true)
     public BookingResponseDto getBookingByReference(String bookingReference) {
-        Booking booking = findBookingByReference(bookingReference);
-        return mapToBookingResponseDto(booking);
+        return mapToBookingResponseDto(findBookingDetailsByReference(bookingReference));
     }
 
     @Transactional(readOnly = true)
-    public List<BookingSummaryDto> getUserBookings(Long userId) {
-        List<Booking> bookings = bookingRepository.findByUserUserIdOrderByBookingDateDesc(userId);
-        return bookings.stream()
-                .map(this::mapToBookingSummaryDto)
-                .collect(Collectors.toList());
+    public BookingReceiptDto getBookingReceipt(String bookingReference) {
+        return generateBookingReceipt(findBookingDetailsByReference(bookingReference));
     }
 
     @Transactional(readOnly = true)
     public Page<BookingSummaryDto> getUserBookingsPaginated(Long userId, int page, int size) {
         Pageable pageable = PageRequest.of(page, size, Sort.by(Sort.Direction.DESC, "bookingDate"));
-        Page<Booking> bookings = bookingRepository.findByUserUserIdOrderByBookingDateDesc(userId, pageable);
+        Page<Booking> bookings = bookingRepository.findSummariesByUserId(userId, pageable);
         return bookings.map(this::mapToBookingSummaryDto);
     }
 
     public BookingResponseDto updateBooking(Long bookingId, BookingUpdateRequestDto request) {
         log.info("Updating booking: {}", bookingId);
 
-        Booking booking = findBookingById(bookingId);
+        Booking booking = bookingRepository.findDetailsById(bookingId)
+                .orElseThrow(() -> new BookingNotFoundException("Booking not found with ID: " + bookingId));
 
         if (!booking.canBeModified()) {
             throw new BookingNotModifiableException("Booking cannot be modified at this time");
@@ -379,6 +452,7 @@ public class BookingService {
         }
 
         booking = bookingRepository.save(booking);
+        publishBookingChanged(booking, BookingChangedEvent.ChangeType.UPDATED);
         log.info("Booking updated successfully: {}", bookingId);
 
         return mapToBookingResponseDto(booking);
@@ -395,11 +469,14 @@ public class BookingService {
             throw new BookingNotCancellableException("Booking cannot be cancelled at this time");
         }
 
+        Booking.BookingStatus previousStatus = booking.getStatus();
+
         // Cancel booking
         booking.cancelBooking(request.getReason());
 
         // Release seats
-        updateShowSeatCount(booking.getShow(), booking.getNumberOfSeats(), false);
+        releaseShowSeats(booking.getShow().getShowId(), booking.getNumberOfSeats());
+        releaseSeatsInInventory(booking, previousStatus);
 
         BigDecimal refundAmount = BigDecimal.ZERO;
         String refundReference = null;
@@ -422,6 +499,7 @@ public class BookingService {
         }
 
         bookingRepository.save(booking);
+        publishBookingChanged(booking, BookingChangedEvent.ChangeType.UPDATED);
 
         log.info("Booking cancelled successfully: {}", request.getBookingReference());
 
@@ -443,46 +521,47 @@ public class BookingService {
     public BookingPricingResponseDto calculateBookingPricing(BookingPricingRequestDto request) {
         Show show = findShowById(request.getShowId());
         List<Seat> seats = findSeatsByIds(request.getSeatIds());
-
-        // Calculate base amount from seat prices
-        BigDecimal baseAmount = seats.stream()
-                .map(seat -> seat.getBasePrice() != null ? seat.getBasePrice() : show.calculateActualPrice())
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
-
-        // Apply show pricing multipliers
-        BigDecimal showMultipliedAmount = baseAmount.multiply(getShowPricingMultiplier(show));
+        PricingEngine.PriceTable prices = getPriceTable(show);
+
+        // Seat prices come straight from the show's compiled table; all sums are in paise
+        long baseAmountPaise = 0;
+        long seatAmountPaise = 0;
+        List<BookingPricingResponseDto.SeatPricingDto> seatPricing = new ArrayList<>(seats.size());
+        for (Seat seat : seats) {
+            Long seatBasePaise = toPaiseOrNull(seat.getBasePrice());
+            long basePaise = prices.seatBasePaise(seatBasePaise);
+            baseAmountPaise += basePaise;
+            seatAmountPaise += prices.seatPricePaise(seatBasePaise);
+
+            seatPricing.add(BookingPricingResponseDto.SeatPricingDto.builder()
+                    .seatId(seat.getSeatId())
+                    .seatIdentifier(seat.getRowLabel() + seat.getSeatNumber())
+                    .category(seat.getCategory().toString())
+                    .basePrice(PricingEngine.toRupees(basePaise))
+                    .finalPrice(prices.seatPrice(seatBasePaise))
+                    .build());
+        }
 
         // Calculate fees and taxes
-        BigDecimal convenienceFee = showMultipliedAmount.multiply(CONVENIENCE_FEE_RATE)
-                .setScale(2, RoundingMode.HALF_UP);
-
-        BigDecimal amountBeforeTax = showMultipliedAmount.add(convenienceFee);
-        BigDecimal taxes = amountBeforeTax.multiply(TAX_RATE)
-                .setScale(2, RoundingMode.HALF_UP);
+        long convenienceFeePaise = pricingEngine.convenienceFeePaise(seatAmountPaise);
+        long amountBeforeTaxPaise = seatAmountPaise + convenienceFeePaise;
+        long taxesPaise = pricingEngine.taxPaise(amountBeforeTaxPaise);
 
         // Apply discounts (coupon logic would go here)
-        BigDecimal discountAmount = BigDecimal.ZERO;
+        long discountPaise = 0;
         boolean couponApplied = false;
 
         if (request.getCouponCode() != null) {
             // Mock coupon validation and discount calculation
-            discountAmount = amountBeforeTax.multiply(BigDecimal.valueOf(0.10)) // 10% discount
-                    .setScale(2, RoundingMode.HALF_UP);
+            discountPaise = PricingEngine.percentOf(amountBeforeTaxPaise, COUPON_DISCOUNT_BASIS_POINTS);
             couponApplied = true;
         }
 
-        BigDecimal finalAmount = amountBeforeTax.add(taxes).subtract(discountAmount);
-
-        // Build seat pricing details
-        List<BookingPricingResponseDto.SeatPricingDto> seatPricing = seats.stream()
-                .map(seat -> BookingPricingResponseDto.SeatPricingDto.builder()
-                        .seatId(seat.getSeatId())
-                        .seatIdentifier(seat.getRowLabel() + seat.getSeatNumber())
-                        .category(seat.getCategory().toString())
-                        .basePrice(seat.getBasePrice() != null ? seat.getBasePrice() : show.getBasePrice())
-                        .finalPrice(show.calculateActualPrice())
-                        .build())
-                .collect(Collectors.toList());
+        BigDecimal baseAmount = PricingEngine.toRupees(baseAmountPaise);
+        BigDecimal convenienceFee = PricingEngine.toRupees(convenienceFeePaise);
+        BigDecimal taxes = PricingEngine.toRupees(taxesPaise);
+        BigDecimal discountAmount = PricingEngine.toRupees(discountPaise);
+        BigDecimal finalAmount = PricingEngine.toRupees(amountBeforeTaxPaise + taxesPaise - discountPaise);
 
         // Build pricing breakdown
         List<BookingPricingResponseDto.PricingBreakdownDto> breakdown = List.of(
@@ -493,8 +572,10 @@ public class BookingService {
                         .build(),
                 BookingPricingResponseDto.PricingBreakdownDto.builder()
                         .component("Show Pricing")
-                        .amount(showMultipliedAmount.subtract(baseAmount))
-                        .description("Time-based pricing adjustments")
+                        .amount(PricingEngine.toRupees(seatAmountPaise - baseAmountPaise))
+                        .description(prices.getSurgeFactor().compareTo(BigDecimal.ONE) > 0
+                                ? "Time-based and demand pricing adjustments (surge x" + prices.getSurgeFactor() + ")"
+                                : "Time-based pricing adjustments")
                         .build(),
                 BookingPricingResponseDto.PricingBreakdownDto.builder()
                         .component("Convenience Fee")
@@ -517,6 +598,8 @@ public class BookingService {
                 .showId(request.getShowId())
                 .numberOfSeats(seats.size())
                 .baseAmount(baseAmount)
+                .ticketAmount(PricingEngine.toRupees(seatAmountPaise))
+                .surgeFactor(prices.getSurgeFactor())
                 .convenienceFee(convenienceFee)
                 .taxes(taxes)
                 .discountAmount(discountAmount)
@@ -549,13 +632,9 @@ public class BookingService {
                 errors.add("Some seats are invalid or not found");
             }
 
-            // UPDATED: Check seat availability INCLUDING PENDING bookings within expiry window
-            List<Long> unavailableSeatIds = bookingRepository.getUnavailableSeatIdsForShow(
-                    request.getShowId(), LocalDateTime.now());
-
-            List<Long> conflictingSeats = request.getSeatIds().stream()
-                    .filter(unavailableSeatIds::contains)
-                    .collect(Collectors.toList());
+            // Check seat availability (booked, held within expiry window, or blocked) against the seat inventory
+            List<Long> conflictingSeats = seatInventoryService.findUnavailableSeatIds(
+                    request.getShowId(), request.getSeatIds());
 
             if (!conflictingSeats.isEmpty()) {
                 errors.add("Some seats are already booked or reserved: " + conflictingSeats);
@@ -600,54 +679,95 @@ public class BookingService {
 
     // ==================== SEAT AVAILABILITY ====================
 
-    @Transactional(readOnly = true)
+    /**
+     * Seat map for the seat picker, served from the cached layout snapshot and the in-memory inventory.
+     * With {@code sinceVersion} only the seats changed since that version are returned, unless the
+     * inventory's change log no longer covers it, in which case the full map is sent.
+     */
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
     public SeatAvailabilityResponseDto getSeatAvailability(SeatAvailabilityRequestDto request) {
-        Show show = findShowById(request.getShowId());
-        List<Seat> allSeats = seatRepository.findByScreenScreenIdOrderByRowLabelAscSeatNumberAsc(
-                show.getScreen().getScreenId());
-
-        List<Long> bookedSeatIds = bookingRepository.getBookedSeatIdsForShow(request.getShowId());
+        SeatMapSnapshotService.ShowHeader header = seatMapSnapshotService.getShowHeader(request.getShowId());
+        SeatMapSnapshotService.ScreenLayout layout = seatMapSnapshotService.getScreenLayout(header.getScreenId());
+        SeatInventoryService.ShowSeatInventory inventory = seatInventoryService.getInventory(request.getShowId());
+        long now = System.currentTimeMillis();
+
+        SeatInventoryService.SeatChanges changes = request.getSinceVersion() != null
+                ? inventory.changesSince(request.getSinceVersion())
+                : null;
+
+        long version;
+        List<SeatAvailabilityResponseDto.SeatMapDto> seatMap;
+        if (changes != null) {
+            version = changes.getVersion();
+            seatMap = new java.util.ArrayList<>(changes.getOrdinals().length);
+            for (int ordinal : changes.getOrdinals()) {
+                SeatMapSnapshotService.SeatTemplate seat = layout.getSeat(inventory.seatIdAt(ordinal));
+                if (seat != null) {
+                    seatMap.add(toSeatMapDto(seat, header, inventory, ordinal, now));
+                }
+            }
+        } else {
+            // Read the version first so a client never skips a change applied while the map is built
+            version = inventory.getVersion();
+            seatMap = new java.util.ArrayList<>(layout.getSeats().size());
+            for (SeatMapSnapshotService.SeatTemplate seat : layout.getSeats()) {
+                seatMap.add(toSeatMapDto(seat, header, inventory, inventory.ordinalOf(seat.getSeatId()), now));
+            }
+        }
 
-        List<SeatAvailabilityResponseDto.SeatMapDto> seatMap = allSeats.stream()
-                .map(seat -> SeatAvailabilityResponseDto.SeatMapDto.builder()
-                        .seatId(seat.getSeatId())
-                        .rowLabel(seat.getRowLabel())
-                        .seatNumber(seat.getSeatNumber())
-                        .category(seat.getCategory().toString())
-                        .price(seat.getBasePrice() != null ? seat.getBasePrice() : show.calculateActualPrice())
-                        .available(!bookedSeatIds.contains(seat.getSeatId()) && seat.getStatus() == TheaterConstant.SeatStatus.AVAILABLE)
-                        .blocked(seat.getStatus() == TheaterConstant.SeatStatus.UNDER_MAINTENANCE)
-                        .seatType(seat.getSeatType().toString())
-                        .features(seat.getFeatures().stream().map(Enum::toString).collect(Collectors.toList()))
-                        .build())
-                .collect(Collectors.toList());
+        int availableSeats = inventory.countAvailable(now);
 
         return SeatAvailabilityResponseDto.builder()
                 .showId(request.getShowId())
-                .movieTitle(show.getMovie().getTitle())
-                .theaterName(show.getScreen().getTheater().getName())
-                .screenName(show.getScreen().getName())
-                .showDateTime(show.getShowDateTime())
-                .totalSeats(allSeats.size())
-                .availableSeats(show.getAvailableSeats())
-                .bookedSeats(show.getBookedSeats())
+                .movieTitle(header.getMovieTitle())
+                .theaterName(header.getTheaterName())
+                .screenName(header.getScreenName())
+                .showDateTime(header.getShowDateTime())
+                .totalSeats(layout.getSeats().size())
+                .availableSeats(availableSeats)
+                .bookedSeats(inventory.getSeatCount() - availableSeats)
                 .seatMap(seatMap)
-                .basePrice(show.getBasePrice())
+                .basePrice(header.getBasePrice())
+                .version(version)
+                .delta(changes != null)
+                .lastUpdated(LocalDateTime.now())
+                .build();
+    }
+
+    private SeatAvailabilityResponseDto.SeatMapDto toSeatMapDto(SeatMapSnapshotService.SeatTemplate seat,
+                                                                 SeatMapSnapshotService.ShowHeader header,
+                                                                 SeatInventoryService.ShowSeatInventory inventory,
+                                                                 int ordinal, long now) {
+        return SeatAvailabilityResponseDto.SeatMapDto.builder()
+                .seatId(seat.getSeatId())
+                .rowLabel(seat.getRowLabel())
+                .seatNumber(seat.getSeatNumber())
+                .category(seat.getCategory())
+                .price(header.seatPrice(seat))
+                .available(ordinal >= 0 && inventory.isAvailable(ordinal, now))
+                .blocked(ordinal >= 0 && inventory.isBlocked(ordinal))
+                .held(ordinal >= 0 && inventory.isHeld(ordinal, now))
+                .seatType(seat.getSeatType())
+                .features(seat.getFeatures())
                 .build();
     }
 
     // ==================== SCHEDULED TASKS ====================
 
+    /**
+     * Reconciliation sweep. Holds are normally expired on time by {@link BookingExpiryService};
+     * this catches anything the wheel missed (failed batches, holds created on a node that went down).
+     */
     @Scheduled(fixedRate = 300000) // Run every 5 minutes
-    @Transactional
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public void expireOldBookings() {
-        log.info("Running expired booking cleanup job");
+        log.info("Running expired booking reconciliation job");
 
-        LocalDateTime cutoffTime = LocalDateTime.now();
-        int expiredCount = bookingRepository.expireOldPendingBookings(cutoffTime);
+        List<Long> expiredBookingIds = bookingRepository.findExpiredPendingBookingIds(LocalDateTime.now());
+        int expiredCount = bookingExpiryService.expireBookings(expiredBookingIds);
 
         if (expiredCount > 0) {
-            log.info("Expired {} old pending bookings", expiredCount);
+            log.info("Expired {} old pending bookings missed by the expiry wheel", expiredCount);
         }
     }
 
@@ -667,6 +787,10 @@ public class BookingService {
 
         if (!completedBookings.isEmpty()) {
             bookingRepository.saveAll(completedBookings);
+            eventPublisher.publishEvent(new BookingChangedEvent(this,
+                    completedBookings.stream().map(Booking::getBookingId).toList(),
+                    completedBookings.stream().map(booking -> booking.getUser().getUserId()).toList(),
+                    BookingChangedEvent.ChangeType.COMPLETED));
             log.info("Marked {} bookings as completed", completedBookings.size());
         }
     }
@@ -682,23 +806,27 @@ public class BookingService {
                 .bookingDate(LocalDateTime.now())
                 .expiryTime(LocalDateTime.now().plusMinutes(BOOKING_EXPIRY_MINUTES))
                 .numberOfSeats(seats.size())
-                .totalAmount(pricing.getBaseAmount())
+                .totalAmount(pricing.getTicketAmount())
                 .discountAmount(pricing.getDiscountAmount())
                 .convenienceFee(pricing.getConvenienceFee())
                 .taxes(pricing.getTaxes())
                 .finalAmount(pricing.getFinalAmount())
+                .surgeFactor(pricing.getSurgeFactor())
                 .contactEmail(request.getContactEmail())
                 .contactPhone(request.getContactPhone())
                 .specialRequests(request.getSpecialRequests())
                 .source(request.getSource() != null ? request.getSource() : Booking.BookingSource.WEB)
                 .build();
 
-        // Create booking seats
+        // Create booking seats at the prices just quoted
+        Map<Long, BigDecimal> quotedPrices = pricing.getSeatPricing().stream()
+                .collect(Collectors.toMap(BookingPricingResponseDto.SeatPricingDto::getSeatId,
+                        BookingPricingResponseDto.SeatPricingDto::getFinalPrice));
         List<BookingSeat> bookingSeats = seats.stream()
                 .map(seat -> BookingSeat.builder()
                         .booking(booking)
                         .seat(seat)
-                        .seatPrice(seat.getBasePrice() != null ? seat.getBasePrice() : show.calculateActualPrice())
+                        .seatPrice(quotedPrices.get(seat.getSeatId()))
                         .seatCategory(seat.getCategory().toString())
                         .seatRow(seat.getRowLabel())
                         .seatNumber(seat.getSeatNumber())
@@ -709,41 +837,52 @@ public class BookingService {
         return booking;
     }
 
-    private void reserveSeats(Booking booking, List<Seat> seats) {
-        // In a real system, you might update seat status to TEMPORARILY_RESERVED
-        // For now, we'll just update the show's booked seat count
-        updateShowSeatCount(booking.getShow(), seats.size(), true);
-    }
+    private void releaseSeatsInInventory(Booking booking, Booking.BookingStatus previousStatus) {
+        Long showId = booking.getShow().getShowId();
+        Long holdToken = booking.getHoldToken();
+        List<Long> seatIds = getBookedSeatIds(booking);
 
-    private void updateShowSeatCount(Show show, int seatCount, boolean isBooking) {
-        if (isBooking) {
-            show.bookSeats(seatCount);
-        } else {
-            show.releaseSeats(seatCount);
-        }
-        showRepository.save(show);
+        Long bookingId = booking.getBookingId();
+
+        seatInventoryService.afterCommit(() -> {
+            if (previousStatus == Booking.BookingStatus.CONFIRMED) {
+                seatInventoryService.releaseBookedSeats(showId, seatIds, holdToken);
+            } else {
+                seatInventoryService.releaseHold(showId, seatIds, holdToken);
+                bookingExpiryService.cancelExpiry(bookingId);
+            }
+        });
     }
 
-    private BigDecimal getShowPricingMultiplier(Show show) {
-        BigDecimal multiplier = BigDecimal.ONE;
+    private List<Long> getBookedSeatIds(Booking booking) {
+        return booking.getBookedSeats().stream()
+                .map(bookingSeat -> bookingSeat.getSeat().getSeatId())
+                .collect(Collectors.toList());
+    }
 
-        if (show.isWeekend()) {
-            multiplier = multiplier.multiply(show.getWeekendMultiplier());
-        }
-        if (show.isPrimeTime()) {
-            multiplier = multiplier.multiply(show.getPrimeTimeMultiplier());
-        }
-        if (show.getIsHoliday()) {
-            multiplier = multiplier.multiply(show.getHolidayMultiplier());
+    /**
+     * The show's compiled price table, recompiled if the cached one predates the show's last edit
+     */
+    private PricingEngine.PriceTable getPriceTable(Show show) {
+        PricingEngine.PriceTable prices = seatMapSnapshotService.getShowHeader(show.getShowId()).getPriceTable();
+        if (!prices.isCurrentFor(show)) {
+            seatMapSnapshotService.evictShow(show.getShowId());
+            prices = seatMapSnapshotService.getShowHeader(show.getShowId()).getPriceTable();
         }
+        return prices;
+    }
 
-        return multiplier;
+    private static Long toPaiseOrNull(BigDecimal rupees) {
+        return rupees != null ? PricingEngine.toPaise(rupees) : null;
     }
 
     private BigDecimal calculateEstimatedAmount(Show show, List<Seat> seats) {
-        return seats.stream()
-                .map(seat -> seat.getBasePrice() != null ? seat.getBasePrice() : show.calculateActualPrice())
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
+        PricingEngine.PriceTable prices = getPriceTable(show);
+        long totalPaise = 0;
+        for (Seat seat : seats) {
+            totalPaise += prices.seatPricePaise(toPaiseOrNull(seat.getBasePrice()));
+        }
+        return PricingEngine.toRupees(totalPaise);
     }
 
     private BigDecimal calculateRefundAmount(Booking booking) {
@@ -908,7 +1047,7 @@ public class BookingService {
                 .theaterCity(show.getScreen().getTheater().getCity())
                 .screenName(show.getScreen().getName())
                 .screenType(show.getScreen().getScreenType().toString())
-                .showPrice(show.calculateActualPrice())
+                .showPrice(show.getActualPrice() != null ? show.getActualPrice() : pricingEngine.actualPrice(show))
                 .build();
     }
 
@@ -928,11 +1067,6 @@ public class BookingService {
                 .orElseThrow(() -> new ShowNotFoundException("Show not found with ID: " + showId));
     }
 
-    private Show findByIdWithPessimisticLock(Long showId) {
-        return showRepository.findByIdWithPessimisticLock(showId)
-                .orElseThrow(() -> new ShowNotFoundException("Show not found with ID: " + showId));
-    }
-
     private User findUserById(Long userId) {
         return userRepository.findById(userId)
                 .orElseThrow(() -> new UserNotFoundException("User not found with ID: " + userId));
@@ -951,6 +1085,11 @@ public class BookingService {
                 .orElseThrow(() -> new BookingNotFoundException("Booking not found with ID: " + bookingId));
     }
 
+    private Booking findBookingDetailsByReference(String bookingReference) {
+        return bookingRepository.findDetailsByBookingReference(bookingReference)
+                .orElseThrow(() -> new BookingNotFoundException("Booking not found with reference: " + bookingReference));
+    }
+
     private Booking findBookingByReference(String bookingReference) {
         return bookingRepository.findByBookingReference(bookingReference)
                 .orElseThrow(() -> new BookingNotFoundException("Booking not found with reference: " + bookingReference));
@@ -1024,6 +1163,22 @@ public class BookingService {
         }
     }
 
+    public static class PaymentNotRecordedException extends BaseException {
+        public PaymentNotRecordedException(String message, Throwable cause) {
+            super(message, cause);
+        }
+
+        @Override
+        public boolean isRetryable() {
+            return true;
+        }
+
+        @Override
+        public int getHttpStatusCode() {
+            return 409;
+        }
+    }
+
     public static class InvalidPaymentAmountException extends BaseException {
         public InvalidPaymentAmountException(String message) {
             super(message);
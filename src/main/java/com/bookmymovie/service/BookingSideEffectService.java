@@ -0,0 +1,100 @@
+package com.bookmymovie.service;
+
+import com.bookmymovie.dto.response.BookingNotificationDto;
+import com.bookmymovie.dto.response.BookingReceiptDto;
+import com.bookmymovie.dto.response.BookingRewardsDto;
+import com.bookmymovie.entity.Booking;
+import com.bookmymovie.entity.OutboxMessage;
+import com.bookmymovie.repository.BookingRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Non-critical work that follows a booking change: receipt delivery, customer notifications,
+ * loyalty rewards and analytics. Invoked by {@link OutboxService} on the executor of each topic,
+ * possibly more than once per message, so every call carries the message's idempotency key
+ * for the downstream service to deduplicate on. Handlers read the booking as it is now.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class BookingSideEffectService {
+
+    // One loyalty point per ₹10 of the final amount
+    private static final BigDecimal RUPEES_PER_POINT = BigDecimal.TEN;
+
+    private final BookingRepository bookingRepository;
+    private final BookingService bookingService;
+
+    @Transactional(readOnly = true)
+    public void handle(OutboxMessage message) {
+        Booking booking = bookingRepository.findDetailsById(message.getBookingId()).orElse(null);
+        if (booking == null) {
+            log.warn("Booking {} of outbox message {} no longer exists; skipping", message.getBookingId(),
+                    message.getIdempotencyKey());
+            return;
+        }
+
+        switch (message.getTopic()) {
+            case RECEIPT -> sendReceipt(booking, message.getIdempotencyKey());
+            case NOTIFICATION -> sendNotification(booking, message.getBookingStatus(), message.getIdempotencyKey());
+            case REWARDS -> applyRewards(booking, message.getBookingStatus(), message.getIdempotencyKey());
+            case ANALYTICS -> recordAnalytics(booking, message.getBookingStatus(), message.getIdempotencyKey());
+        }
+    }
+
+    // ==================== HANDLERS ====================
+
+    private void sendReceipt(Booking booking, String idempotencyKey) {
+        BookingReceiptDto receipt = bookingService.getBookingReceipt(booking.getBookingReference());
+        // Mock delivery; a mail provider would receive the idempotency key with the message
+        log.info("Receipt for booking {} ({} seats, ₹{}) sent to {} [{}]", receipt.getBookingReference(),
+                receipt.getNumberOfSeats(), receipt.getFinalAmount(), receipt.getContactEmail(), idempotencyKey);
+    }
+
+    private void sendNotification(Booking booking, Booking.BookingStatus status, String idempotencyKey) {
+        BookingNotificationDto notification = BookingNotificationDto.builder()
+                .bookingReference(booking.getBookingReference())
+                .notificationType(status == Booking.BookingStatus.CANCELLED ? "CANCELLATION" : "CONFIRMATION")
+                .message(notificationMessage(booking, status))
+                .scheduledTime(LocalDateTime.now())
+                .channel("EMAIL")
+                .build();
+        log.info("{} notification for booking {} sent to {} via {} [{}]", notification.getNotificationType(),
+                notification.getBookingReference(), booking.getContactEmail(), notification.getChannel(), idempotencyKey);
+    }
+
+    private void applyRewards(Booking booking, Booking.BookingStatus status, String idempotencyKey) {
+        int points = booking.getFinalAmount() == null ? 0
+                : booking.getFinalAmount().divide(RUPEES_PER_POINT, 0, RoundingMode.DOWN).intValue();
+        // A cancellation takes back the points its confirmation earned
+        BookingRewardsDto rewards = BookingRewardsDto.builder()
+                .bookingReference(booking.getBookingReference())
+                .pointsEarned(status == Booking.BookingStatus.CANCELLED ? -points : points)
+                .availableRewards(List.of())
+                .build();
+        log.info("Loyalty points {} for user {} on booking {} [{}]", rewards.getPointsEarned(),
+                booking.getUser().getUserId(), rewards.getBookingReference(), idempotencyKey);
+    }
+
+    private void recordAnalytics(Booking booking, Booking.BookingStatus status, String idempotencyKey) {
+        log.info("Booking analytics: booking={} show={} status={} seats={} amount={} [{}]",
+                booking.getBookingReference(), booking.getShow().getShowId(), status,
+                booking.getNumberOfSeats(), booking.getFinalAmount(), idempotencyKey);
+    }
+
+    private static String notificationMessage(Booking booking, Booking.BookingStatus status) {
+        String show = booking.getShow().getMovie().getTitle() + " on " + booking.getShow().getShowDate()
+                + " at " + booking.getShow().getShowTime();
+        return status == Booking.BookingStatus.CANCELLED
+                ? "Your booking " + booking.getBookingReference() + " for " + show + " has been cancelled."
+                : "Your booking " + booking.getBookingReference() + " for " + show + " is confirmed.";
+    }
+}
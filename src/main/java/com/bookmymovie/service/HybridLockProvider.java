@@ -0,0 +1,83 @@
+package com.bookmymovie.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cluster-wide locks that queue same-node contenders locally.
+ * A caller first takes the key's {@link LocalLockProvider} stripe and only then the Redis lock,
+ * both within one wait budget. Threads of one node contending for a key wait on the stripe, so
+ * at most one of them talks to Redis at a time instead of all of them polling the Redis lock.
+ */
+@Service
+@RequiredArgsConstructor
+public class HybridLockProvider implements LockProvider {
+
+    private final LocalLockProvider localLockProvider;
+    private final RedissonLockProvider redissonLockProvider;
+
+    @Override
+    public Lease tryLock(String lockKey, long waitTime, long leaseTime, TimeUnit timeUnit) throws InterruptedException {
+        long deadline = System.nanoTime() + timeUnit.toNanos(waitTime);
+        Lease local = localLockProvider.tryLock(lockKey, waitTime, leaseTime, timeUnit);
+        if (local == null) {
+            return null;
+        }
+
+        Lease remote;
+        try {
+            long remaining = Math.max(deadline - System.nanoTime(), 0);
+            remote = redissonLockProvider.tryLock(lockKey, remaining, timeUnit.toNanos(leaseTime), TimeUnit.NANOSECONDS);
+        } catch (InterruptedException | RuntimeException e) {
+            local.unlock();
+            throw e;
+        }
+        if (remote == null) {
+            local.unlock();
+            return null;
+        }
+        return new HybridLease(local, remote);
+    }
+
+    @Override
+    public boolean isLocked(String lockKey) {
+        return redissonLockProvider.isLocked(lockKey);
+    }
+
+    @Override
+    public long nextFencingToken(String lockKey) {
+        return redissonLockProvider.nextFencingToken(lockKey);
+    }
+
+    @Override
+    public CompletableFuture<Long> nextFencingTokenAsync(String lockKey) {
+        return redissonLockProvider.nextFencingTokenAsync(lockKey);
+    }
+
+    private static final class HybridLease implements Lease {
+        private final Lease local;
+        private final Lease remote;
+
+        HybridLease(Lease local, Lease remote) {
+            this.local = local;
+            this.remote = remote;
+        }
+
+        @Override
+        public String getLockKey() {
+            return remote.getLockKey();
+        }
+
+        @Override
+        public void unlock() {
+            try {
+                remote.unlock();
+            } finally {
+                local.unlock();
+            }
+        }
+    }
+}
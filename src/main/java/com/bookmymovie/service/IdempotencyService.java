@@ -0,0 +1,265 @@
+package com.bookmymovie.service;
+
+import com.bookmymovie.exception.IdempotencyException;
+import com.bookmymovie.util.ExpiringLruCache;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.redisson.api.RBucket;
+import org.redisson.api.RedissonClient;
+import org.redisson.client.RedisException;
+import org.redisson.client.codec.StringCodec;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Idempotency-Key handling for endpoints annotated with @Idempotent.
+ * The first request with a key claims it in Redis and runs; its response is stored under the key
+ * and replayed to every retry with the same request hash. Duplicates on the same node wait on the
+ * running execution itself, duplicates on other nodes poll the claim until the response is stored.
+ * Completed responses are also kept in a small near-cache, so a retry storm on one node costs no
+ * Redis round trips. Failed executions store nothing and release the key, so the client can retry.
+ * If Redis is unavailable, duplicates are still collapsed per node.
+ */
+@Service
+@Slf4j
+public class IdempotencyService {
+
+    public static final String HEADER = "Idempotency-Key";
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+
+    private static final String KEY_PREFIX = "idempotency:";
+    private static final int MAX_KEY_LENGTH = 255;
+
+    private final RedissonClient redissonClient;
+    private final ObjectMapper objectMapper;
+    private final ExpiringLruCache<String, StoredResponse> nearCache;
+
+    // Executions running on this node, by key
+    private final Map<String, InFlight> inFlight = new ConcurrentHashMap<>();
+
+    @Value("${idempotency.claim-lease-seconds:30}")
+    private long claimLeaseSeconds;
+
+    @Value("${idempotency.duplicate-wait-ms:10000}")
+    private long duplicateWaitMillis;
+
+    @Value("${idempotency.poll-interval-ms:50}")
+    private long pollIntervalMillis;
+
+    @Value("${idempotency.near-cache.ttl-seconds:60}")
+    private long nearCacheTtlSeconds;
+
+    public IdempotencyService(RedissonClient redissonClient, ObjectMapper objectMapper,
+                              @Value("${idempotency.near-cache.max-size:10000}") int nearCacheSize) {
+        this.redissonClient = redissonClient;
+        this.objectMapper = objectMapper;
+        this.nearCache = new ExpiringLruCache<>(nearCacheSize);
+    }
+
+    public static void validateKey(String key) {
+        if (key.isBlank() || key.length() > MAX_KEY_LENGTH) {
+            throw IdempotencyException.invalidKey(HEADER + " must be 1 to " + MAX_KEY_LENGTH + " characters");
+        }
+    }
+
+    /**
+     * Runs the action once per key, or returns the response of the run that already happened
+     *
+     * @param scopedKey   operation, caller and client key; the same client key may be used by other callers
+     * @param requestHash hash of the request body; a key reused for a different request is rejected
+     */
+    public ResponseEntity<?> execute(String scopedKey, String requestHash, Duration ttl,
+                                     Callable<ResponseEntity<?>> action) throws Exception {
+        StoredResponse cached = nearCache.get(scopedKey);
+        if (cached != null) {
+            return replay(cached, requestHash);
+        }
+
+        InFlight mine = new InFlight();
+        InFlight running = inFlight.putIfAbsent(scopedKey, mine);
+        if (running != null) {
+            return replay(awaitLocal(running), requestHash);
+        }
+
+        try {
+            return claimAndRun(scopedKey, requestHash, ttl, action, mine);
+        } catch (Exception e) {
+            mine.getResult().completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(scopedKey, mine);
+        }
+    }
+
+    // ==================== EXECUTION ====================
+
+    private ResponseEntity<?> claimAndRun(String scopedKey, String requestHash, Duration ttl,
+                                          Callable<ResponseEntity<?>> action, InFlight mine) throws Exception {
+        RBucket<String> bucket = redissonClient.getBucket(KEY_PREFIX + scopedKey, StringCodec.INSTANCE);
+        String claim = null;
+        try {
+            claim = claim(bucket, requestHash);
+        } catch (RedisException e) {
+            log.warn("Idempotency store unavailable, deduplicating {} on this node only: {}", scopedKey, e.getMessage());
+        }
+
+        if (claim != null && !isOwnClaim(claim)) {
+            // Another node finished the request first, or a stored response was found
+            StoredResponse stored = read(claim);
+            mine.getResult().complete(stored);
+            nearCache.put(scopedKey, stored, nearCacheExpiry(ttl));
+            return replay(stored, requestHash);
+        }
+
+        ResponseEntity<?> response;
+        try {
+            response = action.call();
+        } catch (Exception e) {
+            if (claim != null) {
+                release(bucket, claim);
+            }
+            throw e;
+        }
+
+        StoredResponse stored = StoredResponse.of(response, requestHash, objectMapper);
+        mine.getResult().complete(stored);
+        nearCache.put(scopedKey, stored, nearCacheExpiry(ttl));
+        if (claim != null) {
+            try {
+                bucket.set(objectMapper.writeValueAsString(stored), ttl);
+            } catch (RedisException e) {
+                log.warn("Could not store idempotent response for {}: {}", scopedKey, e.getMessage());
+            }
+        }
+        return response;
+    }
+
+    /**
+     * Claims the key, or waits until another node's claim turns into a stored response
+     *
+     * @return this node's claim marker, or the stored response of an earlier execution
+     */
+    private String claim(RBucket<String> bucket, String requestHash) throws JsonProcessingException, InterruptedException {
+        String marker = objectMapper.writeValueAsString(StoredResponse.claim(requestHash));
+        long deadline = System.currentTimeMillis() + duplicateWaitMillis;
+        while (true) {
+            if (bucket.setIfAbsent(marker, Duration.ofSeconds(claimLeaseSeconds))) {
+                return marker;
+            }
+            String existing = bucket.get();
+            if (existing != null) {
+                StoredResponse stored = read(existing);
+                if (!Objects.equals(stored.getRequestHash(), requestHash)) {
+                    throw IdempotencyException.keyReused(HEADER + " was already used for a different request");
+                }
+                if (!stored.isClaim()) {
+                    return existing;
+                }
+            }
+            if (System.currentTimeMillis() >= deadline) {
+                throw IdempotencyException.inProgress("A request with this " + HEADER + " is still being processed");
+            }
+            TimeUnit.MILLISECONDS.sleep(pollIntervalMillis);
+        }
+    }
+
+    private void release(RBucket<String> bucket, String claim) {
+        try {
+            // Only if still ours; a claim whose lease ran out may belong to another node by now
+            bucket.compareAndSet(claim, null);
+        } catch (RedisException e) {
+            log.warn("Could not release idempotency claim {}: {}", bucket.getName(), e.getMessage());
+        }
+    }
+
+    private StoredResponse awaitLocal(InFlight running) throws Exception {
+        try {
+            return running.getResult().get(duplicateWaitMillis, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            throw IdempotencyException.inProgress("A request with this " + HEADER + " is still being processed");
+        } catch (ExecutionException e) {
+            // The duplicate fails the way the request it duplicates did
+            if (e.getCause() instanceof Exception cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private ResponseEntity<?> replay(StoredResponse stored, String requestHash) throws JsonProcessingException, ClassNotFoundException {
+        if (!Objects.equals(stored.getRequestHash(), requestHash)) {
+            throw IdempotencyException.keyReused(HEADER + " was already used for a different request");
+        }
+        Object body = stored.getBodyType() == null ? null
+                : objectMapper.readValue(stored.getBody(), Class.forName(stored.getBodyType()));
+        return ResponseEntity.status(stored.getStatus())
+                .header(REPLAYED_HEADER, "true")
+                .body(body);
+    }
+
+    private StoredResponse read(String json) throws JsonProcessingException {
+        return objectMapper.readValue(json, StoredResponse.class);
+    }
+
+    private boolean isOwnClaim(String value) throws JsonProcessingException {
+        return read(value).isClaim();
+    }
+
+    private long nearCacheExpiry(Duration ttl) {
+        return System.currentTimeMillis() + Math.min(ttl.toMillis(), nearCacheTtlSeconds * 1000);
+    }
+
+    // ==================== STORED STATE ====================
+
+    /**
+     * What is kept under a key: a claim while the first request runs, then its response
+     */
+    @Getter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    static class StoredResponse {
+        private String requestHash;
+        // Unique per claim, so a release never removes another execution's claim
+        private String claimId;
+        private int status;
+        private String bodyType;
+        private String body;
+
+        boolean isClaim() {
+            return claimId != null;
+        }
+
+        static StoredResponse claim(String requestHash) {
+            return new StoredResponse(requestHash, UUID.randomUUID().toString(), 0, null, null);
+        }
+
+        static StoredResponse of(ResponseEntity<?> response, String requestHash, ObjectMapper objectMapper)
+                throws JsonProcessingException {
+            Object body = response.getBody();
+            return new StoredResponse(requestHash, null, response.getStatusCode().value(),
+                    body == null ? null : body.getClass().getName(),
+                    body == null ? null : objectMapper.writeValueAsString(body));
+        }
+    }
+
+    @Getter
+    private static final class InFlight {
+        private final CompletableFuture<StoredResponse> result = new CompletableFuture<>();
+    }
+}
@@ -0,0 +1,82 @@
+package com.bookmymovie.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Per-node locks for single-node deployments, and the same-node stage of {@link HybridLockProvider}.
+ * Keys hash onto a fixed power-of-two table of {@link ReentrantLock} stripes, so memory stays flat
+ * however many keys are locked; two keys sharing a stripe merely wait for each other. Locks die with
+ * the node, so lease times are not needed and ignored.
+ */
+@Service
+@Slf4j
+public class LocalLockProvider implements LockProvider {
+
+    private final ReentrantLock[] stripes;
+    private final int stripeMask;
+
+    // Microseconds since the epoch, bumped per token, so tokens keep growing across restarts
+    private final AtomicLong lastFencingToken = new AtomicLong();
+
+    public LocalLockProvider(@Value("${distributed-lock.local.stripes:1024}") int stripeCount) {
+        int size = Integer.highestOneBit(Math.max(stripeCount - 1, 1)) << 1;
+        this.stripes = new ReentrantLock[size];
+        this.stripeMask = size - 1;
+        for (int i = 0; i < size; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+    }
+
+    @Override
+    public Lease tryLock(String lockKey, long waitTime, long leaseTime, TimeUnit timeUnit) throws InterruptedException {
+        ReentrantLock stripe = stripe(lockKey);
+        boolean acquired = waitTime > 0 ? stripe.tryLock(waitTime, timeUnit) : stripe.tryLock();
+        return acquired ? new StripeLease(lockKey, stripe) : null;
+    }
+
+    @Override
+    public boolean isLocked(String lockKey) {
+        return stripe(lockKey).isLocked();
+    }
+
+    @Override
+    public long nextFencingToken(String lockKey) {
+        long now = TimeUnit.MILLISECONDS.toMicros(System.currentTimeMillis());
+        return lastFencingToken.updateAndGet(last -> Math.max(last + 1, now));
+    }
+
+    private ReentrantLock stripe(String lockKey) {
+        int hash = lockKey.hashCode();
+        return stripes[(hash ^ (hash >>> 16)) & stripeMask];
+    }
+
+    private static final class StripeLease implements Lease {
+        private final String lockKey;
+        private final ReentrantLock stripe;
+
+        StripeLease(String lockKey, ReentrantLock stripe) {
+            this.lockKey = lockKey;
+            this.stripe = stripe;
+        }
+
+        @Override
+        public String getLockKey() {
+            return lockKey;
+        }
+
+        @Override
+        public void unlock() {
+            if (stripe.isHeldByCurrentThread()) {
+                stripe.unlock();
+            } else {
+                log.warn("Attempted to release local lock not held by current thread: {}", lockKey);
+            }
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.bookmymovie.service;
+
+import com.bookmymovie.util.ExpiringLruCache;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Per-node rate limits, used when Redis is disabled or unreachable.
+ * Each key's GCRA state is one {@link AtomicLong} updated with compare-and-set, and the set
+ * of tracked keys is a bounded LRU, so memory stays flat however many IPs and emails show up.
+ */
+@Service
+public class LocalRateLimitBackend implements RateLimitBackend {
+
+    private final ExpiringLruCache<String, AtomicLong> states;
+
+    public LocalRateLimitBackend(@Value("${rate-limit.local.max-keys:100000}") int maxKeys) {
+        this.states = new ExpiringLruCache<>(maxKeys);
+    }
+
+    @Override
+    public int acquire(String key, RateLimitRule rule, int requested) {
+        AtomicLong state = states.getOrCreate(stateKey(key, rule), k -> new AtomicLong(Long.MIN_VALUE), Long.MAX_VALUE);
+        long interval = rule.getEmissionIntervalMicros();
+
+        while (true) {
+            long now = TimeUnit.NANOSECONDS.toMicros(System.nanoTime());
+            long current = state.get();
+            long tat = Math.max(current, now);
+            long granted = Math.min(requested, (now + rule.getPeriodMicros() - tat) / interval);
+            if (granted <= 0) {
+                return 0;
+            }
+            if (state.compareAndSet(current, tat + granted * interval)) {
+                return (int) granted;
+            }
+        }
+    }
+
+    @Override
+    public void reset(String key, RateLimitRule rule) {
+        states.remove(stateKey(key, rule));
+    }
+
+    private static String stateKey(String key, RateLimitRule rule) {
+        return rule.getName() + ":" + key;
+    }
+}
@@ -0,0 +1,53 @@
+package com.bookmymovie.service;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Lock backend behind {@link RedisDistributedLockService}, selected with distributed-lock.backend:
+ * {@link RedissonLockProvider} (redis), {@link LocalLockProvider} (local) or {@link HybridLockProvider} (hybrid).
+ * Locks taken through {@link #tryLock} belong to the acquiring thread and must be released on it.
+ */
+public interface LockProvider {
+
+    /**
+     * Takes the lock for the key, waiting up to waitTime
+     *
+     * @param leaseTime time after which the lock is released if its holder never does; backends
+     *                  whose locks cannot outlive their holder may ignore it
+     * @return the held lock, or null if it could not be taken within waitTime
+     */
+    Lease tryLock(String lockKey, long waitTime, long leaseTime, TimeUnit timeUnit) throws InterruptedException;
+
+    boolean isLocked(String lockKey);
+
+    /**
+     * Fencing token for a lock key; tokens only ever grow per key, also across restarts
+     */
+    long nextFencingToken(String lockKey);
+
+    default CompletableFuture<Long> nextFencingTokenAsync(String lockKey) {
+        return CompletableFuture.completedFuture(nextFencingToken(lockKey));
+    }
+
+    /**
+     * A held lock
+     */
+    interface Lease {
+
+        String getLockKey();
+
+        /**
+         * Releases the lock; logs instead of throwing if it is no longer held (e.g. its lease ran out)
+         */
+        void unlock();
+
+        /**
+         * Releases the lock from any thread; only supported by leases that are not thread-owned
+         */
+        default CompletableFuture<Void> unlockAsync() {
+            unlock();
+            return CompletableFuture.completedFuture(null);
+        }
+    }
+}
@@ -1,53 +1,333 @@
 package com.bookmymovie.service;
 
 import com.bookmymovie.exception.BaseException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.env.Environment;
 import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.bind.annotation.ResponseStatus;
 
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
 import java.util.function.Supplier;
 
+/**
+ * Retries operations that lose optimistic locking races.
+ * Every attempt runs in a transaction of its own, so a retry re-reads current rows instead of
+ * reusing a persistence context that holds the stale ones. Attempts and backoff are configured per
+ * operation (optimistic-retry.operations.&lt;name&gt;), backoff uses decorrelated jitter so
+ * colliding callers spread out, and each operation has a circuit that rejects new executions for
+ * a while once most of its recent attempts conflict, rather than letting retries pile onto a hot row.
+ * Conflicts and attempts per execution are published as optimistic.retry.* meters.
+ * Backoff deliberately blocks the caller: requests run on virtual threads, where a sleeping
+ * thread holds no carrier, so an asynchronous variant would add complexity without saving threads.
+ * The service refuses to start with virtual threads disabled, where every backoff would park a
+ * platform request thread and conflict storms would drain the Tomcat pool.
+ */
 @Component
 @Slf4j
 public class OptimisticLockingRetryService {
 
-    private static final int MAX_RETRY_ATTEMPTS = 3;
-    private static final long RETRY_DELAY_MS = 50;
+    private static final String OPERATION_PREFIX = "optimistic-retry.operations.";
 
-    public <T> T executeWithRetry(Supplier<T> operation, String operationName) {
-        int attempts = 0;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+    private final Environment environment;
+    private final Map<String, RetryOperation> operations = new ConcurrentHashMap<>();
 
-        while (attempts < MAX_RETRY_ATTEMPTS) {
-            try {
-                attempts++;
-                log.debug("Executing {} - Attempt {}/{}", operationName, attempts, MAX_RETRY_ATTEMPTS);
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtualThreads;
 
-                return operation.get();
+    @Value("${optimistic-retry.default.max-attempts:3}")
+    private int defaultMaxAttempts;
 
-            } catch (OptimisticLockingFailureException ex) {
-                log.warn("Optimistic locking conflict in {} - Attempt {}/{}",
-                        operationName, attempts, MAX_RETRY_ATTEMPTS);
+    @Value("${optimistic-retry.default.base-delay-ms:20}")
+    private long defaultBaseDelayMillis;
 
-                if (attempts >= MAX_RETRY_ATTEMPTS) {
-                    log.error("Max retry attempts reached for {}", operationName);
-                    throw new BookingConcurrencyException(
-                            "Unable to complete " + operationName + " due to high concurrency. Please try again."
-                    );
-                }
+    @Value("${optimistic-retry.default.max-delay-ms:500}")
+    private long defaultMaxDelayMillis;
+
+    @Value("${optimistic-retry.circuit.conflict-rate-threshold:0.5}")
+    private double circuitConflictRate;
+
+    @Value("${optimistic-retry.circuit.min-attempts:20}")
+    private int circuitMinAttempts;
+
+    @Value("${optimistic-retry.circuit.window-ms:10000}")
+    private long circuitWindowMillis;
+
+    @Value("${optimistic-retry.circuit.open-ms:2000}")
+    private long circuitOpenMillis;
+
+    public OptimisticLockingRetryService(PlatformTransactionManager transactionManager, MeterRegistry meterRegistry,
+                                         Environment environment) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.meterRegistry = meterRegistry;
+        this.environment = environment;
+    }
 
+    @PostConstruct
+    public void requireVirtualThreads() {
+        if (!virtualThreads) {
+            throw new IllegalStateException("Optimistic retry backoff blocks its caller and needs virtual threads; "
+                    + "set spring.threads.virtual.enabled=true");
+        }
+    }
+
+    /**
+     * Runs the operation, each attempt in a new transaction, retrying optimistic locking conflicts.
+     * Backoff waits on the calling thread, which costs nothing but the wait on a virtual thread.
+     *
+     * @throws BookingConcurrencyException if every attempt conflicted or the operation's circuit is open
+     */
+    public <T> T executeWithRetry(Supplier<T> operation, String operationName) {
+        RetryOperation retry = operation(operationName);
+        retry.checkCircuit();
+
+        long previousDelay = retry.getBaseDelayMillis();
+        for (int attempt = 1; ; attempt++) {
+            log.debug("Executing {} - Attempt {}/{}", operationName, attempt, retry.getMaxAttempts());
+            try {
+                T result = transactionTemplate.execute(status -> operation.get());
+                retry.succeeded(attempt);
+                return result;
+            } catch (RuntimeException e) {
+                long delay = retry.onFailure(e, attempt, previousDelay);
+                previousDelay = delay;
                 try {
-                    // Exponential backoff
-                    Thread.sleep(RETRY_DELAY_MS * attempts);
+                    TimeUnit.MILLISECONDS.sleep(delay);
                 } catch (InterruptedException ie) {
                     Thread.currentThread().interrupt();
                     throw new BookingConcurrencyException("Operation interrupted");
                 }
             }
         }
+    }
+
+    private RetryOperation operation(String operationName) {
+        RetryOperation retry = operations.get(operationName);
+        if (retry != null) {
+            return retry;
+        }
+        return operations.computeIfAbsent(operationName, this::createOperation);
+    }
+
+    private RetryOperation createOperation(String name) {
+        int maxAttempts = environment.getProperty(OPERATION_PREFIX + name + ".max-attempts", Integer.class, defaultMaxAttempts);
+        long baseDelay = environment.getProperty(OPERATION_PREFIX + name + ".base-delay-ms", Long.class, defaultBaseDelayMillis);
+        long maxDelay = environment.getProperty(OPERATION_PREFIX + name + ".max-delay-ms", Long.class, defaultMaxDelayMillis);
+        // Operations that must not be abandoned halfway (e.g. recording a payment already taken) opt out of shedding
+        boolean shedLoad = environment.getProperty(OPERATION_PREFIX + name + ".shed-load", Boolean.class, true);
+        return new RetryOperation(name, Math.max(maxAttempts, 1), Math.max(baseDelay, 1), Math.max(maxDelay, baseDelay),
+                shedLoad ? new ConflictCircuit(circuitConflictRate, circuitMinAttempts, circuitWindowMillis, circuitOpenMillis)
+                        : null,
+                meterRegistry);
+    }
+
+    static boolean isConflict(Throwable error) {
+        for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+            if (cause instanceof OptimisticLockingFailureException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Decorrelated jitter: a random delay between the base delay and three times the previous one,
+     * capped; successive retries grow on average but colliding callers drift apart
+     */
+    static long nextDelayMillis(long previousDelay, long baseDelay, long maxDelay) {
+        long upper = Math.max(Math.min(previousDelay * 3, maxDelay), baseDelay);
+        return upper == baseDelay ? baseDelay : ThreadLocalRandom.current().nextLong(baseDelay, upper + 1);
+    }
+
+    // ==================== OPERATIONS ====================
+
+    /**
+     * Policy, circuit and meters of one named operation
+     */
+    @Getter
+    private static final class RetryOperation {
+        private final String name;
+        private final int maxAttempts;
+        private final long baseDelayMillis;
+        private final long maxDelayMillis;
+        // Null if the operation does not shed load
+        private final ConflictCircuit circuit;
+        private final DistributionSummary succeededAttempts;
+        private final DistributionSummary exhaustedAttempts;
+        private final DistributionSummary failedAttempts;
+        private final Counter conflicts;
+        private final Counter rejections;
+
+        RetryOperation(String name, int maxAttempts, long baseDelayMillis, long maxDelayMillis, ConflictCircuit circuit,
+                       MeterRegistry meterRegistry) {
+            this.name = name;
+            this.maxAttempts = maxAttempts;
+            this.baseDelayMillis = baseDelayMillis;
+            this.maxDelayMillis = maxDelayMillis;
+            this.circuit = circuit;
+            this.succeededAttempts = attempts(name, "success", meterRegistry);
+            this.exhaustedAttempts = attempts(name, "exhausted", meterRegistry);
+            this.failedAttempts = attempts(name, "error", meterRegistry);
+            this.conflicts = Counter.builder("optimistic.retry.conflicts")
+                    .description("Attempts that lost an optimistic locking race")
+                    .tag("operation", name)
+                    .register(meterRegistry);
+            this.rejections = Counter.builder("optimistic.retry.rejected")
+                    .description("Executions rejected while the operation's conflict circuit was open")
+                    .tag("operation", name)
+                    .register(meterRegistry);
+        }
+
+        private static DistributionSummary attempts(String name, String outcome, MeterRegistry meterRegistry) {
+            return DistributionSummary.builder("optimistic.retry.attempts")
+                    .description("Attempts per execution; more than one means it conflicted and retried")
+                    .tag("operation", name)
+                    .tag("outcome", outcome)
+                    .publishPercentileHistogram()
+                    .register(meterRegistry);
+        }
+
+        void checkCircuit() {
+            if (circuit != null && !circuit.allowsExecution()) {
+                rejections.increment();
+                log.warn("Conflict circuit for {} is open; rejecting execution", name);
+                throw new BookingConcurrencyException(
+                        "Too many concurrent requests for " + name + ". Please try again shortly.");
+            }
+        }
+
+        void succeeded(int attempt) {
+            if (circuit != null) {
+                circuit.record(false);
+            }
+            succeededAttempts.record(attempt);
+        }
+
+        /**
+         * Records a failed attempt
+         *
+         * @return delay before the next attempt
+         * @throws RuntimeException the failure itself if it is no conflict, or
+         *                          BookingConcurrencyException once attempts are used up
+         */
+        long onFailure(RuntimeException error, int attempt, long previousDelay) {
+            if (!isConflict(error)) {
+                failedAttempts.record(attempt);
+                throw error;
+            }
+
+            conflicts.increment();
+            if (circuit != null) {
+                circuit.record(true);
+            }
+            log.warn("Optimistic locking conflict in {} - Attempt {}/{}", name, attempt, maxAttempts);
+
+            if (attempt >= maxAttempts) {
+                exhaustedAttempts.record(attempt);
+                log.error("Max retry attempts reached for {}", name);
+                throw new BookingConcurrencyException(
+                        "Unable to complete " + name + " due to high concurrency. Please try again.", error);
+            }
+            if (circuit != null && !circuit.allowsExecution()) {
+                exhaustedAttempts.record(attempt);
+                throw new BookingConcurrencyException(
+                        "Too many concurrent requests for " + name + ". Please try again shortly.", error);
+            }
+            return nextDelayMillis(previousDelay, baseDelayMillis, maxDelayMillis);
+        }
+    }
+
+    /**
+     * Conflict rate of an operation's attempts over a sliding window of ten buckets. Once the rate
+     * crosses the threshold the circuit opens and rejects executions for openMillis, then closes
+     * with a fresh window.
+     */
+    static final class ConflictCircuit {
+        private static final int BUCKETS = 10;
+
+        private final double threshold;
+        private final int minAttempts;
+        private final long bucketMillis;
+        private final long openMillis;
+        private final ReentrantLock lock = new ReentrantLock();
+
+        private final long[] bucketStarts = new long[BUCKETS];
+        private final int[] attempts = new int[BUCKETS];
+        private final int[] conflicts = new int[BUCKETS];
+        private volatile long openUntil;
+
+        ConflictCircuit(double threshold, int minAttempts, long windowMillis, long openMillis) {
+            this.threshold = threshold;
+            this.minAttempts = minAttempts;
+            this.bucketMillis = Math.max(windowMillis / BUCKETS, 1);
+            this.openMillis = openMillis;
+        }
+
+        boolean allowsExecution() {
+            return System.currentTimeMillis() >= openUntil;
+        }
+
+        void record(boolean conflict) {
+            long now = System.currentTimeMillis();
+            long bucketStart = now - now % bucketMillis;
+            int index = (int) ((now / bucketMillis) % BUCKETS);
+
+            lock.lock();
+            try {
+                if (bucketStarts[index] != bucketStart) {
+                    bucketStarts[index] = bucketStart;
+                    attempts[index] = 0;
+                    conflicts[index] = 0;
+                }
+                attempts[index]++;
+                if (conflict) {
+                    conflicts[index]++;
+                }
+                if (conflict && now >= openUntil) {
+                    tripIfOverThreshold(now);
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
 
-        throw new BookingConcurrencyException("Unexpected error in retry mechanism");
+        private void tripIfOverThreshold(long now) {
+            long windowStart = now - bucketMillis * BUCKETS;
+            int totalAttempts = 0;
+            int totalConflicts = 0;
+            for (int i = 0; i < BUCKETS; i++) {
+                if (bucketStarts[i] > windowStart) {
+                    totalAttempts += attempts[i];
+                    totalConflicts += conflicts[i];
+                }
+            }
+            if (totalAttempts >= minAttempts && totalConflicts > threshold * totalAttempts) {
+                openUntil = now + openMillis;
+                // Start over once the circuit closes, so the conflicts that opened it do not reopen it
+                for (int i = 0; i < BUCKETS; i++) {
+                    bucketStarts[i] = 0;
+                }
+                log.warn("Conflict circuit opened for {}ms: {} of {} recent attempts conflicted",
+                        openMillis, totalConflicts, totalAttempts);
+            }
+        }
     }
 
     // Custom exception for concurrency issues
@@ -67,4 +347,4 @@ public class OptimisticLockingRetryService {
             return HttpStatus.CONFLICT.value(); // 409 Conflict
         }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,207 @@
+package com.bookmymovie.service;
+
+import com.bookmymovie.entity.Booking;
+import com.bookmymovie.entity.OutboxMessage;
+import com.bookmymovie.event.BookingChangedEvent;
+import com.bookmymovie.repository.BookingRepository;
+import com.bookmymovie.repository.OutboxRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executor;
+
+/**
+ * Transactional outbox for booking side effects.
+ * Booking changes add their side effects to the outbox in the booking transaction, so they are
+ * recorded exactly when the change commits and cost the request one insert each. A poller claims
+ * due messages in batches with FOR UPDATE SKIP LOCKED, so any number of nodes can poll, and hands
+ * each to the executor of its topic. A claim is a lease: messages not marked done before it runs
+ * out are claimed again, and failures are retried with exponential backoff up to a limit.
+ */
+@Service
+@Slf4j
+public class OutboxService {
+
+    private final OutboxRepository outboxRepository;
+    private final BookingRepository bookingRepository;
+    private final BookingSideEffectService sideEffectService;
+    private final TransactionTemplate transactionTemplate;
+    private final Map<OutboxMessage.Topic, Executor> executors = new EnumMap<>(OutboxMessage.Topic.class);
+
+    @Value("${outbox.enabled:true}")
+    private boolean enabled;
+
+    @Value("${outbox.batch-size:100}")
+    private int batchSize;
+
+    @Value("${outbox.lease-seconds:60}")
+    private long leaseSeconds;
+
+    @Value("${outbox.max-attempts:8}")
+    private int maxAttempts;
+
+    @Value("${outbox.retry-base-delay-ms:1000}")
+    private long retryBaseDelayMillis;
+
+    @Value("${outbox.retry-max-delay-ms:300000}")
+    private long retryMaxDelayMillis;
+
+    @Value("${outbox.retention-hours:72}")
+    private long retentionHours;
+
+    public OutboxService(OutboxRepository outboxRepository, BookingRepository bookingRepository,
+                         BookingSideEffectService sideEffectService, PlatformTransactionManager transactionManager,
+                         @Qualifier("receiptExecutor") Executor receiptExecutor,
+                         @Qualifier("notificationExecutor") Executor notificationExecutor,
+                         @Qualifier("rewardsExecutor") Executor rewardsExecutor,
+                         @Qualifier("analyticsExecutor") Executor analyticsExecutor) {
+        this.outboxRepository = outboxRepository;
+        this.bookingRepository = bookingRepository;
+        this.sideEffectService = sideEffectService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        executors.put(OutboxMessage.Topic.RECEIPT, receiptExecutor);
+        executors.put(OutboxMessage.Topic.NOTIFICATION, notificationExecutor);
+        executors.put(OutboxMessage.Topic.REWARDS, rewardsExecutor);
+        executors.put(OutboxMessage.Topic.ANALYTICS, analyticsExecutor);
+    }
+
+    // ==================== WRITE ====================
+
+    /**
+     * Runs just before the booking transaction commits, so messages commit or roll back with it
+     */
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
+    public void onBookingChanged(BookingChangedEvent event) {
+        Booking.BookingStatus bulkStatus = event.getBulkStatus();
+        if (bulkStatus != null) {
+            event.getBookingIds().forEach(bookingId -> enqueue(bookingId, bulkStatus));
+            return;
+        }
+        for (Long bookingId : event.getBookingIds()) {
+            bookingRepository.findById(bookingId).ifPresent(booking -> enqueue(bookingId, booking.getStatus()));
+        }
+    }
+
+    private void enqueue(Long bookingId, Booking.BookingStatus status) {
+        LocalDateTime now = LocalDateTime.now();
+        // The key makes a repeated change (e.g. confirm called twice) add nothing
+        for (OutboxMessage.Topic topic : topicsFor(status)) {
+            outboxRepository.enqueue(bookingId, topic.name(), status.name(),
+                    OutboxMessage.idempotencyKey(bookingId, status, topic), now);
+        }
+    }
+
+    static Set<OutboxMessage.Topic> topicsFor(Booking.BookingStatus status) {
+        return switch (status) {
+            case CONFIRMED -> EnumSet.allOf(OutboxMessage.Topic.class);
+            case CANCELLED -> EnumSet.of(OutboxMessage.Topic.NOTIFICATION, OutboxMessage.Topic.REWARDS,
+                    OutboxMessage.Topic.ANALYTICS);
+            case EXPIRED, COMPLETED -> EnumSet.of(OutboxMessage.Topic.ANALYTICS);
+            default -> EnumSet.noneOf(OutboxMessage.Topic.class);
+        };
+    }
+
+    // ==================== POLLING ====================
+
+    @Scheduled(fixedDelayString = "${outbox.poll-interval-ms:500}")
+    public void poll() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            List<OutboxMessage> claimed;
+            do {
+                claimed = claimBatch();
+                claimed.forEach(this::dispatch);
+            } while (claimed.size() == batchSize);
+        } catch (Exception e) {
+            log.error("Outbox poll failed; retrying on the next run", e);
+        }
+    }
+
+    private List<OutboxMessage> claimBatch() {
+        List<OutboxMessage> claimed = transactionTemplate.execute(status -> {
+            LocalDateTime now = LocalDateTime.now();
+            List<Long> ids = outboxRepository.lockClaimableIds(now, batchSize);
+            if (ids.isEmpty()) {
+                return List.<OutboxMessage>of();
+            }
+            outboxRepository.markProcessing(ids, now.plusSeconds(leaseSeconds));
+            return outboxRepository.findAllById(ids);
+        });
+        return claimed != null ? claimed : List.of();
+    }
+
+    private void dispatch(OutboxMessage message) {
+        // Executors run rejected tasks on the caller, which slows polling down to what the pools can take
+        executors.get(message.getTopic()).execute(() -> deliver(message));
+    }
+
+    private void deliver(OutboxMessage message) {
+        try {
+            sideEffectService.handle(message);
+            transactionTemplate.executeWithoutResult(status ->
+                    outboxRepository.markDone(message.getMessageId(), LocalDateTime.now()));
+        } catch (Exception e) {
+            releaseFailed(message, e);
+        }
+    }
+
+    private void releaseFailed(OutboxMessage message, Exception error) {
+        boolean exhausted = message.getAttempts() >= maxAttempts;
+        LocalDateTime retryAt = LocalDateTime.now().plus(Duration.ofMillis(retryDelayMillis(message.getAttempts())));
+        String lastError = error.getClass().getSimpleName() + ": " + error.getMessage();
+        if (lastError.length() > 500) {
+            lastError = lastError.substring(0, 500);
+        }
+
+        String storedError = lastError;
+        try {
+            transactionTemplate.executeWithoutResult(status -> outboxRepository.markAttemptFailed(
+                    message.getMessageId(),
+                    exhausted ? OutboxMessage.Status.FAILED : OutboxMessage.Status.PENDING,
+                    retryAt, storedError));
+        } catch (Exception e) {
+            // The lease runs out and the message is claimed again
+            log.error("Could not release outbox message {}", message.getIdempotencyKey(), e);
+        }
+
+        if (exhausted) {
+            log.error("Outbox message {} failed {} times; giving up", message.getIdempotencyKey(),
+                    message.getAttempts(), error);
+        } else {
+            log.warn("Outbox message {} failed (attempt {}), retrying at {}: {}", message.getIdempotencyKey(),
+                    message.getAttempts(), retryAt, storedError);
+        }
+    }
+
+    private long retryDelayMillis(int attempts) {
+        int doublings = Math.min(Math.max(attempts - 1, 0), 30);
+        return Math.min(retryBaseDelayMillis << doublings, retryMaxDelayMillis);
+    }
+
+    // ==================== RETENTION ====================
+
+    @Scheduled(cron = "${outbox.purge-cron:0 30 3 * * *}")
+    public void purgeProcessed() {
+        Integer deleted = transactionTemplate.execute(status ->
+                outboxRepository.deleteProcessedBefore(LocalDateTime.now().minusHours(retentionHours)));
+        if (deleted != null && deleted > 0) {
+            log.info("Purged {} processed outbox messages", deleted);
+        }
+    }
+}
@@ -0,0 +1,240 @@
+package com.bookmymovie.service;
+
+import com.bookmymovie.entity.Show;
+import lombok.Getter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Compiles a show's pricing rules into a price table.
+ * The multipliers that apply to a show (weekend, prime time, holiday, special screening, premiere)
+ * depend only on the show, so they are folded into one factor once and every seat price tier of
+ * the screen is priced up front. Prices are held as whole paise; BigDecimal appears only when a
+ * table is compiled and when amounts leave through a DTO.
+ * The demand surge factor of each show is published here by {@link SurgePricingService} and
+ * applied on top of the rule multipliers.
+ */
+@Service
+public class PricingEngine {
+
+    private static final int BASIS_POINTS = 10_000;
+
+    @Getter
+    private final BigDecimal defaultWeekendMultiplier;
+    @Getter
+    private final BigDecimal defaultPrimeTimeMultiplier;
+    @Getter
+    private final BigDecimal defaultHolidayMultiplier;
+    @Getter
+    private final BigDecimal specialScreeningMultiplier;
+    @Getter
+    private final BigDecimal premiereMultiplier;
+    private final int convenienceFeeBasisPoints;
+    private final int taxBasisPoints;
+
+    // Current surge factor per show; shows without an entry are priced at 1.0
+    private final Map<Long, BigDecimal> surgeFactors = new ConcurrentHashMap<>();
+
+    public PricingEngine(@Value("${pricing.default-weekend-multiplier:1.5}") BigDecimal defaultWeekendMultiplier,
+                         @Value("${pricing.default-prime-time-multiplier:1.8}") BigDecimal defaultPrimeTimeMultiplier,
+                         @Value("${pricing.default-holiday-multiplier:2.0}") BigDecimal defaultHolidayMultiplier,
+                         @Value("${pricing.special-screening-multiplier:1.3}") BigDecimal specialScreeningMultiplier,
+                         @Value("${pricing.premiere-multiplier:2.5}") BigDecimal premiereMultiplier,
+                         @Value("${pricing.convenience-fee-rate:0.05}") BigDecimal convenienceFeeRate,
+                         @Value("${pricing.tax-rate:0.18}") BigDecimal taxRate) {
+        this.defaultWeekendMultiplier = defaultWeekendMultiplier;
+        this.defaultPrimeTimeMultiplier = defaultPrimeTimeMultiplier;
+        this.defaultHolidayMultiplier = defaultHolidayMultiplier;
+        this.specialScreeningMultiplier = specialScreeningMultiplier;
+        this.premiereMultiplier = premiereMultiplier;
+        this.convenienceFeeBasisPoints = toBasisPoints(convenienceFeeRate);
+        this.taxBasisPoints = toBasisPoints(taxRate);
+    }
+
+    // ==================== COMPILATION ====================
+
+    /**
+     * Product of every multiplier that applies to the show as scheduled
+     */
+    public BigDecimal multiplierFor(Show show) {
+        BigDecimal multiplier = BigDecimal.ONE;
+        if (show.isWeekend()) {
+            multiplier = multiplier.multiply(orDefault(show.getWeekendMultiplier(), defaultWeekendMultiplier));
+        }
+        if (show.isPrimeTime()) {
+            multiplier = multiplier.multiply(orDefault(show.getPrimeTimeMultiplier(), defaultPrimeTimeMultiplier));
+        }
+        if (Boolean.TRUE.equals(show.getIsHoliday())) {
+            multiplier = multiplier.multiply(orDefault(show.getHolidayMultiplier(), defaultHolidayMultiplier));
+        }
+        if (Boolean.TRUE.equals(show.getIsSpecialScreening())) {
+            multiplier = multiplier.multiply(specialScreeningMultiplier);
+        }
+        if (Boolean.TRUE.equals(show.getIsPremiere())) {
+            multiplier = multiplier.multiply(premiereMultiplier);
+        }
+        return multiplier;
+    }
+
+    /**
+     * Ticket price of the show itself, i.e. its base price with all applicable multipliers
+     */
+    public BigDecimal actualPrice(Show show) {
+        return toRupees(applyMultiplier(toPaise(show.getBasePrice()), multiplierFor(show)));
+    }
+
+    /**
+     * The persisted actual price, or the computed one for rows saved before it was persisted
+     */
+    public BigDecimal listedPrice(Show show) {
+        return show.getActualPrice() != null ? show.getActualPrice() : actualPrice(show);
+    }
+
+    /**
+     * Prices the show and each distinct seat base price (in paise) of its screen
+     */
+    public PriceTable compile(Show show, Collection<Long> seatBasePricesPaise) {
+        return new PriceTable(show.getShowId(), show.getVersion(), multiplierFor(show),
+                getSurgeFactor(show.getShowId()), toPaise(show.getBasePrice()), seatBasePricesPaise);
+    }
+
+    // ==================== SURGE ====================
+
+    public BigDecimal getSurgeFactor(Long showId) {
+        return surgeFactors.getOrDefault(showId, BigDecimal.ONE);
+    }
+
+    void setSurgeFactor(Long showId, BigDecimal surgeFactor) {
+        if (surgeFactor.compareTo(BigDecimal.ONE) == 0) {
+            surgeFactors.remove(showId);
+        } else {
+            surgeFactors.put(showId, surgeFactor);
+        }
+    }
+
+    // ==================== FEES ====================
+
+    public long convenienceFeePaise(long amountPaise) {
+        return percentOf(amountPaise, convenienceFeeBasisPoints);
+    }
+
+    public long taxPaise(long amountPaise) {
+        return percentOf(amountPaise, taxBasisPoints);
+    }
+
+    /**
+     * Share of an amount given in basis points, rounded half up to the paisa
+     */
+    public static long percentOf(long amountPaise, int basisPoints) {
+        return Math.floorDiv(amountPaise * basisPoints + BASIS_POINTS / 2, BASIS_POINTS);
+    }
+
+    // ==================== CONVERSIONS ====================
+
+    public static long toPaise(BigDecimal rupees) {
+        return rupees.movePointRight(2).setScale(0, RoundingMode.HALF_UP).longValueExact();
+    }
+
+    public static BigDecimal toRupees(long paise) {
+        return BigDecimal.valueOf(paise, 2);
+    }
+
+    private static long applyMultiplier(long paise, BigDecimal multiplier) {
+        return BigDecimal.valueOf(paise).multiply(multiplier).setScale(0, RoundingMode.HALF_UP).longValueExact();
+    }
+
+    private static int toBasisPoints(BigDecimal rate) {
+        return rate.movePointRight(4).setScale(0, RoundingMode.HALF_UP).intValueExact();
+    }
+
+    private static BigDecimal orDefault(BigDecimal value, BigDecimal fallback) {
+        return value != null ? value : fallback;
+    }
+
+    // ==================== PRICE TABLE ====================
+
+    /**
+     * Compiled prices of one show version at one surge factor.
+     * Immutable; a changed show or surge factor gets a new table.
+     */
+    @Getter
+    public static final class PriceTable {
+        private final Long showId;
+        private final Long showVersion;
+        private final BigDecimal ruleMultiplier;
+        private final BigDecimal surgeFactor;
+        private final BigDecimal multiplier;
+        private final long basePricePaise;
+        private final long showPricePaise;
+        private final BigDecimal showPrice;
+        private final Map<Long, Long> seatPricesPaise;
+        private final Map<Long, BigDecimal> seatPrices;
+
+        PriceTable(Long showId, Long showVersion, BigDecimal ruleMultiplier, BigDecimal surgeFactor,
+                   long basePricePaise, Collection<Long> seatBasePricesPaise) {
+            this.showId = showId;
+            this.showVersion = showVersion;
+            this.ruleMultiplier = ruleMultiplier;
+            this.surgeFactor = surgeFactor;
+            this.multiplier = ruleMultiplier.multiply(surgeFactor);
+            this.basePricePaise = basePricePaise;
+            this.showPricePaise = applyMultiplier(basePricePaise, multiplier);
+            this.showPrice = toRupees(showPricePaise);
+            this.seatPricesPaise = new HashMap<>();
+            this.seatPrices = new HashMap<>();
+            for (Long seatBasePaise : seatBasePricesPaise) {
+                if (seatBasePaise != null && !seatPricesPaise.containsKey(seatBasePaise)) {
+                    long price = applyMultiplier(seatBasePaise, multiplier);
+                    seatPricesPaise.put(seatBasePaise, price);
+                    seatPrices.put(seatBasePaise, toRupees(price));
+                }
+            }
+        }
+
+        /**
+         * The same show and seat tiers repriced at another surge factor
+         */
+        public PriceTable withSurgeFactor(BigDecimal factor) {
+            return new PriceTable(showId, showVersion, ruleMultiplier, factor, basePricePaise, seatPricesPaise.keySet());
+        }
+
+        /**
+         * Price of a seat with the given base price in paise; seats without one sell at the show price
+         */
+        public long seatPricePaise(Long seatBasePaise) {
+            if (seatBasePaise == null) {
+                return showPricePaise;
+            }
+            Long price = seatPricesPaise.get(seatBasePaise);
+            // A seat added to the screen after the table was compiled
+            return price != null ? price : applyMultiplier(seatBasePaise, multiplier);
+        }
+
+        public BigDecimal seatPrice(Long seatBasePaise) {
+            if (seatBasePaise == null) {
+                return showPrice;
+            }
+            BigDecimal price = seatPrices.get(seatBasePaise);
+            return price != null ? price : toRupees(seatPricePaise(seatBasePaise));
+        }
+
+        /**
+         * Base price of a seat in paise before multipliers
+         */
+        public long seatBasePaise(Long seatBasePaise) {
+            return seatBasePaise != null ? seatBasePaise : basePricePaise;
+        }
+
+        public boolean isCurrentFor(Show show) {
+            return Objects.equals(showVersion, show.getVersion());
+        }
+    }
+}
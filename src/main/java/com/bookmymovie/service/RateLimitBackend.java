@@ -0,0 +1,21 @@
+package com.bookmymovie.service;
+
+/**
+ * Storage and arithmetic for rate limit state.
+ * Implementations grant permits atomically per key; {@link RateLimitingService} decides which
+ * backend to use and caches leased permits in front of it.
+ */
+public interface RateLimitBackend {
+
+    /**
+     * Takes up to {@code requested} permits for the key
+     *
+     * @return permits granted, between 0 and {@code requested}
+     */
+    int acquire(String key, RateLimitRule rule, int requested);
+
+    /**
+     * Forgets all state for the key, restoring its full budget
+     */
+    void reset(String key, RateLimitRule rule);
+}
@@ -0,0 +1,46 @@
+package com.bookmymovie.service;
+
+import lombok.Getter;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A rate limit of {@code permits} per {@code period}, allowing the full amount as a burst.
+ * Backends enforce it with GCRA: one permit is released every emission interval and a key
+ * may run at most one period ahead of the clock.
+ */
+@Getter
+public class RateLimitRule {
+
+    private final String name;
+    private final int permits;
+    private final long periodMicros;
+    private final long emissionIntervalMicros;
+
+    private RateLimitRule(String name, int permits, long periodMicros) {
+        if (permits <= 0 || periodMicros <= 0) {
+            throw new IllegalArgumentException("Rate limit " + name + " needs positive permits and period");
+        }
+        this.name = name;
+        this.permits = permits;
+        this.periodMicros = periodMicros;
+        this.emissionIntervalMicros = Math.max(periodMicros / permits, 1);
+    }
+
+    public static RateLimitRule of(String name, int permits, long period, TimeUnit unit) {
+        return new RateLimitRule(name, permits, unit.toMicros(period));
+    }
+
+    /**
+     * Permits a node may take from the shared budget in one round trip and spend locally.
+     * Only high-rate limits lease: a small limit shared by several nodes would be exhausted by one lease.
+     */
+    public int leaseSize(int maxLeasePermits) {
+        return Math.max(1, Math.min(maxLeasePermits, permits / 20));
+    }
+
+    @Override
+    public String toString() {
+        return name + "(" + permits + " per " + TimeUnit.MICROSECONDS.toSeconds(periodMicros) + "s)";
+    }
+}
@@ -1,76 +1,136 @@
 package com.bookmymovie.service;
 
 import com.bookmymovie.exception.RateLimitExceededException;
+import com.bookmymovie.util.ExpiringLruCache;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
-import java.time.LocalDateTime;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
+/**
+ * Rate limit engine.
+ * Limits are enforced cluster-wide by {@link RedisRateLimitBackend}, with
+ * {@link LocalRateLimitBackend} taking over per node if Redis is disabled or fails.
+ * For high-rate limits a node leases a few permits per round trip and spends them locally
+ * for a short while, so hot keys don't hit Redis on every request.
+ */
 @Service
+@Slf4j
 public class RateLimitingService {
 
-    private final ConcurrentMap<String, RateLimitInfo> ipRateLimit = new ConcurrentHashMap<>();
-    private final ConcurrentMap<String, RateLimitInfo> emailRateLimit = new ConcurrentHashMap<>();
+    private static final RateLimitRule REGISTRATION_IP_RULE =
+            RateLimitRule.of("registration-ip", 5, 1, TimeUnit.MINUTES);
+    private static final RateLimitRule REGISTRATION_EMAIL_RULE =
+            RateLimitRule.of("registration-email", 3, 1, TimeUnit.HOURS);
 
-    private static final int MAX_REQUESTS_PER_MINUTE_IP = 5;
-    private static final int MAX_REQUESTS_PER_HOUR_EMAIL = 3;
+    private final RedisRateLimitBackend redisBackend;
+    private final LocalRateLimitBackend localBackend;
+    private final ExpiringLruCache<String, AtomicInteger> leases;
 
-    public void checkIpRateLimit(String ipAddress) {
-        String key = "ip:" + ipAddress;
-        RateLimitInfo info = ipRateLimit.computeIfAbsent(key,
-                k -> new RateLimitInfo(MAX_REQUESTS_PER_MINUTE_IP, 1));
+    @Value("${rate-limit.backend:redis}")
+    private String backend;
 
-        if (!info.tryRequest(MAX_REQUESTS_PER_MINUTE_IP, 1)) {
-            throw new RateLimitExceededException(
-                    "Too many registration attempts from this IP. Please try again in 1 minute.");
-        }
+    @Value("${rate-limit.lease.max-permits:10}")
+    private int maxLeasePermits;
+
+    @Value("${rate-limit.lease.ttl-ms:200}")
+    private long leaseTtlMillis;
+
+    public RateLimitingService(RedisRateLimitBackend redisBackend,
+                               LocalRateLimitBackend localBackend,
+                               @Value("${rate-limit.lease.max-keys:10000}") int maxLeaseKeys) {
+        this.redisBackend = redisBackend;
+        this.localBackend = localBackend;
+        this.leases = new ExpiringLruCache<>(maxLeaseKeys);
     }
 
-    public void checkEmailRateLimit(String email) {
-        String key = "email:" + email.toLowerCase();
-        RateLimitInfo info = emailRateLimit.computeIfAbsent(key,
-                k -> new RateLimitInfo(MAX_REQUESTS_PER_HOUR_EMAIL, 60));
+    /**
+     * Takes one permit for the key under the given rule
+     *
+     * @return false if the key is over its limit
+     */
+    public boolean tryAcquire(String key, RateLimitRule rule) {
+        String leaseKey = rule.getName() + ":" + key;
+        AtomicInteger lease = leases.get(leaseKey);
+        if (lease != null && takeFromLease(lease)) {
+            return true;
+        }
 
-        if (!info.tryRequest(MAX_REQUESTS_PER_HOUR_EMAIL, 60)) {
-            throw new RateLimitExceededException(
-                    "Too many registration attempts for this email. Please try again in 1 hour.");
+        int leaseSize = rule.leaseSize(maxLeasePermits);
+        int granted = acquireFromBackend(key, rule, leaseSize);
+        if (granted <= 0) {
+            return false;
+        }
+        if (granted > 1) {
+            // Unspent leased permits lapse with the lease, which only ever errs on the strict side
+            leases.put(leaseKey, new AtomicInteger(granted - 1), System.currentTimeMillis() + leaseTtlMillis);
         }
+        return true;
     }
 
-    public void resetEmailRateLimit(String email) {
-        String key = "email:" + email.toLowerCase();
-        emailRateLimit.remove(key);
+    /**
+     * Takes one permit or throws {@link RateLimitExceededException} with the given message
+     */
+    public void checkLimit(String key, RateLimitRule rule, String message) {
+        if (!tryAcquire(key, rule)) {
+            log.debug("Rate limit {} exceeded for {}", rule, key);
+            throw new RateLimitExceededException(message);
+        }
     }
 
-    private static class RateLimitInfo {
-        private int count;
-        private LocalDateTime windowStart;
-        private final int windowMinutes;
-
-        public RateLimitInfo(int maxRequests, int windowMinutes) {
-            this.count = 1;
-            this.windowStart = LocalDateTime.now();
-            this.windowMinutes = windowMinutes;
+    public void reset(String key, RateLimitRule rule) {
+        leases.remove(rule.getName() + ":" + key);
+        localBackend.reset(key, rule);
+        if (useRedis()) {
+            try {
+                redisBackend.reset(key, rule);
+            } catch (Exception e) {
+                log.error("Failed to reset rate limit {} for {} in Redis", rule.getName(), key, e);
+            }
         }
+    }
 
-        public synchronized boolean tryRequest(int maxRequests, int windowMinutes) {
-            LocalDateTime now = LocalDateTime.now();
+    // ==================== REGISTRATION LIMITS ====================
 
-            // Reset window if expired
-            if (now.isAfter(windowStart.plusMinutes(windowMinutes))) {
-                this.count = 1;
-                this.windowStart = now;
-                return true;
+    public void checkIpRateLimit(String ipAddress) {
+        checkLimit("ip:" + ipAddress, REGISTRATION_IP_RULE,
+                "Too many registration attempts from this IP. Please try again in 1 minute.");
+    }
+
+    public void checkEmailRateLimit(String email) {
+        checkLimit("email:" + email.toLowerCase(), REGISTRATION_EMAIL_RULE,
+                "Too many registration attempts for this email. Please try again in 1 hour.");
+    }
+
+    public void resetEmailRateLimit(String email) {
+        reset("email:" + email.toLowerCase(), REGISTRATION_EMAIL_RULE);
+    }
+
+    private int acquireFromBackend(String key, RateLimitRule rule, int requested) {
+        if (useRedis()) {
+            try {
+                return redisBackend.acquire(key, rule, requested);
+            } catch (Exception e) {
+                log.warn("Redis rate limiter unavailable, enforcing {} per node: {}", rule.getName(), e.getMessage());
             }
+        }
+        return localBackend.acquire(key, rule, requested);
+    }
+
+    private boolean useRedis() {
+        return "redis".equalsIgnoreCase(backend);
+    }
 
-            // Check if limit exceeded
-            if (count >= maxRequests) {
+    private static boolean takeFromLease(AtomicInteger lease) {
+        int remaining;
+        do {
+            remaining = lease.get();
+            if (remaining <= 0) {
                 return false;
             }
-
-            count++;
-            return true;
-        }
+        } while (!lease.compareAndSet(remaining, remaining - 1));
+        return true;
     }
-}
\ No newline at end of file
+}
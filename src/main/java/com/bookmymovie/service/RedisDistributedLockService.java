@@ -1,16 +1,22 @@
 package com.bookmymovie.service;
 
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.redisson.api.RLock;
 import org.redisson.api.RedissonClient;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.TimeUnit;
 
 /**
  * Redis-based distributed locking service using Redisson
- * Provides atomic lock operations across multiple server instances
+ * Provides atomic lock operations across multiple server instances.
+ * The lock backend is chosen with distributed-lock.backend (see {@link LockProvider}): redis,
+ * local for single-node deployments without Redis, or hybrid to queue same-node contenders
+ * locally before going to Redis.
  */
 @Service
 @RequiredArgsConstructor
@@ -18,6 +24,26 @@ import java.util.concurrent.TimeUnit;
 public class RedisDistributedLockService {
 
     private final RedissonClient redissonClient;
+    private final RedissonLockProvider redissonLockProvider;
+    private final LocalLockProvider localLockProvider;
+    private final HybridLockProvider hybridLockProvider;
+
+    @Value("${distributed-lock.backend:redis}")
+    private String backend;
+
+    private LockProvider lockProvider;
+
+    @PostConstruct
+    void selectBackend() {
+        lockProvider = switch (backend.trim().toLowerCase()) {
+            case "redis" -> redissonLockProvider;
+            case "local" -> localLockProvider;
+            case "hybrid" -> hybridLockProvider;
+            default -> throw new IllegalStateException("Unknown distributed-lock.backend: " + backend
+                    + " (expected redis, local or hybrid)");
+        };
+        log.info("Distributed locks use the {} backend", backend);
+    }
 
     /**
      * Attempts to acquire a distributed lock
@@ -32,19 +58,25 @@ public class RedisDistributedLockService {
         log.debug("Attempting to acquire distributed lock: {}", lockKey);
 
         try {
-            RLock lock = redissonClient.getLock(lockKey);
+            // Try without waiting first, so callers can tell contended acquisitions apart
+            LockProvider.Lease lease = lockProvider.tryLock(lockKey, 0, leaseTime, timeUnit);
+            if (lease != null) {
+                log.debug("Successfully acquired distributed lock: {} (lease: {}{})",
+                        lockKey, leaseTime, timeUnit.toString().toLowerCase());
+                return DistributedLockResult.success(lease, false);
+            }
 
             // Try to acquire lock with wait and lease time
-            boolean acquired = lock.tryLock(waitTime, leaseTime, timeUnit);
+            lease = waitTime > 0 ? lockProvider.tryLock(lockKey, waitTime, leaseTime, timeUnit) : null;
 
-            if (acquired) {
-                log.debug("Successfully acquired distributed lock: {} (lease: {}{})",
+            if (lease != null) {
+                log.debug("Acquired contended distributed lock: {} (lease: {}{})",
                         lockKey, leaseTime, timeUnit.toString().toLowerCase());
-                return DistributedLockResult.success(lock, lockKey);
+                return DistributedLockResult.success(lease, true);
             } else {
                 log.warn("Failed to acquire distributed lock: {} (waited: {}{})",
                         lockKey, waitTime, timeUnit.toString().toLowerCase());
-                return DistributedLockResult.failure(lockKey, "Lock acquisition timeout");
+                return DistributedLockResult.timeout(lockKey);
             }
 
         } catch (InterruptedException e) {
@@ -63,25 +95,114 @@ public class RedisDistributedLockService {
      * @param lock The lock to release
      * @param lockKey The key of the lock (for logging)
      */
-    public void releaseLock(RLock lock, String lockKey) {
+    public void releaseLock(LockProvider.Lease lock, String lockKey) {
         if (lock == null) {
             log.warn("Attempted to release null lock for key: {}", lockKey);
             return;
         }
 
         try {
-            // Only release if current thread holds the lock
-            if (lock.isHeldByCurrentThread()) {
-                lock.unlock();
-                log.debug("Successfully released distributed lock: {}", lockKey);
-            } else {
-                log.warn("Attempted to release lock not held by current thread: {}", lockKey);
-            }
+            lock.unlock();
+            log.debug("Released distributed lock: {}", lockKey);
         } catch (Exception e) {
             log.error("Error releasing distributed lock: {}", lockKey, e);
         }
     }
 
+    // ==================== FENCING ====================
+
+    /**
+     * Next fencing token for a lock key; tokens only ever grow per key
+     * Take it after acquiring the lock; a holder whose lease ran out always has a smaller token
+     * than the holder that replaced it.
+     */
+    public long nextFencingToken(String lockKey) {
+        return lockProvider.nextFencingToken(lockKey);
+    }
+
+    public CompletableFuture<Long> nextFencingTokenAsync(String lockKey) {
+        return lockProvider.nextFencingTokenAsync(lockKey);
+    }
+
+    // ==================== ASYNC LOCKING ====================
+
+    /**
+     * Attempts to acquire a distributed lock without blocking the calling thread
+     * The lock is owned by a fresh owner id rather than by the calling thread, so it can be released
+     * from any thread with {@link #releaseLockAsync}. Waiting for a contended lock parks no thread;
+     * the future completes from Redisson's event loop, so callers should continue on their own executor.
+     * Always taken in Redis: the hybrid backend's local stripes are thread-owned, and the local
+     * backend cannot lock asynchronously, so it fails the acquisition.
+     *
+     * @return future of the DistributedLockResult; it never completes exceptionally
+     */
+    public CompletableFuture<DistributedLockResult> acquireLockAsync(String lockKey, long waitTime, long leaseTime,
+                                                                     TimeUnit timeUnit) {
+        log.debug("Attempting to acquire distributed lock asynchronously: {}", lockKey);
+
+        if (lockProvider == localLockProvider) {
+            log.warn("Asynchronous lock {} requested, but the local lock backend only supports blocking locks", lockKey);
+            return CompletableFuture.completedFuture(DistributedLockResult.failure(lockKey,
+                    "Asynchronous locking needs the redis or hybrid lock backend"));
+        }
+
+        CompletableFuture<LockProvider.Lease> firstAttempt;
+        try {
+            // Try without waiting first, so callers can tell contended acquisitions apart
+            firstAttempt = redissonLockProvider.tryLockAsync(lockKey, 0, leaseTime, timeUnit);
+        } catch (Exception e) {
+            log.error("Error acquiring distributed lock: {}", lockKey, e);
+            return CompletableFuture.completedFuture(
+                    DistributedLockResult.failure(lockKey, "Lock acquisition error: " + e.getMessage()));
+        }
+
+        return firstAttempt
+                .thenCompose(lease -> {
+                    if (lease != null) {
+                        return CompletableFuture.completedFuture(DistributedLockResult.success(lease, false));
+                    }
+                    if (waitTime <= 0) {
+                        return CompletableFuture.completedFuture(DistributedLockResult.timeout(lockKey));
+                    }
+                    return redissonLockProvider.tryLockAsync(lockKey, waitTime, leaseTime, timeUnit)
+                            .thenApply(leaseAfterWait -> leaseAfterWait != null
+                                    ? DistributedLockResult.success(leaseAfterWait, true)
+                                    : DistributedLockResult.timeout(lockKey));
+                })
+                .exceptionally(e -> {
+                    log.error("Error acquiring distributed lock: {}", lockKey, e);
+                    return DistributedLockResult.failure(lockKey, "Lock acquisition error: " + e.getMessage());
+                })
+                .whenComplete((result, e) -> {
+                    if (result != null && !result.isSuccess()) {
+                        log.warn("Failed to acquire distributed lock: {} (waited: {}{})",
+                                lockKey, waitTime, timeUnit.toString().toLowerCase());
+                    }
+                });
+    }
+
+    /**
+     * Releases a lock acquired with {@link #acquireLockAsync}, from any thread
+     *
+     * @return future completing once Redis has released the lock; it never completes exceptionally
+     */
+    public CompletableFuture<Void> releaseLockAsync(DistributedLockResult lockResult) {
+        if (lockResult == null || !lockResult.isSuccess()) {
+            return CompletableFuture.completedFuture(null);
+        }
+
+        String lockKey = lockResult.getLockKey();
+        return lockResult.getLock().unlockAsync()
+                .handle((ignored, e) -> {
+                    if (e != null) {
+                        log.error("Error releasing distributed lock: {}", lockKey, e);
+                    } else {
+                        log.debug("Released distributed lock: {}", lockKey);
+                    }
+                    return null;
+                });
+    }
+
     /**
      * Checks if a lock is currently held
      *
@@ -90,8 +211,7 @@ public class RedisDistributedLockService {
      */
     public boolean isLocked(String lockKey) {
         try {
-            RLock lock = redissonClient.getLock(lockKey);
-            return lock.isLocked();
+            return lockProvider.isLocked(lockKey);
         } catch (Exception e) {
             log.error("Error checking lock status: {}", lockKey, e);
             return false;
@@ -105,6 +225,13 @@ public class RedisDistributedLockService {
      * @return LockInfo containing details about the lock
      */
     public LockInfo getLockInfo(String lockKey) {
+        if (lockProvider == localLockProvider) {
+            return LockInfo.builder()
+                    .lockKey(lockKey)
+                    .isLocked(localLockProvider.isLocked(lockKey))
+                    .build();
+        }
+
         try {
             RLock lock = redissonClient.getLock(lockKey);
             return LockInfo.builder()
@@ -129,29 +256,38 @@ public class RedisDistributedLockService {
      */
     public static class DistributedLockResult {
         private final boolean success;
-        private final RLock lock;
+        private final LockProvider.Lease lock;
         private final String lockKey;
         private final String errorMessage;
+        // The lock was held by someone else when it was requested
+        private final boolean contended;
 
-        private DistributedLockResult(boolean success, RLock lock, String lockKey, String errorMessage) {
+        private DistributedLockResult(boolean success, LockProvider.Lease lock, String lockKey, String errorMessage,
+                                      boolean contended) {
             this.success = success;
             this.lock = lock;
             this.lockKey = lockKey;
             this.errorMessage = errorMessage;
+            this.contended = contended;
+        }
+
+        public static DistributedLockResult success(LockProvider.Lease lock, boolean contended) {
+            return new DistributedLockResult(true, lock, lock.getLockKey(), null, contended);
         }
 
-        public static DistributedLockResult success(RLock lock, String lockKey) {
-            return new DistributedLockResult(true, lock, lockKey, null);
+        public static DistributedLockResult timeout(String lockKey) {
+            return new DistributedLockResult(false, null, lockKey, "Lock acquisition timeout", true);
         }
 
         public static DistributedLockResult failure(String lockKey, String errorMessage) {
-            return new DistributedLockResult(false, null, lockKey, errorMessage);
+            return new DistributedLockResult(false, null, lockKey, errorMessage, false);
         }
 
         public boolean isSuccess() { return success; }
-        public RLock getLock() { return lock; }
+        public LockProvider.Lease getLock() { return lock; }
         public String getLockKey() { return lockKey; }
         public String getErrorMessage() { return errorMessage; }
+        public boolean isContended() { return contended; }
     }
 
     /**
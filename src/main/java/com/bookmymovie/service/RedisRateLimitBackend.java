@@ -0,0 +1,61 @@
+package com.bookmymovie.service;
+
+import lombok.RequiredArgsConstructor;
+import org.redisson.api.RScript;
+import org.redisson.api.RedissonClient;
+import org.redisson.client.codec.StringCodec;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+
+/**
+ * Cluster-wide rate limits in Redis.
+ * Each key stores a single GCRA theoretical arrival time, updated by one Lua script using the
+ * Redis server clock, so all nodes share one budget and no node's clock skew matters.
+ */
+@Service
+@RequiredArgsConstructor
+public class RedisRateLimitBackend implements RateLimitBackend {
+
+    private static final String KEY_PREFIX = "rate-limit:";
+
+    /**
+     * KEYS[1] = limit key, ARGV[1] = emission interval (us), ARGV[2] = period (us), ARGV[3] = permits requested.
+     * Returns the number of permits granted; the key expires once its budget is full again.
+     */
+    private static final String ACQUIRE_SCRIPT =
+            "local interval = tonumber(ARGV[1]) " +
+            "local period = tonumber(ARGV[2]) " +
+            "local requested = tonumber(ARGV[3]) " +
+            "local time = redis.call('TIME') " +
+            "local now = tonumber(time[1]) * 1000000 + tonumber(time[2]) " +
+            "local tat = tonumber(redis.call('GET', KEYS[1]) or '0') " +
+            "if tat < now then tat = now end " +
+            "local granted = math.min(requested, math.floor((now + period - tat) / interval)) " +
+            "if granted <= 0 then return 0 end " +
+            "tat = tat + granted * interval " +
+            "redis.call('SET', KEYS[1], string.format('%.0f', tat), 'PX', math.ceil((tat - now) / 1000) + 1) " +
+            "return granted";
+
+    private final RedissonClient redissonClient;
+
+    @Override
+    public int acquire(String key, RateLimitRule rule, int requested) {
+        RScript script = redissonClient.getScript(StringCodec.INSTANCE);
+        Long granted = script.eval(RScript.Mode.READ_WRITE, ACQUIRE_SCRIPT, RScript.ReturnType.INTEGER,
+                List.of(redisKey(key, rule)),
+                String.valueOf(rule.getEmissionIntervalMicros()),
+                String.valueOf(rule.getPeriodMicros()),
+                String.valueOf(requested));
+        return granted != null ? granted.intValue() : 0;
+    }
+
+    @Override
+    public void reset(String key, RateLimitRule rule) {
+        redissonClient.getBucket(redisKey(key, rule), StringCodec.INSTANCE).delete();
+    }
+
+    private static String redisKey(String key, RateLimitRule rule) {
+        return KEY_PREFIX + rule.getName() + ":" + key;
+    }
+}
@@ -0,0 +1,143 @@
+package com.bookmymovie.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.redisson.api.RScript;
+import org.redisson.api.RedissonClient;
+import org.redisson.client.codec.StringCodec;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Cluster-wide seat claims in Redis.
+ * Every seat of a show has its own key holding the hold token of its owner; a hold claims
+ * all requested keys in a single Lua script, so a request either gets every seat or none.
+ * Keys of a show share a hash tag and therefore live in the same cluster slot.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class RedisSeatClaimService {
+
+    private static final String KEY_PREFIX = "seat-hold:";
+
+    /**
+     * KEYS = seat keys, ARGV[1] = owner token, ARGV[2] = ttl in milliseconds.
+     * Returns 0 on success, otherwise the 1-based index of the first seat owned by someone else.
+     */
+    private static final String CLAIM_SCRIPT =
+            "for i, key in ipairs(KEYS) do " +
+            "  local owner = redis.call('GET', key) " +
+            "  if owner and owner ~= ARGV[1] then return i end " +
+            "end " +
+            "for _, key in ipairs(KEYS) do " +
+            "  redis.call('SET', key, ARGV[1], 'PX', ARGV[2]) " +
+            "end " +
+            "return 0";
+
+    /**
+     * KEYS = seat keys, ARGV[1] = owner token. Deletes only keys still owned by the token.
+     */
+    private static final String RELEASE_SCRIPT =
+            "local released = 0 " +
+            "for _, key in ipairs(KEYS) do " +
+            "  if redis.call('GET', key) == ARGV[1] then " +
+            "    redis.call('DEL', key) " +
+            "    released = released + 1 " +
+            "  end " +
+            "end " +
+            "return released";
+
+    /**
+     * KEYS = seat keys, ARGV[1] = owner token, ARGV[2] = new ttl in milliseconds.
+     */
+    private static final String EXTEND_SCRIPT =
+            "local extended = 0 " +
+            "for _, key in ipairs(KEYS) do " +
+            "  if redis.call('GET', key) == ARGV[1] then " +
+            "    redis.call('PEXPIRE', key, ARGV[2]) " +
+            "    extended = extended + 1 " +
+            "  end " +
+            "end " +
+            "return extended";
+
+    private final RedissonClient redissonClient;
+
+    @Value("${seat-hold.redis.enabled:true}")
+    private boolean enabled;
+
+    @Value("${seat-hold.redis.fail-open:false}")
+    private boolean failOpen;
+
+    /**
+     * Claims all seats for the given hold token, or none of them
+     *
+     * @return true if the token now owns every requested seat
+     */
+    public boolean claimSeats(Long showId, Collection<Long> seatIds, long holdToken, long ttlMillis) {
+        if (!enabled) {
+            return true;
+        }
+
+        try {
+            Long conflict = eval(CLAIM_SCRIPT, showId, seatIds, String.valueOf(holdToken), String.valueOf(Math.max(ttlMillis, 1)));
+            if (conflict != null && conflict != 0) {
+                log.debug("Seat claim rejected for show {}: seat #{} already held", showId, conflict);
+                return false;
+            }
+            return true;
+        } catch (Exception e) {
+            log.error("Error claiming seats in Redis for show {}", showId, e);
+            return failOpen;
+        }
+    }
+
+    /**
+     * Releases seats still owned by the hold token
+     */
+    public void releaseSeats(Long showId, Collection<Long> seatIds, long holdToken) {
+        if (!enabled) {
+            return;
+        }
+
+        try {
+            eval(RELEASE_SCRIPT, showId, seatIds, String.valueOf(holdToken));
+        } catch (Exception e) {
+            // Claims carry a TTL, so a failed release only delays availability
+            log.error("Error releasing seat claims in Redis for show {}", showId, e);
+        }
+    }
+
+    /**
+     * Extends the claims of a confirmed booking, typically until the show ends
+     */
+    public void extendSeats(Long showId, Collection<Long> seatIds, long holdToken, long ttlMillis) {
+        if (!enabled) {
+            return;
+        }
+
+        try {
+            eval(EXTEND_SCRIPT, showId, seatIds, String.valueOf(holdToken), String.valueOf(Math.max(ttlMillis, 1)));
+        } catch (Exception e) {
+            log.error("Error extending seat claims in Redis for show {}", showId, e);
+        }
+    }
+
+    private Long eval(String script, Long showId, Collection<Long> seatIds, Object... args) {
+        List<Object> keys = new ArrayList<>(seatIds.size());
+        for (Long seatId : seatIds) {
+            keys.add(seatKey(showId, seatId));
+        }
+
+        RScript rScript = redissonClient.getScript(StringCodec.INSTANCE);
+        return rScript.eval(RScript.Mode.READ_WRITE, script, RScript.ReturnType.INTEGER, keys, args);
+    }
+
+    private static String seatKey(Long showId, Long seatId) {
+        return KEY_PREFIX + "{" + showId + "}:" + seatId;
+    }
+}
@@ -0,0 +1,146 @@
+package com.bookmymovie.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.redisson.api.RLock;
+import org.redisson.api.RScript;
+import org.redisson.api.RedissonClient;
+import org.redisson.client.codec.StringCodec;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Cluster-wide locks in Redis through Redisson.
+ * Besides thread-owned locks it offers non-blocking acquisition with explicit owner ids, whose
+ * leases can be released from any thread.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class RedissonLockProvider implements LockProvider {
+
+    private static final String FENCE_PREFIX = "fence:";
+
+    /**
+     * KEYS[1] = fence key. One INCR, raised to the Redis server time in microseconds if below it,
+     * so tokens stay above those handed out by {@link LocalLockProvider} when a deployment switches backends.
+     */
+    private static final String FENCE_SCRIPT =
+            "local token = redis.call('INCR', KEYS[1]) " +
+            "local time = redis.call('TIME') " +
+            "local now = tonumber(time[1]) * 1000000 + tonumber(time[2]) " +
+            "if token < now then " +
+            "  redis.call('SET', KEYS[1], string.format('%.0f', now)) " +
+            "  token = now " +
+            "end " +
+            "return token";
+
+    // Negative, so they never collide with the thread ids Redisson uses for thread-owned locks
+    private static final AtomicLong OWNER_IDS = new AtomicLong();
+
+    private final RedissonClient redissonClient;
+
+    @Override
+    public Lease tryLock(String lockKey, long waitTime, long leaseTime, TimeUnit timeUnit) throws InterruptedException {
+        RLock lock = redissonClient.getLock(lockKey);
+        return lock.tryLock(waitTime, leaseTime, timeUnit) ? new ThreadLease(lockKey, lock) : null;
+    }
+
+    @Override
+    public boolean isLocked(String lockKey) {
+        return redissonClient.getLock(lockKey).isLocked();
+    }
+
+    @Override
+    public long nextFencingToken(String lockKey) {
+        return fenceScript().eval(RScript.Mode.READ_WRITE, FENCE_SCRIPT, RScript.ReturnType.INTEGER,
+                List.of(FENCE_PREFIX + lockKey));
+    }
+
+    @Override
+    public CompletableFuture<Long> nextFencingTokenAsync(String lockKey) {
+        return fenceScript().<Long>evalAsync(RScript.Mode.READ_WRITE, FENCE_SCRIPT, RScript.ReturnType.INTEGER,
+                List.of(FENCE_PREFIX + lockKey)).toCompletableFuture();
+    }
+
+    /**
+     * Takes the lock without blocking the calling thread, owned by a fresh owner id
+     *
+     * @return future of the held lock, or of null if it could not be taken within waitTime
+     */
+    public CompletableFuture<Lease> tryLockAsync(String lockKey, long waitTime, long leaseTime, TimeUnit timeUnit) {
+        RLock lock = redissonClient.getLock(lockKey);
+        long ownerId = OWNER_IDS.decrementAndGet();
+        return lock.tryLockAsync(waitTime, leaseTime, timeUnit, ownerId).toCompletableFuture()
+                .thenApply(acquired -> acquired ? new OwnerLease(lockKey, lock, ownerId) : null);
+    }
+
+    private RScript fenceScript() {
+        return redissonClient.getScript(StringCodec.INSTANCE);
+    }
+
+    private static final class ThreadLease implements Lease {
+        private final String lockKey;
+        private final RLock lock;
+
+        ThreadLease(String lockKey, RLock lock) {
+            this.lockKey = lockKey;
+            this.lock = lock;
+        }
+
+        @Override
+        public String getLockKey() {
+            return lockKey;
+        }
+
+        @Override
+        public void unlock() {
+            // Only release if current thread holds the lock
+            if (lock.isHeldByCurrentThread()) {
+                lock.unlock();
+            } else {
+                log.warn("Attempted to release lock not held by current thread: {}", lockKey);
+            }
+        }
+    }
+
+    private static final class OwnerLease implements Lease {
+        private final String lockKey;
+        private final RLock lock;
+        private final long ownerId;
+
+        OwnerLease(String lockKey, RLock lock, long ownerId) {
+            this.lockKey = lockKey;
+            this.lock = lock;
+            this.ownerId = ownerId;
+        }
+
+        @Override
+        public String getLockKey() {
+            return lockKey;
+        }
+
+        @Override
+        public void unlock() {
+            unlockAsync().join();
+        }
+
+        @Override
+        public CompletableFuture<Void> unlockAsync() {
+            return lock.unlockAsync(ownerId).toCompletableFuture()
+                    .handle((ignored, e) -> {
+                        if (e != null && (e instanceof IllegalMonitorStateException
+                                || e.getCause() instanceof IllegalMonitorStateException)) {
+                            log.warn("Attempted to release lock no longer held by its owner (lease expired?): {}", lockKey);
+                        } else if (e != null) {
+                            log.error("Error releasing distributed lock: {}", lockKey, e);
+                        }
+                        return null;
+                    });
+        }
+    }
+}
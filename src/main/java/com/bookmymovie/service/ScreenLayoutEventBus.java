@@ -0,0 +1,72 @@
+package com.bookmymovie.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.redisson.api.RTopic;
+import org.redisson.api.RedissonClient;
+import org.redisson.client.codec.StringCodec;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.UUID;
+import java.util.function.Consumer;
+
+/**
+ * Redis pub/sub channel announcing that a screen's seat layout was rebuilt.
+ * Every node drops what it built from the old layout (seat-map snapshots and seat inventories),
+ * so new seats are not reported as unavailable on nodes other than the one that saved them.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ScreenLayoutEventBus {
+
+    private static final String TOPIC = "screen-layout-events";
+    private static final String FIELD_SEPARATOR = "|";
+
+    private final RedissonClient redissonClient;
+
+    private final String nodeId = UUID.randomUUID().toString();
+
+    @Value("${seat-map.cache.redis-pubsub.enabled:true}")
+    private boolean enabled;
+
+    /**
+     * Registers the handler for layout changes published by other nodes; it receives the screen id
+     */
+    public void subscribe(Consumer<Long> handler) {
+        if (!enabled) {
+            return;
+        }
+
+        try {
+            RTopic topic = redissonClient.getTopic(TOPIC, StringCodec.INSTANCE);
+            topic.addListener(String.class, (channel, message) -> {
+                int separator = message.indexOf(FIELD_SEPARATOR);
+                if (separator < 0 || nodeId.equals(message.substring(0, separator))) {
+                    return;
+                }
+                try {
+                    handler.accept(Long.parseLong(message.substring(separator + 1)));
+                } catch (NumberFormatException e) {
+                    log.warn("Ignoring malformed screen layout event: {}", message);
+                }
+            });
+            log.info("Subscribed to screen layout events as node {}", nodeId);
+        } catch (Exception e) {
+            log.error("Failed to subscribe to screen layout events; layouts will only reflect local changes", e);
+        }
+    }
+
+    public void publishLayoutChanged(Long screenId) {
+        if (!enabled) {
+            return;
+        }
+
+        try {
+            redissonClient.getTopic(TOPIC, StringCodec.INSTANCE).publishAsync(nodeId + FIELD_SEPARATOR + screenId);
+        } catch (Exception e) {
+            log.error("Failed to publish screen layout event for screen {}", screenId, e);
+        }
+    }
+}
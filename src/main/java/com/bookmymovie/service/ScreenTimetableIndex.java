@@ -0,0 +1,331 @@
+package com.bookmymovie.service;
+
+import com.bookmymovie.dto.response.ShowSummaryDto;
+import com.bookmymovie.entity.Show;
+import com.bookmymovie.event.ShowChangedEvent;
+import com.bookmymovie.event.ShowSeatsChangedEvent;
+import com.bookmymovie.repository.ShowRepository;
+import com.bookmymovie.util.ExpiringLruCache;
+import com.bookmymovie.util.IntervalTree;
+import jakarta.annotation.PostConstruct;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * In-memory timetable of each screen, one interval tree per screen and day.
+ * A show occupies its screen from its start until its end plus cleaning time. Conflict checks,
+ * free-slot searches and the per-screen show list are answered from here; a day is loaded from
+ * the database on first use and dropped again on show create/update/cancel. Seat counter
+ * changes are patched in place. Both also arrive from other nodes through {@link ShowListingEventBus},
+ * so the TTL only bounds staleness when a pub/sub message is lost.
+ * Days are immutable once published (changes swap in a new one), so readers never lock.
+ */
+@Service
+@Slf4j
+public class ScreenTimetableIndex {
+
+    private final ShowRepository showRepository;
+    private final PricingEngine pricingEngine;
+    private final ShowListingEventBus showListingEventBus;
+    private final ExpiringLruCache<String, DayTimetable> days;
+
+    // Day each indexed show was loaded into, so a show moved to another date leaves its old day too
+    private final Map<Long, String> dayKeyByShow = new ConcurrentHashMap<>();
+
+    private final ReentrantLock patchLock = new ReentrantLock();
+
+    @Value("${screen-timetable.ttl-seconds:600}")
+    private long ttlSeconds;
+
+    public ScreenTimetableIndex(ShowRepository showRepository, PricingEngine pricingEngine,
+                                ShowListingEventBus showListingEventBus,
+                                @Value("${screen-timetable.max-days:20000}") int maxDays) {
+        this.showRepository = showRepository;
+        this.pricingEngine = pricingEngine;
+        this.showListingEventBus = showListingEventBus;
+        this.days = new ExpiringLruCache<>(maxDays);
+    }
+
+    @PostConstruct
+    void subscribeToRemoteChanges() {
+        showListingEventBus.subscribe(event -> {
+            if (event.getType() == ShowListingEventBus.EventType.SHOW_CHANGED) {
+                evictShow(event.getShowId(), event.getScreenId(), event.getShowDate());
+            } else {
+                patchSeats(event.getShowId(), event.getAvailableSeatsDelta());
+            }
+        });
+    }
+
+    // ==================== QUERIES ====================
+
+    /**
+     * Shows occupying the screen at any point of [start, end], both inclusive
+     */
+    public List<ScheduledShow> findConflicts(Long screenId, LocalDateTime start, LocalDateTime end, Long excludeShowId) {
+        long from = toEpochMinutes(start);
+        long to = toEpochMinutes(end);
+
+        List<ScheduledShow> conflicts = new ArrayList<>();
+        // A show that started the day before may still be running
+        for (LocalDate date = start.toLocalDate().minusDays(1); !date.isAfter(end.toLocalDate()); date = date.plusDays(1)) {
+            for (ScheduledShow show : getDay(screenId, date).getTree().findOverlapping(from, to)) {
+                if (!show.getShowId().equals(excludeShowId)) {
+                    conflicts.add(show);
+                }
+            }
+        }
+        return conflicts;
+    }
+
+    /**
+     * Gaps within [windowStart, windowEnd] long enough for a show occupying the screen for the given minutes
+     */
+    public List<FreeSlot> findFreeSlots(Long screenId, LocalDateTime windowStart, LocalDateTime windowEnd, int occupiedMinutes) {
+        long from = toEpochMinutes(windowStart);
+        long to = toEpochMinutes(windowEnd);
+
+        List<ScheduledShow> occupied = new ArrayList<>();
+        for (LocalDate date = windowStart.toLocalDate().minusDays(1); !date.isAfter(windowEnd.toLocalDate()); date = date.plusDays(1)) {
+            occupied.addAll(getDay(screenId, date).getTree().findOverlapping(from, to));
+        }
+        occupied.sort(Comparator.comparingLong(ScheduledShow::getStartMinute));
+
+        // Occupied intervals are inclusive, so a gap starts the minute after one show and ends the minute before the next
+        List<FreeSlot> slots = new ArrayList<>();
+        long cursor = from;
+        for (ScheduledShow show : occupied) {
+            addIfFits(slots, cursor, show.getStartMinute() - 1, occupiedMinutes);
+            cursor = Math.max(cursor, show.getEndMinute() + 1);
+        }
+        addIfFits(slots, cursor, to, occupiedMinutes);
+        return slots;
+    }
+
+    /**
+     * Active shows starting on the given day, in start order
+     */
+    public List<ScheduledShow> getShows(Long screenId, LocalDate date) {
+        return getDay(screenId, date).getShows();
+    }
+
+    // ==================== SYNCHRONIZATION ====================
+
+    /**
+     * Reloads the given days from the database; used by writers, which already hold the
+     * screen's schedule row lock (through the schedule fence, or directly when rescheduling),
+     * so their check also sees shows scheduled by other nodes
+     */
+    public void reload(Long screenId, LocalDate from, LocalDate to) {
+        for (LocalDate date = from; !date.isAfter(to); date = date.plusDays(1)) {
+            days.remove(dayKey(screenId, date));
+        }
+        for (LocalDate date = from; !date.isAfter(to); date = date.plusDays(1)) {
+            getDay(screenId, date);
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onShowChanged(ShowChangedEvent event) {
+        evictShow(event.getShowId(), event.getScreenId(), event.getShowDate());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onShowSeatsChanged(ShowSeatsChangedEvent event) {
+        patchSeats(event.getShowId(), event.getAvailableSeatsDelta());
+    }
+
+    private void evictShow(Long showId, Long screenId, LocalDate showDate) {
+        String previousDay = dayKeyByShow.remove(showId);
+        if (previousDay != null) {
+            days.remove(previousDay);
+        }
+        if (screenId != null && showDate != null) {
+            days.remove(dayKey(screenId, showDate));
+        }
+    }
+
+    private void patchSeats(Long showId, int availableSeatsDelta) {
+        String key = dayKeyByShow.get(showId);
+        if (key == null) {
+            return;
+        }
+
+        patchLock.lock();
+        try {
+            DayTimetable day = days.get(key);
+            if (day != null) {
+                List<ScheduledShow> shows = day.getShows().stream()
+                        .map(show -> show.getShowId().equals(showId)
+                                ? show.withAvailableSeats(show.getAvailableSeats() + availableSeatsDelta)
+                                : show)
+                        .toList();
+                days.put(key, new DayTimetable(shows, day.getExpiresAtMillis()), day.getExpiresAtMillis());
+            }
+        } finally {
+            patchLock.unlock();
+        }
+    }
+
+    // ==================== LOADING ====================
+
+    private DayTimetable getDay(Long screenId, LocalDate date) {
+        String key = dayKey(screenId, date);
+        DayTimetable day = days.get(key);
+        if (day != null) {
+            return day;
+        }
+
+        List<ScheduledShow> shows = showRepository.findActiveShowsByScreenBetweenDates(screenId, date, date).stream()
+                .map(show -> ScheduledShow.of(show, pricingEngine.listedPrice(show)))
+                .sorted(Comparator.comparingLong(ScheduledShow::getStartMinute))
+                .toList();
+        shows.forEach(show -> dayKeyByShow.put(show.getShowId(), key));
+
+        long expiresAt = System.currentTimeMillis() + ttlSeconds * 1000;
+        DayTimetable loaded = new DayTimetable(shows, expiresAt);
+        patchLock.lock();
+        try {
+            days.put(key, loaded, expiresAt);
+        } finally {
+            patchLock.unlock();
+        }
+        return loaded;
+    }
+
+    private static void addIfFits(List<FreeSlot> slots, long gapStart, long gapEnd, int occupiedMinutes) {
+        if (gapEnd - gapStart >= occupiedMinutes) {
+            slots.add(new FreeSlot(fromEpochMinutes(gapStart), fromEpochMinutes(gapEnd),
+                    fromEpochMinutes(gapEnd - occupiedMinutes)));
+        }
+    }
+
+    private static String dayKey(Long screenId, LocalDate date) {
+        return screenId + ":" + date;
+    }
+
+    static long toEpochMinutes(LocalDateTime dateTime) {
+        return dateTime.toEpochSecond(ZoneOffset.UTC) / 60;
+    }
+
+    private static LocalDateTime fromEpochMinutes(long minutes) {
+        return LocalDateTime.ofEpochSecond(minutes * 60, 0, ZoneOffset.UTC);
+    }
+
+    // ==================== INDEX STRUCTURES ====================
+
+    @Getter
+    static final class DayTimetable {
+        private final List<ScheduledShow> shows;
+        private final IntervalTree<ScheduledShow> tree = new IntervalTree<>();
+        private final long expiresAtMillis;
+
+        DayTimetable(List<ScheduledShow> shows, long expiresAtMillis) {
+            this.shows = shows;
+            this.expiresAtMillis = expiresAtMillis;
+            shows.forEach(show -> tree.add(show.getStartMinute(), show.getEndMinute(), show));
+        }
+    }
+
+    /**
+     * What the index keeps of a show; enough for conflict reports and the screen's show list
+     */
+    @Getter
+    public static final class ScheduledShow {
+        private final Long showId;
+        private final String movieTitle;
+        private final String theaterName;
+        private final String screenName;
+        private final LocalDateTime startsAt;
+        private final LocalDateTime occupiedUntil;
+        private final long startMinute;
+        private final long endMinute;
+        private final BigDecimal actualPrice;
+        private final int totalSeats;
+        private final int availableSeats;
+        private final Show.ShowStatus status;
+        private final boolean specialScreening;
+        private final boolean premiere;
+
+        private ScheduledShow(Long showId, String movieTitle, String theaterName, String screenName,
+                              LocalDateTime startsAt, LocalDateTime occupiedUntil, BigDecimal actualPrice,
+                              int totalSeats, int availableSeats, Show.ShowStatus status,
+                              boolean specialScreening, boolean premiere) {
+            this.showId = showId;
+            this.movieTitle = movieTitle;
+            this.theaterName = theaterName;
+            this.screenName = screenName;
+            this.startsAt = startsAt;
+            this.occupiedUntil = occupiedUntil;
+            this.startMinute = toEpochMinutes(startsAt);
+            this.endMinute = toEpochMinutes(occupiedUntil);
+            this.actualPrice = actualPrice;
+            this.totalSeats = totalSeats;
+            this.availableSeats = availableSeats;
+            this.status = status;
+            this.specialScreening = specialScreening;
+            this.premiere = premiere;
+        }
+
+        static ScheduledShow of(Show show, BigDecimal actualPrice) {
+            return new ScheduledShow(show.getShowId(), show.getMovie().getTitle(),
+                    show.getScreen().getTheater().getName(), show.getScreen().getName(),
+                    show.getShowDateTime(), show.getActualEndTime(),
+                    actualPrice,
+                    show.getTotalSeats(), show.getAvailableSeats(), show.getStatus(),
+                    Boolean.TRUE.equals(show.getIsSpecialScreening()), Boolean.TRUE.equals(show.getIsPremiere()));
+        }
+
+        ScheduledShow withAvailableSeats(int seats) {
+            return new ScheduledShow(showId, movieTitle, theaterName, screenName, startsAt, occupiedUntil,
+                    actualPrice, totalSeats, Math.max(0, Math.min(seats, totalSeats)), status,
+                    specialScreening, premiere);
+        }
+
+        public ShowSummaryDto toSummary() {
+            return ShowSummaryDto.builder()
+                    .showId(showId)
+                    .movieTitle(movieTitle)
+                    .theaterName(theaterName)
+                    .screenName(screenName)
+                    .showDate(startsAt.toLocalDate())
+                    .showTime(startsAt.toLocalTime())
+                    .actualPrice(actualPrice)
+                    .availableSeats(availableSeats)
+                    .occupancyPercentage(totalSeats == 0 ? 0.0 : (totalSeats - availableSeats) * 100.0 / totalSeats)
+                    .status(status)
+                    .canBeBooked(status == Show.ShowStatus.SCHEDULED && availableSeats > 0
+                            && LocalDateTime.now().isBefore(startsAt))
+                    .isSpecialScreening(specialScreening)
+                    .isPremiere(premiere)
+                    .build();
+        }
+    }
+
+    @Getter
+    public static final class FreeSlot {
+        private final LocalDateTime freeFrom;
+        private final LocalDateTime freeUntil;
+        private final LocalDateTime latestStart;
+
+        FreeSlot(LocalDateTime freeFrom, LocalDateTime freeUntil, LocalDateTime latestStart) {
+            this.freeFrom = freeFrom;
+            this.freeUntil = freeUntil;
+            this.latestStart = latestStart;
+        }
+    }
+}
@@ -0,0 +1,241 @@
+package com.bookmymovie.service;
+
+import com.bookmymovie.dto.request.SeatAvailabilityRequestDto;
+import com.bookmymovie.dto.response.SeatAvailabilityResponseDto;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter.DataWithMediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Live seat availability feed per show over Server-Sent Events.
+ * Subscribers get a full snapshot on connect and then coalesced diffs: every flush interval,
+ * each show with subscribers is checked against its inventory version and, if anything changed,
+ * one delta is built from the inventory change log and fanned out to all of the show's streams.
+ * Changes made on other nodes arrive through {@link SeatEventBus}, so each node only has to
+ * watch its own inventory.
+ * Each frame is serialized once and queued for every subscriber; subscribers drain their own queue
+ * on the seat stream executor, so a slow client delays only itself and is dropped once it falls
+ * too far behind.
+ */
+@Service
+@Slf4j
+public class SeatAvailabilityStreamService {
+
+    private final BookingService bookingService;
+    private final SeatInventoryService seatInventoryService;
+    private final ObjectMapper objectMapper;
+    private final Executor seatStreamExecutor;
+
+    private final Map<Long, ShowStream> streams = new ConcurrentHashMap<>();
+
+    @Value("${seat-stream.emitter-timeout-ms:1800000}")
+    private long emitterTimeoutMillis;
+
+    @Value("${seat-stream.heartbeat-interval-ms:15000}")
+    private long heartbeatIntervalMillis;
+
+    @Value("${seat-stream.max-pending-frames:64}")
+    private int maxPendingFrames;
+
+    public SeatAvailabilityStreamService(BookingService bookingService,
+                                         SeatInventoryService seatInventoryService,
+                                         ObjectMapper objectMapper,
+                                         @Qualifier("seatStreamExecutor") Executor seatStreamExecutor) {
+        this.bookingService = bookingService;
+        this.seatInventoryService = seatInventoryService;
+        this.objectMapper = objectMapper;
+        this.seatStreamExecutor = seatStreamExecutor;
+    }
+
+    public SseEmitter subscribe(Long showId) {
+        SeatAvailabilityResponseDto snapshot = bookingService.getSeatAvailability(
+                SeatAvailabilityRequestDto.builder().showId(showId).build());
+
+        SseEmitter emitter = new SseEmitter(emitterTimeoutMillis);
+        Subscriber subscriber = new Subscriber(emitter);
+        // Queued before the subscriber is registered, so no delta can overtake it
+        subscriber.enqueue(frame("snapshot", snapshot));
+
+        ShowStream stream = streams.compute(showId, (id, existing) -> {
+            ShowStream showStream = existing != null ? existing : new ShowStream(snapshot.getVersion());
+            showStream.subscribers.add(subscriber);
+            return showStream;
+        });
+
+        emitter.onCompletion(() -> unsubscribe(showId, subscriber));
+        emitter.onTimeout(() -> unsubscribe(showId, subscriber));
+        emitter.onError(error -> unsubscribe(showId, subscriber));
+
+        // The flusher may have moved past our snapshot before the subscriber was registered
+        long streamVersion = stream.lastVersion;
+        if (streamVersion > snapshot.getVersion()) {
+            SeatAvailabilityResponseDto catchUp = bookingService.getSeatAvailability(
+                    SeatAvailabilityRequestDto.builder().showId(showId).sinceVersion(snapshot.getVersion()).build());
+            subscriber.enqueue(frame(Boolean.TRUE.equals(catchUp.getDelta()) ? "delta" : "snapshot", catchUp));
+        }
+        scheduleDrain(showId, subscriber);
+
+        log.debug("New seat stream subscriber for show {} ({} total)", showId, stream.subscribers.size());
+        return emitter;
+    }
+
+    public int getSubscriberCount(Long showId) {
+        ShowStream stream = streams.get(showId);
+        return stream != null ? stream.subscribers.size() : 0;
+    }
+
+    /**
+     * Coalesces all changes since the last flush into one delta per show
+     */
+    @Scheduled(fixedDelayString = "${seat-stream.flush-interval-ms:250}")
+    public void flush() {
+        long now = System.currentTimeMillis();
+        streams.forEach((showId, stream) -> {
+            try {
+                flushShow(showId, stream, now);
+            } catch (Exception e) {
+                log.error("Error flushing seat stream for show {}", showId, e);
+            }
+        });
+    }
+
+    private void flushShow(Long showId, ShowStream stream, long now) {
+        long currentVersion = seatInventoryService.getInventory(showId).getVersion();
+
+        if (currentVersion == stream.lastVersion) {
+            if (now - stream.lastSentAt >= heartbeatIntervalMillis) {
+                broadcast(showId, stream, SseEmitter.event().comment("heartbeat").build());
+            }
+            return;
+        }
+
+        SeatAvailabilityResponseDto update = bookingService.getSeatAvailability(
+                SeatAvailabilityRequestDto.builder().showId(showId).sinceVersion(stream.lastVersion).build());
+        stream.lastVersion = update.getVersion();
+
+        broadcast(showId, stream, frame(Boolean.TRUE.equals(update.getDelta()) ? "delta" : "snapshot", update));
+    }
+
+    /**
+     * Builds an event whose payload is serialized here, once, instead of by every emitter's send
+     */
+    private Set<DataWithMediaType> frame(String name, SeatAvailabilityResponseDto payload) {
+        String json;
+        try {
+            json = objectMapper.writeValueAsString(payload);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize seat availability for show " + payload.getShowId(), e);
+        }
+        return SseEmitter.event()
+                .name(name)
+                .id(String.valueOf(payload.getVersion()))
+                .data(json, MediaType.APPLICATION_JSON)
+                .build();
+    }
+
+    private void broadcast(Long showId, ShowStream stream, Set<DataWithMediaType> frame) {
+        stream.lastSentAt = System.currentTimeMillis();
+        for (Subscriber subscriber : stream.subscribers) {
+            if (!subscriber.enqueue(frame)) {
+                log.debug("Dropping seat stream subscriber for show {}: {} frames behind", showId, maxPendingFrames);
+                unsubscribe(showId, subscriber);
+                subscriber.emitter.complete();
+                continue;
+            }
+            scheduleDrain(showId, subscriber);
+        }
+    }
+
+    private void scheduleDrain(Long showId, Subscriber subscriber) {
+        if (subscriber.draining.compareAndSet(false, true)) {
+            seatStreamExecutor.execute(() -> drain(showId, subscriber));
+        }
+    }
+
+    /**
+     * Sends a subscriber's queued frames in order; at most one drain runs per subscriber
+     */
+    private void drain(Long showId, Subscriber subscriber) {
+        try {
+            Set<DataWithMediaType> frame;
+            while ((frame = subscriber.poll()) != null) {
+                subscriber.emitter.send(frame);
+            }
+        } catch (Exception e) {
+            unsubscribe(showId, subscriber);
+            return;
+        } finally {
+            subscriber.draining.set(false);
+        }
+        // A frame queued after the last poll but before the flag was cleared would otherwise wait
+        if (!subscriber.pending.isEmpty()) {
+            scheduleDrain(showId, subscriber);
+        }
+    }
+
+    private void unsubscribe(Long showId, Subscriber subscriber) {
+        streams.computeIfPresent(showId, (id, stream) -> {
+            stream.subscribers.remove(subscriber);
+            return stream.subscribers.isEmpty() ? null : stream;
+        });
+    }
+
+    private class Subscriber {
+        private final SseEmitter emitter;
+        private final Queue<Set<DataWithMediaType>> pending = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger pendingCount = new AtomicInteger();
+        private final AtomicBoolean draining = new AtomicBoolean();
+
+        private Subscriber(SseEmitter emitter) {
+            this.emitter = emitter;
+        }
+
+        /**
+         * @return false if the subscriber is already too far behind to take another frame
+         */
+        private boolean enqueue(Set<DataWithMediaType> frame) {
+            if (pendingCount.incrementAndGet() > maxPendingFrames) {
+                pendingCount.decrementAndGet();
+                return false;
+            }
+            pending.add(frame);
+            return true;
+        }
+
+        private Set<DataWithMediaType> poll() {
+            Set<DataWithMediaType> frame = pending.poll();
+            if (frame != null) {
+                pendingCount.decrementAndGet();
+            }
+            return frame;
+        }
+    }
+
+    private static class ShowStream {
+        private final List<Subscriber> subscribers = new CopyOnWriteArrayList<>();
+        private volatile long lastVersion;
+        private volatile long lastSentAt = System.currentTimeMillis();
+
+        private ShowStream(long lastVersion) {
+            this.lastVersion = lastVersion;
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package com.bookmymovie.service;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.redisson.api.RTopic;
+import org.redisson.api.RedissonClient;
+import org.redisson.client.codec.StringCodec;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+/**
+ * Redis pub/sub channel for seat state changes.
+ * Each node publishes the changes it applies to its own seat inventory and applies the changes
+ * published by other nodes, so every node's inventory (and its live seat feeds) stays current.
+ * Messages are plain strings to keep them small and codec-independent.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class SeatEventBus {
+
+    private static final String TOPIC = "seat-inventory-events";
+    private static final String FIELD_SEPARATOR = "|";
+
+    private final RedissonClient redissonClient;
+
+    private final String nodeId = UUID.randomUUID().toString();
+
+    @Value("${seat-stream.redis-pubsub.enabled:true}")
+    private boolean enabled;
+
+    public enum EventType {
+        HOLD, RELEASE_HOLD, CONFIRM, RELEASE_BOOKED, BLOCK, UNBLOCK
+    }
+
+    /**
+     * Registers the handler for changes published by other nodes
+     */
+    public void subscribe(Consumer<SeatEvent> handler) {
+        if (!enabled) {
+            return;
+        }
+
+        try {
+            RTopic topic = redissonClient.getTopic(TOPIC, StringCodec.INSTANCE);
+            topic.addListener(String.class, (channel, message) -> {
+                SeatEvent event = decode(message);
+                if (event != null && !nodeId.equals(event.getNodeId())) {
+                    handler.accept(event);
+                }
+            });
+            log.info("Subscribed to seat inventory events as node {}", nodeId);
+        } catch (Exception e) {
+            log.error("Failed to subscribe to seat inventory events; inventories will only reflect local changes", e);
+        }
+    }
+
+    public void publish(EventType type, Long showId, Collection<Long> seatIds, Long holdToken) {
+        if (!enabled || seatIds.isEmpty()) {
+            return;
+        }
+
+        StringBuilder message = new StringBuilder()
+                .append(nodeId).append(FIELD_SEPARATOR)
+                .append(type).append(FIELD_SEPARATOR)
+                .append(showId).append(FIELD_SEPARATOR)
+                .append(holdToken != null ? holdToken : 0).append(FIELD_SEPARATOR);
+        boolean first = true;
+        for (Long seatId : seatIds) {
+            if (!first) {
+                message.append(',');
+            }
+            message.append(seatId);
+            first = false;
+        }
+
+        try {
+            redissonClient.getTopic(TOPIC, StringCodec.INSTANCE).publishAsync(message.toString());
+        } catch (Exception e) {
+            log.error("Failed to publish seat event for show {}", showId, e);
+        }
+    }
+
+    private SeatEvent decode(String message) {
+        try {
+            String[] fields = message.split("\\|", 5);
+            List<Long> seatIds = new ArrayList<>();
+            for (String seatId : fields[4].split(",")) {
+                seatIds.add(Long.parseLong(seatId));
+            }
+            long holdToken = Long.parseLong(fields[3]);
+            return new SeatEvent(fields[0], EventType.valueOf(fields[1]), Long.parseLong(fields[2]),
+                    seatIds, holdToken != 0 ? holdToken : null);
+        } catch (Exception e) {
+            log.warn("Ignoring malformed seat event: {}", message);
+            return null;
+        }
+    }
+
+    @Getter
+    @RequiredArgsConstructor
+    public static class SeatEvent {
+        private final String nodeId;
+        private final EventType type;
+        private final Long showId;
+        private final List<Long> seatIds;
+        private final Long holdToken;
+    }
+}
@@ -0,0 +1,629 @@
+package com.bookmymovie.service;
+
+import com.bookmymovie.constants.TheaterConstant;
+import com.bookmymovie.entity.Booking;
+import com.bookmymovie.event.ShowChangedEvent;
+import com.bookmymovie.repository.BookingRepository;
+import com.bookmymovie.repository.SeatRepository;
+import com.bookmymovie.repository.ShowRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * In-memory seat inventory per show.
+ * Keeps booked / held / blocked state as compact planes indexed by the seat's ordinal
+ * within the screen, so availability and conflict checks never touch the database
+ * once a show has been hydrated.
+ * Holds are claimed per seat with compare-and-set on a hold token, locally first and then
+ * cluster-wide through {@link RedisSeatClaimService}, so bookings for disjoint seats never
+ * wait on each other.
+ * Changes are published through {@link SeatEventBus} and changes from other nodes are applied
+ * to the local inventories, so availability stays current on every node.
+ * An inventory is dropped once its show starts, and whenever the show changes on any node;
+ * a show that is still bookable is hydrated again on next use.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class SeatInventoryService {
+
+    private final SeatRepository seatRepository;
+    private final BookingRepository bookingRepository;
+    private final ShowRepository showRepository;
+    private final RedisSeatClaimService seatClaimService;
+    private final SeatEventBus seatEventBus;
+    private final ShowListingEventBus showListingEventBus;
+    private final ScreenLayoutEventBus screenLayoutEventBus;
+
+    private final Map<Long, ShowSeatInventory> inventories = new ConcurrentHashMap<>();
+
+    // Random start keeps tokens issued by different nodes for the same second apart
+    private final AtomicInteger holdSequence = new AtomicInteger(ThreadLocalRandom.current().nextInt());
+
+    @PostConstruct
+    public void subscribeToRemoteChanges() {
+        seatEventBus.subscribe(this::applyRemoteEvent);
+        showListingEventBus.subscribe(event -> {
+            if (event.getType() == ShowListingEventBus.EventType.SHOW_CHANGED) {
+                evict(event.getShowId());
+            }
+        });
+        screenLayoutEventBus.subscribe(this::evictScreen);
+    }
+
+    // ==================== READ OPERATIONS ====================
+
+    /**
+     * Returns the inventory for a show, hydrating it from the database on first use
+     */
+    public ShowSeatInventory getInventory(Long showId) {
+        ShowSeatInventory inventory = inventories.get(showId);
+        if (inventory != null) {
+            return inventory;
+        }
+
+        // Hydrate outside the map: computeIfAbsent would hold a bin lock (and pin a virtual thread)
+        // for the duration of the queries. Concurrent loaders race and the first one published wins.
+        ShowSeatInventory loaded = hydrate(showId);
+        ShowSeatInventory existing = inventories.putIfAbsent(showId, loaded);
+        return existing != null ? existing : loaded;
+    }
+
+    /**
+     * Returns the inventory if this node has already hydrated it, without loading it
+     */
+    public ShowSeatInventory findLoadedInventory(Long showId) {
+        return inventories.get(showId);
+    }
+
+    /**
+     * Returns the requested seat ids that cannot be booked right now
+     * (booked, held by an unexpired booking, blocked, or not part of the show's screen)
+     */
+    public List<Long> findUnavailableSeatIds(Long showId, Collection<Long> seatIds) {
+        ShowSeatInventory inventory = getInventory(showId);
+        long now = System.currentTimeMillis();
+
+        List<Long> unavailable = new ArrayList<>();
+        for (Long seatId : seatIds) {
+            int ordinal = inventory.ordinalOf(seatId);
+            if (ordinal < 0 || !inventory.isAvailable(ordinal, now)) {
+                unavailable.add(seatId);
+            }
+        }
+        return unavailable;
+    }
+
+    // ==================== WRITE OPERATIONS ====================
+
+    /**
+     * Issues a new hold token that expires at the given deadline
+     */
+    public long nextHoldToken(LocalDateTime deadline) {
+        return HoldToken.of(toEpochMillis(deadline), holdSequence.incrementAndGet());
+    }
+
+    /**
+     * Places a hold on all seats or on none of them, first on this node and then cluster-wide.
+     *
+     * @param holdToken token from {@link #nextHoldToken}; the seats become available again once it expires
+     * @return true if every seat was claimed
+     */
+    public boolean holdSeats(Long showId, Collection<Long> seatIds, long holdToken) {
+        ShowSeatInventory inventory = getInventory(showId);
+
+        if (!inventory.tryHold(seatIds, holdToken)) {
+            log.debug("Seat hold rejected locally for show {} seats {}", showId, seatIds);
+            return false;
+        }
+
+        long ttlMillis = HoldToken.deadlineMillis(holdToken) - System.currentTimeMillis();
+        if (!seatClaimService.claimSeats(showId, seatIds, holdToken, ttlMillis)) {
+            inventory.releaseHold(seatIds, holdToken);
+            log.debug("Seat hold rejected cluster-wide for show {} seats {}", showId, seatIds);
+            return false;
+        }
+        seatEventBus.publish(SeatEventBus.EventType.HOLD, showId, seatIds, holdToken);
+        return true;
+    }
+
+    /**
+     * Drops a hold. Seats re-held under another token are left alone.
+     */
+    public void releaseHold(Long showId, Collection<Long> seatIds, Long holdToken) {
+        if (holdToken == null) {
+            return;
+        }
+        ShowSeatInventory inventory = inventories.get(showId);
+        if (inventory != null) {
+            inventory.releaseHold(seatIds, holdToken);
+        }
+        seatClaimService.releaseSeats(showId, seatIds, holdToken);
+        seatEventBus.publish(SeatEventBus.EventType.RELEASE_HOLD, showId, seatIds, holdToken);
+    }
+
+    /**
+     * Turns a hold into a booking; the cluster-wide claim is kept until the show ends
+     */
+    public void confirmSeats(Long showId, Collection<Long> seatIds, Long holdToken, LocalDateTime keepUntil) {
+        ShowSeatInventory inventory = inventories.get(showId);
+        if (inventory != null) {
+            inventory.confirm(seatIds);
+        }
+        if (holdToken != null) {
+            long ttlMillis = toEpochMillis(keepUntil) - System.currentTimeMillis();
+            seatClaimService.extendSeats(showId, seatIds, holdToken, ttlMillis);
+        }
+        seatEventBus.publish(SeatEventBus.EventType.CONFIRM, showId, seatIds, holdToken);
+    }
+
+    /**
+     * Frees seats of a confirmed booking that was cancelled
+     */
+    public void releaseBookedSeats(Long showId, Collection<Long> seatIds, Long holdToken) {
+        ShowSeatInventory inventory = inventories.get(showId);
+        if (inventory != null) {
+            inventory.releaseBooked(seatIds);
+        }
+        if (holdToken != null) {
+            seatClaimService.releaseSeats(showId, seatIds, holdToken);
+        }
+        seatEventBus.publish(SeatEventBus.EventType.RELEASE_BOOKED, showId, seatIds, holdToken);
+    }
+
+    /**
+     * Applies a seat status change to every hydrated show on the screen, and announces it for every
+     * upcoming show on the screen, so nodes that hydrated shows this one has not still pick it up
+     */
+    public void updateSeatStatus(Long screenId, Collection<Long> seatIds, TheaterConstant.SeatStatus status) {
+        boolean blocked = status != TheaterConstant.SeatStatus.AVAILABLE;
+        Set<Long> showIds = new HashSet<>(showRepository.findUpcomingShowIdsByScreen(screenId, LocalDateTime.now()));
+        inventories.values().stream()
+                .filter(inventory -> inventory.getScreenId().equals(screenId))
+                .forEach(inventory -> {
+                    inventory.setBlocked(seatIds, blocked);
+                    showIds.add(inventory.getShowId());
+                });
+
+        SeatEventBus.EventType type = blocked ? SeatEventBus.EventType.BLOCK : SeatEventBus.EventType.UNBLOCK;
+        showIds.forEach(showId -> seatEventBus.publish(type, showId, seatIds, null));
+    }
+
+    /**
+     * Applies a change made on another node. The other node already won the cluster-wide claim,
+     * so holds are recorded without a local compare-and-set. Shows not hydrated here are skipped.
+     */
+    void applyRemoteEvent(SeatEventBus.SeatEvent event) {
+        ShowSeatInventory inventory = inventories.get(event.getShowId());
+        if (inventory == null) {
+            return;
+        }
+
+        switch (event.getType()) {
+            case HOLD -> inventory.forceHold(event.getSeatIds(), event.getHoldToken());
+            case RELEASE_HOLD -> inventory.releaseHold(event.getSeatIds(), event.getHoldToken());
+            case CONFIRM -> inventory.confirm(event.getSeatIds());
+            case RELEASE_BOOKED -> inventory.releaseBooked(event.getSeatIds());
+            case BLOCK -> inventory.setBlocked(event.getSeatIds(), true);
+            case UNBLOCK -> inventory.setBlocked(event.getSeatIds(), false);
+        }
+    }
+
+    /**
+     * Drops every inventory for a screen whose layout changed; they are rebuilt on next access
+     */
+    public void evictScreen(Long screenId) {
+        inventories.values().removeIf(inventory -> inventory.getScreenId().equals(screenId));
+    }
+
+    /**
+     * Drops the inventory of a show that was rescheduled or cancelled; a bookable show is rebuilt on next access
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onShowChanged(ShowChangedEvent event) {
+        evict(event.getShowId());
+    }
+
+    public void evict(Long showId) {
+        inventories.remove(showId);
+    }
+
+    /**
+     * Drops inventories of shows that have started; no seat can be held or booked for them any more
+     */
+    @Scheduled(fixedDelayString = "${seat-inventory.sweep-interval-ms:60000}")
+    public void evictStartedShows() {
+        long now = System.currentTimeMillis();
+        int before = inventories.size();
+        inventories.values().removeIf(inventory -> inventory.getStartsAtMillis() <= now);
+        int evicted = before - inventories.size();
+        if (evicted > 0) {
+            log.debug("Evicted seat inventories of {} started shows", evicted);
+        }
+    }
+
+    // ==================== TRANSACTION HOOKS ====================
+
+    /**
+     * Runs the action once the surrounding transaction commits, or immediately without one
+     */
+    public void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    /**
+     * Runs the action if the surrounding transaction rolls back
+     */
+    public void onRollback(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status != STATUS_COMMITTED) {
+                    action.run();
+                }
+            }
+        });
+    }
+
+    // ==================== HYDRATION ====================
+
+    private ShowSeatInventory hydrate(Long showId) {
+        Object[] show = showRepository.findScreenAndStartByShowId(showId).stream().findFirst()
+                .orElseThrow(() -> new BookingService.ShowNotFoundException("Show not found with ID: " + showId));
+        Long screenId = (Long) show[0];
+        long startsAtMillis = toEpochMillis((LocalDateTime) show[1]);
+
+        List<Object[]> seatStates = seatRepository.findSeatStatesByScreen(screenId);
+        long[] seatIds = new long[seatStates.size()];
+        for (int i = 0; i < seatStates.size(); i++) {
+            seatIds[i] = (Long) seatStates.get(i)[0];
+        }
+        Arrays.sort(seatIds);
+
+        ShowSeatInventory inventory = new ShowSeatInventory(showId, screenId, startsAtMillis, seatIds);
+
+        for (Object[] row : seatStates) {
+            if (row[1] != TheaterConstant.SeatStatus.AVAILABLE) {
+                inventory.setBlocked(List.of((Long) row[0]), true);
+            }
+        }
+
+        for (Object[] row : bookingRepository.getActiveSeatStatesForShow(showId, LocalDateTime.now())) {
+            int ordinal = inventory.ordinalOf((Long) row[0]);
+            if (ordinal < 0) {
+                continue;
+            }
+            if (row[1] == Booking.BookingStatus.CONFIRMED) {
+                inventory.booked.setBit(ordinal);
+            } else {
+                Long holdToken = (Long) row[3];
+                inventory.holds.set(ordinal, holdToken != null
+                        ? holdToken
+                        : HoldToken.of(toEpochMillis((LocalDateTime) row[2]), 0));
+            }
+        }
+
+        log.info("Hydrated seat inventory for show {} ({} seats on screen {})", showId, seatIds.length, screenId);
+        return inventory;
+    }
+
+    private static long toEpochMillis(LocalDateTime dateTime) {
+        return dateTime.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    // ==================== INVENTORY STRUCTURE ====================
+
+    /**
+     * Hold tokens pack the hold deadline (epoch seconds) into the upper 32 bits and a sequence
+     * number into the lower 32 bits, so a single CAS both claims a seat and records when the
+     * claim lapses. Zero means no hold.
+     */
+    static final class HoldToken {
+        private HoldToken() {
+        }
+
+        static long of(long deadlineMillis, int sequence) {
+            long token = ((deadlineMillis / 1000) << 32) | (sequence & 0xFFFFFFFFL);
+            return token != 0 ? token : 1;
+        }
+
+        static long deadlineMillis(long token) {
+            return (token >>> 32) * 1000;
+        }
+
+        static boolean isLive(long token, long now) {
+            return token != 0 && deadlineMillis(token) > now;
+        }
+    }
+
+    /**
+     * Seat state for a single show.
+     * Seat ids of the screen are kept sorted so a seat's ordinal is a binary search away.
+     * A seat is held while its hold token is live, so expiry needs no cleanup pass.
+     *
+     * Every state change bumps a monotonic version and is appended to a fixed-size change log
+     * (version and ordinal packed into one long), so readers can ask for the seats changed
+     * since a version they have already seen. Versions start at the hydration wall-clock time,
+     * which keeps them increasing across evictions and restarts.
+     */
+    public static class ShowSeatInventory {
+        private static final int CHANGE_LOG_CAPACITY = 1024;
+        private static final int ORDINAL_BITS = 20;
+        private static final long ORDINAL_MASK = (1L << ORDINAL_BITS) - 1;
+
+        private final Long showId;
+        private final Long screenId;
+        private final long startsAtMillis;
+        private final long[] seatIds;
+        private final BitPlane booked;
+        private final BitPlane blocked;
+        private final AtomicLongArray holds;
+        private final long baseVersion;
+        private final AtomicLong version;
+        private final AtomicLongArray changeLog = new AtomicLongArray(CHANGE_LOG_CAPACITY);
+
+        ShowSeatInventory(Long showId, Long screenId, long startsAtMillis, long[] sortedSeatIds) {
+            this.showId = showId;
+            this.screenId = screenId;
+            this.startsAtMillis = startsAtMillis;
+            this.seatIds = sortedSeatIds;
+            this.booked = new BitPlane(sortedSeatIds.length);
+            this.blocked = new BitPlane(sortedSeatIds.length);
+            this.holds = new AtomicLongArray(sortedSeatIds.length);
+            this.baseVersion = System.currentTimeMillis();
+            this.version = new AtomicLong(baseVersion);
+        }
+
+        public Long getShowId() { return showId; }
+        public Long getScreenId() { return screenId; }
+        public long getStartsAtMillis() { return startsAtMillis; }
+        public int getSeatCount() { return seatIds.length; }
+        public long getVersion() { return version.get(); }
+
+        public long seatIdAt(int ordinal) {
+            return seatIds[ordinal];
+        }
+
+        /**
+         * Returns the ordinals changed after the given version, or null when the change log no longer
+         * covers it (too old, or from an earlier incarnation) and the caller needs a full snapshot
+         */
+        public SeatChanges changesSince(long sinceVersion) {
+            long current = version.get();
+            if (sinceVersion < baseVersion || sinceVersion > current || current - sinceVersion > CHANGE_LOG_CAPACITY) {
+                return null;
+            }
+
+            BitSet changed = new BitSet(seatIds.length);
+            long next = sinceVersion + 1;
+            for (; next <= current; next++) {
+                long entry = changeLog.get((int) (next & (CHANGE_LOG_CAPACITY - 1)));
+                long entryVersion = entry >>> ORDINAL_BITS;
+                if (entryVersion < next) {
+                    // Writer has bumped the version but not yet logged the change; report up to here
+                    break;
+                }
+                if (entryVersion > next) {
+                    return null;
+                }
+                changed.set((int) (entry & ORDINAL_MASK));
+            }
+            return new SeatChanges(next - 1, changed.stream().toArray());
+        }
+
+        private void recordChange(int ordinal) {
+            long changeVersion = version.incrementAndGet();
+            changeLog.set((int) (changeVersion & (CHANGE_LOG_CAPACITY - 1)), (changeVersion << ORDINAL_BITS) | ordinal);
+        }
+
+        public int ordinalOf(long seatId) {
+            int ordinal = Arrays.binarySearch(seatIds, seatId);
+            return ordinal >= 0 ? ordinal : -1;
+        }
+
+        public boolean isBooked(int ordinal) {
+            return booked.getBit(ordinal);
+        }
+
+        public boolean isBlocked(int ordinal) {
+            return blocked.getBit(ordinal);
+        }
+
+        public boolean isHeld(int ordinal, long now) {
+            return HoldToken.isLive(holds.get(ordinal), now);
+        }
+
+        public boolean isAvailable(int ordinal, long now) {
+            return !isBooked(ordinal) && !isBlocked(ordinal) && !isHeld(ordinal, now);
+        }
+
+        public int countAvailable(long now) {
+            int available = 0;
+            for (int i = 0; i < seatIds.length; i++) {
+                if (isAvailable(i, now)) {
+                    available++;
+                }
+            }
+            return available;
+        }
+
+        /**
+         * Claims every seat for the token or none: an expired token may be taken over,
+         * and a partial claim is rolled back to the tokens it replaced.
+         */
+        boolean tryHold(Collection<Long> requestedSeatIds, long holdToken) {
+            long now = System.currentTimeMillis();
+            int[] claimed = new int[requestedSeatIds.size()];
+            long[] previous = new long[requestedSeatIds.size()];
+            int count = 0;
+
+            for (Long seatId : requestedSeatIds) {
+                int ordinal = ordinalOf(seatId);
+                long current = ordinal >= 0 ? holds.get(ordinal) : 0;
+
+                boolean acquired = ordinal >= 0
+                        && !HoldToken.isLive(current, now)
+                        && !isBooked(ordinal)
+                        && !isBlocked(ordinal)
+                        && holds.compareAndSet(ordinal, current, holdToken);
+
+                if (!acquired) {
+                    for (int i = 0; i < count; i++) {
+                        if (holds.compareAndSet(claimed[i], holdToken, previous[i])) {
+                            recordChange(claimed[i]);
+                        }
+                    }
+                    return false;
+                }
+                recordChange(ordinal);
+                claimed[count] = ordinal;
+                previous[count] = current;
+                count++;
+            }
+            return true;
+        }
+
+        void forceHold(Collection<Long> heldSeatIds, long holdToken) {
+            for (Long seatId : heldSeatIds) {
+                int ordinal = ordinalOf(seatId);
+                if (ordinal >= 0 && !isBooked(ordinal)) {
+                    holds.set(ordinal, holdToken);
+                    recordChange(ordinal);
+                }
+            }
+        }
+
+        void releaseHold(Collection<Long> releasedSeatIds, long holdToken) {
+            for (Long seatId : releasedSeatIds) {
+                int ordinal = ordinalOf(seatId);
+                if (ordinal >= 0 && holds.compareAndSet(ordinal, holdToken, 0)) {
+                    recordChange(ordinal);
+                }
+            }
+        }
+
+        void confirm(Collection<Long> confirmedSeatIds) {
+            for (Long seatId : confirmedSeatIds) {
+                int ordinal = ordinalOf(seatId);
+                if (ordinal >= 0) {
+                    booked.setBit(ordinal);
+                    holds.set(ordinal, 0);
+                    recordChange(ordinal);
+                }
+            }
+        }
+
+        void releaseBooked(Collection<Long> releasedSeatIds) {
+            for (Long seatId : releasedSeatIds) {
+                int ordinal = ordinalOf(seatId);
+                if (ordinal >= 0 && booked.clearBit(ordinal)) {
+                    recordChange(ordinal);
+                }
+            }
+        }
+
+        void setBlocked(Collection<Long> blockedSeatIds, boolean value) {
+            for (Long seatId : blockedSeatIds) {
+                int ordinal = ordinalOf(seatId);
+                if (ordinal < 0) {
+                    continue;
+                }
+                boolean changed = value ? blocked.setBit(ordinal) : blocked.clearBit(ordinal);
+                if (changed) {
+                    recordChange(ordinal);
+                }
+            }
+        }
+    }
+
+    /**
+     * Seat ordinals changed up to (and including) a version
+     */
+    @lombok.Getter
+    @lombok.AllArgsConstructor
+    public static class SeatChanges {
+        private final long version;
+        private final int[] ordinals;
+    }
+
+    /**
+     * Fixed-size bitset with lock-free updates
+     */
+    static class BitPlane {
+        private final AtomicLongArray words;
+
+        BitPlane(int bits) {
+            this.words = new AtomicLongArray((bits + 63) >>> 6);
+        }
+
+        boolean getBit(int index) {
+            return (words.get(index >>> 6) & (1L << index)) != 0;
+        }
+
+        /**
+         * @return true if the bit was not set before
+         */
+        boolean setBit(int index) {
+            int word = index >>> 6;
+            long mask = 1L << index;
+            long current;
+            do {
+                current = words.get(word);
+                if ((current & mask) != 0) {
+                    return false;
+                }
+            } while (!words.compareAndSet(word, current, current | mask));
+            return true;
+        }
+
+        /**
+         * @return true if the bit was set before
+         */
+        boolean clearBit(int index) {
+            int word = index >>> 6;
+            long mask = 1L << index;
+            long current;
+            do {
+                current = words.get(word);
+                if ((current & mask) == 0) {
+                    return false;
+                }
+            } while (!words.compareAndSet(word, current, current & ~mask));
+            return true;
+        }
+    }
+}
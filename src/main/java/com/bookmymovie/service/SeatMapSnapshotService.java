@@ -0,0 +1,240 @@
+package com.bookmymovie.service;
+
+import com.bookmymovie.entity.Seat;
+import com.bookmymovie.entity.Show;
+import com.bookmymovie.event.ShowChangedEvent;
+import com.bookmymovie.repository.SeatRepository;
+import com.bookmymovie.repository.ShowRepository;
+import com.bookmymovie.util.ExpiringLruCache;
+import jakarta.annotation.PostConstruct;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Immutable seat-map snapshots for the seat picker.
+ * The screen layout (rows, categories, prices, features) and the show header rarely change,
+ * so they are loaded once with fetch joins and cached; per-request work is limited to overlaying
+ * availability from {@link SeatInventoryService}. The header carries the show's compiled
+ * {@link PricingEngine.PriceTable}, so seat prices are looked up rather than computed.
+ * Both caches are bounded and expire; show changes from other nodes arrive through
+ * {@link ShowListingEventBus} and layout rebuilds through {@link ScreenLayoutEventBus}, and the
+ * expiry only bounds staleness when such a message is lost.
+ */
+@Service
+@Slf4j
+public class SeatMapSnapshotService {
+
+    private final ShowRepository showRepository;
+    private final SeatRepository seatRepository;
+    private final PricingEngine pricingEngine;
+    private final ShowListingEventBus showListingEventBus;
+    private final ScreenLayoutEventBus screenLayoutEventBus;
+    private final long ttlMillis;
+
+    private final ExpiringLruCache<Long, ShowHeader> showHeaders;
+    private final ExpiringLruCache<Long, ScreenLayout> screenLayouts;
+
+    public SeatMapSnapshotService(ShowRepository showRepository, SeatRepository seatRepository,
+                                  PricingEngine pricingEngine, ShowListingEventBus showListingEventBus,
+                                  ScreenLayoutEventBus screenLayoutEventBus,
+                                  @Value("${seat-map.cache.max-shows:20000}") int maxShows,
+                                  @Value("${seat-map.cache.max-screens:2000}") int maxScreens,
+                                  @Value("${seat-map.cache.ttl-seconds:300}") long ttlSeconds) {
+        this.showRepository = showRepository;
+        this.seatRepository = seatRepository;
+        this.pricingEngine = pricingEngine;
+        this.showListingEventBus = showListingEventBus;
+        this.screenLayoutEventBus = screenLayoutEventBus;
+        this.ttlMillis = ttlSeconds * 1000;
+        this.showHeaders = new ExpiringLruCache<>(maxShows);
+        this.screenLayouts = new ExpiringLruCache<>(maxScreens);
+    }
+
+    @PostConstruct
+    void subscribeToRemoteChanges() {
+        showListingEventBus.subscribe(event -> {
+            if (event.getType() == ShowListingEventBus.EventType.SHOW_CHANGED) {
+                evictShow(event.getShowId());
+            }
+        });
+        screenLayoutEventBus.subscribe(this::evictScreen);
+    }
+
+    public ShowHeader getShowHeader(Long showId) {
+        ShowHeader header = showHeaders.get(showId);
+        if (header != null) {
+            return header;
+        }
+
+        header = getOrLoad(showHeaders, showId, this::loadShowHeader);
+        // A surge factor published while the header was loading would otherwise be missed
+        BigDecimal surgeFactor = pricingEngine.getSurgeFactor(showId);
+        if (surgeFactor.compareTo(header.getPriceTable().getSurgeFactor()) != 0) {
+            applySurgeFactor(showId, surgeFactor);
+            ShowHeader repriced = showHeaders.get(showId);
+            header = repriced != null ? repriced : header;
+        }
+        return header;
+    }
+
+    /**
+     * Returns the header if it is cached, without loading it
+     */
+    public ShowHeader findCachedShowHeader(Long showId) {
+        return showHeaders.get(showId);
+    }
+
+    public ScreenLayout getScreenLayout(Long screenId) {
+        return getOrLoad(screenLayouts, screenId, this::loadScreenLayout);
+    }
+
+    /**
+     * Swaps in a header repriced at the given surge factor; readers see the old or the new one, never a mix
+     */
+    public void applySurgeFactor(Long showId, BigDecimal surgeFactor) {
+        showHeaders.computeIfPresent(showId, header -> {
+            PricingEngine.PriceTable priceTable = header.getPriceTable().withSurgeFactor(surgeFactor);
+            return header.toBuilder()
+                    .actualPrice(priceTable.getShowPrice())
+                    .priceTable(priceTable)
+                    .build();
+        });
+    }
+
+    public void evictShow(Long showId) {
+        showHeaders.remove(showId);
+    }
+
+    public void evictScreen(Long screenId) {
+        screenLayouts.remove(screenId);
+        showHeaders.removeIf(header -> header.getScreenId().equals(screenId));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onShowChanged(ShowChangedEvent event) {
+        evictShow(event.getShowId());
+    }
+
+    /**
+     * Loads outside the cache so no segment lock is held during the query;
+     * concurrent loads of the same key are harmless since snapshots are immutable.
+     */
+    private <V> V getOrLoad(ExpiringLruCache<Long, V> cache, Long key, Function<Long, V> loader) {
+        V value = cache.get(key);
+        if (value != null) {
+            return value;
+        }
+        V loaded = loader.apply(key);
+        cache.put(key, loaded, System.currentTimeMillis() + ttlMillis);
+        return loaded;
+    }
+
+    private ShowHeader loadShowHeader(Long showId) {
+        Show show = showRepository.findByIdWithDetails(showId)
+                .orElseThrow(() -> new BookingService.ShowNotFoundException("Show not found with ID: " + showId));
+
+        // Price every seat price tier of the screen once for this show
+        Set<Long> seatBasePrices = new HashSet<>();
+        getScreenLayout(show.getScreen().getScreenId()).getSeats()
+                .forEach(seat -> seatBasePrices.add(seat.getBasePricePaise()));
+        PricingEngine.PriceTable priceTable = pricingEngine.compile(show, seatBasePrices);
+
+        return ShowHeader.builder()
+                .showId(show.getShowId())
+                .screenId(show.getScreen().getScreenId())
+                .movieTitle(show.getMovie().getTitle())
+                .theaterName(show.getScreen().getTheater().getName())
+                .screenName(show.getScreen().getName())
+                .showDateTime(show.getShowDateTime())
+                .basePrice(show.getBasePrice())
+                .actualPrice(priceTable.getShowPrice())
+                .priceTable(priceTable)
+                .build();
+    }
+
+    private ScreenLayout loadScreenLayout(Long screenId) {
+        List<SeatTemplate> seats = seatRepository.findLayoutByScreenWithFeatures(screenId).stream()
+                .map(this::toSeatTemplate)
+                .toList();
+
+        log.info("Cached seat layout for screen {} ({} seats)", screenId, seats.size());
+        return new ScreenLayout(screenId, seats);
+    }
+
+    private SeatTemplate toSeatTemplate(Seat seat) {
+        return SeatTemplate.builder()
+                .seatId(seat.getSeatId())
+                .rowLabel(seat.getRowLabel())
+                .seatNumber(seat.getSeatNumber())
+                .category(seat.getCategory().toString())
+                .basePrice(seat.getBasePrice())
+                .basePricePaise(seat.getBasePrice() != null ? PricingEngine.toPaise(seat.getBasePrice()) : null)
+                .seatType(seat.getSeatType() != null ? seat.getSeatType().toString() : null)
+                .features(seat.getFeatures().stream().map(Enum::toString).toList())
+                .build();
+    }
+
+    // ==================== SNAPSHOT STRUCTURES ====================
+
+    @Getter
+    @Builder(toBuilder = true)
+    public static class ShowHeader {
+        private final Long showId;
+        private final Long screenId;
+        private final String movieTitle;
+        private final String theaterName;
+        private final String screenName;
+        private final LocalDateTime showDateTime;
+        private final BigDecimal basePrice;
+        private final BigDecimal actualPrice;
+        private final PricingEngine.PriceTable priceTable;
+
+        public BigDecimal seatPrice(SeatTemplate seat) {
+            return priceTable.seatPrice(seat.getBasePricePaise());
+        }
+    }
+
+    @Getter
+    public static class ScreenLayout {
+        private final Long screenId;
+        private final List<SeatTemplate> seats;
+        private final Map<Long, SeatTemplate> seatsById;
+
+        ScreenLayout(Long screenId, List<SeatTemplate> seats) {
+            this.screenId = screenId;
+            this.seats = seats;
+            this.seatsById = new HashMap<>();
+            seats.forEach(seat -> seatsById.put(seat.getSeatId(), seat));
+        }
+
+        public SeatTemplate getSeat(Long seatId) {
+            return seatsById.get(seatId);
+        }
+    }
+
+    @Getter
+    @Builder
+    public static class SeatTemplate {
+        private final Long seatId;
+        private final String rowLabel;
+        private final Integer seatNumber;
+        private final String category;
+        private final BigDecimal basePrice;
+        private final Long basePricePaise;
+        private final String seatType;
+        private final List<String> features;
+    }
+}
@@ -0,0 +1,302 @@
+package com.bookmymovie.service;
+
+import com.bookmymovie.dto.response.ShowListingDto;
+import com.bookmymovie.entity.Movie;
+import com.bookmymovie.entity.Show;
+import com.bookmymovie.entity.Theater;
+import com.bookmymovie.event.ShowChangedEvent;
+import com.bookmymovie.event.ShowSeatsChangedEvent;
+import com.bookmymovie.repository.ShowRepository;
+import com.bookmymovie.util.ExpiringLruCache;
+import jakarta.annotation.PostConstruct;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Collectors;
+
+/**
+ * Materialized movie → city → date show listings.
+ * Listings for today and the next few days are built eagerly in one fetch-joined query, others on
+ * first request. Show create/update/cancel evicts the affected listing, and seat counter changes
+ * are patched into the cached listing, so the common case serves a prebuilt listing and its ETag.
+ * Entries also expire when their earliest bookable show starts, so canBeBooked never goes stale.
+ * Both kinds of change are shared with other nodes through {@link ShowListingEventBus}; the TTL
+ * only bounds staleness when a pub/sub message is lost.
+ */
+@Service
+@Slf4j
+public class ShowListingCacheService {
+
+    private final ShowRepository showRepository;
+    private final PricingEngine pricingEngine;
+    private final ShowListingEventBus showListingEventBus;
+    private final ExpiringLruCache<String, CachedListing> listings;
+
+    // Which listing each cached show appears in, for seat patches and date moves
+    private final Map<Long, ListedShow> listedShows = new ConcurrentHashMap<>();
+
+    // Serializes read-modify-write of a cached listing; patches are a few object copies
+    private final ReentrantLock patchLock = new ReentrantLock();
+
+    @Value("${show-listing.cache.ttl-seconds:300}")
+    private long ttlSeconds;
+
+    @Value("${show-listing.cache.warm-days:7}")
+    private int warmDays;
+
+    public ShowListingCacheService(ShowRepository showRepository, PricingEngine pricingEngine,
+                                   ShowListingEventBus showListingEventBus,
+                                   @Value("${show-listing.cache.max-size:5000}") int maxSize) {
+        this.showRepository = showRepository;
+        this.pricingEngine = pricingEngine;
+        this.showListingEventBus = showListingEventBus;
+        this.listings = new ExpiringLruCache<>(maxSize);
+    }
+
+    @PostConstruct
+    void subscribeToRemoteChanges() {
+        showListingEventBus.subscribe(this::applyRemoteEvent);
+    }
+
+    // ==================== READ ====================
+
+    @Transactional(readOnly = true)
+    public CachedListing getListing(Long movieId, String city, LocalDate showDate) {
+        String key = listingKey(movieId, city, showDate);
+        CachedListing cached = listings.get(key);
+        if (cached != null) {
+            return cached;
+        }
+
+        List<Show> shows = showRepository.findShowsByMovieAndCityAndDate(movieId, city, showDate);
+        return store(key, shows);
+    }
+
+    // ==================== WARM-UP ====================
+
+    /**
+     * Builds every listing from today through the warm-up window
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "${show-listing.cache.warm-cron:0 0 0 * * *}")
+    @Transactional(readOnly = true)
+    public void warmUp() {
+        LocalDate today = LocalDate.now();
+        LocalDateTime now = LocalDateTime.now();
+        listedShows.values().removeIf(listed -> listed.getShowDateTime().isBefore(now));
+
+        Map<String, List<Show>> showsByListing = showRepository
+                .findScheduledShowsWithDetailsBetweenDates(today, today.plusDays(warmDays)).stream()
+                .collect(Collectors.groupingBy(show -> listingKey(show.getMovie().getMovieId(),
+                        show.getScreen().getTheater().getCity(), show.getShowDate())));
+
+        showsByListing.forEach(this::store);
+        log.info("Warmed {} show listings for {} through {}", showsByListing.size(), today, today.plusDays(warmDays));
+    }
+
+    // ==================== INVALIDATION ====================
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onShowChanged(ShowChangedEvent event) {
+        evictShow(event.getShowId(), event.getMovieId(), event.getCity(), event.getShowDate());
+        showListingEventBus.publishShowChanged(event.getShowId(), event.getScreenId(), event.getMovieId(),
+                event.getCity(), event.getShowDate());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onShowSeatsChanged(ShowSeatsChangedEvent event) {
+        patchSeats(event.getShowId(), event.getAvailableSeatsDelta());
+        showListingEventBus.publishSeatsChanged(event.getShowId(), event.getAvailableSeatsDelta());
+    }
+
+    private void applyRemoteEvent(ShowListingEventBus.ListingEvent event) {
+        if (event.getType() == ShowListingEventBus.EventType.SHOW_CHANGED) {
+            evictShow(event.getShowId(), event.getMovieId(), event.getCity(), event.getShowDate());
+        } else {
+            patchSeats(event.getShowId(), event.getAvailableSeatsDelta());
+        }
+    }
+
+    private void evictShow(Long showId, Long movieId, String city, LocalDate showDate) {
+        // The show may have moved; drop the listing it was in as well as the one it is in now
+        ListedShow previous = listedShows.remove(showId);
+        if (previous != null) {
+            listings.remove(previous.getListingKey());
+        }
+        if (city != null && movieId != null && showDate != null) {
+            listings.remove(listingKey(movieId, city, showDate));
+        }
+    }
+
+    private void patchSeats(Long showId, int availableSeatsDelta) {
+        ListedShow listed = listedShows.get(showId);
+        if (listed == null) {
+            return;
+        }
+
+        patchLock.lock();
+        try {
+            CachedListing cached = listings.get(listed.getListingKey());
+            if (cached != null) {
+                listings.put(listed.getListingKey(),
+                        cached.withAvailableSeats(showId, availableSeatsDelta, listed.getShowDateTime()),
+                        cached.getExpiresAtMillis());
+            }
+        } finally {
+            patchLock.unlock();
+        }
+    }
+
+    // ==================== BUILD ====================
+
+    private CachedListing store(String key, List<Show> shows) {
+        LocalDateTime now = LocalDateTime.now();
+        long expiresAt = System.currentTimeMillis() + ttlSeconds * 1000;
+        for (Show show : shows) {
+            listedShows.put(show.getShowId(), new ListedShow(key, show.getShowDateTime()));
+            if (show.getShowDateTime().isAfter(now)) {
+                expiresAt = Math.min(expiresAt, toEpochMillis(show.getShowDateTime()));
+            }
+        }
+
+        CachedListing cached = new CachedListing(buildListing(shows), expiresAt);
+        patchLock.lock();
+        try {
+            listings.put(key, cached, expiresAt);
+        } finally {
+            patchLock.unlock();
+        }
+        return cached;
+    }
+
+    private ShowListingDto buildListing(List<Show> shows) {
+        if (shows.isEmpty()) {
+            return ShowListingDto.builder().build();
+        }
+
+        Movie movie = shows.get(0).getMovie();
+
+        // Group shows by theater, in a stable order so every node produces the same listing and ETag
+        Map<Long, List<Show>> showsByTheater = shows.stream()
+                .sorted(Comparator.comparing((Show show) -> show.getScreen().getTheater().getName())
+                        .thenComparing(show -> show.getScreen().getTheater().getTheaterId())
+                        .thenComparing(Show::getShowTime)
+                        .thenComparing(Show::getShowId))
+                .collect(Collectors.groupingBy(show -> show.getScreen().getTheater().getTheaterId(),
+                        LinkedHashMap::new, Collectors.toList()));
+
+        List<ShowListingDto.TheaterShowDto> theaterShows = new ArrayList<>(showsByTheater.size());
+        for (List<Show> theaterShowList : showsByTheater.values()) {
+            Theater theater = theaterShowList.get(0).getScreen().getTheater();
+            theaterShows.add(ShowListingDto.TheaterShowDto.builder()
+                    .theaterId(theater.getTheaterId())
+                    .theaterName(theater.getName())
+                    .theaterAddress(theater.getAddress())
+                    .city(theater.getCity())
+                    .latitude(theater.getLatitude())
+                    .longitude(theater.getLongitude())
+                    .showTimes(theaterShowList.stream()
+                            .map(show -> ShowListingDto.ShowTimeDto.builder()
+                                    .showId(show.getShowId())
+                                    .showTime(show.getShowTime())
+                                    .screenName(show.getScreen().getName())
+                                    .screenType(show.getScreen().getScreenType().toString())
+                                    .actualPrice(pricingEngine.listedPrice(show))
+                                    .availableSeats(show.getAvailableSeats())
+                                    .isSpecialScreening(show.getIsSpecialScreening())
+                                    .isPremiere(show.getIsPremiere())
+                                    .canBeBooked(show.canBeBooked())
+                                    .build())
+                            .toList())
+                    .build());
+        }
+
+        return ShowListingDto.builder()
+                .movieId(movie.getMovieId())
+                .movieTitle(movie.getTitle())
+                .movieLanguage(movie.getLanguage().toString())
+                .movieRating(String.valueOf(movie.getRating()))
+                .movieDuration(movie.getDurationMinutes())
+                .movieGenres(movie.getGenres().stream().map(Enum::toString).sorted().collect(Collectors.toList()))
+                .posterUrl(movie.getPosterUrl())
+                .theaters(theaterShows)
+                .build();
+    }
+
+    private static String listingKey(Long movieId, String city, LocalDate showDate) {
+        return movieId + ":" + city.trim().toLowerCase() + ":" + showDate;
+    }
+
+    private static long toEpochMillis(LocalDateTime dateTime) {
+        return dateTime.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    // ==================== CACHE STRUCTURES ====================
+
+    /**
+     * A built listing and its ETag. Never mutated; seat patches replace it with a copy.
+     */
+    @Getter
+    public static final class CachedListing {
+        private final ShowListingDto listing;
+        private final String etag;
+        private final long expiresAtMillis;
+
+        CachedListing(ShowListingDto listing, long expiresAtMillis) {
+            this.listing = listing;
+            // Content hash rather than a version counter, so all nodes agree on the ETag of the same listing
+            this.etag = "\"" + Integer.toHexString(listing.hashCode()) + "\"";
+            this.expiresAtMillis = expiresAtMillis;
+        }
+
+        CachedListing withAvailableSeats(Long showId, int delta, LocalDateTime showDateTime) {
+            List<ShowListingDto.TheaterShowDto> theaters = listing.getTheaters().stream()
+                    .map(theater -> theater.toBuilder()
+                            .showTimes(theater.getShowTimes().stream()
+                                    .map(showTime -> showId.equals(showTime.getShowId())
+                                            ? patchSeats(showTime, delta, showDateTime)
+                                            : showTime)
+                                    .toList())
+                            .build())
+                    .toList();
+            return new CachedListing(listing.toBuilder().theaters(theaters).build(), expiresAtMillis);
+        }
+
+        private static ShowListingDto.ShowTimeDto patchSeats(ShowListingDto.ShowTimeDto showTime, int delta,
+                                                             LocalDateTime showDateTime) {
+            int available = Math.max(0, showTime.getAvailableSeats() + delta);
+            return showTime.toBuilder()
+                    .availableSeats(available)
+                    .canBeBooked(available > 0 && LocalDateTime.now().isBefore(showDateTime))
+                    .build();
+        }
+    }
+
+    @Getter
+    private static final class ListedShow {
+        private final String listingKey;
+        private final LocalDateTime showDateTime;
+
+        ListedShow(String listingKey, LocalDateTime showDateTime) {
+            this.listingKey = listingKey;
+            this.showDateTime = showDateTime;
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package com.bookmymovie.service;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.redisson.api.RTopic;
+import org.redisson.api.RedissonClient;
+import org.redisson.client.codec.StringCodec;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+/**
+ * Redis pub/sub channel for show listing changes, the sibling of {@link SeatEventBus}.
+ * Each node publishes the show changes and seat counter deltas it commits, and applies those
+ * published by other nodes to its own show caches (listings, screen timetables, seat maps), so no
+ * node keeps serving a cancelled or rescheduled show or a stale seat count until the entry expires.
+ * Delivery is best effort; the cache TTL still bounds staleness if a message is lost.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ShowListingEventBus {
+
+    private static final String TOPIC = "show-listing-events";
+    private static final String FIELD_SEPARATOR = "|";
+
+    private final RedissonClient redissonClient;
+
+    private final String nodeId = UUID.randomUUID().toString();
+
+    @Value("${show-listing.cache.redis-pubsub.enabled:true}")
+    private boolean enabled;
+
+    public enum EventType {
+        SHOW_CHANGED, SEATS_CHANGED
+    }
+
+    /**
+     * Registers the handler for changes published by other nodes
+     */
+    public void subscribe(Consumer<ListingEvent> handler) {
+        if (!enabled) {
+            return;
+        }
+
+        try {
+            RTopic topic = redissonClient.getTopic(TOPIC, StringCodec.INSTANCE);
+            topic.addListener(String.class, (channel, message) -> {
+                ListingEvent event = decode(message);
+                if (event != null && !nodeId.equals(event.getNodeId())) {
+                    handler.accept(event);
+                }
+            });
+            log.info("Subscribed to show listing events as node {}", nodeId);
+        } catch (Exception e) {
+            log.error("Failed to subscribe to show listing events; listings will only reflect local changes", e);
+        }
+    }
+
+    public void publishShowChanged(Long showId, Long screenId, Long movieId, String city, LocalDate showDate) {
+        // City goes last, so a separator inside it cannot shift the other fields
+        publish(EventType.SHOW_CHANGED, showId, (screenId != null ? screenId.toString() : "")
+                + FIELD_SEPARATOR + (movieId != null ? movieId.toString() : "")
+                + FIELD_SEPARATOR + (showDate != null ? showDate.toString() : "")
+                + FIELD_SEPARATOR + (city != null ? city : ""));
+    }
+
+    public void publishSeatsChanged(Long showId, int availableSeatsDelta) {
+        publish(EventType.SEATS_CHANGED, showId, String.valueOf(availableSeatsDelta));
+    }
+
+    private void publish(EventType type, Long showId, String payload) {
+        if (!enabled) {
+            return;
+        }
+
+        String message = nodeId + FIELD_SEPARATOR + type + FIELD_SEPARATOR + showId + FIELD_SEPARATOR + payload;
+        try {
+            redissonClient.getTopic(TOPIC, StringCodec.INSTANCE).publishAsync(message);
+        } catch (Exception e) {
+            log.error("Failed to publish show listing event for show {}", showId, e);
+        }
+    }
+
+    private ListingEvent decode(String message) {
+        try {
+            String[] fields = message.split("\\|", 7);
+            EventType type = EventType.valueOf(fields[1]);
+            Long showId = Long.parseLong(fields[2]);
+            if (type == EventType.SEATS_CHANGED) {
+                return new ListingEvent(fields[0], type, showId, null, null, null, null, Integer.parseInt(fields[3]));
+            }
+            return new ListingEvent(fields[0], type, showId,
+                    fields[3].isEmpty() ? null : Long.parseLong(fields[3]),
+                    fields[4].isEmpty() ? null : Long.parseLong(fields[4]),
+                    fields[6].isEmpty() ? null : fields[6],
+                    fields[5].isEmpty() ? null : LocalDate.parse(fields[5]),
+                    0);
+        } catch (Exception e) {
+            log.warn("Ignoring malformed show listing event: {}", message);
+            return null;
+        }
+    }
+
+    @Getter
+    @RequiredArgsConstructor
+    public static class ListingEvent {
+        private final String nodeId;
+        private final EventType type;
+        private final Long showId;
+        private final Long screenId;
+        private final Long movieId;
+        private final String city;
+        private final LocalDate showDate;
+        private final int availableSeatsDelta;
+    }
+}
@@ -1,28 +1,47 @@
 package com.bookmymovie.service;
 
+import com.bookmymovie.annotation.DistributedLock;
 import com.bookmymovie.dto.request.*;
 import com.bookmymovie.dto.response.*;
 import com.bookmymovie.entity.Movie;
 import com.bookmymovie.entity.Screen;
 import com.bookmymovie.entity.Show;
 import com.bookmymovie.entity.Theater;
+import com.bookmymovie.event.ShowChangedEvent;
+import com.bookmymovie.event.ShowSeatsChangedEvent;
 import com.bookmymovie.exception.BaseException;
 import com.bookmymovie.repository.MovieRepository;
 import com.bookmymovie.repository.ScreenRepository;
 import com.bookmymovie.repository.ShowRepository;
+import com.bookmymovie.repository.ShowSpecifications;
+import com.bookmymovie.util.FencingTokenHolder;
+import com.bookmymovie.util.IntervalTree;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManager;
+import lombok.Getter;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.data.domain.Page;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.math.BigDecimal;
+import java.time.Duration;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -35,9 +54,25 @@ public class ShowService {
     private final ShowRepository showRepository;
     private final MovieRepository movieRepository;
     private final ScreenRepository screenRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ShowListingCacheService showListingCacheService;
+    private final EntityManager entityManager;
+    private final ScreenTimetableIndex screenTimetableIndex;
+    private final PricingEngine pricingEngine;
+    private final PlatformTransactionManager transactionManager;
+
+    private static final int MAX_SEARCH_PAGE_SIZE = 100;
+    // Matches spring.jpa.properties.hibernate.jdbc.batch_size
+    private static final int BULK_INSERT_BATCH_SIZE = 50;
+    private static final int MAX_ALTERNATIVE_SLOTS = 3;
+    private static final int BACKFILL_BATCH_SIZE = 500;
+    private static final LocalTime DEFAULT_OPENING_TIME = LocalTime.of(9, 0);
+    private static final LocalTime DEFAULT_CLOSING_TIME = LocalTime.of(23, 59);
 
     // ==================== CREATE OPERATIONS ====================
 
+    @DistributedLock(key = "'show-schedule-screen-' + #request.screenId", waitTime = 500, fenced = true,
+            errorMessage = "Shows are being scheduled on this screen. Please try again.")
     public ShowResponseDto createShow(ShowCreateRequestDto request) {
         log.info("Creating show for movie {} at screen {} on {} at {}",
                 request.getMovieId(), request.getScreenId(), request.getShowDate(), request.getShowTime());
@@ -45,92 +80,180 @@ public class ShowService {
         // Validate entities exist
         Movie movie = findMovieById(request.getMovieId());
         Screen screen = findScreenById(request.getScreenId());
+        fenceScheduleWrite(screen.getScreenId());
 
         // Check for conflicts
-        validateShowScheduling(request, null);
+        validateShowScheduling(request, movie, null);
 
         // Create show entity
         Show show = buildShowFromRequest(request, movie, screen);
         show = showRepository.save(show);
+        publishShowChanged(show, ShowChangedEvent.ChangeType.CREATED);
 
         log.info("Successfully created show with ID: {}", show.getShowId());
         return mapToShowResponseDto(show);
     }
 
+    /**
+     * Schedules every requested slot in one pass: existing shows on the screen are loaded once and
+     * checked in memory with an interval tree (slots in the same request are checked against each
+     * other too), and the accepted shows are inserted in JDBC batches. Each slot gets its own result.
+     * The lock lease covers a typical run; a run that outlives it is rejected by the schedule fence.
+     */
+    @DistributedLock(key = "'show-schedule-screen-' + #request.screenId", waitTime = 2000, leaseTime = 30000,
+            fenced = true, errorMessage = "Shows are being scheduled on this screen. Please try again.")
     public BulkShowResponseDto createBulkShows(BulkShowCreateRequestDto request) {
         log.info("Creating bulk shows for movie {} at screen {} from {} to {}",
                 request.getMovieId(), request.getScreenId(), request.getStartDate(), request.getEndDate());
 
         Movie movie = findMovieById(request.getMovieId());
         Screen screen = findScreenById(request.getScreenId());
+        fenceScheduleWrite(screen.getScreenId());
+        String city = screen.getTheater().getCity();
+
+        // Include the day before so shows running past midnight are seen
+        IntervalTree<ScheduledSlot> schedule = new IntervalTree<>();
+        for (Show existing : showRepository.findActiveShowsByScreenBetweenDates(
+                screen.getScreenId(), request.getStartDate().minusDays(1), request.getEndDate())) {
+            schedule.add(toEpochMinutes(existing.getShowDateTime()), toEpochMinutes(existing.getActualEndTime()),
+                    new ScheduledSlot(existing.getShowId(), existing.getMovie().getTitle(), existing.getActualEndTime()));
+        }
 
-        BulkShowResponseDto.BulkShowResponseDtoBuilder responseBuilder = BulkShowResponseDto.builder()
-                .totalRequested(0)
-                .successfullyCreated(0)
-                .failed(0)
-                .createdShowIds(new java.util.ArrayList<>())
-                .errors(new java.util.ArrayList<>())
-                .conflicts(new java.util.ArrayList<>());
+        boolean hasIntermission = request.getHasIntermission() != null ? request.getHasIntermission() : true;
+        int intermission = request.getIntermissionDurationMinutes() != null ? request.getIntermissionDurationMinutes() : 15;
+        int cleaning = request.getCleaningTimeMinutes() != null ? request.getCleaningTimeMinutes() : 20;
+        int occupiedMinutes = movie.getDurationMinutes() + (hasIntermission ? intermission : 0) + cleaning;
 
-        LocalDate currentDate = request.getStartDate();
+        List<BulkShowResponseDto.SlotResultDto> results = new ArrayList<>();
+        List<BulkShowResponseDto.ShowConflictDto> conflicts = new ArrayList<>();
+        List<Show> pending = new ArrayList<>();
+        List<BulkShowResponseDto.SlotResultDto> pendingResults = new ArrayList<>();
+        List<Long> createdShowIds = new ArrayList<>();
 
-        while (!currentDate.isAfter(request.getEndDate())) {
-            // Skip weekends if requested
-            if (request.getSkipWeekends() && isWeekend(currentDate)) {
-                currentDate = currentDate.plusDays(1);
+        for (LocalDate date = request.getStartDate(); !date.isAfter(request.getEndDate()); date = date.plusDays(1)) {
+            if (Boolean.TRUE.equals(request.getSkipWeekends()) && isWeekend(date)) {
                 continue;
             }
-
-            // Skip excluded dates
-            if (request.getExcludeDates() != null && request.getExcludeDates().contains(currentDate)) {
-                currentDate = currentDate.plusDays(1);
+            if (request.getExcludeDates() != null && request.getExcludeDates().contains(date)) {
                 continue;
             }
 
             for (LocalTime showTime : request.getShowTimes()) {
-                responseBuilder.totalRequested(responseBuilder.build().getTotalRequested() + 1);
-
-                try {
-                    ShowCreateRequestDto showRequest = ShowCreateRequestDto.builder()
-                            .movieId(request.getMovieId())
-                            .screenId(request.getScreenId())
-                            .showDate(currentDate)
-                            .showTime(showTime)
-                            .basePrice(request.getBasePrice())
-                            .weekendMultiplier(request.getWeekendMultiplier())
-                            .primeTimeMultiplier(request.getPrimeTimeMultiplier())
-                            .holidayMultiplier(request.getHolidayMultiplier())
-                            .hasIntermission(request.getHasIntermission())
-                            .intermissionDurationMinutes(request.getIntermissionDurationMinutes())
-                            .cleaningTimeMinutes(request.getCleaningTimeMinutes())
-                            .isSpecialScreening(request.getIsSpecialScreening())
-                            .specialNotes(request.getSpecialNotes())
-                            .build();
-
-                    validateShowScheduling(showRequest, null);
-                    Show show = buildShowFromRequest(showRequest, movie, screen);
-                    show = showRepository.save(show);
-
-                    responseBuilder.successfullyCreated(responseBuilder.build().getSuccessfullyCreated() + 1);
-                    responseBuilder.build().getCreatedShowIds().add(show.getShowId());
-
-                } catch (Exception e) {
-                    responseBuilder.failed(responseBuilder.build().getFailed() + 1);
-                    responseBuilder.build().getErrors().add(
-                            String.format("Failed to create show on %s at %s: %s", currentDate, showTime, e.getMessage()));
+                LocalDateTime start = LocalDateTime.of(date, showTime);
+                LocalDateTime end = start.plusMinutes(occupiedMinutes);
+                long startMinute = toEpochMinutes(start);
+                long endMinute = toEpochMinutes(end);
+
+                List<ScheduledSlot> overlapping = schedule.findOverlapping(startMinute, endMinute);
+                if (!overlapping.isEmpty()) {
+                    String reason = overlapping.stream().map(ScheduledSlot::describe).collect(Collectors.joining(", "));
+                    LocalDateTime freeAfter = overlapping.stream().map(ScheduledSlot::getEndsAt)
+                            .max(LocalDateTime::compareTo).orElse(end).plusMinutes(1);
+                    conflicts.add(BulkShowResponseDto.ShowConflictDto.builder()
+                            .date(date)
+                            .time(showTime)
+                            .reason("Overlaps " + reason)
+                            .suggestion("Screen is free from " + freeAfter)
+                            .build());
+                    results.add(BulkShowResponseDto.SlotResultDto.builder()
+                            .date(date)
+                            .time(showTime)
+                            .status(BulkShowResponseDto.SlotStatus.CONFLICT)
+                            .message("Overlaps " + reason)
+                            .build());
+                    continue;
                 }
-            }
 
-            currentDate = currentDate.plusDays(1);
+                schedule.add(startMinute, endMinute, new ScheduledSlot(null, movie.getTitle(), end));
+                ShowCreateRequestDto showRequest = ShowCreateRequestDto.builder()
+                        .movieId(request.getMovieId())
+                        .screenId(request.getScreenId())
+                        .showDate(date)
+                        .showTime(showTime)
+                        .basePrice(request.getBasePrice())
+                        .weekendMultiplier(request.getWeekendMultiplier())
+                        .primeTimeMultiplier(request.getPrimeTimeMultiplier())
+                        .holidayMultiplier(request.getHolidayMultiplier())
+                        .hasIntermission(hasIntermission)
+                        .intermissionDurationMinutes(intermission)
+                        .cleaningTimeMinutes(cleaning)
+                        .isSpecialScreening(request.getIsSpecialScreening())
+                        .specialNotes(request.getSpecialNotes())
+                        .build();
+                BulkShowResponseDto.SlotResultDto slotResult = BulkShowResponseDto.SlotResultDto.builder()
+                        .date(date)
+                        .time(showTime)
+                        .status(BulkShowResponseDto.SlotStatus.CREATED)
+                        .build();
+                results.add(slotResult);
+                pending.add(buildShowFromRequest(showRequest, movie, screen));
+                pendingResults.add(slotResult);
+
+                if (pending.size() == BULK_INSERT_BATCH_SIZE) {
+                    insertBatch(pending, pendingResults, createdShowIds, city);
+                }
+            }
         }
+        insertBatch(pending, pendingResults, createdShowIds, city);
+
+        BulkShowResponseDto response = BulkShowResponseDto.builder()
+                .totalRequested(results.size())
+                .successfullyCreated(createdShowIds.size())
+                .failed(results.size() - createdShowIds.size())
+                .createdShowIds(createdShowIds)
+                .errors(conflicts.stream()
+                        .map(conflict -> String.format("Failed to create show on %s at %s: %s",
+                                conflict.getDate(), conflict.getTime(), conflict.getReason()))
+                        .collect(Collectors.toList()))
+                .conflicts(conflicts)
+                .results(results)
+                .build();
 
-        BulkShowResponseDto response = responseBuilder.build();
         log.info("Bulk show creation completed: {} created, {} failed out of {} requested",
                 response.getSuccessfullyCreated(), response.getFailed(), response.getTotalRequested());
 
         return response;
     }
 
+    /**
+     * Inserts one JDBC batch and detaches it, so the persistence context (and the flush-time
+     * dirty check) stays small however many shows are imported
+     */
+    private void insertBatch(List<Show> shows, List<BulkShowResponseDto.SlotResultDto> slotResults,
+                             List<Long> createdShowIds, String city) {
+        if (shows.isEmpty()) {
+            return;
+        }
+
+        showRepository.saveAll(shows);
+        showRepository.flush();
+        for (int i = 0; i < shows.size(); i++) {
+            Show show = shows.get(i);
+            slotResults.get(i).setShowId(show.getShowId());
+            createdShowIds.add(show.getShowId());
+            eventPublisher.publishEvent(new ShowChangedEvent(this, show.getShowId(), show.getScreen().getScreenId(),
+                    show.getMovie().getMovieId(), show.getShowDate(), city, ShowChangedEvent.ChangeType.CREATED));
+        }
+        entityManager.clear();
+        shows.clear();
+        slotResults.clear();
+    }
+
+    /**
+     * Moves the show id sequence past ids issued before shows were switched to it.
+     * Startup fails if that is not possible, since inserting shows from a sequence behind the
+     * table would collide with existing ids.
+     */
+    @PostConstruct
+    public void alignShowIdSequence() {
+        try {
+            Long next = showRepository.alignShowIdSequence();
+            log.debug("Show id sequence at {}", next);
+        } catch (RuntimeException e) {
+            throw new IllegalStateException("Could not align the show id sequence with existing shows", e);
+        }
+    }
+
     // ==================== READ OPERATIONS ====================
 
     @Transactional(readOnly = true)
@@ -147,24 +270,78 @@ public class ShowService {
                 .collect(Collectors.toList());
     }
 
-    @Transactional(readOnly = true)
-    public ShowListingDto getMovieShowListing(Long movieId, String city, LocalDate showDate) {
-        List<Show> shows = showRepository.findShowsByMovieAndCityAndDate(movieId, city, showDate);
-        return buildShowListingDto(shows);
+    /**
+     * Served from {@link ShowListingCacheService}; the ETag changes whenever the listing does
+     */
+    public ShowListingCacheService.CachedListing getMovieShowListing(Long movieId, String city, LocalDate showDate) {
+        return showListingCacheService.getListing(movieId, city, showDate);
     }
 
+    /**
+     * One fetch-joined query per page, ordered by showDateTime then showId. The next page is requested
+     * with the last show's showDateTime and showId as the cursor, so deep pages cost the same as the first.
+     */
     @Transactional(readOnly = true)
-    public Page<ShowResponseDto> searchShows(ShowSearchRequestDto request) {
-        Pageable pageable = PageRequest.of(
-                request.getPage(),
-                request.getSize(),
-                Sort.by(Sort.Direction.fromString(request.getSortDirection()), request.getSortBy())
-        );
+    public Slice<ShowResponseDto> searchShows(ShowSearchRequestDto request) {
+        int size = Math.min(Math.max(request.getSize() != null ? request.getSize() : 20, 1), MAX_SEARCH_PAGE_SIZE);
+        boolean ascending = !"DESC".equalsIgnoreCase(request.getSortDirection());
+        Sort.Direction direction = ascending ? Sort.Direction.ASC : Sort.Direction.DESC;
+        Sort sort = Sort.by(direction, "showDateTime").and(Sort.by(direction, "showId"));
+
+        // Fetch one extra row to learn whether there is a next page without a count query
+        List<Show> shows = showRepository.findBy(
+                ShowSpecifications.forSearch(request, LocalDateTime.now(), ascending),
+                query -> query.sortBy(sort).limit(size + 1).all());
+
+        boolean hasNext = shows.size() > size;
+        List<ShowResponseDto> content = shows.stream()
+                .limit(size)
+                .map(this::mapToShowResponseDto)
+                .collect(Collectors.toList());
+        return new SliceImpl<>(content, PageRequest.of(0, size, sort), hasNext);
+    }
+
+    /**
+     * Fills the precomputed search attributes of upcoming shows saved before they existed.
+     * Pages by show id, each page in its own transaction
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void backfillSearchAttributes() {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        LocalDateTime now = LocalDateTime.now();
+        long afterId = 0;
+        int updated = 0;
+        try {
+            while (true) {
+                long from = afterId;
+                List<Long> ids = transactionTemplate.execute(status -> refreshSearchAttributes(from, now));
+                if (ids == null || ids.isEmpty()) {
+                    break;
+                }
+                updated += ids.size();
+                afterId = ids.get(ids.size() - 1);
+            }
+        } catch (Exception e) {
+            // Shows left unfilled are picked up by the next start
+            log.warn("Search attribute backfill stopped after {} upcoming shows", updated, e);
+            return;
+        }
 
-        // This would need a custom implementation with Criteria API or Specifications
-        // For now, returning a basic implementation
-        Page<Show> shows = showRepository.findAll(pageable);
-        return shows.map(this::mapToShowResponseDto);
+        if (updated > 0) {
+            log.info("Backfilled search attributes for {} upcoming shows", updated);
+        }
+    }
+
+    private List<Long> refreshSearchAttributes(long afterId, LocalDateTime now) {
+        List<Show> batch = showRepository.findByShowIdGreaterThanAndActualPriceIsNullAndShowDateTimeAfterOrderByShowId(
+                afterId, now, Limit.of(BACKFILL_BATCH_SIZE));
+        for (Show show : batch) {
+            show.refreshSearchAttributes();
+            show.setActualPrice(pricingEngine.actualPrice(show));
+        }
+        showRepository.saveAll(batch);
+        return batch.stream().map(Show::getShowId).toList();
     }
 
     // ==================== UPDATE OPERATIONS ====================
@@ -181,6 +358,9 @@ public class ShowService {
 
         // If updating time/date, check for conflicts
         if (request.getShowDate() != null || request.getShowTime() != null) {
+            // Serializes with creates on the screen, which lock the same row through the schedule fence
+            screenRepository.lockForScheduling(show.getScreen().getScreenId());
+
             ShowCreateRequestDto conflictRequest = ShowCreateRequestDto.builder()
                     .movieId(show.getMovie().getMovieId())
                     .screenId(show.getScreen().getScreenId())
@@ -188,12 +368,13 @@ public class ShowService {
                     .showTime(request.getShowTime() != null ? request.getShowTime() : show.getShowTime())
                     .build();
 
-            validateShowScheduling(conflictRequest, showId);
+            validateShowScheduling(conflictRequest, show.getMovie(), showId);
         }
 
         // Apply updates
         updateShowFromRequest(show, request);
         show = showRepository.save(show);
+        publishShowChanged(show, ShowChangedEvent.ChangeType.UPDATED);
 
         log.info("Successfully updated show with ID: {}", showId);
         return mapToShowResponseDto(show);
@@ -205,6 +386,7 @@ public class ShowService {
         Show show = findShowById(showId);
         show.cancelShow(reason);
         showRepository.save(show);
+        publishShowChanged(show, ShowChangedEvent.ChangeType.CANCELLED);
 
         log.info("Successfully cancelled show with ID: {}", showId);
     }
@@ -227,23 +409,66 @@ public class ShowService {
 
         LocalDateTime endTime = startTime.plusMinutes(totalDuration + cleaningTime);
 
-        List<Show> conflictingShows;
-        if (request.getExcludeShowId() != null) {
-            conflictingShows = showRepository.findConflictingShowsExcluding(
-                    request.getScreenId(), request.getShowDate(), startTime, endTime, request.getExcludeShowId());
-        } else {
-            conflictingShows = showRepository.findConflictingShows(
-                    request.getScreenId(), request.getShowDate(), startTime, endTime);
-        }
+        List<ScreenTimetableIndex.ScheduledShow> conflictingShows = screenTimetableIndex.findConflicts(
+                request.getScreenId(), startTime, endTime, request.getExcludeShowId());
 
-        return ShowConflictCheckResponseDto.builder()
+        ShowConflictCheckResponseDto.ShowConflictCheckResponseDtoBuilder response = ShowConflictCheckResponseDto.builder()
                 .hasConflicts(!conflictingShows.isEmpty())
                 .message(conflictingShows.isEmpty() ? "No conflicts found" :
                         "Found " + conflictingShows.size() + " conflicting shows")
                 .conflictingShows(conflictingShows.stream()
                         .map(this::mapToConflictingShowDto)
-                        .collect(Collectors.toList()))
-                .build();
+                        .collect(Collectors.toList()));
+
+        if (!conflictingShows.isEmpty()) {
+            // Offer the next gaps later that day that fit the same show
+            List<LocalDateTime> alternatives = screenTimetableIndex.findFreeSlots(request.getScreenId(), startTime,
+                            request.getShowDate().plusDays(1).atStartOfDay(), totalDuration + cleaningTime).stream()
+                    .map(ScreenTimetableIndex.FreeSlot::getFreeFrom)
+                    .limit(MAX_ALTERNATIVE_SLOTS)
+                    .collect(Collectors.toList());
+            response.alternativeSlots(alternatives)
+                    .suggestedStartTime(alternatives.isEmpty() ? null : alternatives.get(0));
+        }
+        return response.build();
+    }
+
+    // ==================== SCREEN TIMETABLE ====================
+
+    @Transactional(readOnly = true)
+    public List<ShowSummaryDto> getShowsByScreen(Long screenId, LocalDate showDate) {
+        return screenTimetableIndex.getShows(screenId, showDate).stream()
+                .map(ScreenTimetableIndex.ScheduledShow::toSummary)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Gaps on the screen that fit a show occupying it for the given minutes (running time,
+     * intermission and cleaning); the window defaults to the theater's opening hours
+     */
+    @Transactional(readOnly = true)
+    public List<ScreenFreeSlotDto> getFreeSlots(Long screenId, LocalDate date, int occupiedMinutes,
+                                                LocalTime from, LocalTime to) {
+        if (from == null || to == null) {
+            Theater theater = findScreenById(screenId).getTheater();
+            from = from != null ? from : (theater.getOpeningTime() != null ? theater.getOpeningTime() : DEFAULT_OPENING_TIME);
+            to = to != null ? to : (theater.getClosingTime() != null ? theater.getClosingTime() : DEFAULT_CLOSING_TIME);
+        }
+
+        LocalDateTime windowStart = date.atTime(from);
+        // Closing at or before opening time means closing after midnight
+        LocalDateTime windowEnd = to.isAfter(from) ? date.atTime(to) : date.plusDays(1).atTime(to);
+
+        return screenTimetableIndex.findFreeSlots(screenId, windowStart, windowEnd, occupiedMinutes).stream()
+                .map(slot -> ScreenFreeSlotDto.builder()
+                        .screenId(screenId)
+                        .freeFrom(slot.getFreeFrom())
+                        .freeUntil(slot.getFreeUntil())
+                        .freeMinutes((int) Duration.between(slot.getFreeFrom(), slot.getFreeUntil()).toMinutes())
+                        .earliestStart(slot.getFreeFrom())
+                        .latestStart(slot.getLatestStart())
+                        .build())
+                .collect(Collectors.toList());
     }
 
     // ==================== PRICING OPERATIONS ====================
@@ -263,7 +488,7 @@ public class ShowService {
             show.setIsHoliday(request.getIsHoliday());
         }
 
-        BigDecimal actualPrice = show.calculateActualPrice();
+        BigDecimal actualPrice = pricingEngine.actualPrice(show);
 
         return ShowPricingResponseDto.builder()
                 .showId(show.getShowId())
@@ -308,17 +533,21 @@ public class ShowService {
             throw new ShowNotBookableException("Show cannot be booked at this time");
         }
 
-        show.bookSeats(seatsToBook);
-        showRepository.save(show);
+        if (showRepository.reserveSeats(showId, seatsToBook) == 0) {
+            throw new ShowNotBookableException("Not enough available seats");
+        }
+        eventPublisher.publishEvent(new ShowSeatsChangedEvent(this, showId, -seatsToBook));
 
         log.info("Booked {} seats for show ID: {}", seatsToBook, showId);
     }
 
     @Transactional
     public void releaseSeats(Long showId, Integer seatsToRelease) {
-        Show show = findShowById(showId);
-        show.releaseSeats(seatsToRelease);
-        showRepository.save(show);
+        findShowById(showId);
+        if (showRepository.releaseSeats(showId, seatsToRelease) == 0) {
+            throw new IllegalStateException("Cannot release more seats than booked");
+        }
+        eventPublisher.publishEvent(new ShowSeatsChangedEvent(this, showId, seatsToRelease));
 
         log.info("Released {} seats for show ID: {}", seatsToRelease, showId);
     }
@@ -341,8 +570,15 @@ public class ShowService {
 
     // ==================== PRIVATE HELPER METHODS ====================
 
-    private void validateShowScheduling(ShowCreateRequestDto request, Long excludeShowId) {
-        Movie movie = findMovieById(request.getMovieId());
+    private void publishShowChanged(Show show, ShowChangedEvent.ChangeType changeType) {
+        eventPublisher.publishEvent(new ShowChangedEvent(this, show.getShowId(),
+                show.getScreen().getScreenId(), show.getMovie().getMovieId(), show.getShowDate(),
+                show.getScreen().getTheater().getCity(), changeType));
+    }
+
+    private void validateShowScheduling(ShowCreateRequestDto request, Movie movie, Long excludeShowId) {
+        // Writers re-read the affected days so the check also covers shows scheduled on other nodes
+        screenTimetableIndex.reload(request.getScreenId(), request.getShowDate().minusDays(1), request.getShowDate().plusDays(1));
 
         ShowConflictCheckRequestDto conflictRequest = ShowConflictCheckRequestDto.builder()
                 .screenId(request.getScreenId())
@@ -371,11 +607,11 @@ public class ShowService {
                 .showTime(request.getShowTime())
                 .basePrice(request.getBasePrice())
                 .weekendMultiplier(request.getWeekendMultiplier() != null ?
-                        request.getWeekendMultiplier() : BigDecimal.valueOf(1.5))
+                        request.getWeekendMultiplier() : pricingEngine.getDefaultWeekendMultiplier())
                 .primeTimeMultiplier(request.getPrimeTimeMultiplier() != null ?
-                        request.getPrimeTimeMultiplier() : BigDecimal.valueOf(1.8))
+                        request.getPrimeTimeMultiplier() : pricingEngine.getDefaultPrimeTimeMultiplier())
                 .holidayMultiplier(request.getHolidayMultiplier() != null ?
-                        request.getHolidayMultiplier() : BigDecimal.valueOf(2.0))
+                        request.getHolidayMultiplier() : pricingEngine.getDefaultHolidayMultiplier())
                 .hasIntermission(request.getHasIntermission() != null ?
                         request.getHasIntermission() : true)
                 .intermissionDurationMinutes(request.getIntermissionDurationMinutes() != null ?
@@ -421,7 +657,7 @@ public class ShowService {
                 .showDateTime(show.getShowDateTime())
                 .endTime(show.getEndTime())
                 .basePrice(show.getBasePrice())
-                .actualPrice(show.calculateActualPrice())
+                .actualPrice(pricingEngine.listedPrice(show))
                 .status(show.getStatus())
                 .totalSeats(show.getTotalSeats())
                 .bookedSeats(show.getBookedSeats())
@@ -451,7 +687,7 @@ public class ShowService {
                 .screenName(show.getScreen().getName())
                 .showDate(show.getShowDate())
                 .showTime(show.getShowTime())
-                .actualPrice(show.calculateActualPrice())
+                .actualPrice(pricingEngine.listedPrice(show))
                 .availableSeats(show.getAvailableSeats())
                 .occupancyPercentage(show.getOccupancyPercentage())
                 .status(show.getStatus())
@@ -497,72 +733,16 @@ public class ShowService {
                 .build();
     }
 
-    private ShowConflictCheckResponseDto.ConflictingShowDto mapToConflictingShowDto(Show show) {
+    private ShowConflictCheckResponseDto.ConflictingShowDto mapToConflictingShowDto(ScreenTimetableIndex.ScheduledShow show) {
         return ShowConflictCheckResponseDto.ConflictingShowDto.builder()
                 .showId(show.getShowId())
-                .movieTitle(show.getMovie().getTitle())
-                .startTime(show.getShowDateTime())
-                .endTime(show.getActualEndTime())
+                .movieTitle(show.getMovieTitle())
+                .startTime(show.getStartsAt())
+                .endTime(show.getOccupiedUntil())
                 .conflictReason("Time overlap detected")
                 .build();
     }
 
-    private ShowListingDto buildShowListingDto(List<Show> shows) {
-        if (shows.isEmpty()) {
-            return ShowListingDto.builder().build();
-        }
-
-        Show firstShow = shows.get(0);
-        Movie movie = firstShow.getMovie();
-
-        // Group shows by theater
-        var showsByTheater = shows.stream()
-                .collect(Collectors.groupingBy(show -> show.getScreen().getTheater()));
-
-        List<ShowListingDto.TheaterShowDto> theaterShows = showsByTheater.entrySet().stream()
-                .map(entry -> {
-                    var theater = entry.getKey();
-                    var theaterShowList = entry.getValue();
-
-                    List<ShowListingDto.ShowTimeDto> showTimes = theaterShowList.stream()
-                            .map(show -> ShowListingDto.ShowTimeDto.builder()
-                                    .showId(show.getShowId())
-                                    .showTime(show.getShowTime())
-                                    .screenName(show.getScreen().getName())
-                                    .screenType(show.getScreen().getScreenType().toString())
-                                    .actualPrice(show.calculateActualPrice())
-                                    .availableSeats(show.getAvailableSeats())
-                                    .isSpecialScreening(show.getIsSpecialScreening())
-                                    .isPremiere(show.getIsPremiere())
-                                    .canBeBooked(show.canBeBooked())
-                                    .build())
-                            .sorted((s1, s2) -> s1.getShowTime().compareTo(s2.getShowTime()))
-                            .collect(Collectors.toList());
-
-                    return ShowListingDto.TheaterShowDto.builder()
-                            .theaterId(theater.getTheaterId())
-                            .theaterName(theater.getName())
-                            .theaterAddress(theater.getAddress())
-                            .city(theater.getCity())
-                            .latitude(theater.getLatitude())
-                            .longitude(theater.getLongitude())
-                            .showTimes(showTimes)
-                            .build();
-                })
-                .collect(Collectors.toList());
-
-        return ShowListingDto.builder()
-                .movieId(movie.getMovieId())
-                .movieTitle(movie.getTitle())
-                .movieLanguage(movie.getLanguage().toString())
-                .movieRating(String.valueOf(movie.getRating()))
-                .movieDuration(movie.getDurationMinutes())
-                .movieGenres(movie.getGenres().stream().map(Enum::toString).collect(Collectors.toList()))
-                .posterUrl(movie.getPosterUrl())
-                .theaters(theaterShows)
-                .build();
-    }
-
     private List<ShowPricingResponseDto.PricingFactorDto> buildPricingFactors(Show show) {
         List<ShowPricingResponseDto.PricingFactorDto> factors = new java.util.ArrayList<>();
 
@@ -594,7 +774,7 @@ public class ShowService {
         if (show.getIsSpecialScreening()) {
             factors.add(ShowPricingResponseDto.PricingFactorDto.builder()
                     .factorName("Special Screening")
-                    .multiplier(BigDecimal.valueOf(1.3))
+                    .multiplier(pricingEngine.getSpecialScreeningMultiplier())
                     .description("Additional charge for special screenings")
                     .applied(true)
                     .build());
@@ -604,7 +784,7 @@ public class ShowService {
         if (show.getIsPremiere()) {
             factors.add(ShowPricingResponseDto.PricingFactorDto.builder()
                     .factorName("Premiere Show")
-                    .multiplier(BigDecimal.valueOf(2.5))
+                    .multiplier(pricingEngine.getPremiereMultiplier())
                     .description("Premium pricing for premiere shows")
                     .applied(true)
                     .build());
@@ -669,6 +849,33 @@ public class ShowService {
                 .build();
     }
 
+    private static long toEpochMinutes(LocalDateTime dateTime) {
+        return dateTime.toEpochSecond(ZoneOffset.UTC) / 60;
+    }
+
+    /**
+     * A show occupying the screen in the bulk scheduling interval tree; showId is null for
+     * shows accepted earlier in the same request
+     */
+    @Getter
+    private static final class ScheduledSlot {
+        private final Long showId;
+        private final String movieTitle;
+        private final LocalDateTime endsAt;
+
+        ScheduledSlot(Long showId, String movieTitle, LocalDateTime endsAt) {
+            this.showId = showId;
+            this.movieTitle = movieTitle;
+            this.endsAt = endsAt;
+        }
+
+        String describe() {
+            return showId != null
+                    ? "show " + showId + " (" + movieTitle + ") until " + endsAt
+                    : "another slot in this request until " + endsAt;
+        }
+    }
+
     private boolean isWeekend(LocalDate date) {
         return date.getDayOfWeek().getValue() >= 6; // Saturday = 6, Sunday = 7
     }
@@ -678,6 +885,18 @@ public class ShowService {
                 .orElseThrow(() -> new MovieNotFoundException("Movie not found with ID: " + movieId));
     }
 
+    /**
+     * Rejects a schedule lock holder whose lease expired and was replaced, before it reads or writes
+     * the schedule; from here on the screen row is locked until this transaction ends
+     */
+    private void fenceScheduleWrite(Long screenId) {
+        long token = FencingTokenHolder.current();
+        if (screenRepository.advanceScheduleFence(screenId, token) == 0) {
+            throw new StaleScheduleLockException("Scheduling on screen " + screenId
+                    + " was taken over by another request. Please try again.");
+        }
+    }
+
     private Screen findScreenById(Long screenId) {
         return screenRepository.findById(screenId)
                 .orElseThrow(() -> new ScreenNotFoundException("Screen not found with ID: " + screenId));
@@ -734,6 +953,17 @@ public class ShowService {
         }
     }
 
+    public static class StaleScheduleLockException extends BaseException {
+        public StaleScheduleLockException(String message) {
+            super(message);
+        }
+
+        @Override
+        public int getHttpStatusCode() {
+            return 409; // Conflict
+        }
+    }
+
     public static class ShowNotModifiableException extends BaseException {
         public ShowNotModifiableException(String message) {
             super(message);
@@ -0,0 +1,226 @@
+package com.bookmymovie.service;
+
+import com.bookmymovie.event.ShowSeatsChangedEvent;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Demand-based surge factor per show.
+ * Seat holds, local ones and those other nodes publish on the {@link SeatEventBus}, feed an
+ * exponentially decaying hold rate per show. The factor compares the seats that rate would take
+ * before showtime (looking ahead at most a bounded window) with the seats still available: no surge
+ * while supply covers demand, rising linearly to the configured maximum as demand outgrows it.
+ * Factors are quantized and republished at most once per interval per show, by swapping a repriced
+ * table into the cached show header, so readers never lock. Bookings pin the factor they were quoted at.
+ */
+@Service
+@Slf4j
+public class SurgePricingService {
+
+    private final PricingEngine pricingEngine;
+    private final SeatMapSnapshotService seatMapSnapshotService;
+    private final SeatInventoryService seatInventoryService;
+    private final SeatEventBus seatEventBus;
+
+    private final Map<Long, DemandState> demand = new ConcurrentHashMap<>();
+
+    @Value("${pricing.surge.enabled:true}")
+    private boolean enabled;
+
+    @Value("${pricing.surge.half-life-seconds:120}")
+    private long halfLifeSeconds;
+
+    @Value("${pricing.surge.lookahead-minutes:60}")
+    private long lookaheadMinutes;
+
+    @Value("${pricing.surge.saturation-ratio:3.0}")
+    private double saturationRatio;
+
+    @Value("${pricing.surge.max-factor:1.5}")
+    private BigDecimal maxFactor;
+
+    @Value("${pricing.surge.step:0.05}")
+    private BigDecimal step;
+
+    @Value("${pricing.surge.min-update-interval-ms:5000}")
+    private long minUpdateIntervalMillis;
+
+    public SurgePricingService(PricingEngine pricingEngine, SeatMapSnapshotService seatMapSnapshotService,
+                               SeatInventoryService seatInventoryService, SeatEventBus seatEventBus) {
+        this.pricingEngine = pricingEngine;
+        this.seatMapSnapshotService = seatMapSnapshotService;
+        this.seatInventoryService = seatInventoryService;
+        this.seatEventBus = seatEventBus;
+    }
+
+    @PostConstruct
+    public void subscribeToRemoteHolds() {
+        seatEventBus.subscribe(event -> {
+            if (event.getType() == SeatEventBus.EventType.HOLD) {
+                recordHolds(event.getShowId(), event.getSeatIds().size());
+            }
+        });
+    }
+
+    // ==================== SIGNALS ====================
+
+    /**
+     * Holds placed on this node; a negative delta means seats were taken
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onShowSeatsChanged(ShowSeatsChangedEvent event) {
+        if (event.getAvailableSeatsDelta() < 0) {
+            recordHolds(event.getShowId(), -event.getAvailableSeatsDelta());
+        }
+    }
+
+    void recordHolds(Long showId, int seats) {
+        if (!enabled || seats <= 0) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        DemandState state = demand.computeIfAbsent(showId, id -> new DemandState());
+        state.record(seats, now, decayConstantMillis());
+        republishIfDue(showId, state, now);
+    }
+
+    /**
+     * Lets factors decay while a show gets no holds, and forgets shows whose demand has died down
+     */
+    @Scheduled(fixedDelayString = "${pricing.surge.sweep-interval-ms:15000}")
+    public void sweep() {
+        if (!enabled) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        demand.forEach((showId, state) -> {
+            if (!state.isIdle(now, decayConstantMillis())) {
+                republishIfDue(showId, state, now);
+                return;
+            }
+            demand.remove(showId, state);
+            if (pricingEngine.getSurgeFactor(showId).compareTo(BigDecimal.ONE) != 0) {
+                publish(showId, BigDecimal.ONE);
+            }
+        });
+    }
+
+    // ==================== FACTOR ====================
+
+    private void republishIfDue(Long showId, DemandState state, long now) {
+        if (!state.tryStartUpdate(now, minUpdateIntervalMillis)) {
+            return;
+        }
+
+        // Without a cached header and inventory there is no price table to update yet; the header
+        // picks up the published factor when it is loaded
+        SeatMapSnapshotService.ShowHeader header = seatMapSnapshotService.findCachedShowHeader(showId);
+        SeatInventoryService.ShowSeatInventory inventory = seatInventoryService.findLoadedInventory(showId);
+        if (header == null || inventory == null) {
+            return;
+        }
+
+        BigDecimal factor = computeFactor(state.ratePerMinute(now, decayConstantMillis()),
+                inventory.countAvailable(now), Duration.between(LocalDateTime.now(), header.getShowDateTime()).toMinutes());
+        if (factor.compareTo(pricingEngine.getSurgeFactor(showId)) == 0) {
+            return;
+        }
+
+        publish(showId, factor);
+    }
+
+    private void publish(Long showId, BigDecimal factor) {
+        pricingEngine.setSurgeFactor(showId, factor);
+        seatMapSnapshotService.applySurgeFactor(showId, factor);
+        log.info("Surge factor for show {} is now {}", showId, factor);
+    }
+
+    /**
+     * @param holdRatePerMinute decayed rate at which seats are being held
+     */
+    BigDecimal computeFactor(double holdRatePerMinute, int availableSeats, long minutesToShow) {
+        if (minutesToShow <= 0 || availableSeats <= 0) {
+            // Started or sold out; nothing left to price
+            return BigDecimal.ONE;
+        }
+
+        double expectedDemand = holdRatePerMinute * Math.min(minutesToShow, lookaheadMinutes);
+        double demandRatio = expectedDemand / availableSeats;
+        double pressure = Math.max(0, Math.min(1, (demandRatio - 1) / (saturationRatio - 1)));
+
+        BigDecimal raw = BigDecimal.ONE.add(maxFactor.subtract(BigDecimal.ONE).multiply(BigDecimal.valueOf(pressure)));
+        // Quantize down so small rate wobbles do not reprice the show
+        return raw.divide(step, 0, RoundingMode.FLOOR).multiply(step).setScale(2, RoundingMode.HALF_UP);
+    }
+
+    private double decayConstantMillis() {
+        return halfLifeSeconds * 1000 / Math.log(2);
+    }
+
+    // ==================== DEMAND STATE ====================
+
+    /**
+     * Exponentially decayed count of held seats; divided by the decay constant it is the hold rate
+     */
+    private static final class DemandState {
+        private final ReentrantLock lock = new ReentrantLock();
+        private double decayedSeats;
+        private long lastEventMillis;
+        private long lastUpdateMillis;
+
+        void record(int seats, long now, double decayMillis) {
+            lock.lock();
+            try {
+                decayedSeats = decayedAt(now, decayMillis) + seats;
+                lastEventMillis = now;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        double ratePerMinute(long now, double decayMillis) {
+            lock.lock();
+            try {
+                return decayedAt(now, decayMillis) / (decayMillis / 60_000);
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        boolean isIdle(long now, double decayMillis) {
+            return ratePerMinute(now, decayMillis) < 0.01;
+        }
+
+        /**
+         * Claims the next update slot if the minimum interval has passed since the last one
+         */
+        boolean tryStartUpdate(long now, long minIntervalMillis) {
+            lock.lock();
+            try {
+                if (now - lastUpdateMillis < minIntervalMillis) {
+                    return false;
+                }
+                lastUpdateMillis = now;
+                return true;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private double decayedAt(long now, double decayMillis) {
+            return decayedSeats * Math.exp(-(now - lastEventMillis) / decayMillis);
+        }
+    }
+}
@@ -34,6 +34,9 @@ public class TheaterService {
     private final TheaterRepository theaterRepository;
     private final ScreenRepository screenRepository;
     private final SeatRepository seatRepository;
+    private final SeatInventoryService seatInventoryService;
+    private final SeatMapSnapshotService seatMapSnapshotService;
+    private final ScreenLayoutEventBus screenLayoutEventBus;
 
     // ==================== THEATER MANAGEMENT ====================
 
@@ -313,6 +316,13 @@ public class TheaterService {
         List<Seat> savedSeats = seatRepository.saveAll(seats);
         log.info("Created {} seats for screen ID: {}", savedSeats.size(), request.getScreenId());
 
+        // Shows already hydrated for this screen were built against the old layout
+        seatInventoryService.afterCommit(() -> {
+            seatInventoryService.evictScreen(request.getScreenId());
+            seatMapSnapshotService.evictScreen(request.getScreenId());
+            screenLayoutEventBus.publishLayoutChanged(request.getScreenId());
+        });
+
         return mapToSeatMapResponseDto(screen, savedSeats);
     }
 
@@ -338,6 +348,12 @@ public class TheaterService {
         seats.forEach(seat -> seat.setStatus(request.getStatus()));
         seatRepository.saveAll(seats);
 
+        Map<Long, List<Long>> seatIdsByScreen = seats.stream()
+                .collect(Collectors.groupingBy(seat -> seat.getScreen().getScreenId(),
+                        Collectors.mapping(Seat::getSeatId, Collectors.toList())));
+        seatInventoryService.afterCommit(() -> seatIdsByScreen.forEach((screenId, seatIds) ->
+                seatInventoryService.updateSeatStatus(screenId, seatIds, request.getStatus())));
+
         log.info("Updated status for {} seats", seats.size());
     }
 
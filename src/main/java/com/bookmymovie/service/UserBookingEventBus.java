@@ -0,0 +1,84 @@
+package com.bookmymovie.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.redisson.api.RTopic;
+import org.redisson.api.RedissonClient;
+import org.redisson.client.codec.StringCodec;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+/**
+ * Redis pub/sub channel announcing users whose bookings changed.
+ * Every node drops those users' cached recent bookings, so a booking made or cancelled on one
+ * node shows up in the history served by the others right after it commits.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class UserBookingEventBus {
+
+    private static final String TOPIC = "user-booking-events";
+    private static final String FIELD_SEPARATOR = "|";
+    private static final String ID_SEPARATOR = ",";
+
+    private final RedissonClient redissonClient;
+
+    private final String nodeId = UUID.randomUUID().toString();
+
+    @Value("${user-booking-view.cache.redis-pubsub.enabled:true}")
+    private boolean enabled;
+
+    /**
+     * Registers the handler for changes published by other nodes; it receives the user ids
+     */
+    public void subscribe(Consumer<List<Long>> handler) {
+        if (!enabled) {
+            return;
+        }
+
+        try {
+            RTopic topic = redissonClient.getTopic(TOPIC, StringCodec.INSTANCE);
+            topic.addListener(String.class, (channel, message) -> {
+                int separator = message.indexOf(FIELD_SEPARATOR);
+                if (separator < 0 || nodeId.equals(message.substring(0, separator))) {
+                    return;
+                }
+                try {
+                    List<Long> userIds = new ArrayList<>();
+                    for (String userId : message.substring(separator + 1).split(ID_SEPARATOR)) {
+                        userIds.add(Long.parseLong(userId));
+                    }
+                    handler.accept(userIds);
+                } catch (NumberFormatException e) {
+                    log.warn("Ignoring malformed user booking event: {}", message);
+                }
+            });
+            log.info("Subscribed to user booking events as node {}", nodeId);
+        } catch (Exception e) {
+            log.error("Failed to subscribe to user booking events; booking history will only reflect local changes", e);
+        }
+    }
+
+    public void publishBookingsChanged(Collection<Long> userIds) {
+        if (!enabled || userIds.isEmpty()) {
+            return;
+        }
+
+        String message = nodeId + FIELD_SEPARATOR + userIds.stream()
+                .map(String::valueOf)
+                .collect(Collectors.joining(ID_SEPARATOR));
+        try {
+            redissonClient.getTopic(TOPIC, StringCodec.INSTANCE).publishAsync(message);
+        } catch (Exception e) {
+            log.error("Failed to publish user booking event for users {}", userIds, e);
+        }
+    }
+}
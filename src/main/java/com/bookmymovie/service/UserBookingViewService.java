@@ -0,0 +1,337 @@
+package com.bookmymovie.service;
+
+import com.bookmymovie.dto.response.BookingHistoryPageDto;
+import com.bookmymovie.dto.response.BookingSummaryDto;
+import com.bookmymovie.entity.Booking;
+import com.bookmymovie.entity.UserBookingView;
+import com.bookmymovie.event.BookingChangedEvent;
+import com.bookmymovie.event.ShowChangedEvent;
+import com.bookmymovie.exception.BaseException;
+import com.bookmymovie.repository.BookingRepository;
+import com.bookmymovie.repository.ShowRepository;
+import com.bookmymovie.repository.UserBookingViewRepository;
+import com.bookmymovie.util.ExpiringLruCache;
+import jakarta.annotation.PostConstruct;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * User booking history served from the {@link UserBookingView} projection.
+ * Booking lifecycle events update the projection in the transaction that changed the booking,
+ * so history is never behind a committed booking. Pages are keyset-paginated on
+ * (bookingDate, bookingId), and each user's most recent bookings are cached in front of the
+ * first page until that user's bookings change. Each node caches on its own and announces the
+ * users whose bookings it changed over {@link UserBookingEventBus}; the short TTL only matters
+ * if such a notice is lost.
+ */
+@Service
+@Slf4j
+public class UserBookingViewService {
+
+    // Invalidation generations are kept per stripe of users rather than per user, so they need no eviction
+    private static final int GENERATION_STRIPES = 256;
+
+    private final UserBookingViewRepository viewRepository;
+    private final BookingRepository bookingRepository;
+    private final ShowRepository showRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final UserBookingEventBus userBookingEventBus;
+    private final ExpiringLruCache<Long, RecentBookings> recentBookings;
+    private final AtomicLongArray generations = new AtomicLongArray(GENERATION_STRIPES);
+
+    @Value("${user-booking-view.recent-size:20}")
+    private int recentSize;
+
+    @Value("${user-booking-view.max-page-size:100}")
+    private int maxPageSize;
+
+    @Value("${user-booking-view.cache.ttl-seconds:60}")
+    private long ttlSeconds;
+
+    @Value("${user-booking-view.backfill-on-startup:true}")
+    private boolean backfillOnStartup;
+
+    @Value("${user-booking-view.backfill-batch-size:500}")
+    private int backfillBatchSize;
+
+    public UserBookingViewService(UserBookingViewRepository viewRepository, BookingRepository bookingRepository,
+                                  ShowRepository showRepository, PlatformTransactionManager transactionManager,
+                                  UserBookingEventBus userBookingEventBus,
+                                  @Value("${user-booking-view.cache.max-size:10000}") int maxSize) {
+        this.viewRepository = viewRepository;
+        this.bookingRepository = bookingRepository;
+        this.showRepository = showRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.userBookingEventBus = userBookingEventBus;
+        this.recentBookings = new ExpiringLruCache<>(maxSize);
+    }
+
+    @PostConstruct
+    public void subscribeToRemoteChanges() {
+        userBookingEventBus.subscribe(this::invalidate);
+    }
+
+    // ==================== READ ====================
+
+    /**
+     * One page of the user's bookings, newest first
+     *
+     * @param cursor nextCursor of the previous page, or null for the first page
+     */
+    @Transactional(readOnly = true)
+    public BookingHistoryPageDto getUserBookings(Long userId, String cursor, int size) {
+        int pageSize = Math.max(1, Math.min(size, maxPageSize));
+
+        if (cursor == null && pageSize <= recentSize) {
+            RecentBookings recent = getRecentBookings(userId);
+            List<UserBookingView> rows = recent.getRows();
+            boolean hasMore = rows.size() > pageSize || recent.isHasMore();
+            return toPage(rows.subList(0, Math.min(pageSize, rows.size())), hasMore);
+        }
+
+        // One extra row tells whether another page follows
+        List<UserBookingView> rows;
+        if (cursor == null) {
+            rows = viewRepository.findByUserIdOrderByBookingDateDescBookingIdDesc(userId, Limit.of(pageSize + 1));
+        } else {
+            PageCursor after = PageCursor.decode(cursor);
+            rows = viewRepository.findPageAfter(userId, after.getBookingDate(), after.getBookingId(), Limit.of(pageSize + 1));
+        }
+        return toPage(rows.subList(0, Math.min(pageSize, rows.size())), rows.size() > pageSize);
+    }
+
+    private RecentBookings getRecentBookings(Long userId) {
+        RecentBookings cached = recentBookings.get(userId);
+        if (cached != null) {
+            return cached;
+        }
+
+        int stripe = stripe(userId);
+        long generation = generations.get(stripe);
+        List<UserBookingView> rows = viewRepository.findByUserIdOrderByBookingDateDescBookingIdDesc(
+                userId, Limit.of(recentSize + 1));
+        RecentBookings loaded = new RecentBookings(List.copyOf(rows.subList(0, Math.min(recentSize, rows.size()))),
+                rows.size() > recentSize);
+
+        recentBookings.put(userId, loaded, System.currentTimeMillis() + ttlSeconds * 1000);
+        // A write that committed while this load ran may have invalidated before the put; drop what was just cached
+        if (generations.get(stripe) != generation) {
+            recentBookings.remove(userId);
+        }
+        return loaded;
+    }
+
+    private BookingHistoryPageDto toPage(List<UserBookingView> rows, boolean hasMore) {
+        LocalDateTime now = LocalDateTime.now();
+        return BookingHistoryPageDto.builder()
+                .bookings(rows.stream().map(row -> toSummary(row, now)).toList())
+                .hasMore(hasMore)
+                .nextCursor(hasMore && !rows.isEmpty() ? PageCursor.of(rows.get(rows.size() - 1)).encode() : null)
+                .build();
+    }
+
+    private BookingSummaryDto toSummary(UserBookingView row, LocalDateTime now) {
+        return BookingSummaryDto.builder()
+                .bookingId(row.getBookingId())
+                .bookingReference(row.getBookingReference())
+                .bookingDate(row.getBookingDate())
+                .movieTitle(row.getMovieTitle())
+                .theaterName(row.getTheaterName())
+                .showDate(row.getShowDate())
+                .showTime(row.getShowTime())
+                .numberOfSeats(row.getNumberOfSeats())
+                .finalAmount(row.getFinalAmount())
+                .status(row.getStatus())
+                .paymentStatus(row.getPaymentStatus())
+                .canBeCancelled(row.canBeCancelled(now))
+                .seatNumbers(row.getSeatNumbers())
+                .build();
+    }
+
+    // ==================== PROJECTION ====================
+
+    /**
+     * Runs just before the booking transaction commits, so the view commits or rolls back with it
+     */
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
+    public void onBookingChanged(BookingChangedEvent event) {
+        Booking.BookingStatus bulkStatus = event.getBulkStatus();
+        if (bulkStatus != null) {
+            viewRepository.updateStatus(event.getBookingIds(), bulkStatus);
+        } else {
+            for (Long bookingId : event.getBookingIds()) {
+                bookingRepository.findDetailsById(bookingId)
+                        .ifPresent(booking -> viewRepository.save(UserBookingView.from(booking)));
+            }
+        }
+        invalidateAfterCommit(event.getUserIds());
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
+    public void onShowChanged(ShowChangedEvent event) {
+        if (event.getChangeType() != ShowChangedEvent.ChangeType.UPDATED) {
+            return;
+        }
+        showRepository.findById(event.getShowId()).ifPresent(show -> {
+            if (viewRepository.updateShowTiming(show.getShowId(), show.getShowDate(), show.getShowTime(),
+                    show.getShowDateTime()) > 0) {
+                invalidateAfterCommit(viewRepository.findUserIdsByShowId(show.getShowId()));
+            }
+        });
+    }
+
+    private void invalidateAfterCommit(Collection<Long> userIds) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            invalidateEverywhere(userIds);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                invalidateEverywhere(userIds);
+            }
+        });
+    }
+
+    private void invalidateEverywhere(Collection<Long> userIds) {
+        invalidate(userIds);
+        userBookingEventBus.publishBookingsChanged(userIds);
+    }
+
+    private void invalidate(Collection<Long> userIds) {
+        for (Long userId : userIds) {
+            // Bump first so a load racing with this removal does not keep its result
+            generations.incrementAndGet(stripe(userId));
+            recentBookings.remove(userId);
+        }
+    }
+
+    private static int stripe(Long userId) {
+        return (Long.hashCode(userId) & Integer.MAX_VALUE) % GENERATION_STRIPES;
+    }
+
+    // ==================== BACKFILL ====================
+
+    /**
+     * Projects bookings that predate the view, or were written while projection was unavailable
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfill() {
+        if (!backfillOnStartup) {
+            return;
+        }
+
+        long afterId = 0;
+        int projected = 0;
+        try {
+            while (true) {
+                long from = afterId;
+                List<Long> ids = transactionTemplate.execute(status -> projectMissing(from));
+                if (ids == null || ids.isEmpty()) {
+                    break;
+                }
+                projected += ids.size();
+                afterId = ids.get(ids.size() - 1);
+            }
+        } catch (Exception e) {
+            // Most likely another node projecting the same bookings; the next start picks up the rest
+            log.warn("User booking view backfill stopped after {} bookings", projected, e);
+            return;
+        }
+
+        if (projected > 0) {
+            log.info("Backfilled {} bookings into the user booking view", projected);
+        }
+    }
+
+    private List<Long> projectMissing(long afterId) {
+        List<Long> ids = bookingRepository.findIdsMissingFromUserBookingView(afterId, Limit.of(backfillBatchSize));
+        if (!ids.isEmpty()) {
+            viewRepository.saveAll(bookingRepository.findSummariesByIds(ids).stream()
+                    .map(UserBookingView::from)
+                    .toList());
+        }
+        return ids;
+    }
+
+    // ==================== CACHE AND CURSOR ====================
+
+    @Getter
+    static final class RecentBookings {
+        private final List<UserBookingView> rows;
+        // Whether the user has bookings beyond the cached ones
+        private final boolean hasMore;
+
+        RecentBookings(List<UserBookingView> rows, boolean hasMore) {
+            this.rows = rows;
+            this.hasMore = hasMore;
+        }
+    }
+
+    /**
+     * Position after the last row of a page; opaque to clients
+     */
+    @Getter
+    static final class PageCursor {
+        private final LocalDateTime bookingDate;
+        private final Long bookingId;
+
+        private PageCursor(LocalDateTime bookingDate, Long bookingId) {
+            this.bookingDate = bookingDate;
+            this.bookingId = bookingId;
+        }
+
+        static PageCursor of(UserBookingView row) {
+            return new PageCursor(row.getBookingDate(), row.getBookingId());
+        }
+
+        String encode() {
+            return Base64.getUrlEncoder().withoutPadding()
+                    .encodeToString((bookingDate + "|" + bookingId).getBytes(StandardCharsets.UTF_8));
+        }
+
+        static PageCursor decode(String cursor) {
+            try {
+                String decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+                int separator = decoded.lastIndexOf('|');
+                return new PageCursor(LocalDateTime.parse(decoded.substring(0, separator)),
+                        Long.parseLong(decoded.substring(separator + 1)));
+            } catch (IllegalArgumentException | IndexOutOfBoundsException | DateTimeParseException e) {
+                throw new InvalidBookingCursorException("Invalid booking history cursor");
+            }
+        }
+    }
+
+    // ==================== CUSTOM EXCEPTIONS ====================
+
+    public static class InvalidBookingCursorException extends BaseException {
+        public InvalidBookingCursorException(String message) {
+            super(message);
+        }
+
+        @Override
+        public int getHttpStatusCode() {
+            return 400;
+        }
+    }
+}
@@ -0,0 +1,181 @@
+package com.bookmymovie.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordingStream;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Records virtual threads pinned to their carrier (blocking inside synchronized or native code)
+ * through an in-process JFR stream of {@code jdk.VirtualThreadPinned} events.
+ * Events are grouped by the first application frame on the stack so the report points at the
+ * code to fix rather than at the JDK or library frame that blocked.
+ */
+@Service
+@Slf4j
+public class VirtualThreadPinningMonitor {
+
+    private static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+    private static final String APPLICATION_PACKAGE = "com.bookmymovie.";
+    private static final String OTHER_SITES = "(other)";
+    private static final int SAMPLE_STACK_DEPTH = 8;
+
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtualThreads;
+
+    @Value("${virtual-threads.pinning-monitor.enabled:true}")
+    private boolean enabled;
+
+    @Value("${virtual-threads.pinning-monitor.threshold-ms:20}")
+    private long thresholdMillis;
+
+    @Value("${virtual-threads.pinning-monitor.max-sites:50}")
+    private int maxSites;
+
+    private final Map<String, PinningSite> sites = new ConcurrentHashMap<>();
+    private final LongAdder totalEvents = new LongAdder();
+    private final LongAdder totalPinnedNanos = new LongAdder();
+
+    private RecordingStream recordingStream;
+    private LocalDateTime startedAt;
+
+    @PostConstruct
+    public void start() {
+        if (!enabled || !virtualThreads) {
+            return;
+        }
+
+        try {
+            recordingStream = new RecordingStream();
+            recordingStream.enable(PINNED_EVENT)
+                    .withThreshold(Duration.ofMillis(thresholdMillis))
+                    .withStackTrace();
+            recordingStream.onEvent(PINNED_EVENT, this::record);
+            recordingStream.startAsync();
+            startedAt = LocalDateTime.now();
+            log.info("Virtual thread pinning monitor started (threshold: {}ms)", thresholdMillis);
+        } catch (Exception e) {
+            log.warn("Could not start JFR stream for virtual thread pinning; report will be empty", e);
+            recordingStream = null;
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (recordingStream != null) {
+            recordingStream.close();
+        }
+    }
+
+    public Map<String, Object> getReport() {
+        List<PinningSite> topSites = new ArrayList<>(sites.values());
+        topSites.sort(Comparator.comparingLong(PinningSite::totalNanos).reversed());
+
+        List<Map<String, Object>> siteReports = new ArrayList<>();
+        for (PinningSite site : topSites) {
+            Map<String, Object> siteReport = new LinkedHashMap<>();
+            siteReport.put("site", site.site);
+            siteReport.put("count", site.count.sum());
+            siteReport.put("totalPinnedMs", site.totalNanos() / 1_000_000);
+            siteReport.put("maxPinnedMs", site.maxNanos.get() / 1_000_000);
+            siteReport.put("sampleStack", site.sampleStack);
+            siteReports.add(siteReport);
+        }
+
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("virtualThreadsEnabled", virtualThreads);
+        report.put("monitorActive", recordingStream != null);
+        report.put("thresholdMs", thresholdMillis);
+        report.put("since", startedAt);
+        report.put("totalEvents", totalEvents.sum());
+        report.put("totalPinnedMs", totalPinnedNanos.sum() / 1_000_000);
+        report.put("sites", siteReports);
+        return report;
+    }
+
+    public void reset() {
+        sites.clear();
+        totalEvents.reset();
+        totalPinnedNanos.reset();
+        startedAt = LocalDateTime.now();
+    }
+
+    private void record(RecordedEvent event) {
+        long nanos = event.getDuration().toNanos();
+        totalEvents.increment();
+        totalPinnedNanos.add(nanos);
+
+        List<String> stack = describeStack(event.getStackTrace());
+        String site = stack.stream()
+                .filter(frame -> frame.startsWith(APPLICATION_PACKAGE))
+                .findFirst()
+                .orElse(stack.isEmpty() ? "(no stack trace)" : stack.get(0));
+
+        if (!sites.containsKey(site) && sites.size() >= maxSites) {
+            site = OTHER_SITES;
+        }
+        String key = site;
+        sites.computeIfAbsent(key, k -> new PinningSite(k, stack)).add(nanos);
+    }
+
+    private List<String> describeStack(RecordedStackTrace stackTrace) {
+        if (stackTrace == null) {
+            return List.of();
+        }
+
+        List<String> frames = new ArrayList<>();
+        boolean applicationFrameSeen = false;
+        for (RecordedFrame frame : stackTrace.getFrames()) {
+            if (!frame.isJavaFrame()) {
+                continue;
+            }
+            String description = frame.getMethod().getType().getName() + "." + frame.getMethod().getName()
+                    + ":" + frame.getLineNumber();
+            frames.add(description);
+            applicationFrameSeen |= description.startsWith(APPLICATION_PACKAGE);
+            if (applicationFrameSeen && frames.size() >= SAMPLE_STACK_DEPTH) {
+                break;
+            }
+        }
+        return frames;
+    }
+
+    private static class PinningSite {
+        private final String site;
+        private final List<String> sampleStack;
+        private final LongAdder count = new LongAdder();
+        private final LongAdder pinnedNanos = new LongAdder();
+        private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0);
+
+        private PinningSite(String site, List<String> sampleStack) {
+            this.site = site;
+            this.sampleStack = sampleStack;
+        }
+
+        private void add(long nanos) {
+            count.increment();
+            pinnedNanos.add(nanos);
+            maxNanos.accumulate(nanos);
+        }
+
+        private long totalNanos() {
+            return pinnedNanos.sum();
+        }
+    }
+}
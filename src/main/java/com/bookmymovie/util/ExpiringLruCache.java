@@ -0,0 +1,224 @@
+package com.bookmymovie.util;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+import java.util.function.Predicate;
+import java.util.function.UnaryOperator;
+
+/**
+ * Bounded LRU cache whose entries also carry their own expiry time.
+ * The key space is split over independently locked segments so concurrent readers rarely
+ * contend; each segment is an access-ordered map that evicts its least recently used entry
+ * once full. Expired entries are dropped when read, or age out as least recently used.
+ * Locks are {@link ReentrantLock}s so waiting virtual threads do not pin their carrier.
+ */
+public class ExpiringLruCache<K, V> {
+
+    private final Segment<K, V>[] segments;
+    private final int segmentMask;
+    private final LongSupplier clock;
+
+    public ExpiringLruCache(int maxSize) {
+        this(maxSize, System::currentTimeMillis);
+    }
+
+    /**
+     * @param clock current time in epoch millis, the same scale as the expiry passed to {@link #put}
+     */
+    @SuppressWarnings("unchecked")
+    public ExpiringLruCache(int maxSize, LongSupplier clock) {
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("Cache size must be positive");
+        }
+        int segmentCount = Math.min(Integer.highestOneBit(Math.max(Runtime.getRuntime().availableProcessors(), 1)) * 2, 64);
+        segmentCount = Math.max(Math.min(segmentCount, Integer.highestOneBit(maxSize)), 1);
+
+        this.segments = new Segment[segmentCount];
+        this.segmentMask = segmentCount - 1;
+        this.clock = clock;
+        int segmentCapacity = Math.max(maxSize / segmentCount, 1);
+        for (int i = 0; i < segmentCount; i++) {
+            segments[i] = new Segment<>(segmentCapacity);
+        }
+    }
+
+    /**
+     * @return the cached value, or null if absent or expired
+     */
+    public V get(K key) {
+        return segmentFor(key).get(key, clock.getAsLong());
+    }
+
+    /**
+     * Caches a value until the given time; values that are already expired are not stored
+     */
+    public void put(K key, V value, long expiresAtMillis) {
+        if (expiresAtMillis <= clock.getAsLong()) {
+            return;
+        }
+        segmentFor(key).put(key, new Entry<>(value, expiresAtMillis));
+    }
+
+    /**
+     * Returns the live value for the key, creating it while the segment is locked if absent or expired.
+     * The factory must be cheap and must not block.
+     */
+    public V getOrCreate(K key, Function<? super K, ? extends V> factory, long expiresAtMillis) {
+        return segmentFor(key).getOrCreate(key, factory, expiresAtMillis, clock.getAsLong());
+    }
+
+    /**
+     * Replaces a live value with the result of the function, keeping its expiry.
+     * Runs while the segment is locked, so the function must be cheap and must not block.
+     */
+    public void computeIfPresent(K key, UnaryOperator<V> remapping) {
+        segmentFor(key).computeIfPresent(key, remapping, clock.getAsLong());
+    }
+
+    public void remove(K key) {
+        segmentFor(key).remove(key);
+    }
+
+    /**
+     * Removes every entry whose value matches; scans the whole cache
+     */
+    public void removeIf(Predicate<? super V> filter) {
+        for (Segment<K, V> segment : segments) {
+            segment.removeIf(filter);
+        }
+    }
+
+    public void clear() {
+        for (Segment<K, V> segment : segments) {
+            segment.clear();
+        }
+    }
+
+    public int size() {
+        int size = 0;
+        for (Segment<K, V> segment : segments) {
+            size += segment.size();
+        }
+        return size;
+    }
+
+    private Segment<K, V> segmentFor(K key) {
+        int hash = key.hashCode();
+        return segments[(hash ^ (hash >>> 16)) & segmentMask];
+    }
+
+    private static final class Entry<V> {
+        private final V value;
+        private final long expiresAtMillis;
+
+        private Entry(V value, long expiresAtMillis) {
+            this.value = value;
+            this.expiresAtMillis = expiresAtMillis;
+        }
+    }
+
+    private static final class Segment<K, V> {
+        private final ReentrantLock lock = new ReentrantLock();
+        private final LinkedHashMap<K, Entry<V>> entries;
+
+        private Segment(int capacity) {
+            this.entries = new LinkedHashMap<>(Math.min(capacity, 1024), 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<K, Entry<V>> eldest) {
+                    return size() > capacity;
+                }
+            };
+        }
+
+        private V get(K key, long now) {
+            lock.lock();
+            try {
+                Entry<V> entry = entries.get(key);
+                if (entry == null) {
+                    return null;
+                }
+                if (entry.expiresAtMillis <= now) {
+                    entries.remove(key);
+                    return null;
+                }
+                return entry.value;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private V getOrCreate(K key, Function<? super K, ? extends V> factory, long expiresAtMillis, long now) {
+            lock.lock();
+            try {
+                Entry<V> entry = entries.get(key);
+                if (entry == null || entry.expiresAtMillis <= now) {
+                    entry = new Entry<>(factory.apply(key), expiresAtMillis);
+                    entries.put(key, entry);
+                }
+                return entry.value;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private void put(K key, Entry<V> entry) {
+            lock.lock();
+            try {
+                entries.put(key, entry);
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private void computeIfPresent(K key, UnaryOperator<V> remapping, long now) {
+            lock.lock();
+            try {
+                Entry<V> entry = entries.get(key);
+                if (entry != null && entry.expiresAtMillis > now) {
+                    entries.put(key, new Entry<>(remapping.apply(entry.value), entry.expiresAtMillis));
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private void removeIf(Predicate<? super V> filter) {
+            lock.lock();
+            try {
+                entries.values().removeIf(entry -> filter.test(entry.value));
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private void remove(K key) {
+            lock.lock();
+            try {
+                entries.remove(key);
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private void clear() {
+            lock.lock();
+            try {
+                entries.clear();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private int size() {
+            lock.lock();
+            try {
+                return entries.size();
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+}
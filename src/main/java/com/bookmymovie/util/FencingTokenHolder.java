@@ -0,0 +1,44 @@
+package com.bookmymovie.util;
+
+/**
+ * Fencing token of the innermost fenced @DistributedLock held by the current thread.
+ * Tokens grow with every acquisition of a lock key, so a write that stores its token and only
+ * succeeds against a smaller stored token rejects holders whose lease already ran out.
+ */
+public final class FencingTokenHolder {
+
+    private static final ThreadLocal<Long> CURRENT = new ThreadLocal<>();
+
+    private FencingTokenHolder() {
+    }
+
+    /**
+     * @throws IllegalStateException if the caller is not running under a fenced lock
+     */
+    public static long current() {
+        Long token = CURRENT.get();
+        if (token == null) {
+            throw new IllegalStateException("No fenced distributed lock is held by this thread");
+        }
+        return token;
+    }
+
+    /**
+     * Binds a token for the current thread
+     *
+     * @return the token bound before, to be passed to {@link #restore}
+     */
+    public static Long bind(long token) {
+        Long previous = CURRENT.get();
+        CURRENT.set(token);
+        return previous;
+    }
+
+    public static void restore(Long previous) {
+        if (previous == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(previous);
+        }
+    }
+}
@@ -0,0 +1,202 @@
+package com.bookmymovie.util;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+/**
+ * Hashed timing wheel.
+ * Items are hashed into buckets by deadline tick; deadlines further out than one revolution
+ * carry a remaining-rounds counter. A single worker thread advances the wheel once per tick
+ * and hands everything that fell due in that tick to the expiry handler as one batch.
+ * Scheduling is lock-free: callers only append to a pending queue drained by the worker.
+ * Cancelling only marks the timeout; the worker drops it when it next reaches its bucket.
+ */
+@Slf4j
+public class HashedTimingWheel<T> {
+
+    private final String name;
+    private final long tickMillis;
+    private final int mask;
+    private final List<List<Timeout<T>>> buckets;
+    private final Queue<Timeout<T>> pending = new ConcurrentLinkedQueue<>();
+    private final Consumer<List<T>> expiryHandler;
+    private final AtomicInteger size = new AtomicInteger();
+    private final ReentrantLock lifecycleLock = new ReentrantLock();
+
+    private volatile boolean running;
+    private Thread worker;
+    private long startTime;
+    private long tick;
+
+    /**
+     * @param tickMillis    resolution of the wheel
+     * @param wheelSize     number of buckets, rounded up to a power of two
+     * @param expiryHandler receives the items that fell due in a tick, on the worker thread
+     */
+    public HashedTimingWheel(String name, long tickMillis, int wheelSize, Consumer<List<T>> expiryHandler) {
+        if (tickMillis <= 0) {
+            throw new IllegalArgumentException("Tick duration must be positive");
+        }
+        int normalizedSize = Integer.highestOneBit(Math.max(wheelSize, 2) - 1) << 1;
+
+        this.name = name;
+        this.tickMillis = tickMillis;
+        this.mask = normalizedSize - 1;
+        this.expiryHandler = expiryHandler;
+        this.buckets = new ArrayList<>(normalizedSize);
+        for (int i = 0; i < normalizedSize; i++) {
+            buckets.add(new ArrayList<>());
+        }
+    }
+
+    public void start() {
+        lifecycleLock.lock();
+        try {
+            if (running) {
+                return;
+            }
+            running = true;
+            startTime = System.currentTimeMillis();
+            worker = new Thread(this::run, name);
+            worker.setDaemon(true);
+            worker.start();
+        } finally {
+            lifecycleLock.unlock();
+        }
+    }
+
+    public void stop() {
+        lifecycleLock.lock();
+        try {
+            running = false;
+            if (worker != null) {
+                worker.interrupt();
+            }
+        } finally {
+            lifecycleLock.unlock();
+        }
+    }
+
+    /**
+     * Schedules an item; deadlines in the past fire on the next tick
+     *
+     * @return handle that cancels the item if it has not fired yet
+     */
+    public Timeout<T> schedule(T item, long deadlineMillis) {
+        Timeout<T> timeout = new Timeout<>(this, item, deadlineMillis);
+        size.incrementAndGet();
+        pending.add(timeout);
+        return timeout;
+    }
+
+    public int size() {
+        return size.get();
+    }
+
+    private void run() {
+        while (running) {
+            try {
+                long nextTick = startTime + (tick + 1) * tickMillis;
+                long sleepMillis = nextTick - System.currentTimeMillis();
+                if (sleepMillis > 0) {
+                    TimeUnit.MILLISECONDS.sleep(sleepMillis);
+                }
+
+                transferPending();
+                List<T> expired = expireBucket(buckets.get((int) (tick & mask)));
+                tick++;
+
+                if (!expired.isEmpty()) {
+                    size.addAndGet(-expired.size());
+                    expiryHandler.accept(expired);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception e) {
+                log.error("Error in timing wheel {} at tick {}", name, tick, e);
+            }
+        }
+    }
+
+    private void transferPending() {
+        Timeout<T> entry;
+        while ((entry = pending.poll()) != null) {
+            if (entry.isCancelled()) {
+                continue;
+            }
+            long deadlineTick = Math.max((entry.deadlineMillis - startTime) / tickMillis, tick);
+            entry.remainingRounds = (deadlineTick - tick) / buckets.size();
+            buckets.get((int) (deadlineTick & mask)).add(entry);
+        }
+    }
+
+    private List<T> expireBucket(List<Timeout<T>> bucket) {
+        List<T> expired = new ArrayList<>();
+        Iterator<Timeout<T>> iterator = bucket.iterator();
+        while (iterator.hasNext()) {
+            Timeout<T> entry = iterator.next();
+            if (entry.isCancelled()) {
+                iterator.remove();
+            } else if (entry.remainingRounds <= 0) {
+                iterator.remove();
+                // Lost to a concurrent cancel, which has already taken it out of the size
+                if (entry.done.compareAndSet(false, true)) {
+                    expired.add(entry.item);
+                }
+            } else {
+                entry.remainingRounds--;
+            }
+        }
+        return expired;
+    }
+
+    /**
+     * An item scheduled on the wheel
+     */
+    public static final class Timeout<T> {
+        private final HashedTimingWheel<T> wheel;
+        private final T item;
+        private final long deadlineMillis;
+        // Set once, by whichever of expiry and cancel gets there first
+        private final AtomicBoolean done = new AtomicBoolean();
+        private volatile boolean cancelled;
+        private long remainingRounds;
+
+        private Timeout(HashedTimingWheel<T> wheel, T item, long deadlineMillis) {
+            this.wheel = wheel;
+            this.item = item;
+            this.deadlineMillis = deadlineMillis;
+        }
+
+        public T getItem() {
+            return item;
+        }
+
+        /**
+         * @return true if the item had not fired yet and now never will
+         */
+        public boolean cancel() {
+            if (!done.compareAndSet(false, true)) {
+                return false;
+            }
+            cancelled = true;
+            wheel.size.decrementAndGet();
+            return true;
+        }
+
+        public boolean isCancelled() {
+            return cancelled;
+        }
+    }
+}
@@ -0,0 +1,144 @@
+package com.bookmymovie.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Closed intervals [start, end] with overlap queries in O(log n + k).
+ * A treap ordered by start, where each node also tracks the largest end in its subtree so
+ * whole subtrees that end before the query are skipped. Random priorities keep it balanced
+ * even when intervals arrive in sorted order, as schedules usually do.
+ * Not thread-safe; meant to be built and queried by one thread, e.g. per scheduling request.
+ */
+public class IntervalTree<T> {
+
+    private final SplittableRandom random = new SplittableRandom();
+    private Node<T> root;
+    private int size;
+
+    public void add(long start, long end, T value) {
+        if (end < start) {
+            throw new IllegalArgumentException("Interval end " + end + " is before its start " + start);
+        }
+        root = insert(root, new Node<>(start, end, value, random.nextInt()));
+        size++;
+    }
+
+    /**
+     * @return values of all intervals sharing at least one point with [start, end]
+     */
+    public List<T> findOverlapping(long start, long end) {
+        List<T> result = new ArrayList<>();
+        collect(root, start, end, result);
+        return result;
+    }
+
+    public boolean overlapsAny(long start, long end) {
+        return anyOverlap(root, start, end);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    // ==================== TREAP OPERATIONS ====================
+
+    private static <T> Node<T> insert(Node<T> node, Node<T> added) {
+        if (node == null) {
+            return added;
+        }
+        if (added.start < node.start) {
+            node.left = insert(node.left, added);
+            if (node.left.priority > node.priority) {
+                node = rotateRight(node);
+            }
+        } else {
+            node.right = insert(node.right, added);
+            if (node.right.priority > node.priority) {
+                node = rotateLeft(node);
+            }
+        }
+        node.update();
+        return node;
+    }
+
+    private static <T> Node<T> rotateRight(Node<T> node) {
+        Node<T> left = node.left;
+        node.left = left.right;
+        left.right = node;
+        node.update();
+        left.update();
+        return left;
+    }
+
+    private static <T> Node<T> rotateLeft(Node<T> node) {
+        Node<T> right = node.right;
+        node.right = right.left;
+        right.left = node;
+        node.update();
+        right.update();
+        return right;
+    }
+
+    private static <T> void collect(Node<T> node, long start, long end, List<T> result) {
+        if (node == null || node.maxEnd < start) {
+            return;
+        }
+        collect(node.left, start, end, result);
+        if (node.start <= end) {
+            if (node.end >= start) {
+                result.add(node.value);
+            }
+            // Everything to the right starts at or after this node
+            collect(node.right, start, end, result);
+        }
+    }
+
+    private static <T> boolean anyOverlap(Node<T> node, long start, long end) {
+        while (node != null && node.maxEnd >= start) {
+            if (node.start <= end && node.end >= start) {
+                return true;
+            }
+            if (node.left != null && node.left.maxEnd >= start) {
+                // If nothing on the left overlaps, the left interval that reaches the query starts
+                // after it ends, and so does everything to the right
+                node = node.left;
+            } else if (node.start <= end) {
+                node = node.right;
+            } else {
+                return false;
+            }
+        }
+        return false;
+    }
+
+    private static final class Node<T> {
+        private final long start;
+        private final long end;
+        private final T value;
+        private final int priority;
+        private long maxEnd;
+        private Node<T> left;
+        private Node<T> right;
+
+        Node(long start, long end, T value, int priority) {
+            this.start = start;
+            this.end = end;
+            this.value = value;
+            this.priority = priority;
+            this.maxEnd = end;
+        }
+
+        void update() {
+            long max = end;
+            if (left != null && left.maxEnd > max) {
+                max = left.maxEnd;
+            }
+            if (right != null && right.maxEnd > max) {
+                max = right.maxEnd;
+            }
+            maxEnd = max;
+        }
+    }
+}
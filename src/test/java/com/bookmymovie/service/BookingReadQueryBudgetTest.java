@@ -0,0 +1,224 @@
+package com.bookmymovie.service;
+
+import com.bookmymovie.constants.MovieConstant;
+import com.bookmymovie.constants.TheaterConstant;
+import com.bookmymovie.constants.UserConstant;
+import com.bookmymovie.dto.response.BookingHistoryPageDto;
+import com.bookmymovie.entity.*;
+import com.bookmymovie.repository.BookingRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Guards the number of SQL statements the booking read paths issue, so an added lazy
+ * association in a DTO mapping shows up as a failed budget rather than an N+1 in production.
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+@Import({PricingEngine.class, UserBookingViewService.class})
+class BookingReadQueryBudgetTest {
+
+    private static final int BOOKINGS = 8;
+    private static final int SEATS_PER_BOOKING = 3;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private PricingEngine pricingEngine;
+
+    @Autowired
+    private UserBookingViewService userBookingViewService;
+
+    // Cross-node invalidation goes through Redis, which this slice does not start
+    @MockitoBean
+    private UserBookingEventBus userBookingEventBus;
+
+    private BookingService bookingService;
+    private Statistics statistics;
+    private Long userId;
+    private Booking firstBooking;
+
+    @BeforeEach
+    void setUp() {
+        User user = entityManager.persist(User.builder()
+                .email("budget@example.com")
+                .password("secret")
+                .firstName("Query")
+                .lastName("Budget")
+                .phoneNumber("9876543210")
+                .role(UserConstant.UserRole.USER)
+                .isActive(true)
+                .ipAddress("127.0.0.1")
+                .build());
+        userId = user.getUserId();
+
+        Theater theater = entityManager.persist(Theater.builder()
+                .name("Budget Cinemas")
+                .address("1 Test Road")
+                .city("Bengaluru")
+                .state("Karnataka")
+                .pincode("560001")
+                .latitude(new BigDecimal("12.97160000"))
+                .longitude(new BigDecimal("77.59460000"))
+                .theaterType(TheaterConstant.TheaterType.MULTIPLEX)
+                .build());
+        Screen screen = entityManager.persist(Screen.builder()
+                .name("Screen 1")
+                .theater(theater)
+                .screenType(TheaterConstant.ScreenType.REGULAR_2D)
+                .soundSystem(TheaterConstant.SoundSystem.STEREO)
+                .totalRows(1)
+                .totalSeats(BOOKINGS * SEATS_PER_BOOKING)
+                .build());
+
+        List<Seat> seats = new ArrayList<>();
+        for (int number = 1; number <= BOOKINGS * SEATS_PER_BOOKING; number++) {
+            seats.add(entityManager.persist(Seat.builder()
+                    .screen(screen)
+                    .rowLabel("A")
+                    .rowNumber(1)
+                    .seatNumber(number)
+                    .category(TheaterConstant.SeatCategory.REGULAR)
+                    .basePrice(new BigDecimal("200.00"))
+                    .build()));
+        }
+
+        // Each booking is for a different movie and show, so nothing is shared through the persistence context
+        for (int i = 0; i < BOOKINGS; i++) {
+            Movie movie = entityManager.persist(Movie.builder()
+                    .title("Movie " + i)
+                    .durationMinutes(120)
+                    .language(MovieConstant.Language.ENGLISH)
+                    .genres(Set.of(MovieConstant.Genre.ACTION))
+                    .rating(MovieConstant.Rating.U)
+                    .releaseDate(LocalDate.now().minusDays(7))
+                    .build());
+            LocalDate showDate = LocalDate.now().plusDays(1 + i);
+            LocalTime showTime = LocalTime.of(10, 0);
+            Show show = entityManager.persist(Show.builder()
+                    .movie(movie)
+                    .screen(screen)
+                    .showDate(showDate)
+                    .showTime(showTime)
+                    .showDateTime(LocalDateTime.of(showDate, showTime))
+                    .basePrice(new BigDecimal("200.00"))
+                    .totalSeats(BOOKINGS * SEATS_PER_BOOKING)
+                    .availableSeats(BOOKINGS * SEATS_PER_BOOKING)
+                    .build());
+
+            Booking booking = Booking.builder()
+                    .bookingReference("BKBUDGET" + i)
+                    .user(user)
+                    .show(show)
+                    .bookingDate(LocalDateTime.now().minusMinutes(i))
+                    .numberOfSeats(SEATS_PER_BOOKING)
+                    .totalAmount(new BigDecimal("600.00"))
+                    .finalAmount(new BigDecimal("600.00"))
+                    .contactEmail("budget@example.com")
+                    .contactPhone("9876543210")
+                    .bookedSeats(new ArrayList<>())
+                    .build();
+            for (int s = 0; s < SEATS_PER_BOOKING; s++) {
+                Seat seat = seats.get(i * SEATS_PER_BOOKING + s);
+                booking.getBookedSeats().add(BookingSeat.builder()
+                        .booking(booking)
+                        .seat(seat)
+                        .seatPrice(new BigDecimal("200.00"))
+                        .seatRow(seat.getRowLabel())
+                        .seatNumber(seat.getSeatNumber())
+                        .seatCategory(seat.getCategory().name())
+                        .build());
+            }
+            entityManager.persist(booking);
+            if (i == 0) {
+                firstBooking = booking;
+            }
+        }
+        entityManager.flush();
+        userBookingViewService.backfill();
+        entityManager.flush();
+        entityManager.clear();
+
+        // Only the repositories the read paths touch are wired
+        bookingService = new BookingService(null, bookingRepository, null, null, null, null, null,
+                null, null, null, event -> { }, pricingEngine);
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Test
+    void userBookingsLoadInConstantQueries() {
+        BookingHistoryPageDto first = countingQueries(1, () -> userBookingViewService.getUserBookings(userId, null, 5));
+
+        assertThat(first.getBookings()).hasSize(5);
+        assertThat(first.getBookings().get(0).getSeatNumbers()).isEqualTo("A1, A2, A3");
+        assertThat(first.getHasMore()).isTrue();
+
+        BookingHistoryPageDto next = countingQueries(1,
+                () -> userBookingViewService.getUserBookings(userId, first.getNextCursor(), 5));
+
+        assertThat(next.getBookings()).hasSize(BOOKINGS - 5);
+        assertThat(next.getBookings().get(0).getBookingReference()).isEqualTo("BKBUDGET5");
+        assertThat(next.getHasMore()).isFalse();
+    }
+
+    @Test
+    void userBookingsPageLoadsInConstantQueries() {
+        // Page rows, their seats in one batch, and the count
+        var page = countingQueries(3, () -> bookingService.getUserBookingsPaginated(userId, 0, 5));
+
+        assertThat(page.getContent()).hasSize(5);
+        assertThat(page.getTotalElements()).isEqualTo(BOOKINGS);
+    }
+
+    @Test
+    void bookingDetailsLoadInOneQuery() {
+        var details = countingQueries(1, () -> bookingService.getBookingById(firstBooking.getBookingId()));
+
+        assertThat(details.getBookingReference()).isEqualTo("BKBUDGET0");
+    }
+
+    @Test
+    void receiptLoadsInOneQuery() {
+        var receipt = countingQueries(1, () -> bookingService.getBookingReceipt("BKBUDGET0"));
+
+        assertThat(receipt.getMovieTitle()).isEqualTo("Movie 0");
+    }
+
+    private <T> T countingQueries(long budget, Supplier<T> read) {
+        statistics.clear();
+        T result = read.get();
+        assertThat(statistics.getPrepareStatementCount())
+                .as("SQL statements issued")
+                .isLessThanOrEqualTo(budget);
+        return result;
+    }
+}
@@ -0,0 +1,139 @@
+package com.bookmymovie.service;
+
+import com.bookmymovie.entity.Movie;
+import com.bookmymovie.entity.Screen;
+import com.bookmymovie.entity.Show;
+import com.bookmymovie.entity.Theater;
+import com.bookmymovie.repository.ShowRepository;
+import com.bookmymovie.service.ScreenTimetableIndex.FreeSlot;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Free-slot search over a screen's timetable. Shows occupy the screen from their start until
+ * their end plus cleaning time, both minutes inclusive.
+ */
+class ScreenTimetableIndexTest {
+
+    private static final long SCREEN_ID = 1L;
+    private static final LocalDate DAY = LocalDate.of(2030, 3, 15);
+    private static final LocalDate NEXT_DAY = DAY.plusDays(1);
+    private static final int OCCUPIED_MINUTES = 120;
+
+    private final List<Show> shows = new ArrayList<>();
+    private ScreenTimetableIndex index;
+    private Screen screen;
+    private Movie movie;
+
+    @BeforeEach
+    void setUp() {
+        ShowRepository showRepository = mock(ShowRepository.class);
+        when(showRepository.findActiveShowsByScreenBetweenDates(eq(SCREEN_ID), any(), any()))
+                .thenAnswer(invocation -> shows.stream()
+                        .filter(show -> show.getShowDate().equals(invocation.getArgument(1)))
+                        .toList());
+        PricingEngine pricingEngine = mock(PricingEngine.class);
+        when(pricingEngine.listedPrice(any())).thenReturn(BigDecimal.valueOf(250));
+
+        index = new ScreenTimetableIndex(showRepository, pricingEngine, new ShowListingEventBus(null), 100);
+        ReflectionTestUtils.setField(index, "ttlSeconds", 600L);
+
+        screen = Screen.builder().screenId(SCREEN_ID).name("Audi 1")
+                .theater(Theater.builder().theaterId(1L).name("PVR Orion Mall").build())
+                .build();
+        movie = Movie.builder().movieId(1L).title("Interstellar").durationMinutes(150).build();
+    }
+
+    @Test
+    void showRunningPastMidnightBlocksTheNextMorning() {
+        // 22:30 + 150 min + 20 min cleaning: occupied until 01:20 the next day
+        show(1L, DAY, LocalTime.of(22, 30), 150);
+        show(2L, NEXT_DAY, LocalTime.of(10, 0), 150);
+
+        List<FreeSlot> slots = index.findFreeSlots(SCREEN_ID, NEXT_DAY.atStartOfDay(), NEXT_DAY.atTime(12, 0),
+                OCCUPIED_MINUTES);
+
+        assertThat(slots).hasSize(1);
+        assertThat(slots.get(0).getFreeFrom()).isEqualTo(NEXT_DAY.atTime(1, 21));
+        assertThat(slots.get(0).getFreeUntil()).isEqualTo(NEXT_DAY.atTime(9, 59));
+        assertThat(slots.get(0).getLatestStart()).isEqualTo(NEXT_DAY.atTime(7, 59));
+    }
+
+    @Test
+    void showRunningPastMidnightEndsTheEveningWindow() {
+        show(1L, DAY, LocalTime.of(22, 30), 150);
+
+        List<FreeSlot> slots = index.findFreeSlots(SCREEN_ID, DAY.atTime(18, 0), NEXT_DAY.atTime(6, 0),
+                OCCUPIED_MINUTES);
+
+        assertThat(slots).extracting(FreeSlot::getFreeFrom, FreeSlot::getFreeUntil).containsExactly(
+                tuple(DAY.atTime(18, 0), DAY.atTime(22, 29)),
+                tuple(NEXT_DAY.atTime(1, 21), NEXT_DAY.atTime(6, 0)));
+    }
+
+    @Test
+    void gapExactlyAsLongAsTheShowFits() {
+        // Occupied 10:00-12:50, then a gap 12:51-14:51, then the next show at 14:52
+        show(1L, DAY, LocalTime.of(10, 0), 150);
+        show(2L, DAY, LocalTime.of(14, 52), 60);
+
+        List<FreeSlot> slots = index.findFreeSlots(SCREEN_ID, DAY.atTime(10, 0), DAY.atTime(16, 12),
+                OCCUPIED_MINUTES);
+
+        assertThat(slots).hasSize(1);
+        assertThat(slots.get(0).getFreeFrom()).isEqualTo(DAY.atTime(12, 51));
+        assertThat(slots.get(0).getLatestStart()).isEqualTo(DAY.atTime(12, 51));
+    }
+
+    @Test
+    void gapOneMinuteShortOfTheShowDoesNotFit() {
+        show(1L, DAY, LocalTime.of(10, 0), 150);
+        show(2L, DAY, LocalTime.of(14, 51), 60);
+
+        List<FreeSlot> slots = index.findFreeSlots(SCREEN_ID, DAY.atTime(10, 0), DAY.atTime(16, 11),
+                OCCUPIED_MINUTES);
+
+        assertThat(slots).isEmpty();
+    }
+
+    @Test
+    void emptyScreenIsFreeForTheWholeWindow() {
+        List<FreeSlot> slots = index.findFreeSlots(SCREEN_ID, DAY.atTime(9, 0), DAY.atTime(23, 0), OCCUPIED_MINUTES);
+
+        assertThat(slots).hasSize(1);
+        assertThat(slots.get(0).getFreeFrom()).isEqualTo(DAY.atTime(9, 0));
+        assertThat(slots.get(0).getFreeUntil()).isEqualTo(DAY.atTime(23, 0));
+        assertThat(slots.get(0).getLatestStart()).isEqualTo(DAY.atTime(21, 0));
+    }
+
+    private void show(Long showId, LocalDate date, LocalTime time, int runMinutes) {
+        LocalDateTime startsAt = LocalDateTime.of(date, time);
+        shows.add(Show.builder()
+                .showId(showId)
+                .movie(movie)
+                .screen(screen)
+                .showDate(date)
+                .showTime(time)
+                .showDateTime(startsAt)
+                .endTime(startsAt.plusMinutes(runMinutes))
+                .totalSeats(100)
+                .availableSeats(100)
+                .status(Show.ShowStatus.SCHEDULED)
+                .build());
+    }
+}
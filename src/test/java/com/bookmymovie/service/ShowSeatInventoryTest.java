@@ -0,0 +1,170 @@
+package com.bookmymovie.service;
+
+import com.bookmymovie.service.SeatInventoryService.HoldToken;
+import com.bookmymovie.service.SeatInventoryService.SeatChanges;
+import com.bookmymovie.service.SeatInventoryService.ShowSeatInventory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Hold, rollback and change-log behaviour of a single show's seat inventory
+ */
+class ShowSeatInventoryTest {
+
+    private static final long[] SEAT_IDS = {10, 20, 30, 40, 50, 60, 70, 80};
+
+    private ShowSeatInventory inventory;
+    private long now;
+
+    @BeforeEach
+    void setUp() {
+        inventory = new ShowSeatInventory(1L, 1L, System.currentTimeMillis() + 3_600_000, SEAT_IDS.clone());
+        now = System.currentTimeMillis();
+    }
+
+    @Test
+    void overlappingHoldIsRefusedWithoutTouchingTheFirst() {
+        long first = liveToken(1);
+        long second = liveToken(2);
+
+        assertThat(inventory.tryHold(List.of(10L, 20L), first)).isTrue();
+        assertThat(inventory.tryHold(List.of(20L, 30L), second)).isFalse();
+
+        assertThat(inventory.isHeld(ordinal(10), now)).isTrue();
+        assertThat(inventory.isHeld(ordinal(20), now)).isTrue();
+        assertThat(inventory.isHeld(ordinal(30), now)).isFalse();
+
+        // The first hold still owns its seats: only its own token releases them
+        inventory.releaseHold(List.of(20L), second);
+        assertThat(inventory.isHeld(ordinal(20), now)).isTrue();
+        inventory.releaseHold(List.of(10L, 20L), first);
+        assertThat(inventory.countAvailable(now)).isEqualTo(SEAT_IDS.length);
+    }
+
+    @Test
+    void disjointHoldsBothSucceed() {
+        assertThat(inventory.tryHold(List.of(10L, 20L), liveToken(1))).isTrue();
+        assertThat(inventory.tryHold(List.of(30L, 40L), liveToken(2))).isTrue();
+
+        assertThat(inventory.countAvailable(now)).isEqualTo(SEAT_IDS.length - 4);
+    }
+
+    @Test
+    void expiredHoldIsTakenOver() {
+        long expired = HoldToken.of(now - 5_000, 1);
+        inventory.forceHold(List.of(10L, 20L), expired);
+        assertThat(inventory.isHeld(ordinal(10), now)).isFalse();
+
+        long taker = liveToken(2);
+        assertThat(inventory.tryHold(List.of(10L, 20L), taker)).isTrue();
+        assertThat(inventory.isHeld(ordinal(10), now)).isTrue();
+
+        // The expired owner can no longer release what was taken over
+        inventory.releaseHold(List.of(10L, 20L), expired);
+        assertThat(inventory.isHeld(ordinal(10), now)).isTrue();
+        assertThat(inventory.isHeld(ordinal(20), now)).isTrue();
+    }
+
+    @Test
+    void liveHoldIsNotTakenOver() {
+        inventory.forceHold(List.of(10L), liveToken(1));
+
+        assertThat(inventory.tryHold(List.of(10L), liveToken(2))).isFalse();
+    }
+
+    @Test
+    void partialClaimIsRolledBack() {
+        inventory.confirm(List.of(30L));
+        long version = inventory.getVersion();
+
+        assertThat(inventory.tryHold(List.of(10L, 20L, 30L), liveToken(1))).isFalse();
+
+        assertThat(inventory.isHeld(ordinal(10), now)).isFalse();
+        assertThat(inventory.isHeld(ordinal(20), now)).isFalse();
+        assertThat(inventory.isBooked(ordinal(30))).isTrue();
+        // Readers following the change log see the seats that were briefly claimed come back
+        assertThat(inventory.changesSince(version).getOrdinals()).containsExactly(ordinal(10), ordinal(20));
+    }
+
+    @Test
+    void rollbackRestoresTheTokenThatWasTakenOver() {
+        long expired = HoldToken.of(now - 5_000, 1);
+        inventory.forceHold(List.of(10L), expired);
+
+        assertThat(inventory.tryHold(List.of(10L, 99L), liveToken(2))).isFalse();
+
+        // The expired owner still owns the seat, so its release goes through
+        long version = inventory.getVersion();
+        inventory.releaseHold(List.of(10L), expired);
+        assertThat(inventory.getVersion()).isEqualTo(version + 1);
+    }
+
+    @Test
+    void blockedAndBookedSeatsCannotBeHeld() {
+        inventory.setBlocked(List.of(10L), true);
+        inventory.confirm(List.of(20L));
+
+        assertThat(inventory.tryHold(List.of(10L), liveToken(1))).isFalse();
+        assertThat(inventory.tryHold(List.of(20L), liveToken(1))).isFalse();
+        assertThat(inventory.countAvailable(now)).isEqualTo(SEAT_IDS.length - 2);
+    }
+
+    @Test
+    void changesSinceReportsChangedOrdinalsAcrossLogWrapAround() {
+        // Fill the log with older entries, then stop 50 changes short of its end, so the 100
+        // entries asked for straddle the slot where versions wrap back to index 0
+        toggleBlocks(1_024, 0);
+        while (((inventory.getVersion() + 50) & 1_023) != 0) {
+            toggleBlocks(1, 0);
+        }
+        long since = inventory.getVersion();
+        toggleBlocks(100, 2);
+
+        SeatChanges changes = inventory.changesSince(since);
+
+        assertThat(changes).isNotNull();
+        assertThat(changes.getVersion()).isEqualTo(inventory.getVersion());
+        assertThat(changes.getOrdinals()).containsExactly(2, 3, 4, 5);
+    }
+
+    @Test
+    void changesSinceRequiresFullSnapshotOnceLogIsOverwritten() {
+        long since = inventory.getVersion();
+        toggleBlocks(1_025, 0);
+
+        assertThat(inventory.changesSince(since)).isNull();
+        assertThat(inventory.changesSince(inventory.getVersion() - 1_024)).isNotNull();
+    }
+
+    @Test
+    void changesSinceRejectsVersionsFromOtherIncarnations() {
+        inventory.setBlocked(List.of(10L), true);
+
+        assertThat(inventory.changesSince(inventory.getVersion() + 1)).isNull();
+        assertThat(inventory.changesSince(0)).isNull();
+        assertThat(inventory.changesSince(inventory.getVersion()).getOrdinals()).isEmpty();
+    }
+
+    private long liveToken(int sequence) {
+        return HoldToken.of(now + 60_000, sequence);
+    }
+
+    private int ordinal(long seatId) {
+        return inventory.ordinalOf(seatId);
+    }
+
+    /**
+     * Blocks and unblocks seats in turn, cycling through four ordinals from the first one given;
+     * every call is exactly one change
+     */
+    private void toggleBlocks(int changes, int firstOrdinal) {
+        for (int i = 0; i < changes; i++) {
+            long seatId = SEAT_IDS[firstOrdinal + i % 4];
+            inventory.setBlocked(List.of(seatId), !inventory.isBlocked(inventory.ordinalOf(seatId)));
+        }
+    }
+}
@@ -0,0 +1,149 @@
+package com.bookmymovie.util;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Timing of a running wheel. Deadlines are real wall-clock times, so lateness is checked
+ * against one tick plus an allowance for the worker thread being scheduled late.
+ */
+class HashedTimingWheelTest {
+
+    private static final long TICK_MILLIS = 20;
+    private static final int WHEEL_SIZE = 4;
+    private static final long SCHEDULING_SLACK_MILLIS = 60;
+
+    private final BlockingQueue<Fired> fired = new LinkedBlockingQueue<>();
+    private HashedTimingWheel<String> wheel;
+
+    @AfterEach
+    void tearDown() {
+        if (wheel != null) {
+            wheel.stop();
+        }
+    }
+
+    @Test
+    void firesWithinOneTickOfTheDeadline() throws InterruptedException {
+        start(this::record);
+        long deadline = System.currentTimeMillis() + 100;
+
+        wheel.schedule("booking", deadline);
+
+        Fired first = next();
+        assertThat(first.item()).isEqualTo("booking");
+        assertThat(first.at()).isGreaterThanOrEqualTo(deadline);
+        assertThat(first.at() - deadline).isLessThan(TICK_MILLIS + SCHEDULING_SLACK_MILLIS);
+        assertThat(wheel.size()).isZero();
+    }
+
+    @Test
+    void deadlineInThePastFiresOnTheNextTick() throws InterruptedException {
+        start(this::record);
+        long scheduledAt = System.currentTimeMillis();
+
+        wheel.schedule("late", scheduledAt - 1_000);
+
+        assertThat(next().at() - scheduledAt).isLessThan(TICK_MILLIS + SCHEDULING_SLACK_MILLIS);
+    }
+
+    @Test
+    void deadlinesBeyondOneRevolutionWaitOutTheirRounds() throws InterruptedException {
+        start(this::record);
+        long turnMillis = TICK_MILLIS * WHEEL_SIZE;
+        long now = System.currentTimeMillis();
+        // Same bucket, three and five revolutions out
+        long nearer = now + turnMillis * 3 + TICK_MILLIS / 2;
+        long further = nearer + turnMillis * 2;
+
+        wheel.schedule("further", further);
+        wheel.schedule("nearer", nearer);
+
+        Fired first = next();
+        assertThat(first.item()).isEqualTo("nearer");
+        assertThat(first.at()).isGreaterThanOrEqualTo(nearer);
+        Fired second = next();
+        assertThat(second.item()).isEqualTo("further");
+        assertThat(second.at()).isGreaterThanOrEqualTo(further);
+        assertThat(second.at() - further).isLessThan(TICK_MILLIS + SCHEDULING_SLACK_MILLIS);
+    }
+
+    @Test
+    void cancelledItemNeverFires() throws InterruptedException {
+        start(this::record);
+        long now = System.currentTimeMillis();
+        HashedTimingWheel.Timeout<String> cancelled = wheel.schedule("cancelled", now + 60);
+        wheel.schedule("kept", now + 120);
+
+        assertThat(cancelled.cancel()).isTrue();
+        assertThat(wheel.size()).isEqualTo(1);
+
+        assertThat(next().item()).isEqualTo("kept");
+        assertThat(fired.poll(TICK_MILLIS * WHEEL_SIZE * 2, TimeUnit.MILLISECONDS)).isNull();
+        assertThat(cancelled.cancel()).isFalse();
+        assertThat(wheel.size()).isZero();
+    }
+
+    @Test
+    void cancelAfterFiringHasNoEffect() throws InterruptedException {
+        start(this::record);
+        HashedTimingWheel.Timeout<String> timeout = wheel.schedule("fired", System.currentTimeMillis());
+
+        next();
+
+        assertThat(timeout.cancel()).isFalse();
+        assertThat(timeout.isCancelled()).isFalse();
+        assertThat(wheel.size()).isZero();
+    }
+
+    @Test
+    void itemsScheduledFromTheExpiryHandlerFire() throws InterruptedException {
+        start(items -> {
+            record(items);
+            // A follow-up due one revolution out, and one already due, both from the worker thread
+            if (items.contains("first")) {
+                wheel.schedule("follow-up", System.currentTimeMillis() + TICK_MILLIS * WHEEL_SIZE);
+                wheel.schedule("immediate", System.currentTimeMillis() - 1);
+            }
+        });
+
+        wheel.schedule("first", System.currentTimeMillis() + 40);
+
+        Fired first = next();
+        Fired immediate = next();
+        Fired followUp = next();
+        assertThat(first.item()).isEqualTo("first");
+        assertThat(immediate.item()).isEqualTo("immediate");
+        assertThat(immediate.at() - first.at()).isLessThan(TICK_MILLIS + SCHEDULING_SLACK_MILLIS);
+        assertThat(followUp.item()).isEqualTo("follow-up");
+        assertThat(followUp.at() - first.at()).isGreaterThanOrEqualTo(TICK_MILLIS * WHEEL_SIZE);
+        assertThat(wheel.size()).isZero();
+    }
+
+    private void start(Consumer<List<String>> handler) {
+        wheel = new HashedTimingWheel<>("test-wheel", TICK_MILLIS, WHEEL_SIZE, handler);
+        wheel.start();
+    }
+
+    private void record(List<String> items) {
+        long now = System.currentTimeMillis();
+        items.forEach(item -> fired.add(new Fired(item, now)));
+    }
+
+    private Fired next() throws InterruptedException {
+        Fired next = fired.poll(2, TimeUnit.SECONDS);
+        assertThat(next).as("item fired").isNotNull();
+        return next;
+    }
+
+    private record Fired(String item, long at) {
+    }
+}
@@ -0,0 +1,118 @@
+package com.bookmymovie.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Overlap queries of the interval treap, checked against a linear scan
+ */
+class IntervalTreeTest {
+
+    // Deep enough that an unbalanced (list-shaped) treap overflows the stack on insert
+    private static final int SORTED_INSERTS = 200_000;
+
+    @Test
+    void endpointsAreInclusive() {
+        IntervalTree<String> tree = new IntervalTree<>();
+        tree.add(10, 20, "show");
+
+        assertThat(tree.findOverlapping(20, 30)).containsExactly("show");
+        assertThat(tree.findOverlapping(0, 10)).containsExactly("show");
+        assertThat(tree.findOverlapping(21, 30)).isEmpty();
+        assertThat(tree.findOverlapping(0, 9)).isEmpty();
+        assertThat(tree.overlapsAny(20, 20)).isTrue();
+        assertThat(tree.overlapsAny(21, 21)).isFalse();
+    }
+
+    @Test
+    void singlePointIntervalOverlapsOnlyThatPoint() {
+        IntervalTree<String> tree = new IntervalTree<>();
+        tree.add(5, 5, "point");
+
+        assertThat(tree.overlapsAny(5, 5)).isTrue();
+        assertThat(tree.overlapsAny(0, 5)).isTrue();
+        assertThat(tree.overlapsAny(6, 10)).isFalse();
+        assertThat(tree.overlapsAny(0, 4)).isFalse();
+    }
+
+    @Test
+    void rejectsIntervalEndingBeforeItStarts() {
+        IntervalTree<String> tree = new IntervalTree<>();
+
+        assertThatThrownBy(() -> tree.add(10, 9, "backwards")).isInstanceOf(IllegalArgumentException.class);
+        assertThat(tree.size()).isZero();
+    }
+
+    @Test
+    void staysBalancedUnderAscendingInserts() {
+        IntervalTree<Integer> tree = new IntervalTree<>();
+        for (int i = 0; i < SORTED_INSERTS; i++) {
+            tree.add(i * 10L, i * 10L + 4, i);
+        }
+
+        assertThat(tree.size()).isEqualTo(SORTED_INSERTS);
+        assertThat(tree.findOverlapping(1_004, 1_010)).containsExactly(100, 101);
+        assertThat(tree.overlapsAny(1_005, 1_009)).isFalse();
+        assertThat(tree.findOverlapping(SORTED_INSERTS * 10L - 6, Long.MAX_VALUE)).containsExactly(SORTED_INSERTS - 1);
+    }
+
+    @Test
+    void staysBalancedUnderDescendingInserts() {
+        IntervalTree<Integer> tree = new IntervalTree<>();
+        for (int i = SORTED_INSERTS - 1; i >= 0; i--) {
+            tree.add(i * 10L, i * 10L + 4, i);
+        }
+
+        assertThat(tree.findOverlapping(0, 14)).containsExactly(0, 1);
+        assertThat(tree.overlapsAny(-10, -1)).isFalse();
+    }
+
+    @Test
+    void overlapsAnyPrunesLeftSubtreeThatReachesPastTheQueryGap() {
+        IntervalTree<String> tree = new IntervalTree<>();
+        // A long interval on the left reaches past the query start, but only up to just before it;
+        // everything else starts after the query ends
+        tree.add(0, 99, "long");
+        tree.add(10, 20, "early");
+        tree.add(111, 120, "late");
+        tree.add(130, 140, "later");
+
+        assertThat(tree.overlapsAny(100, 110)).isFalse();
+        assertThat(tree.overlapsAny(99, 110)).isTrue();
+        assertThat(tree.overlapsAny(100, 111)).isTrue();
+    }
+
+    @Test
+    void queriesMatchLinearScanOnRandomIntervals() {
+        SplittableRandom random = new SplittableRandom(42);
+        IntervalTree<Integer> tree = new IntervalTree<>();
+        List<long[]> intervals = new ArrayList<>();
+        for (int i = 0; i < 2_000; i++) {
+            long start = random.nextLong(0, 100_000);
+            // Mostly short intervals with a few long ones, so maxEnd differs from end across subtrees
+            long length = random.nextInt(10) == 0 ? random.nextLong(0, 5_000) : random.nextLong(0, 50);
+            tree.add(start, start + length, i);
+            intervals.add(new long[]{start, start + length});
+        }
+
+        for (int q = 0; q < 5_000; q++) {
+            long start = random.nextLong(-100, 105_100);
+            long end = start + random.nextLong(0, 100);
+
+            List<Integer> expected = new ArrayList<>();
+            for (int i = 0; i < intervals.size(); i++) {
+                if (intervals.get(i)[0] <= end && intervals.get(i)[1] >= start) {
+                    expected.add(i);
+                }
+            }
+            assertThat(tree.findOverlapping(start, end)).containsExactlyInAnyOrderElementsOf(expected);
+            assertThat(tree.overlapsAny(start, end)).as("overlapsAny(%d, %d)", start, end).isEqualTo(!expected.isEmpty());
+        }
+    }
+}